@@ -0,0 +1,134 @@
+package com.nexcommerce.product.brand;
+
+import com.nexcommerce.product.dto.BrandDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 品牌快照（不可变）
+ * 按排序值、ID排好序的品牌数组（全部和激活的各一份），以及 ID -> 品牌、slug -> ID 两个散列表；
+ * 品牌变更时由 {@link BrandSnapshotCache} 复制出新快照（O(n)，不查询数据库）并整体替换。
+ * 快照中的DTO在多个线程间共享，读取方不得修改，需要填充额外字段时先复制。
+ */
+public final class BrandSnapshot {
+
+    private static final Comparator<BrandDto> ORDER = Comparator
+            .comparing(BrandDto::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BrandDto::getId);
+
+    private final List<BrandDto> brands;
+    private final List<BrandDto> activeBrands;
+    private final Map<Long, BrandDto> brandsById;
+    private final Map<String, Long> idsBySlug;
+
+    private BrandSnapshot(BrandDto[] brands) {
+        Arrays.sort(brands, ORDER);
+        Map<Long, BrandDto> byId = new HashMap<>(brands.length * 2);
+        Map<String, Long> bySlug = new HashMap<>(brands.length * 2);
+        List<BrandDto> active = new ArrayList<>();
+        for (BrandDto brand : brands) {
+            byId.put(brand.getId(), brand);
+            bySlug.put(brand.getSlug(), brand.getId());
+            if (Boolean.TRUE.equals(brand.getIsActive())) {
+                active.add(brand);
+            }
+        }
+        this.brands = Collections.unmodifiableList(Arrays.asList(brands));
+        this.activeBrands = Collections.unmodifiableList(Arrays.asList(active.toArray(new BrandDto[0])));
+        this.brandsById = byId;
+        this.idsBySlug = bySlug;
+    }
+
+    /**
+     * 构建快照
+     *
+     * @param brands 品牌DTO（归新快照所有，调用方不得再修改）
+     * @return 品牌快照
+     */
+    public static BrandSnapshot build(Collection<BrandDto> brands) {
+        return new BrandSnapshot(brands.toArray(new BrandDto[0]));
+    }
+
+    /**
+     * 应用品牌变更，返回新快照（当前快照不变）
+     *
+     * @param brand 新增或更新后的品牌（归新快照所有）
+     * @return 新快照
+     */
+    public BrandSnapshot withUpserted(BrandDto brand) {
+        List<BrandDto> copies = new ArrayList<>(brands.size() + 1);
+        for (BrandDto existing : brands) {
+            if (!existing.getId().equals(brand.getId())) {
+                copies.add(existing);
+            }
+        }
+        copies.add(brand);
+        return build(copies);
+    }
+
+    /**
+     * 移除品牌，返回新快照（当前快照不变）
+     *
+     * @param brandId 品牌ID
+     * @return 新快照
+     */
+    public BrandSnapshot withRemoved(Long brandId) {
+        List<BrandDto> copies = new ArrayList<>(brands.size());
+        for (BrandDto existing : brands) {
+            if (!existing.getId().equals(brandId)) {
+                copies.add(existing);
+            }
+        }
+        return build(copies);
+    }
+
+    /**
+     * 根据ID查找品牌
+     *
+     * @param brandId 品牌ID
+     * @return 品牌
+     */
+    public Optional<BrandDto> findById(Long brandId) {
+        return Optional.ofNullable(brandsById.get(brandId));
+    }
+
+    /**
+     * 根据slug查找品牌
+     *
+     * @param slug 品牌标识符
+     * @return 品牌
+     */
+    public Optional<BrandDto> findBySlug(String slug) {
+        Long brandId = idsBySlug.get(slug);
+        return brandId != null ? findById(brandId) : Optional.empty();
+    }
+
+    /**
+     * 所有品牌（按排序值、ID升序）
+     */
+    public List<BrandDto> getAll() {
+        return brands;
+    }
+
+    /**
+     * 激活的品牌（按排序值、ID升序）
+     */
+    public List<BrandDto> getActive() {
+        return activeBrands;
+    }
+
+    /**
+     * 品牌数量
+     */
+    public int size() {
+        return brands.size();
+    }
+}
@@ -0,0 +1,112 @@
+package com.nexcommerce.product.brand;
+
+import com.nexcommerce.product.dto.BrandDto;
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CatalogVersionChangedEvent;
+import com.nexcommerce.product.mapper.BrandMapper;
+import com.nexcommerce.product.repository.BrandRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 品牌快照缓存
+ * 启动时一次加载所有品牌构建快照，品牌写事务提交后基于当前快照复制出新快照并原子替换（写时复制）；
+ * 读取方拿到的快照在使用期间不会变化。构建和替换在同一把锁下串行执行。
+ * 补丁只来自本实例的变更事件；品牌版本变化（包括其他实例上的变更，由 {@link com.nexcommerce.product.cache.CatalogSync} 发现）时从数据库重新构建。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BrandSnapshotCache {
+
+    private final BrandRepository brandRepository;
+    private final BrandMapper brandMapper;
+
+    private final AtomicReference<BrandSnapshot> snapshot = new AtomicReference<>();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * 获取当前快照，尚未构建时先从数据库构建
+     *
+     * @return 品牌快照
+     */
+    public BrandSnapshot get() {
+        BrandSnapshot brands = snapshot.get();
+        return brands != null ? brands : rebuild();
+    }
+
+    /**
+     * 启动后构建快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 品牌版本变化后重新构建快照
+     *
+     * @param event 目录版本变化事件
+     */
+    @EventListener
+    public void onCatalogVersionChanged(CatalogVersionChangedEvent event) {
+        if (event.getCatalog() == CatalogVersionChangedEvent.Catalog.BRANDS) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 从数据库重新构建快照
+     *
+     * @return 新快照
+     */
+    public BrandSnapshot rebuild() {
+        synchronized (writeLock) {
+            long start = System.currentTimeMillis();
+            BrandSnapshot brands = BrandSnapshot.build(brandMapper.toDtoList(brandRepository.findAll()));
+            snapshot.set(brands);
+            log.info("品牌快照构建完成，品牌数: {}, 耗时: {}ms", brands.size(), System.currentTimeMillis() - start);
+            return brands;
+        }
+    }
+
+    /**
+     * 品牌变更后生成新快照
+     *
+     * @param event 品牌变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        synchronized (writeLock) {
+            BrandSnapshot brands = snapshot.get();
+            if (brands == null) {
+                // 尚未构建，首次构建会读到已提交的变更
+                return;
+            }
+            if (event.getType() == BrandChangedEvent.Type.DELETED) {
+                snapshot.set(brands.withRemoved(event.getBrandId()));
+            } else if (!isStale(brands, event)) {
+                // 事件中的DTO也返回给了写请求的调用方，快照保存一份副本
+                snapshot.set(brands.withUpserted(brandMapper.copy(event.getBrand())));
+            }
+        }
+    }
+
+    /**
+     * 并发更新同一品牌时事件可能乱序到达，丢弃比快照中更旧的版本
+     */
+    private static boolean isStale(BrandSnapshot brands, BrandChangedEvent event) {
+        return brands.findById(event.getBrandId())
+                .map(BrandDto::getUpdatedAt)
+                .filter(current -> event.getBrand().getUpdatedAt() != null
+                        && current.isAfter(event.getBrand().getUpdatedAt()))
+                .isPresent();
+    }
+}
@@ -0,0 +1,23 @@
+package com.nexcommerce.product.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记响应内容只取决于目录版本的GET接口
+ * 由 {@link CatalogETagInterceptor} 在处理器执行前按 {@link CatalogVersions} 生成ETag，
+ * If-None-Match 匹配时直接返回304，不执行查询、映射和序列化
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CatalogETag {
+
+    /**
+     * 响应内容依赖的目录数据
+     */
+    CatalogVersions.Scope value();
+}
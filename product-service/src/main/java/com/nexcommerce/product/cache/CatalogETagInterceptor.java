@@ -0,0 +1,39 @@
+package com.nexcommerce.product.cache;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 目录ETag拦截器
+ * 对标注了 {@link CatalogETag} 的GET接口，在处理器执行前生成ETag并处理 If-None-Match：
+ * 匹配时返回304并跳过处理器；不匹配时写入ETag响应头后继续处理。
+ * ETag在读取数据之前生成，处理期间发生的变更最多使客户端多一次重新验证，不会缓存过期内容。
+ * ETag由本实例的版本计数生成（见 {@link CatalogVersions}），不访问外部存储。
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogETagInterceptor implements HandlerInterceptor {
+
+    private final CatalogVersions catalogVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        CatalogETag annotation = handlerMethod.getMethodAnnotation(CatalogETag.class);
+        if (annotation == null) {
+            return true;
+        }
+        String etag = catalogVersions.etag(annotation.value());
+        // checkNotModified 在两种情况下都会写入ETag响应头，匹配时设置304
+        return !new ServletWebRequest(request, response).checkNotModified(etag);
+    }
+}
@@ -0,0 +1,208 @@
+package com.nexcommerce.product.cache;
+
+import com.nexcommerce.product.event.AttributeDefinitionChangedEvent;
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CatalogVersionChangedEvent;
+import com.nexcommerce.product.event.CatalogVersionChangedEvent.Catalog;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.event.ProductChangesSequencedEvent;
+import com.nexcommerce.product.model.ProductChange;
+import com.nexcommerce.product.repository.ProductChangeRepository;
+import com.nexcommerce.product.util.TransactionUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * 目录变更跨实例同步
+ * 进程内的缓存和快照随本实例的变更事件更新，其他实例上的变更通过所有实例共享的数据库发现：
+ * 产品变更从变更流按序号读取，淘汰本地产品缓存中的对应条目；类别、品牌和属性定义各有一个版本号
+ * （catalog_versions），在其写事务中递增，版本变化时发布 {@link CatalogVersionChangedEvent}。
+ * 已应用的序号和版本在淘汰和事件处理完成后才推进，随后递增本实例的目录版本（{@link CatalogVersions}）。
+ * 本实例的写入提交后立即同步一轮，另有定时轮询兜底。
+ */
+@Component
+@Slf4j
+public class CatalogSync {
+
+    private static final String INIT_VERSION_SQL = "INSERT IGNORE INTO catalog_versions (name, version) VALUES (?, 0)";
+    private static final String INCREMENT_VERSION_SQL = "UPDATE catalog_versions SET version = version + 1 WHERE name = ?";
+    private static final String SELECT_VERSIONS_SQL = "SELECT name, version FROM catalog_versions";
+    private static final String LATEST_SEQ_SQL = "SELECT COALESCE(MAX(seq), 0) FROM product_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductChangeRepository changeRepository;
+    private final ProductCache productCache;
+    private final CatalogVersions catalogVersions;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final Map<Catalog, Long> appliedVersions = new ConcurrentHashMap<>();
+    private volatile long appliedSeq;
+    private volatile boolean started;
+
+    public CatalogSync(JdbcTemplate jdbcTemplate,
+                       ProductChangeRepository changeRepository,
+                       ProductCache productCache,
+                       CatalogVersions catalogVersions,
+                       ApplicationEventPublisher eventPublisher,
+                       @Value("${product.catalog.sync-batch-size:1000}") int batchSize,
+                       @Value("${product.catalog.sync-interval-ms:1000}") long intervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.changeRepository = changeRepository;
+        this.productCache = productCache;
+        this.catalogVersions = catalogVersions;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.intervalMillis = intervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后（表结构已由Hibernate创建）记录当前的序号和版本作为起点并开始轮询
+     * 先于其他启动监听器执行，它们随后加载的数据不会比起点旧
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void start() {
+        for (Catalog catalog : Catalog.values()) {
+            jdbcTemplate.update(INIT_VERSION_SQL, catalog.getKey());
+        }
+        Long latestSeq = jdbcTemplate.queryForObject(LATEST_SEQ_SQL, Long.class);
+        appliedSeq = latestSeq != null ? latestSeq : 0;
+        appliedVersions.putAll(readVersions());
+        started = true;
+        executor.scheduleWithFixedDelay(this::run, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        increment(Catalog.CATEGORIES);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        increment(Catalog.BRANDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onAttributeDefinitionChanged(AttributeDefinitionChangedEvent event) {
+        increment(Catalog.ATTRIBUTE_DEFINITIONS);
+    }
+
+    /**
+     * 本实例的产品变更定序后立即同步
+     *
+     * @param event 定序完成事件
+     */
+    @EventListener
+    public void onChangesSequenced(ProductChangesSequencedEvent event) {
+        wakeUp();
+    }
+
+    /**
+     * 请求尽快同步一轮；已有待执行的唤醒时合并
+     */
+    public void wakeUp() {
+        if (started && wakeUpPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                run();
+            });
+        }
+    }
+
+    /**
+     * 在写事务中递增版本，与变更一起提交；提交后唤醒同步
+     */
+    private void increment(Catalog catalog) {
+        jdbcTemplate.update(INCREMENT_VERSION_SQL, catalog.getKey());
+        TransactionUtils.afterCommit(this::wakeUp);
+    }
+
+    private void run() {
+        try {
+            syncProducts();
+            syncVersions();
+        } catch (RuntimeException e) {
+            log.error("同步目录变更失败", e);
+        }
+    }
+
+    private void syncProducts() {
+        List<ProductChange> changes;
+        do {
+            changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(appliedSeq, PageRequest.of(0, batchSize));
+            if (changes.isEmpty()) {
+                return;
+            }
+            if (changes.get(0).getSeq() != appliedSeq + 1) {
+                // 落后超过变更流的保留期，无法确定其间变更过的产品
+                log.warn("目录同步落后于变更流保留范围，清空本地产品缓存，已应用序号: {}, 最早序号: {}",
+                        appliedSeq, changes.get(0).getSeq());
+                productCache.evictAllLocal();
+            } else {
+                productCache.evictLocal(
+                        changes.stream().map(ProductChange::getProductId).collect(Collectors.toSet()),
+                        changes.stream().map(ProductChange::getSku).filter(Objects::nonNull).collect(Collectors.toSet()));
+            }
+            appliedSeq = changes.get(changes.size() - 1).getSeq();
+            catalogVersions.onRemoteProductsApplied();
+        } while (changes.size() == batchSize);
+    }
+
+    private void syncVersions() {
+        readVersions().forEach((catalog, version) -> {
+            if (version != appliedVersions.getOrDefault(catalog, 0L).longValue()) {
+                eventPublisher.publishEvent(new CatalogVersionChangedEvent(catalog, version));
+                appliedVersions.put(catalog, version);
+                catalogVersions.onCatalogVersionApplied(catalog);
+                log.debug("目录版本已同步，{}: {}", catalog, version);
+            }
+        });
+    }
+
+    private Map<Catalog, Long> readVersions() {
+        Map<Catalog, Long> versions = new EnumMap<>(Catalog.class);
+        jdbcTemplate.query(SELECT_VERSIONS_SQL, resultSet -> {
+            for (Catalog catalog : Catalog.values()) {
+                if (catalog.getKey().equals(resultSet.getString("name"))) {
+                    versions.put(catalog, resultSet.getLong("version"));
+                }
+            }
+        });
+        return versions;
+    }
+}
@@ -0,0 +1,124 @@
+package com.nexcommerce.product.cache;
+
+import com.nexcommerce.product.event.AttributeDefinitionChangedEvent;
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CatalogVersionChangedEvent;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.event.ProductImagesChangedEvent;
+import com.nexcommerce.product.inventory.LowStockIndex;
+import com.nexcommerce.product.util.ETags;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 目录版本计数器
+ * 产品、类别和品牌各有一个计数器，本实例返回的数据可能变化时递增，用于生成列表类接口的ETag：
+ * 本实例的变更在事务完成阶段（所有提交后监听器，包括内存索引的更新，都已执行之后）递增，
+ * 其他实例上的变更在 {@link CatalogSync} 淘汰本地缓存或发布版本变化事件之后递增。
+ * 响应来自各实例自己的缓存、快照和内存索引，各实例看到同一变更的时间不同，内存索引的对账修正也各自进行，
+ * 因此计数器是实例级的，ETag中带有进程启动时生成的实例标识以及产品计数和低库存索引的版本：
+ * 一个ETag只对应一个实例在同一组版本下返回的数据，其他实例不会对它返回304，
+ * 过期的响应不会在数据更新后被固定在新的ETag下。计数器在内存中，生成ETag不访问外部存储。
+ * 类别和品牌响应中带有产品数，其ETag同时包含产品版本。
+ */
+@Component
+public class CatalogVersions {
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong products = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private final AtomicLong brands = new AtomicLong();
+
+    private final ProductCounts productCounts;
+    private final LowStockIndex lowStockIndex;
+
+    public CatalogVersions(ProductCounts productCounts, LowStockIndex lowStockIndex) {
+        this.productCounts = productCounts;
+        this.lowStockIndex = lowStockIndex;
+    }
+
+    /**
+     * 生成指定范围的ETag
+     *
+     * @param scope 响应内容依赖的目录数据
+     * @return 强ETag
+     */
+    public String etag(Scope scope) {
+        switch (scope) {
+            case PRODUCTS:
+                // 产品响应中包含类别和品牌名称
+                return ETags.strong(scope, instanceId, products.get(), categories.get(), brands.get(),
+                        lowStockIndex.version());
+            case CATEGORIES:
+                return ETags.strong(scope, instanceId, categories.get(), products.get(), productCounts.version());
+            case BRANDS:
+                return ETags.strong(scope, instanceId, brands.get(), products.get(), productCounts.version());
+            default:
+                throw new IllegalArgumentException("未知的目录范围: " + scope);
+        }
+    }
+
+    /**
+     * 其他实例上的产品变更已应用到本地缓存
+     */
+    public void onRemoteProductsApplied() {
+        products.incrementAndGet();
+    }
+
+    /**
+     * 目录版本变化已应用（版本变化事件的监听器都已执行）
+     *
+     * @param catalog 目录数据
+     */
+    public void onCatalogVersionApplied(CatalogVersionChangedEvent.Catalog catalog) {
+        switch (catalog) {
+            case CATEGORIES -> categories.incrementAndGet();
+            case BRANDS -> brands.incrementAndGet();
+            case ATTRIBUTE_DEFINITIONS -> products.incrementAndGet();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProductAttributesChanged(ProductAttributesChangedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onAttributeDefinitionChanged(AttributeDefinitionChangedEvent event) {
+        products.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        categories.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        brands.incrementAndGet();
+    }
+
+    /**
+     * 目录数据范围
+     */
+    public enum Scope {
+        PRODUCTS, CATEGORIES, BRANDS
+    }
+}
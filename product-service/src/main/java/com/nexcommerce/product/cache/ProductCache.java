@@ -0,0 +1,436 @@
+package com.nexcommerce.product.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CatalogVersionChangedEvent;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.util.TransactionUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 产品两级缓存
+ * L1为进程内Caffeine缓存（按容量和TTL淘汰），L2为可选的Redis缓存。
+ * 按ID缓存产品DTO，按SKU只缓存SKU到ID的映射，保证一个产品只有一份数据。
+ * 返回的DTO为共享实例，调用方不得修改。
+ * 产品DTO中带有类别和品牌名称，类别或品牌变更时淘汰其下所有产品的条目。
+ * 本地缓存只随本实例的变更淘汰，其他实例上的变更由 {@link CatalogSync} 从共享数据库发现后淘汰。
+ */
+@Component
+@Slf4j
+public class ProductCache {
+
+    private static final String REDIS_ID_KEY_PREFIX = "product:id:";
+    private static final String REDIS_SKU_KEY_PREFIX = "product:sku:";
+
+    /**
+     * 批量淘汰时每条Redis DEL命令的键数
+     */
+    private static final int REDIS_DELETE_BATCH_SIZE = 1000;
+
+    private final Cache<Long, ProductDto> byId;
+    private final Cache<String, Long> skuToId;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final Duration ttl;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public ProductCache(@Value("${product.cache.ttl:3600}") long ttlSeconds,
+                        @Value("${product.cache.max-size:10000}") long maxSize,
+                        @Value("${product.cache.redis.enabled:false}") boolean redisEnabled,
+                        ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                        ObjectMapper objectMapper,
+                        ProductRepository productRepository,
+                        MeterRegistry meterRegistry) {
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.skuToId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.redisTemplate = redisEnabled ? redisTemplateProvider.getIfAvailable() : null;
+        this.objectMapper = objectMapper;
+        this.productRepository = productRepository;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "product.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, skuToId, "product.bySku");
+        this.redisHits = Counter.builder("product.cache.redis.gets")
+                .tag("result", "hit")
+                .description("Redis二级缓存命中次数")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("product.cache.redis.gets")
+                .tag("result", "miss")
+                .description("Redis二级缓存未命中次数")
+                .register(meterRegistry);
+
+        log.info("产品缓存已初始化，TTL: {}秒, 最大容量: {}, Redis二级缓存: {}", ttlSeconds, maxSize, this.redisTemplate != null);
+    }
+
+    /**
+     * 按ID读取产品，未命中时依次查询Redis和加载器
+     *
+     * @param id 产品ID
+     * @param loader 数据库加载器
+     * @return 产品DTO
+     */
+    public ProductDto getById(Long id, Function<Long, ProductDto> loader) {
+        return byId.get(id, key -> {
+            ProductDto product = readRedis(key);
+            if (product == null) {
+                product = loader.apply(key);
+                writeRedis(product);
+            }
+            if (product.getSku() != null) {
+                skuToId.put(product.getSku(), key);
+            }
+            return product;
+        });
+    }
+
+    /**
+     * 按SKU读取产品，未命中时依次查询Redis和加载器
+     *
+     * @param sku 产品SKU
+     * @param loader 数据库加载器
+     * @return 产品DTO
+     */
+    public ProductDto getBySku(String sku, Supplier<ProductDto> loader) {
+        Long id = skuToId.getIfPresent(sku);
+        if (id == null) {
+            id = readRedisSku(sku);
+        }
+        if (id != null) {
+            ProductDto cached = byId.getIfPresent(id);
+            if (cached == null) {
+                cached = readRedis(id);
+                if (cached != null) {
+                    byId.put(id, cached);
+                }
+            }
+            if (cached != null && sku.equals(cached.getSku())) {
+                skuToId.put(sku, id);
+                return cached;
+            }
+        }
+
+        ProductDto product = loader.get();
+        put(product);
+        return product;
+    }
+
+    /**
+     * 批量读取已缓存的产品（先查本地缓存，未命中的ID用一次Redis MGET查询），不加载数据库
+     *
+     * @param ids 产品ID集合
+     * @return 命中的产品（ID -> 产品DTO）
+     */
+    public Map<Long, ProductDto> getAllPresentById(Collection<Long> ids) {
+        Map<Long, ProductDto> found = new HashMap<>(byId.getAllPresent(ids));
+        if (redisTemplate == null || found.size() == ids.size()) {
+            return found;
+        }
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).distinct().collect(Collectors.toList());
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(
+                    missing.stream().map(id -> REDIS_ID_KEY_PREFIX + id).collect(Collectors.toList()));
+            for (int i = 0; values != null && i < missing.size(); i++) {
+                String json = values.get(i);
+                if (json == null) {
+                    redisMisses.increment();
+                    continue;
+                }
+                redisHits.increment();
+                ProductDto product = objectMapper.readValue(json, ProductDto.class);
+                byId.put(product.getId(), product);
+                found.put(product.getId(), product);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("批量读取Redis产品缓存失败，数量: {}", missing.size(), e);
+        }
+        return found;
+    }
+
+    /**
+     * 批量读取已缓存的SKU到ID映射（先查本地缓存，未命中的SKU用一次Redis MGET查询）
+     *
+     * @param skus SKU集合
+     * @return 命中的映射（SKU -> 产品ID）
+     */
+    public Map<String, Long> getIdsPresentBySku(Collection<String> skus) {
+        Map<String, Long> found = new HashMap<>(skuToId.getAllPresent(skus));
+        if (redisTemplate == null || found.size() == skus.size()) {
+            return found;
+        }
+        List<String> missing = skus.stream().filter(sku -> !found.containsKey(sku)).distinct().collect(Collectors.toList());
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(
+                    missing.stream().map(sku -> REDIS_SKU_KEY_PREFIX + sku).collect(Collectors.toList()));
+            for (int i = 0; values != null && i < missing.size(); i++) {
+                if (values.get(i) != null) {
+                    found.put(missing.get(i), Long.valueOf(values.get(i)));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("批量读取Redis产品SKU缓存失败，数量: {}", missing.size(), e);
+        }
+        return found;
+    }
+
+    /**
+     * 批量写入缓存，Redis写入通过管道一次发送
+     *
+     * @param products 产品DTO列表
+     */
+    public void putAll(Collection<ProductDto> products) {
+        for (ProductDto product : products) {
+            byId.put(product.getId(), product);
+            if (product.getSku() != null) {
+                skuToId.put(product.getSku(), product.getId());
+            }
+        }
+        if (redisTemplate == null || products.isEmpty()) {
+            return;
+        }
+        try {
+            Map<String, String> values = new HashMap<>();
+            for (ProductDto product : products) {
+                values.put(REDIS_ID_KEY_PREFIX + product.getId(), objectMapper.writeValueAsString(product));
+                if (product.getSku() != null) {
+                    values.put(REDIS_SKU_KEY_PREFIX + product.getSku(), product.getId().toString());
+                }
+            }
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public Object execute(RedisOperations operations) {
+                    values.forEach((key, value) -> operations.opsForValue().set(key, value, ttl));
+                    return null;
+                }
+            });
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("批量写入Redis产品缓存失败，数量: {}", products.size(), e);
+        }
+    }
+
+    /**
+     * 写入缓存
+     *
+     * @param product 产品DTO
+     */
+    public void put(ProductDto product) {
+        if (product == null || product.getId() == null) {
+            return;
+        }
+        byId.put(product.getId(), product);
+        if (product.getSku() != null) {
+            skuToId.put(product.getSku(), product.getId());
+        }
+        writeRedis(product);
+    }
+
+    /**
+     * 精确淘汰产品的缓存条目
+     * 立即淘汰一次，并在事务结束后再淘汰一次，避免并发读取在提交前把旧数据重新写回缓存
+     *
+     * @param id 产品ID
+     * @param skus 与该产品相关的SKU（更新前后的SKU）
+     */
+    public void evict(Long id, String... skus) {
+        doEvict(id, skus);
+        TransactionUtils.afterCompletion(() -> doEvict(id, skus));
+    }
+
+    /**
+     * 淘汰一批产品的缓存条目（SKU到ID的映射不变）
+     * 与 {@link #evict(Long, String...)} 相同，立即淘汰一次并在事务结束后再淘汰一次
+     *
+     * @param ids 产品ID集合
+     */
+    public void evictAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        doEvictAllById(ids);
+        TransactionUtils.afterCompletion(() -> doEvictAllById(ids));
+    }
+
+    /**
+     * 类别变更后淘汰其下产品的缓存（产品DTO中带有类别名称）
+     * 在提交前查询产品ID，读到的是本事务中的数据
+     *
+     * @param event 类别变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getType() != CategoryChangedEvent.Type.CREATED) {
+            evictAllById(productRepository.findIdsByCategoryId(event.getCategoryId()));
+        }
+    }
+
+    /**
+     * 品牌变更后淘汰其下产品的缓存（产品DTO中带有品牌名称）
+     *
+     * @param event 品牌变更事件
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        if (event.getType() != BrandChangedEvent.Type.CREATED) {
+            evictAllById(productRepository.findIdsByBrandId(event.getBrandId()));
+        }
+    }
+
+    /**
+     * 只淘汰本地缓存中的条目（变更所在的实例已淘汰Redis缓存）
+     *
+     * @param ids 产品ID集合
+     * @param skus SKU集合
+     */
+    public void evictLocal(Collection<Long> ids, Collection<String> skus) {
+        byId.invalidateAll(ids);
+        skuToId.invalidateAll(skus);
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void evictAllLocal() {
+        byId.invalidateAll();
+        skuToId.invalidateAll();
+    }
+
+    /**
+     * 类别或品牌版本变化（包括其他实例上的变更）后清空本地缓存
+     * 其他实例上的变更无法知道涉及哪些产品；类别和品牌变更很少，整体清空的代价可以接受
+     *
+     * @param event 目录版本变化事件
+     */
+    @EventListener
+    public void onCatalogVersionChanged(CatalogVersionChangedEvent event) {
+        if (event.getCatalog() != CatalogVersionChangedEvent.Catalog.ATTRIBUTE_DEFINITIONS) {
+            evictAllLocal();
+        }
+    }
+
+    private void doEvictAllById(Collection<Long> ids) {
+        byId.invalidateAll(ids);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            List<String> keys = new ArrayList<>(Math.min(ids.size(), REDIS_DELETE_BATCH_SIZE));
+            for (Long id : ids) {
+                keys.add(REDIS_ID_KEY_PREFIX + id);
+                if (keys.size() == REDIS_DELETE_BATCH_SIZE) {
+                    redisTemplate.delete(keys);
+                    keys.clear();
+                }
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (RuntimeException e) {
+            log.warn("批量淘汰Redis产品缓存失败，数量: {}", ids.size(), e);
+        }
+    }
+
+    private void doEvict(Long id, String... skus) {
+        byId.invalidate(id);
+        String[] validSkus = Arrays.stream(skus).filter(Objects::nonNull).toArray(String[]::new);
+        for (String sku : validSkus) {
+            skuToId.invalidate(sku);
+        }
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(REDIS_ID_KEY_PREFIX + id);
+            for (String sku : validSkus) {
+                redisTemplate.delete(REDIS_SKU_KEY_PREFIX + sku);
+            }
+        } catch (RuntimeException e) {
+            log.warn("淘汰Redis产品缓存失败，ID: {}", id, e);
+        }
+    }
+
+    private ProductDto readRedis(Long id) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(REDIS_ID_KEY_PREFIX + id);
+            if (json == null) {
+                redisMisses.increment();
+                return null;
+            }
+            redisHits.increment();
+            return objectMapper.readValue(json, ProductDto.class);
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("读取Redis产品缓存失败，ID: {}", id, e);
+            return null;
+        }
+    }
+
+    private Long readRedisSku(String sku) {
+        if (redisTemplate == null) {
+            return null;
+        }
+        try {
+            String id = redisTemplate.opsForValue().get(REDIS_SKU_KEY_PREFIX + sku);
+            return id != null ? Long.valueOf(id) : null;
+        } catch (RuntimeException e) {
+            log.warn("读取Redis产品SKU缓存失败，SKU: {}", sku, e);
+            return null;
+        }
+    }
+
+    private void writeRedis(ProductDto product) {
+        if (redisTemplate == null || product == null || product.getId() == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(REDIS_ID_KEY_PREFIX + product.getId(),
+                    objectMapper.writeValueAsString(product), ttl);
+            if (product.getSku() != null) {
+                redisTemplate.opsForValue().set(REDIS_SKU_KEY_PREFIX + product.getSku(),
+                        product.getId().toString(), ttl);
+            }
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.warn("写入Redis产品缓存失败，ID: {}", product.getId(), e);
+        }
+    }
+}
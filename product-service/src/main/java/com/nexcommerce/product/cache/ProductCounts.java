@@ -0,0 +1,284 @@
+package com.nexcommerce.product.cache;
+
+import com.nexcommerce.product.category.CategoryNode;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.search.ProductFacets;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * 类别和品牌下的在售（ACTIVE）产品数
+ * 每个类别、品牌一个分段计数器（LongAdder），并发的产品变更只在各自的分段上累加，互不阻塞。
+ * 计数随产品变更事件（创建、更新、删除、库存导致的状态变化）在事务提交后增量维护：
+ * 按产品记录其当前计入的类别和品牌，替换时先减旧值再加新值，同一产品的并发更新也不会重复计数。
+ * 事件按提交后分发的顺序应用，与提交顺序可能不一致，因此定期从数据库全量对账并替换；
+ * 对账期间的增量更新在对账完成后重放。子树计数在读取时按类别树快照汇总直接计数。
+ */
+@Component
+@Slf4j
+public class ProductCounts {
+
+    private final ProductRepository productRepository;
+
+    /**
+     * 增量更新持有读锁（相互并发），对账替换数据时持有写锁
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Counters data = new Counters();
+
+    /**
+     * 对账期间发生的增量更新，对账完成后重放
+     */
+    private Queue<Update> pendingDuringRebuild;
+
+    /**
+     * 计数变化时递增，用于类别和品牌预序列化JSON的缓存版本
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile boolean ready;
+
+    public ProductCounts(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * 计数是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 计数版本，任何类别或品牌的计数变化时递增
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 直接属于类别的在售产品数
+     *
+     * @param categoryId 类别ID
+     * @return 产品数
+     */
+    public long countByCategory(Long categoryId) {
+        return sum(data.byCategory, categoryId);
+    }
+
+    /**
+     * 类别及其所有后代类别下的在售产品数
+     *
+     * @param node 类别树节点
+     * @return 产品数
+     */
+    public long countBySubtree(CategoryNode node) {
+        Counters counters = data;
+        long total = 0;
+        Deque<CategoryNode> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty()) {
+            CategoryNode current = stack.pop();
+            total += sum(counters.byCategory, current.getId());
+            current.getChildren().forEach(stack::push);
+        }
+        return total;
+    }
+
+    /**
+     * 品牌下的在售产品数
+     *
+     * @param brandId 品牌ID
+     * @return 产品数
+     */
+    public long countByBrand(Long brandId) {
+        return sum(data.byBrand, brandId);
+    }
+
+    /**
+     * 产品变更后更新计数，非在售或删除的产品不再计入
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDto product = event.getProduct();
+        Placement placement = event.getType() != ProductChangedEvent.Type.DELETED
+                && product.getStatus() == Product.ProductStatus.ACTIVE
+                ? new Placement(product.getCategoryId(), product.getBrandId()) : null;
+        Update update = new Update(event.getProductId(), placement);
+
+        boolean changed;
+        lock.readLock().lock();
+        try {
+            changed = data.apply(update);
+            Queue<Update> pending = pendingDuringRebuild;
+            if (pending != null) {
+                pending.add(update);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (changed) {
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * 启动后及定期从数据库全量对账，流式扫描产品表重建计数后替换
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.counts.reconcile-interval-ms:600000}",
+            initialDelayString = "${product.counts.reconcile-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ConcurrentLinkedQueue<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Counters rebuilt = new Counters();
+        try (Stream<ProductFacets> products = productRepository.streamFacetDocuments()) {
+            products.filter(product -> product.getStatus() == Product.ProductStatus.ACTIVE)
+                    .forEach(product -> rebuilt.apply(new Update(product.getId(),
+                            new Placement(product.getCategoryId(), product.getBrandId()))));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("产品计数对账失败，继续使用增量维护的计数", e);
+            return;
+        }
+
+        Counters previous;
+        boolean wasReady;
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(rebuilt::apply);
+            pendingDuringRebuild = null;
+            previous = data;
+            data = rebuilt;
+            wasReady = ready;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // 首次构建前计数显示为空，构建完成即视为变化
+        int corrected = rebuilt.differences(previous);
+        if (corrected > 0 || !wasReady) {
+            version.incrementAndGet();
+        }
+        log.info("产品计数对账完成，在售产品数: {}, 修正的类别/品牌数: {}, 耗时: {}ms",
+                rebuilt.placements.size(), corrected, System.currentTimeMillis() - start);
+    }
+
+    private static long sum(Map<Long, LongAdder> counters, Long key) {
+        if (key == null) {
+            return 0;
+        }
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * 计数数据：按产品记录计入的类别和品牌，按类别、品牌分段计数
+     */
+    private static class Counters {
+
+        private final Map<Long, Placement> placements = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byCategory = new ConcurrentHashMap<>();
+        private final Map<Long, LongAdder> byBrand = new ConcurrentHashMap<>();
+
+        /**
+         * 应用一次产品变更
+         * 替换返回的是实际被替换的旧值，并发替换同一产品时每个旧值恰好被减一次，计数最终与记录一致
+         *
+         * @return 计数是否变化
+         */
+        boolean apply(Update update) {
+            Placement previous = update.placement != null
+                    ? placements.put(update.productId, update.placement)
+                    : placements.remove(update.productId);
+            if (Objects.equals(previous, update.placement)) {
+                return false;
+            }
+            if (previous != null) {
+                add(byCategory, previous.categoryId, -1);
+                add(byBrand, previous.brandId, -1);
+            }
+            if (update.placement != null) {
+                add(byCategory, update.placement.categoryId, 1);
+                add(byBrand, update.placement.brandId, 1);
+            }
+            return true;
+        }
+
+        /**
+         * 统计与另一份数据计数不同的类别和品牌数
+         */
+        int differences(Counters other) {
+            return differences(byCategory, other.byCategory) + differences(byBrand, other.byBrand);
+        }
+
+        private static int differences(Map<Long, LongAdder> counters, Map<Long, LongAdder> other) {
+            Set<Long> keys = new HashSet<>(counters.keySet());
+            keys.addAll(other.keySet());
+            int differences = 0;
+            for (Long key : keys) {
+                if (sum(counters, key) != sum(other, key)) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+
+        private static void add(Map<Long, LongAdder> counters, Long key, int delta) {
+            if (key != null) {
+                counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+            }
+        }
+    }
+
+    /**
+     * 在售产品计入的类别和品牌
+     */
+    private record Placement(Long categoryId, Long brandId) {
+    }
+
+    /**
+     * 一次产品变更，placement 为 null 表示不再计入
+     */
+    private record Update(Long productId, Placement placement) {
+    }
+}
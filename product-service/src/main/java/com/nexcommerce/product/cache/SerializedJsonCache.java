@@ -0,0 +1,60 @@
+package com.nexcommerce.product.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 预序列化JSON缓存
+ * 很少变化的只读数据序列化一次后以UTF-8字节保存，作为原始值嵌入响应（如 ApiResponse 的 data），
+ * 写出响应时直接复制字节，不再逐个对象序列化。
+ * 条目按版本失效：调用方传入的版本与缓存的不同时重新序列化。版本须在读取数据之前取得，
+ * 这样缓存的内容至少与版本一样新；并发序列化时后写入的旧版本条目只会导致下一次重新序列化。
+ */
+@Component
+@RequiredArgsConstructor
+public class SerializedJsonCache {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 获取预序列化的JSON
+     *
+     * @param name 缓存名称
+     * @param version 数据版本（按 equals 比较）
+     * @param value 版本变化时提供数据
+     * @return 可直接写出的原始JSON值
+     */
+    public RawValue get(String name, Object version, Supplier<?> value) {
+        Entry entry = entries.get(name);
+        if (entry != null && entry.version.equals(version)) {
+            return entry.json;
+        }
+        RawValue json = serialize(name, value.get());
+        entries.put(name, new Entry(version, json));
+        return json;
+    }
+
+    private RawValue serialize(String name, Object value) {
+        try {
+            SerializedString json = new SerializedString(objectMapper.writeValueAsString(value));
+            // 预先编码并缓存UTF-8字节，写出时直接复制
+            json.asUnquotedUTF8();
+            return new RawValue(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("预序列化JSON失败: " + name, e);
+        }
+    }
+
+    private record Entry(Object version, RawValue json) {
+    }
+}
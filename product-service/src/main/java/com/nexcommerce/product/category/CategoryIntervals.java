@@ -0,0 +1,117 @@
+package com.nexcommerce.product.category;
+
+import com.nexcommerce.product.repository.CategoryRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类别先序区间编号（嵌套集合）
+ * 按先序遍历给每个类别分配区间 [lft, rgt]，后代的区间严格落在祖先的区间之内，
+ * "类别X下的所有产品"因此可以写成 categories.lft BETWEEN X.lft AND X.rgt 这一个索引范围条件。
+ * 同级类别按ID排序：新建的类别总是排在同级末尾，只有它之后的区间需要右移。
+ * 编号列只由这里的JDBC语句维护（实体上映射为只读），只回写区间变化了的行，不影响类别的 updated_at。
+ * 删除叶子类别留下的空洞不影响区间的包含关系，不需要重新编号。
+ * 结构变更先锁定类别树锁行（{@link #lockTree()}），再锁定涉及的类别行，所有结构变更按同一顺序加锁；
+ * 编号时以共享锁读取类别行，不阻塞产品写入对类别外键的检查。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryIntervals {
+
+    private static final String INIT_TREE_LOCK_SQL = "INSERT IGNORE INTO category_tree_lock (id, version) VALUES (1, 0)";
+
+    private static final String LOCK_TREE_SQL = "SELECT version FROM category_tree_lock WHERE id = 1 FOR UPDATE";
+
+    private static final String BUMP_TREE_VERSION_SQL = "UPDATE category_tree_lock SET version = version + 1 WHERE id = 1";
+
+    // 共享锁读取读到最新提交的数据，不受事务快照影响
+    private static final String SELECT_FOR_SHARE_SQL = "SELECT id, parent_id, lft, rgt FROM categories FOR SHARE";
+
+    private static final String UPDATE_INTERVAL_SQL = "UPDATE categories SET lft = ?, rgt = ? WHERE id = ?";
+
+    private final CategoryRepository categoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 初始化类别树锁行（表结构已由Hibernate创建）
+     */
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.update(INIT_TREE_LOCK_SQL);
+    }
+
+    /**
+     * 锁定类别树，锁持有到事务结束
+     * 结构变更必须在锁定任何类别行之前调用，并发的结构变更因此按同一顺序串行化，不会相互死锁
+     */
+    public void lockTree() {
+        jdbcTemplate.queryForObject(LOCK_TREE_SQL, Long.class);
+    }
+
+    /**
+     * 重新计算所有类别的区间编号
+     * 必须在调用方的事务中、{@link #lockTree()} 之后执行：先刷新待写入的类别变更，再以共享锁读取全部类别，
+     * 持有类别树锁保证不会基于过期的树结构编号
+     *
+     * @return 区间发生变化的类别数
+     */
+    public int renumber() {
+        // 已持有时为空操作；防止调用方遗漏时在无锁状态下编号
+        lockTree();
+        categoryRepository.flush();
+
+        List<Row> rows = jdbcTemplate.query(SELECT_FOR_SHARE_SQL, (resultSet, rowNum) -> new Row(
+                resultSet.getLong(1),
+                resultSet.getObject(2, Long.class),
+                resultSet.getObject(3, Integer.class),
+                resultSet.getObject(4, Integer.class)));
+
+        Map<Long, List<Row>> childrenByParent = new HashMap<>();
+        for (Row row : rows) {
+            childrenByParent.computeIfAbsent(row.parentId, parentId -> new ArrayList<>()).add(row);
+        }
+        childrenByParent.values().forEach(children -> children.sort(Comparator.comparingLong(Row::id)));
+
+        List<Object[]> changed = new ArrayList<>();
+        int next = 1;
+        for (Row root : childrenByParent.getOrDefault(null, List.of())) {
+            next = number(root, childrenByParent, next, changed);
+        }
+        if (!changed.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_INTERVAL_SQL, changed);
+            jdbcTemplate.update(BUMP_TREE_VERSION_SQL);
+        }
+        log.debug("类别区间重新编号，类别数: {}, 变化数: {}", rows.size(), changed.size());
+        return changed.size();
+    }
+
+    /**
+     * 为类别及其子树编号
+     *
+     * @return 子树之后的下一个可用编号
+     */
+    private int number(Row category, Map<Long, List<Row>> childrenByParent, int next, List<Object[]> changed) {
+        int lft = next++;
+        for (Row child : childrenByParent.getOrDefault(category.id, List.of())) {
+            next = number(child, childrenByParent, next, changed);
+        }
+        int rgt = next;
+        if (category.lft == null || category.lft != lft || category.rgt == null || category.rgt != rgt) {
+            changed.add(new Object[]{lft, rgt, category.id});
+        }
+        return rgt + 1;
+    }
+
+    private record Row(long id, Long parentId, Integer lft, Integer rgt) {
+    }
+}
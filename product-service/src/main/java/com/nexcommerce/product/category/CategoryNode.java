@@ -0,0 +1,69 @@
+package com.nexcommerce.product.category;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 类别树节点
+ * 由JPQL构造器表达式直接加载类别的字段，再由 {@link CategoryTree} 链接父子关系；
+ * 节点只属于一个快照，快照发布后不再修改，可被多个线程无锁读取
+ */
+@Getter
+public final class CategoryNode {
+
+    private final Long id;
+    private final String name;
+    private final String slug;
+    private final String description;
+    private final String imageUrl;
+    private final Long parentId;
+    private final Boolean isActive;
+    private final Integer sortOrder;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    /**
+     * 父节点（顶级类别为 null），链接时设置
+     */
+    private CategoryNode parent;
+
+    /**
+     * 子节点（按排序值、ID升序，不可修改），链接时设置
+     */
+    private List<CategoryNode> children = List.of();
+
+    /**
+     * 深度（顶级类别为0），链接时设置
+     */
+    private int depth;
+
+    public CategoryNode(Long id, String name, String slug, String description, String imageUrl, Long parentId,
+                        Boolean isActive, Integer sortOrder, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.slug = slug;
+        this.description = description;
+        this.imageUrl = imageUrl;
+        this.parentId = parentId;
+        this.isActive = isActive;
+        this.sortOrder = sortOrder;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * 复制字段（不含链接），用于由旧快照构建新快照
+     */
+    CategoryNode(CategoryNode source) {
+        this(source.id, source.name, source.slug, source.description, source.imageUrl, source.parentId,
+                source.isActive, source.sortOrder, source.createdAt, source.updatedAt);
+    }
+
+    void link(CategoryNode parent, List<CategoryNode> children, int depth) {
+        this.parent = parent;
+        this.children = children;
+        this.depth = depth;
+    }
+}
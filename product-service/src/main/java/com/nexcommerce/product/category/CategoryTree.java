@@ -0,0 +1,194 @@
+package com.nexcommerce.product.category;
+
+import com.nexcommerce.product.dto.CategoryDto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 类别树快照（不可变）
+ * 所有节点在构建时链接好父子关系，并按排序值、ID排好全部和激活类别的数组、建立 slug -> ID 散列表，
+ * 读取不访问数据库；类别变更时由 {@link CategoryTreeCache}
+ * 基于旧快照的节点复制出新快照（O(n)，不查询数据库）并整体替换。
+ * 父类别不存在的节点按顶级类别处理；数据中存在环时环上的节点不可达，构建时记录警告并忽略。
+ */
+@Slf4j
+public final class CategoryTree {
+
+    private static final Comparator<CategoryNode> ORDER = Comparator
+            .comparing(CategoryNode::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CategoryNode::getId);
+
+    private final Map<Long, CategoryNode> nodes;
+    private final List<CategoryNode> roots;
+    private final List<CategoryNode> all;
+    private final List<CategoryNode> active;
+    private final Map<String, Long> idsBySlug;
+
+    private CategoryTree(Map<Long, CategoryNode> nodes, List<CategoryNode> roots) {
+        this.nodes = nodes;
+        this.roots = roots;
+        CategoryNode[] sorted = nodes.values().toArray(new CategoryNode[0]);
+        Arrays.sort(sorted, ORDER);
+        List<CategoryNode> activeNodes = new ArrayList<>();
+        Map<String, Long> bySlug = new HashMap<>(sorted.length * 2);
+        for (CategoryNode node : sorted) {
+            bySlug.put(node.getSlug(), node.getId());
+            if (Boolean.TRUE.equals(node.getIsActive())) {
+                activeNodes.add(node);
+            }
+        }
+        this.all = Collections.unmodifiableList(Arrays.asList(sorted));
+        this.active = Collections.unmodifiableList(Arrays.asList(activeNodes.toArray(new CategoryNode[0])));
+        this.idsBySlug = bySlug;
+    }
+
+    /**
+     * 由未链接的节点构建快照
+     *
+     * @param unlinked 未链接的节点（构建后归新快照所有，调用方不得再使用）
+     * @return 类别树快照
+     */
+    public static CategoryTree build(Collection<CategoryNode> unlinked) {
+        Map<Long, CategoryNode> nodes = new HashMap<>(unlinked.size() * 2);
+        for (CategoryNode node : unlinked) {
+            nodes.put(node.getId(), node);
+        }
+        Map<Long, List<CategoryNode>> childrenByParent = new HashMap<>();
+        List<CategoryNode> roots = new ArrayList<>();
+        for (CategoryNode node : nodes.values()) {
+            if (node.getParentId() != null && nodes.containsKey(node.getParentId())) {
+                childrenByParent.computeIfAbsent(node.getParentId(), key -> new ArrayList<>()).add(node);
+            } else {
+                roots.add(node);
+            }
+        }
+
+        // 自顶向下逐层链接，环上的节点不会被访问到
+        roots.sort(ORDER);
+        Deque<CategoryNode> queue = new ArrayDeque<>();
+        for (CategoryNode root : roots) {
+            root.link(null, sortedChildren(childrenByParent, root.getId()), 0);
+            queue.add(root);
+        }
+        int linked = 0;
+        while (!queue.isEmpty()) {
+            CategoryNode node = queue.poll();
+            linked++;
+            for (CategoryNode child : node.getChildren()) {
+                child.link(node, sortedChildren(childrenByParent, child.getId()), node.getDepth() + 1);
+                queue.add(child);
+            }
+        }
+        if (linked < nodes.size()) {
+            log.warn("类别数据中存在循环引用，{}个类别不在类别树中", nodes.size() - linked);
+            Set<CategoryNode> rootSet = new HashSet<>(roots);
+            nodes.values().removeIf(node -> node.getParent() == null && !rootSet.contains(node));
+        }
+        return new CategoryTree(Collections.unmodifiableMap(nodes), Collections.unmodifiableList(roots));
+    }
+
+    /**
+     * 应用类别变更，返回新快照（当前快照不变）
+     *
+     * @param category 新增或更新后的类别
+     * @return 新快照
+     */
+    public CategoryTree withUpserted(CategoryDto category) {
+        List<CategoryNode> copies = copyNodes(category.getId());
+        copies.add(new CategoryNode(category.getId(), category.getName(), category.getSlug(), category.getDescription(),
+                category.getImageUrl(), category.getParentId(), category.getIsActive(), category.getSortOrder(),
+                category.getCreatedAt(), category.getUpdatedAt()));
+        return build(copies);
+    }
+
+    /**
+     * 移除类别，返回新快照（当前快照不变）
+     *
+     * @param categoryId 类别ID
+     * @return 新快照
+     */
+    public CategoryTree withRemoved(Long categoryId) {
+        return build(copyNodes(categoryId));
+    }
+
+    /**
+     * 根据ID查找节点
+     *
+     * @param categoryId 类别ID
+     * @return 节点
+     */
+    public Optional<CategoryNode> find(Long categoryId) {
+        return Optional.ofNullable(nodes.get(categoryId));
+    }
+
+    /**
+     * 根据slug查找节点
+     *
+     * @param slug 类别标识符
+     * @return 节点
+     */
+    public Optional<CategoryNode> findBySlug(String slug) {
+        Long categoryId = idsBySlug.get(slug);
+        return categoryId != null ? find(categoryId) : Optional.empty();
+    }
+
+    /**
+     * 所有类别（按排序值、ID升序）
+     */
+    public List<CategoryNode> getAll() {
+        return all;
+    }
+
+    /**
+     * 激活的类别（按排序值、ID升序）
+     */
+    public List<CategoryNode> getActive() {
+        return active;
+    }
+
+    /**
+     * 顶级类别（按排序值、ID升序）
+     */
+    public List<CategoryNode> getRoots() {
+        return roots;
+    }
+
+    /**
+     * 类别数量
+     */
+    public int size() {
+        return nodes.size();
+    }
+
+    private List<CategoryNode> copyNodes(Long excludedId) {
+        List<CategoryNode> copies = new ArrayList<>(nodes.size() + 1);
+        for (CategoryNode node : nodes.values()) {
+            if (!node.getId().equals(excludedId)) {
+                copies.add(new CategoryNode(node));
+            }
+        }
+        return copies;
+    }
+
+    private static List<CategoryNode> sortedChildren(Map<Long, List<CategoryNode>> childrenByParent, Long parentId) {
+        List<CategoryNode> children = childrenByParent.get(parentId);
+        if (children == null) {
+            return List.of();
+        }
+        children.sort(ORDER);
+        return Collections.unmodifiableList(children);
+    }
+}
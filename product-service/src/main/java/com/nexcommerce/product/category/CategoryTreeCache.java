@@ -0,0 +1,109 @@
+package com.nexcommerce.product.category;
+
+import com.nexcommerce.product.event.CatalogVersionChangedEvent;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 类别树快照缓存
+ * 启动时用一条查询加载所有类别构建快照，类别写事务提交后基于当前快照打补丁生成新快照并原子替换；
+ * 读取方拿到的快照在使用期间不会变化。构建和补丁在同一把锁下串行执行，
+ * 首次构建期间提交的变更会在构建完成后再应用一次（补丁是幂等的）。
+ * 补丁只来自本实例的变更事件；类别版本变化（包括其他实例上的变更，由 {@link com.nexcommerce.product.cache.CatalogSync} 发现）时从数据库重新构建。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private final AtomicReference<CategoryTree> snapshot = new AtomicReference<>();
+
+    private final Object writeLock = new Object();
+
+    /**
+     * 获取当前快照，尚未构建时先从数据库构建
+     *
+     * @return 类别树快照
+     */
+    public CategoryTree get() {
+        CategoryTree tree = snapshot.get();
+        return tree != null ? tree : rebuild();
+    }
+
+    /**
+     * 启动后构建快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * 类别版本变化后重新构建快照
+     *
+     * @param event 目录版本变化事件
+     */
+    @EventListener
+    public void onCatalogVersionChanged(CatalogVersionChangedEvent event) {
+        if (event.getCatalog() == CatalogVersionChangedEvent.Catalog.CATEGORIES) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 从数据库重新构建快照
+     *
+     * @return 新快照
+     */
+    public CategoryTree rebuild() {
+        synchronized (writeLock) {
+            long start = System.currentTimeMillis();
+            CategoryTree tree = CategoryTree.build(categoryRepository.findAllNodes());
+            snapshot.set(tree);
+            log.info("类别树快照构建完成，类别数: {}, 耗时: {}ms", tree.size(), System.currentTimeMillis() - start);
+            return tree;
+        }
+    }
+
+    /**
+     * 类别变更后生成新快照
+     *
+     * @param event 类别变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        synchronized (writeLock) {
+            CategoryTree tree = snapshot.get();
+            if (tree == null) {
+                // 尚未构建，首次构建会读到已提交的变更
+                return;
+            }
+            if (event.getType() == CategoryChangedEvent.Type.DELETED) {
+                snapshot.set(tree.withRemoved(event.getCategoryId()));
+            } else if (!isStale(tree, event)) {
+                snapshot.set(tree.withUpserted(event.getCategory()));
+            }
+        }
+    }
+
+    /**
+     * 并发更新同一类别时事件可能乱序到达，丢弃比快照中更旧的版本
+     */
+    private static boolean isStale(CategoryTree tree, CategoryChangedEvent event) {
+        return tree.find(event.getCategoryId())
+                .map(CategoryNode::getUpdatedAt)
+                .filter(current -> event.getCategory().getUpdatedAt() != null
+                        && current.isAfter(event.getCategory().getUpdatedAt()))
+                .isPresent();
+    }
+}
@@ -0,0 +1,127 @@
+package com.nexcommerce.product.changefeed;
+
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.event.ProductImagesChangedEvent;
+import com.nexcommerce.product.model.ProductChange;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 产品变更发件箱
+ * 在发布产品变更事件的事务中同步监听，同一事务中的变更先缓存在事务资源中，
+ * 在事务提交前以一次JDBC批量插入写入（不带序号），与产品变更一起提交或回滚；
+ * 提交后唤醒定序器为其分配序号。没有活动事务时立即写入。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeOutbox {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product_changes (product_id, sku, change_type, quantity, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductChangeSequencer sequencer;
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDto product = event.getProduct();
+        ProductChange.ChangeType type = ProductChange.ChangeType.valueOf(event.getType().name());
+        record(ProductChange.builder()
+                .productId(event.getProductId())
+                .sku(product != null ? product.getSku() : null)
+                .changeType(type)
+                .quantity(type == ProductChange.ChangeType.STOCK_CHANGED && product != null ? product.getQuantity() : null)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @EventListener
+    public void onProductAttributesChanged(ProductAttributesChangedEvent event) {
+        record(ProductChange.builder()
+                .productId(event.getProductId())
+                .changeType(ProductChange.ChangeType.ATTRIBUTES_CHANGED)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @EventListener
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        record(ProductChange.builder()
+                .productId(event.getProductId())
+                .changeType(ProductChange.ChangeType.IMAGES_CHANGED)
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void record(ProductChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(change));
+            sequencer.wakeUp();
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<ProductChange> buffer = (List<ProductChange>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<ProductChange> newBuffer = new ArrayList<>();
+            buffer = newBuffer;
+            TransactionSynchronizationManager.bindResource(this, newBuffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(newBuffer);
+                }
+
+                @Override
+                public void afterCommit() {
+                    sequencer.wakeUp();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductChangeOutbox.this);
+                }
+            });
+        }
+        // 同一事务中同一产品的连续同类变更只记录一次（如批量添加属性）
+        if (!buffer.isEmpty()) {
+            ProductChange last = buffer.get(buffer.size() - 1);
+            if (last.getProductId().equals(change.getProductId()) && last.getChangeType() == change.getChangeType()) {
+                buffer.set(buffer.size() - 1, change);
+                return;
+            }
+        }
+        buffer.add(change);
+    }
+
+    private void write(List<ProductChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getProductId());
+            statement.setString(2, change.getSku());
+            statement.setString(3, change.getChangeType().name());
+            if (change.getQuantity() != null) {
+                statement.setInt(4, change.getQuantity());
+            } else {
+                statement.setNull(4, Types.INTEGER);
+            }
+            statement.setTimestamp(5, Timestamp.valueOf(change.getCreatedAt()));
+        });
+        log.debug("写入产品变更，条数: {}", changes.size());
+    }
+}
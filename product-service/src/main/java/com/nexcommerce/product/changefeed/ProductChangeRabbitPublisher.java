@@ -0,0 +1,170 @@
+package com.nexcommerce.product.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexcommerce.product.event.ProductChangesSequencedEvent;
+import com.nexcommerce.product.mapper.ProductChangeMapper;
+import com.nexcommerce.product.model.ProductChange;
+import com.nexcommerce.product.repository.ProductChangeRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 产品变更消息发布器（可选，product.change-feed.rabbit.enabled=true 时启用）
+ * 按序号顺序把已定序的变更发布到 RabbitMQ 主题交换机，路由键为 product.<变更类型小写>。
+ * 每轮在一个事务中锁定发布游标行，发布一批并等待 broker 确认后推进游标；
+ * 发布失败时事务回滚、下一轮重发，因此为至少一次投递，消费者按消息ID（即序号）去重。
+ * 首次启用时从保留的最早变更开始发布。
+ */
+@Component
+@ConditionalOnProperty(name = "product.change-feed.rabbit.enabled", havingValue = "true")
+@Slf4j
+public class ProductChangeRabbitPublisher {
+
+    static final String CURSOR_NAME = "rabbit";
+
+    private static final String INIT_CURSOR_SQL = "INSERT IGNORE INTO product_change_cursors (name, position) VALUES (?, 0)";
+    private static final String LOCK_CURSOR_SQL = "SELECT position FROM product_change_cursors WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_CURSOR_SQL = "UPDATE product_change_cursors SET position = ? WHERE name = ?";
+
+    private final RabbitTemplate rabbitTemplate;
+    private final ObjectMapper objectMapper;
+    private final ProductChangeRepository changeRepository;
+    private final ProductChangeMapper changeMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String exchange;
+    private final int batchSize;
+    private final long confirmTimeoutMillis;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile boolean started;
+
+    public ProductChangeRabbitPublisher(RabbitTemplate rabbitTemplate,
+                                        ObjectMapper objectMapper,
+                                        ProductChangeRepository changeRepository,
+                                        ProductChangeMapper changeMapper,
+                                        JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${product.change-feed.rabbit.exchange:nexcommerce.product.changes}") String exchange,
+                                        @Value("${product.change-feed.rabbit.batch-size:500}") int batchSize,
+                                        @Value("${product.change-feed.rabbit.confirm-timeout-ms:5000}") long confirmTimeoutMillis,
+                                        @Value("${product.change-feed.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.changeRepository = changeRepository;
+        this.changeMapper = changeMapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exchange = exchange;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        jdbcTemplate.update(INIT_CURSOR_SQL, CURSOR_NAME);
+        started = true;
+        executor.scheduleWithFixedDelay(this::run, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("产品变更消息发布已启用，交换机: {}", exchange);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 定序完成后立即发布新变更
+     *
+     * @param event 定序完成事件
+     */
+    @EventListener
+    public void onChangesSequenced(ProductChangesSequencedEvent event) {
+        if (started && wakeUpPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                run();
+            });
+        }
+    }
+
+    private void run() {
+        try {
+            Integer published;
+            do {
+                published = transactionTemplate.execute(status -> publishBatch());
+            } while (published != null && published == batchSize);
+        } catch (RuntimeException e) {
+            log.error("发布产品变更消息失败，稍后重试", e);
+        }
+    }
+
+    private int publishBatch() {
+        Long position = jdbcTemplate.queryForObject(LOCK_CURSOR_SQL, Long.class, CURSOR_NAME);
+        List<ProductChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(position, PageRequest.of(0, batchSize));
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        if (changes.get(0).getSeq() != position + 1) {
+            log.warn("待发布的产品变更已过保留期被清理，已发布序号: {}, 最早可用序号: {}", position, changes.get(0).getSeq());
+        }
+        rabbitTemplate.invoke(operations -> {
+            for (ProductChange change : changes) {
+                operations.send(exchange, routingKey(change), toMessage(change));
+            }
+            operations.waitForConfirmsOrDie(confirmTimeoutMillis);
+            return null;
+        });
+        long lastSeq = changes.get(changes.size() - 1).getSeq();
+        jdbcTemplate.update(UPDATE_CURSOR_SQL, lastSeq, CURSOR_NAME);
+        log.debug("发布产品变更消息，序号: {} - {}", changes.get(0).getSeq(), lastSeq);
+        return changes.size();
+    }
+
+    private static String routingKey(ProductChange change) {
+        return "product." + change.getChangeType().name().toLowerCase(Locale.ROOT);
+    }
+
+    private Message toMessage(ProductChange change) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(changeMapper.toDto(change));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("序列化产品变更失败，序号: " + change.getSeq(), e);
+        }
+        return MessageBuilder.withBody(body)
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setMessageId(String.valueOf(change.getSeq()))
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+}
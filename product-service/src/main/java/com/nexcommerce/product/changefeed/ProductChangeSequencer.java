@@ -0,0 +1,146 @@
+package com.nexcommerce.product.changefeed;
+
+import com.nexcommerce.product.event.ProductChangesSequencedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 产品变更定序器
+ * 为已提交的变更按ID顺序分配连续序号。每轮在一个事务中先锁定定序游标行，再给尚未定序的变更编号，
+ * 最后推进游标：多实例之间串行执行，序号连续且没有空洞；一轮的编号随事务一起可见，
+ * 消费者读到序号N时，所有小于N的序号都已可见。
+ * 仍未提交的变更在本轮中不可见，提交后在下一轮获得更大的序号，因此序号反映的是可见顺序而非写入顺序。
+ * 写事务提交后立即唤醒，另有定时轮询兜底（其他实例写入的变更、唤醒丢失）。
+ */
+@Component
+@Slf4j
+public class ProductChangeSequencer {
+
+    static final String CURSOR_NAME = "sequencer";
+
+    private static final String INIT_CURSOR_SQL = "INSERT IGNORE INTO product_change_cursors (name, position) VALUES (?, 0)";
+    private static final String LOCK_CURSOR_SQL = "SELECT position FROM product_change_cursors WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_CURSOR_SQL = "UPDATE product_change_cursors SET position = ? WHERE name = ?";
+    private static final String SELECT_PENDING_SQL = "SELECT id FROM product_changes WHERE seq IS NULL ORDER BY id LIMIT ?";
+    private static final String ASSIGN_SEQ_SQL = "UPDATE product_changes SET seq = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long pollIntervalMillis;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile boolean started;
+
+    public ProductChangeSequencer(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${product.change-feed.sequence-batch-size:1000}") int batchSize,
+                                  @Value("${product.change-feed.poll-interval-ms:1000}") long pollIntervalMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "product-change-sequencer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 启动后（表结构已由Hibernate创建）初始化游标并开始轮询
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        jdbcTemplate.update(INIT_CURSOR_SQL, CURSOR_NAME);
+        started = true;
+        executor.scheduleWithFixedDelay(this::run, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 请求尽快执行一轮定序；已有待执行的唤醒时合并
+     */
+    public void wakeUp() {
+        if (started && wakeUpPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                wakeUpPending.set(false);
+                run();
+            });
+        }
+    }
+
+    /**
+     * 当前已分配的最大序号
+     *
+     * @return 最大序号
+     */
+    public long latestSeq() {
+        Long position = jdbcTemplate.queryForObject(
+                "SELECT position FROM product_change_cursors WHERE name = ?", Long.class, CURSOR_NAME);
+        return position != null ? position : 0;
+    }
+
+    private void run() {
+        try {
+            long lastSeq = 0;
+            int assigned;
+            do {
+                long[] result = transactionTemplate.execute(status -> sequenceBatch());
+                assigned = (int) result[0];
+                if (assigned > 0) {
+                    lastSeq = result[1];
+                }
+            } while (assigned == batchSize);
+            if (lastSeq > 0) {
+                eventPublisher.publishEvent(new ProductChangesSequencedEvent(lastSeq));
+            }
+        } catch (RuntimeException e) {
+            log.error("产品变更定序失败", e);
+        }
+    }
+
+    /**
+     * 为一批未定序的变更分配序号
+     *
+     * @return [分配数量, 分配后的最大序号]
+     */
+    private long[] sequenceBatch() {
+        Long position = jdbcTemplate.queryForObject(LOCK_CURSOR_SQL, Long.class, CURSOR_NAME);
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_PENDING_SQL, Long.class, batchSize);
+        if (ids.isEmpty()) {
+            return new long[]{0, position};
+        }
+        List<Object[]> assignments = new ArrayList<>(ids.size());
+        long seq = position;
+        for (Long id : ids) {
+            assignments.add(new Object[]{++seq, id});
+        }
+        jdbcTemplate.batchUpdate(ASSIGN_SEQ_SQL, assignments);
+        jdbcTemplate.update(UPDATE_CURSOR_SQL, seq, CURSOR_NAME);
+        log.debug("产品变更定序完成，序号: {} - {}", position + 1, seq);
+        return new long[]{ids.size(), seq};
+    }
+}
@@ -0,0 +1,22 @@
+package com.nexcommerce.product.config;
+
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 产品变更消息配置
+ * 启用变更消息发布时声明持久化的主题交换机，消费者自行声明队列并按路由键绑定
+ */
+@Configuration
+@ConditionalOnProperty(name = "product.change-feed.rabbit.enabled", havingValue = "true")
+public class ProductChangeRabbitConfig {
+
+    @Bean
+    public TopicExchange productChangeExchange(
+            @Value("${product.change-feed.rabbit.exchange:nexcommerce.product.changes}") String exchange) {
+        return new TopicExchange(exchange, true, false);
+    }
+}
@@ -0,0 +1,113 @@
+package com.nexcommerce.product.controller;
+
+import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.dto.AttributeDefinitionDto;
+import com.nexcommerce.product.service.AttributeDefinitionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 属性定义控制器
+ */
+@RestController
+@RequestMapping("/api/attribute-definitions")
+@RequiredArgsConstructor
+@Slf4j
+public class AttributeDefinitionController {
+
+    private final AttributeDefinitionService attributeDefinitionService;
+
+    /**
+     * 创建属性定义
+     *
+     * @param definitionDto 属性定义DTO
+     * @return 创建的属性定义
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<AttributeDefinitionDto>> createDefinition(
+            @Valid @RequestBody AttributeDefinitionDto definitionDto) {
+        log.info("创建属性定义请求: {}", definitionDto.getAttributeName());
+        AttributeDefinitionDto createdDefinition = attributeDefinitionService.createDefinition(definitionDto);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.<AttributeDefinitionDto>builder()
+                        .status(HttpStatus.CREATED.value())
+                        .message("属性定义创建成功")
+                        .data(createdDefinition)
+                        .build());
+    }
+
+    /**
+     * 根据属性名获取属性定义
+     *
+     * @param attributeName 属性名
+     * @return 属性定义
+     */
+    @GetMapping("/name/{attributeName}")
+    public ResponseEntity<ApiResponse<AttributeDefinitionDto>> getDefinitionByName(@PathVariable String attributeName) {
+        log.info("获取属性定义请求: {}", attributeName);
+        AttributeDefinitionDto definition = attributeDefinitionService.getDefinitionByName(attributeName);
+        return ResponseEntity.ok(ApiResponse.<AttributeDefinitionDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取属性定义成功")
+                .data(definition)
+                .build());
+    }
+
+    /**
+     * 获取所有属性定义
+     *
+     * @return 属性定义列表
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<AttributeDefinitionDto>>> getAllDefinitions() {
+        log.info("获取所有属性定义请求");
+        List<AttributeDefinitionDto> definitions = attributeDefinitionService.getAllDefinitions();
+        return ResponseEntity.ok(ApiResponse.<List<AttributeDefinitionDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取属性定义列表成功")
+                .data(definitions)
+                .build());
+    }
+
+    /**
+     * 更新属性定义
+     *
+     * @param id 属性定义ID
+     * @param definitionDto 属性定义DTO
+     * @return 更新后的属性定义
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<ApiResponse<AttributeDefinitionDto>> updateDefinition(
+            @PathVariable Long id,
+            @Valid @RequestBody AttributeDefinitionDto definitionDto) {
+        log.info("更新属性定义请求，ID: {}", id);
+        AttributeDefinitionDto updatedDefinition = attributeDefinitionService.updateDefinition(id, definitionDto);
+        return ResponseEntity.ok(ApiResponse.<AttributeDefinitionDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("属性定义更新成功")
+                .data(updatedDefinition)
+                .build());
+    }
+
+    /**
+     * 删除属性定义
+     *
+     * @param id 属性定义ID
+     * @return 操作结果
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteDefinition(@PathVariable Long id) {
+        log.info("删除属性定义请求，ID: {}", id);
+        attributeDefinitionService.deleteDefinition(id);
+        return ResponseEntity.ok(ApiResponse.<Void>builder()
+                .status(HttpStatus.OK.value())
+                .message("属性定义删除成功")
+                .build());
+    }
+}
@@ -1,6 +1,9 @@
 package com.nexcommerce.product.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.cache.CatalogETag;
+import com.nexcommerce.product.cache.CatalogVersions.Scope;
 import com.nexcommerce.product.dto.BrandDto;
 import com.nexcommerce.product.service.BrandService;
 import jakarta.validation.Valid;
@@ -47,6 +50,7 @@ public class BrandController {
      * @param id 品牌ID
      * @return 品牌信息
      */
+    @CatalogETag(Scope.BRANDS)
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<BrandDto>> getBrandById(@PathVariable Long id) {
         log.info("获取品牌请求，ID: {}", id);
@@ -64,6 +68,7 @@ public class BrandController {
      * @param slug 品牌标识符
      * @return 品牌信息
      */
+    @CatalogETag(Scope.BRANDS)
     @GetMapping("/slug/{slug}")
     public ResponseEntity<ApiResponse<BrandDto>> getBrandBySlug(@PathVariable String slug) {
         log.info("根据标识获取品牌请求: {}", slug);
@@ -80,6 +85,7 @@ public class BrandController {
      *
      * @return 品牌列表
      */
+    @CatalogETag(Scope.BRANDS)
     @GetMapping
     public ResponseEntity<ApiResponse<List<BrandDto>>> getAllBrands() {
         log.info("获取所有品牌请求");
@@ -93,14 +99,16 @@ public class BrandController {
 
     /**
      * 获取所有激活的品牌
+     * 品牌列表为预序列化的JSON，写出响应时直接复制
      *
      * @return 品牌列表
      */
+    @CatalogETag(Scope.BRANDS)
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<BrandDto>>> getAllActiveBrands() {
+    public ResponseEntity<ApiResponse<RawValue>> getAllActiveBrands() {
         log.info("获取所有激活的品牌请求");
-        List<BrandDto> brands = brandService.getAllActiveBrands();
-        return ResponseEntity.ok(ApiResponse.<List<BrandDto>>builder()
+        RawValue brands = brandService.getAllActiveBrandsJson();
+        return ResponseEntity.ok(ApiResponse.<RawValue>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取所有激活品牌成功")
                 .data(brands)
@@ -149,6 +157,7 @@ public class BrandController {
      * @param keyword 搜索关键词
      * @return 品牌列表
      */
+    @CatalogETag(Scope.BRANDS)
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<BrandDto>>> searchBrands(@RequestParam String keyword) {
         log.info("搜索品牌请求: {}", keyword);
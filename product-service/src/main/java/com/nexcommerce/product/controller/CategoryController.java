@@ -1,6 +1,10 @@
 package com.nexcommerce.product.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.cache.CatalogETag;
+import com.nexcommerce.product.cache.CatalogVersions.Scope;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
 import com.nexcommerce.product.dto.CategoryDto;
 import com.nexcommerce.product.service.CategoryService;
 import jakarta.validation.Valid;
@@ -47,6 +51,7 @@ public class CategoryController {
      * @param id 类别ID
      * @return 类别信息
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<CategoryDto>> getCategoryById(@PathVariable Long id) {
         log.info("获取类别请求，ID: {}", id);
@@ -64,6 +69,7 @@ public class CategoryController {
      * @param slug 类别标识符
      * @return 类别信息
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/slug/{slug}")
     public ResponseEntity<ApiResponse<CategoryDto>> getCategoryBySlug(@PathVariable String slug) {
         log.info("根据标识获取类别请求: {}", slug);
@@ -80,6 +86,7 @@ public class CategoryController {
      *
      * @return 类别列表
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping
     public ResponseEntity<ApiResponse<List<CategoryDto>>> getAllCategories() {
         log.info("获取所有类别请求");
@@ -93,14 +100,16 @@ public class CategoryController {
 
     /**
      * 获取所有激活的类别
+     * 类别列表为预序列化的JSON，写出响应时直接复制
      *
      * @return 类别列表
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/active")
-    public ResponseEntity<ApiResponse<List<CategoryDto>>> getAllActiveCategories() {
+    public ResponseEntity<ApiResponse<RawValue>> getAllActiveCategories() {
         log.info("获取所有激活的类别请求");
-        List<CategoryDto> categories = categoryService.getAllActiveCategories();
-        return ResponseEntity.ok(ApiResponse.<List<CategoryDto>>builder()
+        RawValue categories = categoryService.getAllActiveCategoriesJson();
+        return ResponseEntity.ok(ApiResponse.<RawValue>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取所有激活类别成功")
                 .data(categories)
@@ -148,6 +157,7 @@ public class CategoryController {
      *
      * @return 顶级类别列表
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/root")
     public ResponseEntity<ApiResponse<List<CategoryDto>>> getRootCategories() {
         log.info("获取所有顶级类别请求");
@@ -165,6 +175,7 @@ public class CategoryController {
      * @param parentId 父类别ID
      * @return 子类别列表
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/{parentId}/subcategories")
     public ResponseEntity<ApiResponse<List<CategoryDto>>> getSubcategories(@PathVariable Long parentId) {
         log.info("获取子类别请求，父ID: {}", parentId);
@@ -182,6 +193,7 @@ public class CategoryController {
      * @param keyword 搜索关键词
      * @return 类别列表
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<List<CategoryDto>>> searchCategories(@RequestParam String keyword) {
         log.info("搜索类别请求: {}", keyword);
@@ -198,6 +210,7 @@ public class CategoryController {
      *
      * @return 类别树
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/tree")
     public ResponseEntity<ApiResponse<List<CategoryDto>>> getCategoryTree() {
         log.info("获取类别树请求");
@@ -215,6 +228,7 @@ public class CategoryController {
      * @param id 类别ID
      * @return 类别树
      */
+    @CatalogETag(Scope.CATEGORIES)
     @GetMapping("/{id}/tree")
     public ResponseEntity<ApiResponse<CategoryDto>> getCategoryTreeById(@PathVariable Long id) {
         log.info("获取特定ID的类别树请求，ID: {}", id);
@@ -225,4 +239,22 @@ public class CategoryController {
                 .data(categoryTree)
                 .build());
     }
+
+    /**
+     * 获取类别的面包屑
+     *
+     * @param id 类别ID
+     * @return 从顶级类别到该类别的祖先链
+     */
+    @CatalogETag(Scope.CATEGORIES)
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<ApiResponse<List<CategoryBreadcrumbDto>>> getBreadcrumb(@PathVariable Long id) {
+        log.info("获取类别面包屑请求，ID: {}", id);
+        List<CategoryBreadcrumbDto> breadcrumb = categoryService.getBreadcrumb(id);
+        return ResponseEntity.ok(ApiResponse.<List<CategoryBreadcrumbDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取类别面包屑成功")
+                .data(breadcrumb)
+                .build());
+    }
 }
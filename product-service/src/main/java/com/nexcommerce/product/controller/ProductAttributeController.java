@@ -229,6 +229,33 @@ public class ProductAttributeController {
                 .build());
     }
 
+    /**
+     * 根据数值型属性的范围搜索产品
+     * 属性须已定义为数值型（NUMERIC），属性值可带单位后缀
+     *
+     * @param attributeName 属性名
+     * @param min 最小值（包含，可选）
+     * @param max 最大值（包含，可选）
+     * @param limit 最多返回数量
+     * @return 产品ID列表（按属性值升序）
+     */
+    @GetMapping("/search/by-attribute-range")
+    public ResponseEntity<ApiResponse<List<Long>>> findProductsByAttributeRange(
+            @RequestParam String attributeName,
+            @RequestParam(required = false) Double min,
+            @RequestParam(required = false) Double max,
+            @RequestParam(defaultValue = "1000") int limit) {
+        log.info("根据属性范围搜索产品请求，属性名: {}, 范围: {} - {}", attributeName, min, max);
+        
+        List<Long> productIds = productAttributeService.findProductIdsByAttributeRange(attributeName, min, max, limit);
+        
+        return ResponseEntity.ok(ApiResponse.<List<Long>>builder()
+                .status(HttpStatus.OK.value())
+                .message("产品搜索成功")
+                .data(productIds)
+                .build());
+    }
+
     /**
      * 获取属性所有可能值
      *
@@ -0,0 +1,59 @@
+package com.nexcommerce.product.controller;
+
+import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.dto.ProductChangeFeedDto;
+import com.nexcommerce.product.service.ProductChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 产品变更流控制器
+ */
+@RestController
+@RequestMapping("/api/product-changes")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeFeedController {
+
+    private final ProductChangeFeedService productChangeFeedService;
+
+    /**
+     * 增量拉取产品变更
+     * 消费者保存每次返回的 nextSince 作为下次的 since；hasMore 为 true 时可立即继续拉取
+     *
+     * @param since 已处理的最大序号，首次同步为0
+     * @param limit 最多返回的变更数（1-1000）
+     * @return 变更及下次拉取的位置
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<ProductChangeFeedDto>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        log.debug("拉取产品变更请求，since: {}, limit: {}", since, limit);
+        ProductChangeFeedDto feed = productChangeFeedService.getChanges(since, limit);
+        return ResponseEntity.ok(ApiResponse.<ProductChangeFeedDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取产品变更成功")
+                .data(feed)
+                .build());
+    }
+
+    /**
+     * 立即清理过期变更
+     *
+     * @return 清理的变更数量
+     */
+    @PostMapping("/purge")
+    public ResponseEntity<ApiResponse<Integer>> purge() {
+        log.info("清理过期产品变更请求");
+        int deleted = productChangeFeedService.purgeExpired();
+        return ResponseEntity.ok(ApiResponse.<Integer>builder()
+                .status(HttpStatus.OK.value())
+                .message("清理过期产品变更完成")
+                .data(deleted)
+                .build());
+    }
+}
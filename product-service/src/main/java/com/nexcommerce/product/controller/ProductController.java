@@ -1,9 +1,23 @@
 package com.nexcommerce.product.controller;
 
 import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.cache.CatalogETag;
+import com.nexcommerce.product.cache.CatalogVersions.Scope;
+import com.nexcommerce.product.dto.BatchStockAdjustmentDto;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
+import com.nexcommerce.product.dto.CursorPageDto;
+import com.nexcommerce.product.dto.FacetedPageDto;
+import com.nexcommerce.product.dto.ProductBatchGetDto;
+import com.nexcommerce.product.dto.ProductBatchItemDto;
 import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.StockAdjustmentResultDto;
+import com.nexcommerce.product.dto.SuggestionDto;
 import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.ProductExportQuery;
+import com.nexcommerce.product.search.FacetQuery;
 import com.nexcommerce.product.service.ProductService;
+import com.nexcommerce.product.util.ETags;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -11,12 +25,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 产品控制器
@@ -27,6 +57,16 @@ import java.util.List;
 @Slf4j
 public class ProductController {
 
+    /**
+     * 摘要视图参数值
+     */
+    private static final String VIEW_SUMMARY = "summary";
+
+    /**
+     * 取消异步超时的拦截器注册键
+     */
+    private static final String NO_ASYNC_TIMEOUT = ProductController.class.getName() + ".NO_ASYNC_TIMEOUT";
+
     private final ProductService productService;
 
     /**
@@ -49,14 +89,19 @@ public class ProductController {
 
     /**
      * 根据ID获取产品
+     * 响应带有由产品版本生成的ETag，If-None-Match 匹配时返回304且不序列化响应体
      *
      * @param id 产品ID
+     * @param webRequest 当前请求
      * @return 产品信息
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<ProductDto>> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<ProductDto>> getProductById(@PathVariable Long id, WebRequest webRequest) {
         log.info("获取产品请求，ID: {}", id);
         ProductDto product = productService.getProductById(id);
+        if (webRequest.checkNotModified(productETag(product))) {
+            return null;
+        }
         return ResponseEntity.ok(ApiResponse.<ProductDto>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取产品成功")
@@ -66,14 +111,19 @@ public class ProductController {
 
     /**
      * 根据SKU获取产品
+     * 响应带有由产品版本生成的ETag，If-None-Match 匹配时返回304且不序列化响应体
      *
      * @param sku 产品SKU
+     * @param webRequest 当前请求
      * @return 产品信息
      */
     @GetMapping("/sku/{sku}")
-    public ResponseEntity<ApiResponse<ProductDto>> getProductBySku(@PathVariable String sku) {
+    public ResponseEntity<ApiResponse<ProductDto>> getProductBySku(@PathVariable String sku, WebRequest webRequest) {
         log.info("根据SKU获取产品请求: {}", sku);
         ProductDto product = productService.getProductBySku(sku);
+        if (webRequest.checkNotModified(productETag(product))) {
+            return null;
+        }
         return ResponseEntity.ok(ApiResponse.<ProductDto>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取产品成功")
@@ -81,6 +131,42 @@ public class ProductController {
                 .build());
     }
 
+    /**
+     * 获取产品所属类别的面包屑
+     *
+     * @param id 产品ID
+     * @return 从顶级类别到产品所属类别的祖先链，产品没有类别时为空
+     */
+    @CatalogETag(Scope.PRODUCTS)
+    @GetMapping("/{id}/breadcrumb")
+    public ResponseEntity<ApiResponse<List<CategoryBreadcrumbDto>>> getProductBreadcrumb(@PathVariable Long id) {
+        log.info("获取产品面包屑请求，ID: {}", id);
+        List<CategoryBreadcrumbDto> breadcrumb = productService.getProductBreadcrumb(id);
+        return ResponseEntity.ok(ApiResponse.<List<CategoryBreadcrumbDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取产品面包屑成功")
+                .data(breadcrumb)
+                .build());
+    }
+
+    /**
+     * 批量获取产品
+     * 按ID列表或SKU列表获取（二选一，最多1000个），结果与请求一一对应并保持顺序，不存在的产品 found 为 false
+     *
+     * @param request 产品ID列表或SKU列表
+     * @return 获取结果
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<ProductBatchItemDto>>> getProductsBatch(@RequestBody ProductBatchGetDto request) {
+        log.info("批量获取产品请求");
+        List<ProductBatchItemDto> products = productService.getProductsBatch(request);
+        return ResponseEntity.ok(ApiResponse.<List<ProductBatchItemDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("批量获取产品成功")
+                .data(products)
+                .build());
+    }
+
     /**
      * 获取所有产品（分页）
      *
@@ -90,6 +176,7 @@ public class ProductController {
      * @param direction 排序方向
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping
     public ResponseEntity<ApiResponse<Page<ProductDto>>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
@@ -110,6 +197,68 @@ public class ProductController {
                 .build());
     }
 
+    /**
+     * 游标分页获取所有产品
+     * 适用于深度翻页，不执行COUNT查询
+     *
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段（id, name, price, createdAt）
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    @CatalogETag(Scope.PRODUCTS)
+    @GetMapping("/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDto<ProductDto>>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction) {
+        log.info("游标分页获取产品请求，每页大小: {}", size);
+        
+        CursorPageDto<ProductDto> products = productService.scrollProducts(cursor, size, sortBy, direction);
+        
+        return ResponseEntity.ok(ApiResponse.<CursorPageDto<ProductDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取产品列表成功")
+                .data(products)
+                .build());
+    }
+
+    /**
+     * 以NDJSON流导出产品目录
+     * 响应体在异步线程中从数据库只进游标边读边写，内存占用与目录大小无关；导出耗时与目录大小成正比，本接口不受全局异步超时限制。
+     * 增量导出时以上次导出的开始时间作为 updatedSince，并适当提前以覆盖导出期间尚未提交的更新。
+     *
+     * @param categoryId 类别ID
+     * @param brandId 品牌ID
+     * @param status 产品状态
+     * @param updatedSince 只导出在该时刻及之后更新过的产品（ISO格式，如 2024-01-01T00:00:00）
+     * @return NDJSON流，每行一个产品
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) Product.ProductStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            HttpServletRequest request) {
+        log.info("导出产品目录请求，类别ID: {}, 品牌ID: {}, 状态: {}, 更新时间起: {}", categoryId, brandId, status, updatedSince);
+        
+        ProductExportQuery query = ProductExportQuery.builder()
+                .categoryId(categoryId)
+                .brandId(brandId)
+                .status(status)
+                .updatedSince(updatedSince)
+                .build();
+        StreamingResponseBody body = output -> productService.exportProducts(query, output);
+        disableAsyncTimeout(request);
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * 更新产品
      *
@@ -154,6 +303,7 @@ public class ProductController {
      * @param size 每页大小
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/search")
     public ResponseEntity<ApiResponse<Page<ProductDto>>> searchProductsByName(
             @RequestParam String name,
@@ -171,23 +321,49 @@ public class ProductController {
                 .build());
     }
 
+    /**
+     * 搜索补全
+     *
+     * @param prefix 用户输入的前缀
+     * @param limit 返回数量（最多10条）
+     * @return 补全建议列表
+     */
+    @CatalogETag(Scope.PRODUCTS)
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<SuggestionDto>>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SuggestionDto> suggestions = productService.suggest(prefix, limit);
+        
+        return ResponseEntity.ok(ApiResponse.<List<SuggestionDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取搜索补全成功")
+                .data(suggestions)
+                .build());
+    }
+
     /**
      * 按类别获取产品
      *
      * @param categoryId 类别ID
+     * @param includeSubcategories 是否包含所有后代类别下的产品
      * @param page 页码
      * @param size 每页大小
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsByCategory(
             @PathVariable Long categoryId,
+            @RequestParam(defaultValue = "false") boolean includeSubcategories,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("获取类别下的产品请求，类别ID: {}", categoryId);
+        log.info("获取类别下的产品请求，类别ID: {}, 包含子类别: {}", categoryId, includeSubcategories);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getProductsByCategoryId(categoryId, pageable);
+        Page<ProductDto> products = includeSubcategories
+                ? productService.getProductsByCategorySubtree(categoryId, pageable)
+                : productService.getProductsByCategoryId(categoryId, pageable);
         
         return ResponseEntity.ok(ApiResponse.<Page<ProductDto>>builder()
                 .status(HttpStatus.OK.value())
@@ -204,6 +380,7 @@ public class ProductController {
      * @param size 每页大小
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/brand/{brandId}")
     public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsByBrand(
             @PathVariable Long brandId,
@@ -226,18 +403,23 @@ public class ProductController {
      *
      * @param page 页码
      * @param size 每页大小
+     * @param view 视图（full为完整产品，summary为产品摘要）
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/on-sale")
-    public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsOnSale(
+    public ResponseEntity<ApiResponse<Page<?>>> getProductsOnSale(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "full") String view) {
         log.info("获取特价产品请求");
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getProductsOnSale(pageable);
+        Page<?> products = VIEW_SUMMARY.equalsIgnoreCase(view)
+                ? productService.getProductSummariesOnSale(pageable)
+                : productService.getProductsOnSale(pageable);
         
-        return ResponseEntity.ok(ApiResponse.<Page<ProductDto>>builder()
+        return ResponseEntity.ok(ApiResponse.<Page<?>>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取特价产品成功")
                 .data(products)
@@ -251,20 +433,25 @@ public class ProductController {
      * @param maxPrice 最高价格
      * @param page 页码
      * @param size 每页大小
+     * @param view 视图（full为完整产品，summary为产品摘要）
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/price-range")
-    public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsByPriceRange(
+    public ResponseEntity<ApiResponse<Page<?>>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice,
             @RequestParam BigDecimal maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "full") String view) {
         log.info("按价格范围获取产品请求: {} - {}", minPrice, maxPrice);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
+        Page<?> products = VIEW_SUMMARY.equalsIgnoreCase(view)
+                ? productService.getProductSummariesByPriceRange(minPrice, maxPrice, pageable)
+                : productService.getProductsByPriceRange(minPrice, maxPrice, pageable);
         
-        return ResponseEntity.ok(ApiResponse.<Page<ProductDto>>builder()
+        return ResponseEntity.ok(ApiResponse.<Page<?>>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取价格范围产品成功")
                 .data(products)
@@ -276,18 +463,23 @@ public class ProductController {
      *
      * @param page 页码
      * @param size 每页大小
+     * @param view 视图（full为完整产品，summary为产品摘要）
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/featured")
-    public ResponseEntity<ApiResponse<Page<ProductDto>>> getFeaturedProducts(
+    public ResponseEntity<ApiResponse<Page<?>>> getFeaturedProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "full") String view) {
         log.info("获取推荐产品请求");
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getFeaturedProducts(pageable);
+        Page<?> products = VIEW_SUMMARY.equalsIgnoreCase(view)
+                ? productService.getFeaturedProductSummaries(pageable)
+                : productService.getFeaturedProducts(pageable);
         
-        return ResponseEntity.ok(ApiResponse.<Page<ProductDto>>builder()
+        return ResponseEntity.ok(ApiResponse.<Page<?>>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取推荐产品成功")
                 .data(products)
@@ -300,19 +492,24 @@ public class ProductController {
      * @param status 产品状态
      * @param page 页码
      * @param size 每页大小
+     * @param view 视图（full为完整产品，summary为产品摘要）
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/status/{status}")
-    public ResponseEntity<ApiResponse<Page<ProductDto>>> getProductsByStatus(
+    public ResponseEntity<ApiResponse<Page<?>>> getProductsByStatus(
             @PathVariable Product.ProductStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "full") String view) {
         log.info("按状态获取产品请求: {}", status);
         
         Pageable pageable = PageRequest.of(page, size);
-        Page<ProductDto> products = productService.getProductsByStatus(status, pageable);
+        Page<?> products = VIEW_SUMMARY.equalsIgnoreCase(view)
+                ? productService.getProductSummariesByStatus(status, pageable)
+                : productService.getProductsByStatus(status, pageable);
         
-        return ResponseEntity.ok(ApiResponse.<Page<ProductDto>>builder()
+        return ResponseEntity.ok(ApiResponse.<Page<?>>builder()
                 .status(HttpStatus.OK.value())
                 .message("获取状态产品成功")
                 .data(products)
@@ -330,6 +527,7 @@ public class ProductController {
      * @param size 每页大小
      * @return 产品分页列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/filter")
     public ResponseEntity<ApiResponse<Page<ProductDto>>> filterProducts(
             @RequestParam(required = false) Long categoryId,
@@ -350,25 +548,180 @@ public class ProductController {
                 .build());
     }
 
+    /**
+     * 游标分页筛选产品
+     *
+     * @param categoryId 类别ID（可选）
+     * @param brandId 品牌ID（可选）
+     * @param minPrice 最低价格（可选）
+     * @param maxPrice 最高价格（可选）
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段（id, name, price, createdAt）
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    @CatalogETag(Scope.PRODUCTS)
+    @GetMapping("/filter/scroll")
+    public ResponseEntity<ApiResponse<CursorPageDto<ProductDto>>> scrollFilteredProducts(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long brandId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction) {
+        log.info("游标分页筛选产品请求: 类别ID={}, 品牌ID={}, 价格范围={}-{}", categoryId, brandId, minPrice, maxPrice);
+        
+        CursorPageDto<ProductDto> products = productService.scrollProductsByFilters(
+                categoryId, brandId, minPrice, maxPrice, cursor, size, sortBy, direction);
+        
+        return ResponseEntity.ok(ApiResponse.<CursorPageDto<ProductDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("筛选产品成功")
+                .data(products)
+                .build());
+    }
+
+    /**
+     * 分面筛选产品
+     * 同一维度内的多个取值为OR，不同维度之间为AND，响应中附带各维度的分面计数
+     *
+     * @param categoryIds 类别ID（可多个）
+     * @param brandIds 品牌ID（可多个）
+     * @param statuses 产品状态（可多个，默认ACTIVE）
+     * @param attrs 属性条件，格式为 属性名:属性值（可多个）
+     * @param page 页码
+     * @param size 每页大小
+     * @return 产品分页列表及分面计数
+     */
+    @CatalogETag(Scope.PRODUCTS)
+    @GetMapping("/facets")
+    public ResponseEntity<ApiResponse<FacetedPageDto<ProductDto>>> filterProductsByFacets(
+            @RequestParam(name = "categoryId", required = false) List<Long> categoryIds,
+            @RequestParam(name = "brandId", required = false) List<Long> brandIds,
+            @RequestParam(name = "status", defaultValue = "ACTIVE") List<Product.ProductStatus> statuses,
+            @RequestParam(name = "attr", required = false) List<String> attrs,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        log.info("分面筛选产品请求: 类别ID={}, 品牌ID={}, 状态={}, 属性={}", categoryIds, brandIds, statuses, attrs);
+        
+        FacetQuery query = FacetQuery.builder()
+                .categoryIds(categoryIds != null ? new HashSet<>(categoryIds) : new HashSet<>())
+                .brandIds(brandIds != null ? new HashSet<>(brandIds) : new HashSet<>())
+                .statuses(new HashSet<>(statuses))
+                .attributes(parseAttributeFilters(attrs))
+                .build();
+        
+        Pageable pageable = PageRequest.of(page, size);
+        FacetedPageDto<ProductDto> products = productService.filterProductsByFacets(query, pageable);
+        
+        return ResponseEntity.ok(ApiResponse.<FacetedPageDto<ProductDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("筛选产品成功")
+                .data(products)
+                .build());
+    }
+
+    /**
+     * 解析属性条件（属性名:属性值），同名属性的多个取值合并
+     */
+    private Map<String, Set<String>> parseAttributeFilters(List<String> attrs) {
+        Map<String, Set<String>> attributes = new HashMap<>();
+        if (attrs == null) {
+            return attributes;
+        }
+        for (String attr : attrs) {
+            int separator = attr.indexOf(':');
+            if (separator <= 0 || separator == attr.length() - 1) {
+                throw new IllegalArgumentException("属性条件格式错误，应为 属性名:属性值: " + attr);
+            }
+            attributes.computeIfAbsent(attr.substring(0, separator), name -> new HashSet<>())
+                    .add(attr.substring(separator + 1));
+        }
+        return attributes;
+    }
+
     /**
      * 更新产品库存
      *
      * @param id 产品ID
      * @param quantityChange 库存变化（正数增加，负数减少）
+     * @param correlationId 关联ID（如订单号，记录在库存流水中）
      * @return 更新后的产品
      */
     @PatchMapping("/{id}/stock")
-    public ResponseEntity<ApiResponse<ProductDto>> updateProductStock(
+    public CompletableFuture<ResponseEntity<ApiResponse<ProductDto>>> updateProductStock(
             @PathVariable Long id,
-            @RequestParam Integer quantityChange) {
+            @RequestParam Integer quantityChange,
+            @RequestParam(required = false) String correlationId) {
         log.info("更新产品库存请求，ID: {}, 变化量: {}", id, quantityChange);
         
-        ProductDto updatedProduct = productService.updateProductStock(id, quantityChange);
+        // 并发调整合并提交，请求线程不阻塞等待数据库写入
+        return productService.updateProductStockCoalesced(id, quantityChange, correlationId)
+                .thenApply(updatedProduct -> ResponseEntity.ok(ApiResponse.<ProductDto>builder()
+                        .status(HttpStatus.OK.value())
+                        .message("产品库存更新成功")
+                        .data(updatedProduct)
+                        .build()));
+    }
+
+    /**
+     * 开启热点库存模式
+     *
+     * @param id 产品ID
+     * @return 产品
+     */
+    @PutMapping("/{id}/stock/hot-mode")
+    public ResponseEntity<ApiResponse<ProductDto>> enableHotStock(@PathVariable Long id) {
+        log.info("开启热点库存模式请求，ID: {}", id);
+        
+        ProductDto product = productService.enableHotStock(id);
         
         return ResponseEntity.ok(ApiResponse.<ProductDto>builder()
                 .status(HttpStatus.OK.value())
-                .message("产品库存更新成功")
-                .data(updatedProduct)
+                .message("热点库存模式已开启")
+                .data(product)
+                .build());
+    }
+
+    /**
+     * 关闭热点库存模式
+     *
+     * @param id 产品ID
+     * @return 回写后的产品
+     */
+    @DeleteMapping("/{id}/stock/hot-mode")
+    public ResponseEntity<ApiResponse<ProductDto>> disableHotStock(@PathVariable Long id) {
+        log.info("关闭热点库存模式请求，ID: {}", id);
+        
+        ProductDto product = productService.disableHotStock(id);
+        
+        return ResponseEntity.ok(ApiResponse.<ProductDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("热点库存模式已关闭")
+                .data(product)
+                .build());
+    }
+
+    /**
+     * 批量调整库存
+     *
+     * @param request 批量库存调整请求
+     * @return 每行的调整结果
+     */
+    @PatchMapping("/stock/batch")
+    public ResponseEntity<ApiResponse<List<StockAdjustmentResultDto>>> adjustStockBatch(
+            @Valid @RequestBody BatchStockAdjustmentDto request) {
+        log.info("批量调整库存请求，明细数: {}", request.getItems().size());
+        
+        List<StockAdjustmentResultDto> results = productService.adjustStockBatch(request);
+        
+        return ResponseEntity.ok(ApiResponse.<List<StockAdjustmentResultDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("批量库存调整完成")
+                .data(results)
                 .build());
     }
 
@@ -378,6 +731,7 @@ public class ProductController {
      * @param threshold 库存阈值
      * @return 低库存产品列表
      */
+    @CatalogETag(Scope.PRODUCTS)
     @GetMapping("/low-stock")
     public ResponseEntity<ApiResponse<List<ProductDto>>> getLowStockProducts(
             @RequestParam(defaultValue = "5") Integer threshold) {
@@ -391,4 +745,40 @@ public class ProductController {
                 .data(products)
                 .build());
     }
+
+    /**
+     * 订阅低库存告警（Server-Sent Events）
+     * 产品库存越过配置的阈值时推送 low-stock 事件；客户端应先订阅再查询一次低库存产品作为初始状态
+     *
+     * @return 告警事件流
+     */
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts() {
+        log.info("订阅低库存告警请求");
+        return productService.subscribeLowStockAlerts();
+    }
+
+    /**
+     * 取消本次请求的异步超时，其他异步接口仍使用全局超时（spring.mvc.async.request-timeout）
+     * 拦截器在开始异步处理之前执行，此时设置的超时会应用到本次请求的异步上下文
+     */
+    private static void disableAsyncTimeout(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(NO_ASYNC_TIMEOUT, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest webRequest, Callable<T> task) {
+                if (webRequest instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(-1L);
+                }
+            }
+        });
+    }
+
+    /**
+     * 产品详情的ETag
+     * 属性和图片变更会刷新产品更新时间；类别和品牌名称不影响产品更新时间，需单独计入
+     */
+    private static String productETag(ProductDto product) {
+        return ETags.strong("product", product.getId(), product.getUpdatedAt(),
+                product.getCategoryName(), product.getBrandName());
+    }
 }
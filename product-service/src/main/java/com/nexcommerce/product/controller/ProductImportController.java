@@ -0,0 +1,67 @@
+package com.nexcommerce.product.controller;
+
+import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.dto.ProductImportJobDto;
+import com.nexcommerce.product.importer.ProductImportFormat;
+import com.nexcommerce.product.service.ProductImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 产品批量导入控制器
+ */
+@RestController
+@RequestMapping("/api/product-imports")
+@RequiredArgsConstructor
+@Slf4j
+public class ProductImportController {
+
+    private final ProductImportService productImportService;
+
+    /**
+     * 提交导入任务
+     * 请求体为整个文件（Content-Type 为 text/csv 或 application/x-ndjson），不经过multipart解析，不受上传大小限制
+     *
+     * @param contentType 文件格式
+     * @param body 文件内容
+     * @return 已提交的任务，通过任务ID查询进度
+     * @throws IOException 读取请求体失败
+     */
+    @PostMapping(consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<ProductImportJobDto>> startImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        log.info("提交产品导入请求，Content-Type: {}", contentType);
+        ProductImportJobDto job = productImportService.startImport(ProductImportFormat.fromContentType(contentType), body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.<ProductImportJobDto>builder()
+                        .status(HttpStatus.ACCEPTED.value())
+                        .message("导入任务已提交")
+                        .data(job)
+                        .build());
+    }
+
+    /**
+     * 查询导入任务进度和单行错误
+     *
+     * @param id 任务ID
+     * @return 任务进度
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<ProductImportJobDto>> getJob(@PathVariable String id) {
+        log.info("查询产品导入任务请求，ID: {}", id);
+        ProductImportJobDto job = productImportService.getJob(id);
+        return ResponseEntity.ok(ApiResponse.<ProductImportJobDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取导入任务成功")
+                .data(job)
+                .build());
+    }
+}
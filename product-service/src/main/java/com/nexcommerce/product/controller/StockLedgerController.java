@@ -0,0 +1,100 @@
+package com.nexcommerce.product.controller;
+
+import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.dto.StockLedgerEntryDto;
+import com.nexcommerce.product.dto.StockReconciliationDto;
+import com.nexcommerce.product.service.StockLedgerService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水控制器
+ */
+@RestController
+@RequestMapping("/api/stock-ledger")
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedgerController {
+
+    private final StockLedgerService stockLedgerService;
+
+    /**
+     * 获取产品的库存流水
+     *
+     * @param productId 产品ID
+     * @param page 页码
+     * @param size 每页大小
+     * @return 流水分页列表
+     */
+    @GetMapping("/products/{productId}/entries")
+    public ResponseEntity<ApiResponse<Page<StockLedgerEntryDto>>> getEntries(
+            @PathVariable Long productId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<StockLedgerEntryDto> entries = stockLedgerService.getEntries(productId, PageRequest.of(page, size));
+        return ResponseEntity.ok(ApiResponse.<Page<StockLedgerEntryDto>>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取库存流水成功")
+                .data(entries)
+                .build());
+    }
+
+    /**
+     * 获取产品在指定时刻的库存
+     *
+     * @param productId 产品ID
+     * @param time 时刻（ISO格式，如 2024-01-01T00:00:00）
+     * @return 库存
+     */
+    @GetMapping("/products/{productId}/stock-at")
+    public ResponseEntity<ApiResponse<Long>> getStockAt(
+            @PathVariable Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
+        long quantity = stockLedgerService.getStockAt(productId, time);
+        return ResponseEntity.ok(ApiResponse.<Long>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取历史库存成功")
+                .data(quantity)
+                .build());
+    }
+
+    /**
+     * 立即压缩流水为快照
+     *
+     * @return 生成的快照数量
+     */
+    @PostMapping("/compact")
+    public ResponseEntity<ApiResponse<Integer>> compact() {
+        log.info("库存流水压缩请求");
+        int created = stockLedgerService.compact();
+        return ResponseEntity.ok(ApiResponse.<Integer>builder()
+                .status(HttpStatus.OK.value())
+                .message("库存流水压缩完成")
+                .data(created)
+                .build());
+    }
+
+    /**
+     * 库存对账
+     *
+     * @return 对账结果
+     */
+    @PostMapping("/reconcile")
+    public ResponseEntity<ApiResponse<StockReconciliationDto>> reconcile() {
+        log.info("库存对账请求");
+        StockReconciliationDto result = stockLedgerService.reconcile();
+        return ResponseEntity.ok(ApiResponse.<StockReconciliationDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("库存对账完成")
+                .data(result)
+                .build());
+    }
+}
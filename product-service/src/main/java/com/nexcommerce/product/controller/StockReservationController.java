@@ -0,0 +1,109 @@
+package com.nexcommerce.product.controller;
+
+import com.nexcommerce.common.dto.ApiResponse;
+import com.nexcommerce.product.dto.StockAvailabilityDto;
+import com.nexcommerce.product.dto.StockReservationDto;
+import com.nexcommerce.product.service.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 库存预留控制器
+ */
+@RestController
+@RequestMapping("/api/stock-reservations")
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    /**
+     * 预留库存
+     *
+     * @param reservationDto 预留请求（产品ID、数量、持有时长）
+     * @return 创建的预留
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<StockReservationDto>> reserve(@Valid @RequestBody StockReservationDto reservationDto) {
+        log.info("预留库存请求，产品ID: {}, 数量: {}", reservationDto.getProductId(), reservationDto.getQuantity());
+        StockReservationDto reservation = stockReservationService.reserve(reservationDto);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.<StockReservationDto>builder()
+                        .status(HttpStatus.CREATED.value())
+                        .message("库存预留成功")
+                        .data(reservation)
+                        .build());
+    }
+
+    /**
+     * 获取预留
+     *
+     * @param id 预留ID
+     * @return 预留
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<StockReservationDto>> getReservation(@PathVariable Long id) {
+        log.info("获取库存预留请求，ID: {}", id);
+        StockReservationDto reservation = stockReservationService.getReservation(id);
+        return ResponseEntity.ok(ApiResponse.<StockReservationDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取库存预留成功")
+                .data(reservation)
+                .build());
+    }
+
+    /**
+     * 确认预留
+     *
+     * @param id 预留ID
+     * @return 确认后的预留
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ApiResponse<StockReservationDto>> confirm(@PathVariable Long id) {
+        log.info("确认库存预留请求，ID: {}", id);
+        StockReservationDto reservation = stockReservationService.confirm(id);
+        return ResponseEntity.ok(ApiResponse.<StockReservationDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("库存预留已确认")
+                .data(reservation)
+                .build());
+    }
+
+    /**
+     * 释放预留
+     *
+     * @param id 预留ID
+     * @return 释放后的预留
+     */
+    @PostMapping("/{id}/release")
+    public ResponseEntity<ApiResponse<StockReservationDto>> release(@PathVariable Long id) {
+        log.info("释放库存预留请求，ID: {}", id);
+        StockReservationDto reservation = stockReservationService.release(id);
+        return ResponseEntity.ok(ApiResponse.<StockReservationDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("库存预留已释放")
+                .data(reservation)
+                .build());
+    }
+
+    /**
+     * 获取产品的可售库存
+     *
+     * @param productId 产品ID
+     * @return 可售库存
+     */
+    @GetMapping("/availability/{productId}")
+    public ResponseEntity<ApiResponse<StockAvailabilityDto>> getAvailability(@PathVariable Long productId) {
+        StockAvailabilityDto availability = stockReservationService.getAvailability(productId);
+        return ResponseEntity.ok(ApiResponse.<StockAvailabilityDto>builder()
+                .status(HttpStatus.OK.value())
+                .message("获取可售库存成功")
+                .data(availability)
+                .build());
+    }
+}
@@ -0,0 +1,39 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.AttributeDefinition;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 属性定义数据传输对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeDefinitionDto {
+
+    private Long id;
+
+    @NotBlank(message = "属性名称不能为空")
+    private String attributeName;
+
+    @NotNull(message = "属性类型不能为空")
+    private AttributeDefinition.AttributeType type;
+
+    private String unit;
+
+    @Builder.Default
+    private Set<String> allowedValues = new HashSet<>();
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
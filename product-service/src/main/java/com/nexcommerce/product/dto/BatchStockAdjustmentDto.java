@@ -0,0 +1,37 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量库存调整请求
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchStockAdjustmentDto {
+
+    @NotEmpty(message = "库存调整明细不能为空")
+    @Valid
+    @Builder.Default
+    private List<StockAdjustmentDto> items = new ArrayList<>();
+
+    /**
+     * 为 true 时任一行失败则整批回滚；否则成功的行照常提交
+     */
+    @Builder.Default
+    private Boolean allOrNothing = false;
+
+    /**
+     * 关联ID（如订单号），记录在每行的库存流水中
+     */
+    private String correlationId;
+}
@@ -31,6 +31,11 @@ public class BrandDto {
     
     private Boolean isActive;
     private Integer sortOrder;
+
+    /**
+     * 该品牌下的在售产品数（只读，计数尚未构建时为空）
+     */
+    private Long productCount;
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
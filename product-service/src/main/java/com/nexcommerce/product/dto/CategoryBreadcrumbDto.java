@@ -0,0 +1,20 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 类别面包屑项
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryBreadcrumbDto {
+
+    private Long id;
+    private String name;
+    private String slug;
+}
@@ -3,6 +3,7 @@ package com.nexcommerce.product.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import jakarta.validation.constraints.NotBlank;
@@ -37,6 +38,18 @@ public class CategoryDto {
     
     private Boolean isActive;
     private Integer sortOrder;
+
+    /**
+     * 直接属于该类别的在售产品数（只读，计数尚未构建时为空）
+     */
+    @EqualsAndHashCode.Exclude
+    private Long productCount;
+
+    /**
+     * 该类别及其所有后代类别下的在售产品数（只读，计数尚未构建时为空）
+     */
+    @EqualsAndHashCode.Exclude
+    private Long subtreeProductCount;
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,39 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 分面筛选结果
+ * 各维度的计数为：应用除该维度以外的所有筛选条件后，每个取值下的产品数量
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedPageDto<T> {
+
+    private Page<T> content;
+
+    @Builder.Default
+    private Map<Long, Integer> categoryCounts = new HashMap<>();
+
+    @Builder.Default
+    private Map<Long, Integer> brandCounts = new HashMap<>();
+
+    @Builder.Default
+    private Map<Product.ProductStatus, Integer> statusCounts = new HashMap<>();
+
+    /**
+     * 属性计数（属性名 -> 属性值 -> 产品数量）
+     */
+    @Builder.Default
+    private Map<String, Map<String, Integer>> attributeCounts = new HashMap<>();
+}
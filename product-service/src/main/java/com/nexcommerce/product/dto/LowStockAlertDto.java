@@ -0,0 +1,40 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 低库存告警
+ * 产品库存越过配置的阈值时推送：由不低于阈值降到低于阈值为 BELOW，恢复到不低于阈值为 RECOVERED
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlertDto {
+
+    private Long productId;
+    private String sku;
+    private String name;
+    private AlertType type;
+    private Integer threshold;
+    private Integer quantity;
+
+    /**
+     * 变更前的库存（新建或重新上架的产品为空）
+     */
+    private Integer previousQuantity;
+
+    private LocalDateTime occurredAt;
+
+    /**
+     * 告警类型枚举
+     */
+    public enum AlertType {
+        BELOW, RECOVERED
+    }
+}
@@ -0,0 +1,25 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量获取产品请求，ids 和 skus 二选一
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchGetDto {
+
+    @Builder.Default
+    private List<Long> ids = new ArrayList<>();
+
+    @Builder.Default
+    private List<String> skus = new ArrayList<>();
+}
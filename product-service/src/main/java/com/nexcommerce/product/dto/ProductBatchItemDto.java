@@ -0,0 +1,33 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量获取产品的单项结果，与请求中的ID或SKU一一对应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBatchItemDto {
+
+    /**
+     * 请求的产品ID（按SKU获取时为空）
+     */
+    private Long id;
+
+    /**
+     * 请求的SKU（按ID获取时为空）
+     */
+    private String sku;
+
+    private boolean found;
+
+    /**
+     * 产品，未找到时为空
+     */
+    private ProductDto product;
+}
@@ -0,0 +1,27 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.ProductChange;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 产品变更数据传输对象
+ * 只描述哪个产品发生了哪类变更，消费者需要最新内容时按ID批量获取产品
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeDto {
+
+    private Long seq;
+    private Long productId;
+    private String sku;
+    private ProductChange.ChangeType changeType;
+    private Integer quantity;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,35 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 产品变更拉取结果
+ * 下次请求以 nextSince 作为 since；truncated 为 true 表示 since 之后的部分变更已过保留期被清理，
+ * 消费者需要全量同步后从 latestSeq 继续
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeFeedDto {
+
+    @Builder.Default
+    private List<ProductChangeDto> changes = new ArrayList<>();
+
+    private long nextSince;
+
+    private boolean hasMore;
+
+    private boolean truncated;
+
+    /**
+     * 拉取时已分配的最大序号
+     */
+    private long latestSeq;
+}
@@ -19,7 +19,7 @@ import java.util.Set;
  * 产品数据传输对象
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductDto {
@@ -0,0 +1,41 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 产品目录导出行
+ * 只包含产品表及其类别、品牌的列，通过构造器表达式流式加载（字段顺序即构造器参数顺序）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductExportDto {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private String description;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private Integer quantity;
+    private Long categoryId;
+    private String categoryName;
+    private Long brandId;
+    private String brandName;
+    private Product.ProductStatus status;
+    private Boolean isFeatured;
+    private Double weight;
+    private Double length;
+    private Double width;
+    private Double height;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
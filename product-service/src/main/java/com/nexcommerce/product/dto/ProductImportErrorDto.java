@@ -0,0 +1,28 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 产品导入的单行错误
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDto {
+
+    /**
+     * 数据行号（从1开始，不含表头）
+     */
+    private long rowNumber;
+
+    /**
+     * SKU（无法解析时为空）
+     */
+    private String sku;
+
+    private String message;
+}
@@ -0,0 +1,54 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.importer.ProductImportFormat;
+import com.nexcommerce.product.importer.ProductImportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 产品导入任务进度
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobDto {
+
+    private String id;
+
+    private ProductImportFormat format;
+
+    private ProductImportJob.Status status;
+
+    private long processedRows;
+
+    private long importedRows;
+
+    private long failedRows;
+
+    /**
+     * 平均处理速度（行/秒）
+     */
+    private long rowsPerSecond;
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime finishedAt;
+
+    /**
+     * 任务整体失败的原因
+     */
+    private String message;
+
+    /**
+     * 单行错误（最多保留前 {@link ProductImportJob#MAX_ERRORS} 条）
+     */
+    @Builder.Default
+    private List<ProductImportErrorDto> errors = new ArrayList<>();
+}
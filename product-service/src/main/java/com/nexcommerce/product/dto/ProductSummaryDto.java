@@ -0,0 +1,28 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * 产品摘要数据传输对象
+ * 用于商品列表网格展示，通过构造器表达式查询直接加载，不实例化产品实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSummaryDto {
+
+    private Long id;
+    private String name;
+    private String sku;
+    private BigDecimal price;
+    private BigDecimal salePrice;
+    private String primaryImageUrl;
+    private String categoryName;
+    private String brandName;
+}
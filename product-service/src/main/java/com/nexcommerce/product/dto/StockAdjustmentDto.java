@@ -0,0 +1,28 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * 单行库存调整
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDto {
+
+    @NotBlank(message = "产品SKU不能为空")
+    private String sku;
+
+    /**
+     * 库存变化（正数增加，负数减少）
+     */
+    @NotNull(message = "库存变化量不能为空")
+    private Integer quantityChange;
+}
@@ -0,0 +1,40 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单行库存调整结果，顺序与请求明细一致
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentResultDto {
+
+    private String sku;
+
+    private Long productId;
+
+    private Integer quantityChange;
+
+    private boolean success;
+
+    /**
+     * 调整后的库存（失败时为 null）
+     */
+    private Integer quantity;
+
+    /**
+     * 调整后的产品状态（失败时为 null）
+     */
+    private Product.ProductStatus status;
+
+    /**
+     * 失败原因
+     */
+    private String message;
+}
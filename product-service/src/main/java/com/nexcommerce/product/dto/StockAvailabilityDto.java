@@ -0,0 +1,28 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 产品可售库存
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAvailabilityDto {
+
+    private Long productId;
+
+    /**
+     * 可售库存（已扣除持有中的预留）
+     */
+    private Long availableToSell;
+
+    /**
+     * 是否处于热点库存模式
+     */
+    private boolean hotStock;
+}
@@ -0,0 +1,26 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.StockLedgerEntry;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水数据传输对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerEntryDto {
+
+    private Long id;
+    private Long productId;
+    private Integer delta;
+    private StockLedgerEntry.MovementReason reason;
+    private String correlationId;
+    private LocalDateTime createdAt;
+}
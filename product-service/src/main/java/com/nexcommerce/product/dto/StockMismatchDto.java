@@ -0,0 +1,28 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 对账差异：产品表中的库存与按流水推算的库存不一致
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMismatchDto {
+
+    private Long productId;
+
+    /**
+     * products.quantity
+     */
+    private Integer quantity;
+
+    /**
+     * 按快照和流水推算的库存
+     */
+    private Long ledgerQuantity;
+}
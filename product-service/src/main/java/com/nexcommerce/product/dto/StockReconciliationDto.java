@@ -0,0 +1,29 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 库存对账结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReconciliationDto {
+
+    private LocalDateTime startedAt;
+
+    private long durationMillis;
+
+    private long checkedProducts;
+
+    @Builder.Default
+    private List<StockMismatchDto> mismatches = new ArrayList<>();
+}
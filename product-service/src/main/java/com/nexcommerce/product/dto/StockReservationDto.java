@@ -0,0 +1,44 @@
+package com.nexcommerce.product.dto;
+
+import com.nexcommerce.product.model.StockReservation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import java.time.LocalDateTime;
+
+/**
+ * 库存预留数据传输对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationDto {
+
+    private Long id;
+
+    @NotNull(message = "产品ID不能为空")
+    private Long productId;
+
+    @NotNull(message = "预留数量不能为空")
+    @Positive(message = "预留数量必须为正数")
+    private Integer quantity;
+
+    /**
+     * 持有时长（秒），创建时使用，为空时使用默认时长
+     */
+    @Positive(message = "持有时长必须为正数")
+    private Long ttlSeconds;
+
+    private StockReservation.ReservationStatus status;
+
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
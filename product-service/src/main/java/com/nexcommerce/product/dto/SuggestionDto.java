@@ -0,0 +1,29 @@
+package com.nexcommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 搜索补全建议数据传输对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SuggestionDto {
+
+    private Type type;
+
+    private Long id;
+
+    private String text;
+
+    /**
+     * 建议类型
+     */
+    public enum Type {
+        PRODUCT, CATEGORY, BRAND
+    }
+}
@@ -0,0 +1,15 @@
+package com.nexcommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 属性定义变更事件
+ * 属性定义创建、修改或删除时发布，监听器在事务提交后按新定义重建该属性的索引
+ */
+@Getter
+@AllArgsConstructor
+public class AttributeDefinitionChangedEvent {
+
+    private final String attributeName;
+}
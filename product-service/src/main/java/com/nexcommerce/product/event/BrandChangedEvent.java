@@ -0,0 +1,30 @@
+package com.nexcommerce.product.event;
+
+import com.nexcommerce.product.dto.BrandDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 品牌变更事件
+ * 在品牌写事务中发布，监听器一般在事务提交后处理
+ */
+@Getter
+@AllArgsConstructor
+public class BrandChangedEvent {
+
+    private final Type type;
+
+    private final Long brandId;
+
+    /**
+     * 变更后的品牌；删除事件为 null
+     */
+    private final BrandDto brand;
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,40 @@
+package com.nexcommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 目录版本变化事件
+ * 由 {@link com.nexcommerce.product.cache.CatalogSync} 发现共享版本变化（包括其他实例上的变更）后在同步线程中发布，
+ * 进程内的缓存和快照据此重新加载；监听器返回后该版本才记为已应用
+ */
+@Getter
+@AllArgsConstructor
+public class CatalogVersionChangedEvent {
+
+    private final Catalog catalog;
+
+    private final long version;
+
+    /**
+     * 有共享版本的目录数据
+     */
+    public enum Catalog {
+        CATEGORIES("categories"),
+        BRANDS("brands"),
+        ATTRIBUTE_DEFINITIONS("attribute-definitions");
+
+        private final String key;
+
+        Catalog(String key) {
+            this.key = key;
+        }
+
+        /**
+         * catalog_versions 表中的行名
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.nexcommerce.product.event;
+
+import com.nexcommerce.product.dto.CategoryDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 类别变更事件
+ * 在类别写事务中发布，监听器一般在事务提交后处理
+ */
+@Getter
+@AllArgsConstructor
+public class CategoryChangedEvent {
+
+    private final Type type;
+
+    private final Long categoryId;
+
+    /**
+     * 变更后的类别；删除事件为 null
+     */
+    private final CategoryDto category;
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+}
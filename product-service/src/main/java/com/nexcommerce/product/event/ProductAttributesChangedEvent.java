@@ -0,0 +1,15 @@
+package com.nexcommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 产品属性变更事件
+ * 在产品属性写事务中发布，监听器在事务提交后重新加载该产品的属性
+ */
+@Getter
+@AllArgsConstructor
+public class ProductAttributesChangedEvent {
+
+    private final Long productId;
+}
@@ -0,0 +1,31 @@
+package com.nexcommerce.product.event;
+
+import com.nexcommerce.product.dto.ProductDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 产品变更事件
+ * 在产品写事务中发布，监听器一般在事务提交后处理（如更新内存索引）
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Type type;
+
+    private final Long productId;
+
+    /**
+     * 变更后的产品；删除事件为删除前的产品
+     */
+    private final ProductDto product;
+
+    /**
+     * 变更类型
+     * STOCK_CHANGED 表示只有库存（及随之变化的状态）发生变化，监听器可按 UPDATED 处理
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED
+    }
+}
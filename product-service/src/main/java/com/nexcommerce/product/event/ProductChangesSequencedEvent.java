@@ -0,0 +1,18 @@
+package com.nexcommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 产品变更定序完成事件
+ * 定序事务提交后在定序线程中发布，服务端的变更流处理方（如消息发布器）据此立即处理新变更
+ */
+@Getter
+@AllArgsConstructor
+public class ProductChangesSequencedEvent {
+
+    /**
+     * 已分配的最大序号
+     */
+    private final long latestSeq;
+}
@@ -0,0 +1,15 @@
+package com.nexcommerce.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 产品图片变更事件
+ * 在产品图片写事务中发布
+ */
+@Getter
+@AllArgsConstructor
+public class ProductImagesChangedEvent {
+
+    private final Long productId;
+}
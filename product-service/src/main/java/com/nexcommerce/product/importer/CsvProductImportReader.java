@@ -0,0 +1,257 @@
+package com.nexcommerce.product.importer;
+
+import com.nexcommerce.product.dto.ProductAttributeDto;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.ProductImageDto;
+import com.nexcommerce.product.model.Product;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * CSV产品导入读取器
+ * 首行为表头（不区分大小写），支持的列：
+ * name, sku, description, price, salePrice, quantity, categoryId, categoryName, brandId, brandName,
+ * status, isFeatured, weight, length, width, height；
+ * images 列为以 | 分隔的图片URL（第一张为主图）；
+ * 以 attr: 开头的列为产品属性，列名去掉前缀即属性名，空值表示该产品没有此属性。
+ * 字段按 RFC 4180 解析：双引号包围的字段可以包含逗号、换行，字段内的双引号写作两个双引号。
+ */
+class CsvProductImportReader implements ProductImportReader {
+
+    private static final String ATTRIBUTE_PREFIX = "attr:";
+    private static final String IMAGE_SEPARATOR = "\\|";
+
+    private final BufferedReader reader;
+
+    /**
+     * 列下标 -> 小写列名
+     */
+    private final String[] columns;
+
+    /**
+     * 列下标 -> 属性名，非属性列为 null
+     */
+    private final String[] attributeNames;
+
+    private final StringBuilder field = new StringBuilder();
+    private long rowNumber;
+
+    CsvProductImportReader(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        List<String> header = readRecord();
+        if (header == null) {
+            header = List.of();
+        }
+        this.columns = new String[header.size()];
+        this.attributeNames = new String[header.size()];
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            // 去掉Excel导出文件开头的BOM
+            if (i == 0 && column.startsWith("\uFEFF")) {
+                column = column.substring(1);
+            }
+            if (column.regionMatches(true, 0, ATTRIBUTE_PREFIX, 0, ATTRIBUTE_PREFIX.length())) {
+                attributeNames[i] = column.substring(ATTRIBUTE_PREFIX.length()).trim();
+            }
+            columns[i] = column.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+            rowNumber++;
+        } while (record.size() == 1 && record.get(0).isEmpty());
+
+        if (record.size() > columns.length) {
+            return ProductImportRow.failed(rowNumber, "列数(" + record.size() + ")多于表头列数(" + columns.length + ")");
+        }
+        try {
+            return ProductImportRow.of(rowNumber, toProduct(record));
+        } catch (IllegalArgumentException e) {
+            return ProductImportRow.failed(rowNumber, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private ProductDto toProduct(List<String> record) {
+        ProductDto product = new ProductDto();
+        Map<String, String> values = new HashMap<>();
+        int attributeOrder = 0;
+        for (int i = 0; i < record.size(); i++) {
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (attributeNames[i] != null) {
+                ProductAttributeDto attribute = new ProductAttributeDto();
+                attribute.setAttributeName(attributeNames[i]);
+                attribute.setAttributeValue(value);
+                attribute.setIsFilterable(true);
+                attribute.setIsVisible(true);
+                attribute.setSortOrder(attributeOrder++);
+                product.addAttribute(attribute);
+            } else {
+                values.put(columns[i], value);
+            }
+        }
+
+        product.setName(values.get("name"));
+        product.setSku(values.get("sku"));
+        product.setDescription(values.get("description"));
+        product.setPrice(decimal(values, "price"));
+        product.setSalePrice(decimal(values, "saleprice"));
+        product.setQuantity(integer(values, "quantity"));
+        product.setCategoryId(id(values, "categoryid"));
+        product.setCategoryName(values.get("categoryname"));
+        product.setBrandId(id(values, "brandid"));
+        product.setBrandName(values.get("brandname"));
+        product.setStatus(status(values.get("status")));
+        product.setIsFeatured(values.containsKey("isfeatured") ? Boolean.valueOf(values.get("isfeatured")) : null);
+        product.setWeight(dimension(values, "weight"));
+        product.setLength(dimension(values, "length"));
+        product.setWidth(dimension(values, "width"));
+        product.setHeight(dimension(values, "height"));
+
+        String images = values.get("images");
+        if (images != null) {
+            int sortOrder = 0;
+            for (String url : images.split(IMAGE_SEPARATOR)) {
+                if (url.isBlank()) {
+                    continue;
+                }
+                ProductImageDto image = new ProductImageDto();
+                image.setImageUrl(url.trim());
+                image.setIsPrimary(sortOrder == 0);
+                image.setSortOrder(sortOrder++);
+                product.addImage(image);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * 读取一条记录，文件结束时返回 null
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("第" + (rowNumber + 1) + "行的引号未闭合");
+                }
+                if (c == '"') {
+                    int nextChar = reader.read();
+                    if (nextChar == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = nextChar;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        record.add(field.toString());
+        return record;
+    }
+
+    private static BigDecimal decimal(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " 不是有效的数值: " + value);
+        }
+    }
+
+    private static Integer integer(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " 不是有效的整数: " + value);
+        }
+    }
+
+    private static Long id(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " 不是有效的ID: " + value);
+        }
+    }
+
+    private static Double dimension(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " 不是有效的数值: " + value);
+        }
+    }
+
+    private static Product.ProductStatus status(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Product.ProductStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("status 不是有效的产品状态: " + value);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.nexcommerce.product.importer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.nexcommerce.product.dto.ProductDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * NDJSON产品导入读取器
+ * 每个非空行是一个产品JSON对象，字段同 {@link ProductDto}（含 attributes 和 images 数组，
+ * 类别和品牌可用 categoryId/brandId 或 categoryName/brandName 指定）
+ */
+class NdjsonProductImportReader implements ProductImportReader {
+
+    private final BufferedReader reader;
+    private final ObjectReader productReader;
+    private long rowNumber;
+
+    NdjsonProductImportReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.productReader = objectMapper.readerFor(ProductDto.class);
+    }
+
+    @Override
+    public ProductImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            rowNumber++;
+        } while (line.isBlank());
+
+        try {
+            return ProductImportRow.of(rowNumber, productReader.readValue(line));
+        } catch (JsonProcessingException e) {
+            return ProductImportRow.failed(rowNumber, "JSON格式错误: " + e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
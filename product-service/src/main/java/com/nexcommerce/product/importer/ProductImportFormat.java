@@ -0,0 +1,48 @@
+package com.nexcommerce.product.importer;
+
+import org.springframework.http.MediaType;
+
+/**
+ * 产品导入文件格式
+ */
+public enum ProductImportFormat {
+
+    /**
+     * 带表头的CSV，列说明见 {@link CsvProductImportReader}
+     */
+    CSV("text/csv"),
+
+    /**
+     * 每行一个产品JSON对象，字段同 {@link com.nexcommerce.product.dto.ProductDto}
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    ProductImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 根据请求的Content-Type确定导入格式
+     *
+     * @param contentType Content-Type
+     * @return 导入格式
+     * @throws IllegalArgumentException 不支持的格式
+     */
+    public static ProductImportFormat fromContentType(String contentType) {
+        if (contentType != null) {
+            MediaType type = MediaType.parseMediaType(contentType);
+            for (ProductImportFormat format : values()) {
+                if (type.isCompatibleWith(MediaType.parseMediaType(format.mediaType))) {
+                    return format;
+                }
+            }
+        }
+        throw new IllegalArgumentException("不支持的导入格式: " + contentType + "，支持 text/csv 和 application/x-ndjson");
+    }
+}
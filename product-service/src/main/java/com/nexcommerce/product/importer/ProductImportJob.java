@@ -0,0 +1,110 @@
+package com.nexcommerce.product.importer;
+
+import com.nexcommerce.product.dto.ProductImportErrorDto;
+import com.nexcommerce.product.dto.ProductImportJobDto;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 产品导入任务
+ * 由导入线程更新进度，查询线程和定时保存读取快照
+ */
+public class ProductImportJob {
+
+    /**
+     * 保留的单行错误上限，超出部分只计数
+     */
+    public static final int MAX_ERRORS = 1000;
+
+    @Getter
+    private final String id;
+
+    @Getter
+    private final ProductImportFormat format;
+
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+    private final List<ProductImportErrorDto> errors = new ArrayList<>();
+
+    private volatile Status status = Status.PENDING;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String message;
+
+    public ProductImportJob(String id, ProductImportFormat format) {
+        this.id = id;
+        this.format = format;
+    }
+
+    public void start() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void imported(int rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    public void failed(long rowNumber, String sku, String error) {
+        failedRows.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new ProductImportErrorDto(rowNumber, sku, error));
+            }
+        }
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void abort(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public ProductImportJobDto toDto() {
+        long imported = importedRows.get();
+        long failed = failedRows.get();
+        long rowsPerSecond = 0;
+        if (startedAt != null) {
+            long millis = Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toMillis();
+            rowsPerSecond = millis > 0 ? (imported + failed) * 1000 / millis : 0;
+        }
+        List<ProductImportErrorDto> errorsSnapshot;
+        synchronized (errors) {
+            errorsSnapshot = new ArrayList<>(errors);
+        }
+        return ProductImportJobDto.builder()
+                .id(id)
+                .format(format)
+                .status(status)
+                .processedRows(imported + failed)
+                .importedRows(imported)
+                .failedRows(failed)
+                .rowsPerSecond(rowsPerSecond)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .message(message)
+                .errors(errorsSnapshot)
+                .build();
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,47 @@
+package com.nexcommerce.product.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 产品导入文件流式读取器
+ * 逐行解析，任何时刻只持有当前行；单行解析失败不影响后续行
+ */
+public interface ProductImportReader extends Closeable {
+
+    /**
+     * 读取下一行
+     *
+     * @return 解析出的行，文件结束时返回 null
+     * @throws IOException 读取失败
+     */
+    ProductImportRow next() throws IOException;
+
+    /**
+     * 按格式打开读取器（UTF-8编码）
+     *
+     * @param format 文件格式
+     * @param input 输入流，由读取器负责关闭
+     * @param objectMapper JSON解析器
+     * @return 读取器
+     * @throws IOException 读取表头失败
+     */
+    static ProductImportReader open(ProductImportFormat format, InputStream input, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        switch (format) {
+            case CSV:
+                return new CsvProductImportReader(reader);
+            case NDJSON:
+                return new NdjsonProductImportReader(reader, objectMapper);
+            default:
+                reader.close();
+                throw new IllegalArgumentException("不支持的导入格式: " + format);
+        }
+    }
+}
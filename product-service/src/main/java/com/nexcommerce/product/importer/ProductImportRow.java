@@ -0,0 +1,31 @@
+package com.nexcommerce.product.importer;
+
+import com.nexcommerce.product.dto.ProductDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 导入文件中解析出的一行
+ * 解析失败时 product 为空，error 为失败原因
+ */
+@Getter
+@AllArgsConstructor
+public class ProductImportRow {
+
+    /**
+     * 数据行号（从1开始，不含表头）
+     */
+    private final long rowNumber;
+
+    private final ProductDto product;
+
+    private final String error;
+
+    public static ProductImportRow of(long rowNumber, ProductDto product) {
+        return new ProductImportRow(rowNumber, product, null);
+    }
+
+    public static ProductImportRow failed(long rowNumber, String error) {
+        return new ProductImportRow(rowNumber, null, error);
+    }
+}
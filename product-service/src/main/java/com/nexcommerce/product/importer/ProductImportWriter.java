@@ -0,0 +1,168 @@
+package com.nexcommerce.product.importer;
+
+import com.nexcommerce.product.dto.ProductAttributeDto;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.ProductImageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 产品导入批量写入
+ * 绕过JPA直接用JDBC批量插入产品、属性和图片（IDENTITY主键的实体无法由Hibernate批量插入），
+ * 配合连接参数 rewriteBatchedStatements=true，每批在MySQL上被改写为一条多行INSERT。
+ * 必须在调用方的事务中执行；插入后按SKU回查产品ID，不依赖驱动对批量语句返回的自增键。
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportWriter {
+
+    private static final String INSERT_PRODUCT_SQL = "INSERT INTO products (name, sku, description, price, sale_price, " +
+            "quantity, category_id, brand_id, status, is_featured, weight, length, width, height, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ATTRIBUTE_SQL = "INSERT INTO product_attributes (product_id, attribute_name, " +
+            "attribute_value, attribute_group, is_filterable, is_visible, sort_order, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_IMAGE_SQL = "INSERT INTO product_images (product_id, image_url, alt_text, " +
+            "is_primary, sort_order, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 批量插入产品及其属性和图片，并回填产品ID（同时回填到属性和图片DTO）
+     * 产品的 createdAt/updatedAt 需由调用方预先设置
+     *
+     * @param products 产品DTO列表（SKU互不相同且不存在于数据库中）
+     */
+    public void insert(List<ProductDto> products) {
+        if (products.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, products, products.size(), (statement, product) -> {
+            Timestamp now = Timestamp.valueOf(product.getCreatedAt());
+            statement.setString(1, product.getName());
+            statement.setString(2, product.getSku());
+            statement.setString(3, product.getDescription());
+            statement.setBigDecimal(4, product.getPrice());
+            statement.setBigDecimal(5, product.getSalePrice());
+            statement.setInt(6, product.getQuantity());
+            setLong(statement, 7, product.getCategoryId());
+            setLong(statement, 8, product.getBrandId());
+            statement.setString(9, product.getStatus().name());
+            setBoolean(statement, 10, product.getIsFeatured());
+            setDouble(statement, 11, product.getWeight());
+            setDouble(statement, 12, product.getLength());
+            setDouble(statement, 13, product.getWidth());
+            setDouble(statement, 14, product.getHeight());
+            statement.setTimestamp(15, now);
+            statement.setTimestamp(16, now);
+        });
+
+        Map<String, Long> ids = findIdsBySku(products);
+        List<ProductAttributeDto> attributes = new ArrayList<>();
+        List<ProductImageDto> images = new ArrayList<>();
+        for (ProductDto product : products) {
+            Long id = ids.get(product.getSku());
+            product.setId(id);
+            for (ProductAttributeDto attribute : product.getAttributes()) {
+                attribute.setProductId(id);
+                attribute.setCreatedAt(product.getCreatedAt());
+                attribute.setUpdatedAt(product.getCreatedAt());
+                attributes.add(attribute);
+            }
+            for (ProductImageDto image : product.getImages()) {
+                image.setProductId(id);
+                image.setCreatedAt(product.getCreatedAt());
+                image.setUpdatedAt(product.getCreatedAt());
+                images.add(image);
+            }
+        }
+
+        if (!attributes.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ATTRIBUTE_SQL, attributes, attributes.size(), (statement, attribute) -> {
+                statement.setLong(1, attribute.getProductId());
+                statement.setString(2, attribute.getAttributeName());
+                statement.setString(3, attribute.getAttributeValue());
+                statement.setString(4, attribute.getAttributeGroup());
+                setBoolean(statement, 5, attribute.getIsFilterable());
+                setBoolean(statement, 6, attribute.getIsVisible());
+                setInt(statement, 7, attribute.getSortOrder());
+                statement.setTimestamp(8, Timestamp.valueOf(attribute.getCreatedAt()));
+                statement.setTimestamp(9, Timestamp.valueOf(attribute.getUpdatedAt()));
+            });
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE_SQL, images, images.size(), (statement, image) -> {
+                statement.setLong(1, image.getProductId());
+                statement.setString(2, image.getImageUrl());
+                statement.setString(3, image.getAltText());
+                setBoolean(statement, 4, image.getIsPrimary());
+                setInt(statement, 5, image.getSortOrder());
+                statement.setTimestamp(6, Timestamp.valueOf(image.getCreatedAt()));
+                statement.setTimestamp(7, Timestamp.valueOf(image.getUpdatedAt()));
+            });
+        }
+    }
+
+    private Map<String, Long> findIdsBySku(List<ProductDto> products) {
+        if (products.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        StringBuilder sql = new StringBuilder("SELECT id, sku FROM products WHERE sku IN (");
+        Object[] skus = new Object[products.size()];
+        for (int i = 0; i < skus.length; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+            skus[i] = products.get(i).getSku();
+        }
+        sql.append(')');
+        Map<String, Long> ids = new HashMap<>(skus.length * 2);
+        jdbcTemplate.query(sql.toString(), resultSet -> {
+            ids.put(resultSet.getString(2), resultSet.getLong(1));
+        }, skus);
+        return ids;
+    }
+
+    private static void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
+        if (value != null) {
+            statement.setLong(index, value);
+        } else {
+            statement.setNull(index, Types.BIGINT);
+        }
+    }
+
+    private static void setInt(PreparedStatement statement, int index, Integer value) throws SQLException {
+        if (value != null) {
+            statement.setInt(index, value);
+        } else {
+            statement.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setDouble(PreparedStatement statement, int index, Double value) throws SQLException {
+        if (value != null) {
+            statement.setDouble(index, value);
+        } else {
+            statement.setNull(index, Types.DOUBLE);
+        }
+    }
+
+    private static void setBoolean(PreparedStatement statement, int index, Boolean value) throws SQLException {
+        if (value != null) {
+            statement.setBoolean(index, value);
+        } else {
+            statement.setNull(index, Types.BOOLEAN);
+        }
+    }
+}
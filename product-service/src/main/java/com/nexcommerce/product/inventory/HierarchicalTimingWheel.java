@@ -0,0 +1,109 @@
+package com.nexcommerce.product.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮
+ * 第 i 层每个槽覆盖 wheelSize^i 个tick，添加和每个tick的推进都是 O(1)（摊还），
+ * 到期任务只在所在槽被推进到时才被访问，无需扫描全部任务。
+ * 高层的槽被推进到时，其中的任务按剩余时间重新放入低层（降级）。
+ * 超出最高层范围的任务放入最高层最远的槽，到时再重新计算。
+ * 非线程安全，由调用方同步。
+ *
+ * @param <T> 任务类型
+ */
+class HierarchicalTimingWheel<T> {
+
+    private final int wheelSize;
+    private final long[] spans;
+    private final List<ArrayDeque<TimerEntry<T>>[]> levels = new ArrayList<>();
+    private long currentTick;
+
+    /**
+     * @param wheelSize 每层槽数
+     * @param levelCount 层数
+     * @param startTick 起始tick
+     */
+    @SuppressWarnings("unchecked")
+    HierarchicalTimingWheel(int wheelSize, int levelCount, long startTick) {
+        this.wheelSize = wheelSize;
+        this.spans = new long[levelCount];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            spans[level] = span;
+            ArrayDeque<TimerEntry<T>>[] slots = new ArrayDeque[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                slots[i] = new ArrayDeque<>();
+            }
+            levels.add(slots);
+            span = Math.multiplyExact(span, wheelSize);
+        }
+        this.currentTick = startTick;
+    }
+
+    /**
+     * 添加任务
+     *
+     * @param item 任务
+     * @param deadlineTick 到期tick
+     * @param expired 已到期（deadlineTick 不晚于当前tick）时任务直接加入此列表
+     */
+    void add(T item, long deadlineTick, List<T> expired) {
+        long remaining = deadlineTick - currentTick;
+        if (remaining <= 0) {
+            expired.add(item);
+            return;
+        }
+        int top = spans.length - 1;
+        for (int level = 0; level <= top; level++) {
+            if (level == top || remaining < spans[level] * wheelSize) {
+                // 超出最高层范围时放入最远的槽，到时重新计算
+                long slotTick = level == top && remaining >= spans[top] * wheelSize
+                        ? currentTick + spans[top] * (wheelSize - 1)
+                        : deadlineTick;
+                int slot = (int) ((slotTick / spans[level]) % wheelSize);
+                levels.get(level)[slot].add(new TimerEntry<>(item, deadlineTick));
+                return;
+            }
+        }
+    }
+
+    /**
+     * 推进到指定tick，返回期间到期的任务
+     *
+     * @param nowTick 当前tick
+     * @return 到期任务
+     */
+    List<T> advanceTo(long nowTick) {
+        List<T> expired = new ArrayList<>();
+        while (currentTick < nowTick) {
+            currentTick++;
+            for (int level = spans.length - 1; level > 0; level--) {
+                if (currentTick % spans[level] == 0) {
+                    ArrayDeque<TimerEntry<T>> slot = levels.get(level)[(int) ((currentTick / spans[level]) % wheelSize)];
+                    while (!slot.isEmpty()) {
+                        TimerEntry<T> entry = slot.poll();
+                        add(entry.item, entry.deadlineTick, expired);
+                    }
+                }
+            }
+            ArrayDeque<TimerEntry<T>> slot = levels.get(0)[(int) (currentTick % wheelSize)];
+            while (!slot.isEmpty()) {
+                expired.add(slot.poll().item);
+            }
+        }
+        return expired;
+    }
+
+    private static class TimerEntry<T> {
+        private final T item;
+        private final long deadlineTick;
+
+        TimerEntry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.product.cache.ProductCache;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.mapper.ProductMapper;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热点库存管理
+ * 秒杀等场景下，开启热点模式的产品的库存调整不再逐个更新数据库行，而是在计数存储中无锁扣减，
+ * 累计的变化量由定时任务批量回写 products.quantity。
+ * 计数存储的扣减是"检查并扣减"的原子操作，且开启时以加行锁读取的数据库库存为初值，因此不会超卖；
+ * 回写和关闭时先对产品行加锁再取出变化量，保证取出的变化量在释放行锁前写入数据库；回写事务回滚时放回取出的变化量。
+ * 产品是否处于热点模式以产品行上的标记为准（开启和关闭都持有行锁），非热点产品的库存写入不访问计数存储，
+ * 计数存储不可用时只影响热点产品。
+ * 计数存储默认使用所有实例共享的Redis；进程内分段计数只在单实例部署或测试中通过
+ * product.inventory.hot-stock.store=local 显式启用。共享存储不可用时拒绝开启热点模式，
+ * 否则其他实例看不到热点模式，会继续直接写数据库库存而导致超卖。
+ */
+@Component
+@Slf4j
+public class HotStockManager {
+
+    private final HotStockStore store;
+
+    /**
+     * 计数存储是否可用于开启热点模式
+     */
+    private final boolean enableAllowed;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * 本实例已知的热点产品，回写任务定期从计数存储刷新
+     */
+    private volatile Set<Long> knownHotIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public HotStockManager(@Value("${product.inventory.hot-stock.stripes:16}") int stripes,
+                           @Value("${product.inventory.hot-stock.store:redis}") String storeType,
+                           ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                           ProductRepository productRepository,
+                           ProductMapper productMapper,
+                           ProductCache productCache,
+                           ApplicationEventPublisher eventPublisher,
+                           StockLedger stockLedger,
+                           PlatformTransactionManager transactionManager) {
+        this(createStore(stripes, storeType, redisTemplateProvider), isEnableAllowed(storeType, redisTemplateProvider),
+                productRepository, productMapper, productCache, eventPublisher, stockLedger, transactionManager);
+    }
+
+    HotStockManager(HotStockStore store,
+                    boolean enableAllowed,
+                    ProductRepository productRepository,
+                    ProductMapper productMapper,
+                    ProductCache productCache,
+                    ApplicationEventPublisher eventPublisher,
+                    StockLedger stockLedger,
+                    PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.enableAllowed = enableAllowed;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.eventPublisher = eventPublisher;
+        this.stockLedger = stockLedger;
+        // 回写失败后的补偿在原事务完成后执行，需要独立的新事务
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    private static HotStockStore createStore(int stripes, String storeType,
+                                             ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        boolean local = "local".equalsIgnoreCase(storeType);
+        StringRedisTemplate redisTemplate = local ? null : redisTemplateProvider.getIfAvailable();
+        if (redisTemplate != null) {
+            log.info("热点库存计数存储: Redis");
+            return new RedisHotStockStore(redisTemplate);
+        }
+        if (local) {
+            log.warn("热点库存计数存储: 进程内分段计数（分段数: {}），仅适用于单实例部署", stripes);
+        } else {
+            log.warn("未配置Redis，热点库存模式不可用");
+        }
+        return new StripedHotStockStore(stripes);
+    }
+
+    private static boolean isEnableAllowed(String storeType, ObjectProvider<StringRedisTemplate> redisTemplateProvider) {
+        return "local".equalsIgnoreCase(storeType) || redisTemplateProvider.getIfAvailable() != null;
+    }
+
+    /**
+     * 加锁读取的产品是否处于热点模式
+     * 开启和关闭热点模式都持有行锁，加锁后的判断结果在本事务结束前不会改变
+     *
+     * @param locked 加行锁读取的产品
+     * @return 是否处于热点模式
+     */
+    public static boolean isHot(Product locked) {
+        return Boolean.TRUE.equals(locked.getHotStock());
+    }
+
+    /**
+     * 产品是否是本实例已知的热点产品（不访问计数存储）
+     * 只用于未加锁的快速路径：结果可能滞后，据此调整返回 {@link HotStockStore#NOT_HOT} 时应改走加锁路径
+     *
+     * @param productId 产品ID
+     * @return 是否是已知的热点产品
+     */
+    public boolean isKnownHot(Long productId) {
+        return knownHotIds.contains(productId);
+    }
+
+    /**
+     * 开启热点模式（调用方须已对产品行加锁，并在同一事务中设置产品的热点模式标记）
+     *
+     * @param productId 产品ID
+     * @param quantity 加锁读取的数据库库存
+     * @return 是否开启成功（已开启时返回 false）
+     * @throws IllegalStateException 未配置共享计数存储
+     */
+    public boolean enable(Long productId, int quantity) {
+        if (!enableAllowed) {
+            throw new IllegalStateException("热点库存模式需要共享计数存储（Redis），当前未配置");
+        }
+        if (!store.enable(productId, quantity)) {
+            return false;
+        }
+        knownHotIds.add(productId);
+        return true;
+    }
+
+    /**
+     * 关闭热点模式（调用方须已对产品行加锁，清除产品的热点模式标记，并将返回的变化量写入数据库）
+     *
+     * @param productId 产品ID
+     * @return 未回写的变化量，计数存储中没有该产品的计数时为空
+     */
+    public Optional<Long> disable(Long productId) {
+        knownHotIds.remove(productId);
+        return Optional.ofNullable(store.disable(productId));
+    }
+
+    /**
+     * 调整可售库存
+     *
+     * @param productId 产品ID
+     * @param delta 变化量（正数增加，负数减少）
+     * @return 调整后的可售库存，或 {@link HotStockStore#NOT_HOT} / {@link HotStockStore#INSUFFICIENT}
+     */
+    public long adjust(Long productId, int delta) {
+        return store.adjust(productId, delta);
+    }
+
+    /**
+     * 撤销一次已成功的调整（调整所在的数据库事务回滚后调用）
+     * 撤销增加库存时，若这些库存已被售出则无法撤销，记录错误供人工核对
+     *
+     * @param productId 产品ID
+     * @param delta 已成功调整的变化量
+     */
+    public void revert(Long productId, int delta) {
+        long result = store.adjust(productId, -delta);
+        if (result < 0) {
+            log.error("撤销热点库存调整失败，产品ID: {}, 变化量: {}, 结果: {}", productId, delta,
+                    isInsufficient(result) ? "库存不足" : "已不在热点模式");
+        }
+    }
+
+    /**
+     * 当前可售库存
+     *
+     * @param productId 产品ID
+     * @return 可售库存，不处于热点模式时为空
+     */
+    public Optional<Long> available(Long productId) {
+        long available = store.available(productId);
+        return available == HotStockStore.NOT_HOT ? Optional.empty() : Optional.of(available);
+    }
+
+    /**
+     * 调整结果是否表示库存不足
+     */
+    public static boolean isInsufficient(long result) {
+        return result == HotStockStore.INSUFFICIENT;
+    }
+
+    /**
+     * 调整结果是否表示产品已不在热点模式（关闭与调整并发时发生）
+     */
+    public static boolean isNotHot(long result) {
+        return result == HotStockStore.NOT_HOT;
+    }
+
+    /**
+     * 定时回写所有热点产品的累计变化量，同时刷新本实例已知的热点产品
+     */
+    @Scheduled(fixedDelayString = "${product.inventory.hot-stock.flush-interval-ms:500}")
+    public void flush() {
+        Set<Long> hotIds;
+        try {
+            hotIds = store.hotProductIds();
+        } catch (RuntimeException e) {
+            log.warn("读取热点产品失败，跳过本次回写: {}", e.getMessage());
+            return;
+        }
+        Set<Long> refreshed = ConcurrentHashMap.newKeySet();
+        refreshed.addAll(hotIds);
+        knownHotIds = refreshed;
+        for (Long productId : hotIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> flush(productId));
+            } catch (RuntimeException e) {
+                log.error("回写热点库存失败，产品ID: {}", productId, e);
+            }
+        }
+    }
+
+    /**
+     * 停机前回写，避免进程内计数的变化量丢失
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void flush(Long productId) {
+        Product locked = productRepository.findByIdForUpdate(productId).orElse(null);
+        if (locked == null || !isHot(locked)) {
+            // 产品已被删除，或产品未标记为热点模式（开启事务已回滚）：关闭残留的计数，其变化量照常回写
+            Long delta = disable(productId).orElse(0L);
+            if (locked != null && delta != 0 && !writeBack(productId, delta)) {
+                log.error("回写残留的热点库存后库存为负，已放弃变化量，产品ID: {}, 变化量: {}", productId, delta);
+            }
+            return;
+        }
+        long delta = store.drainPending(productId);
+        if (delta == 0) {
+            return;
+        }
+        restoreUnlessCommitted(productId, delta);
+        if (!writeBack(productId, delta)) {
+            // 热点模式下所有库存写入都经过计数存储，数据库库存不会低于已扣减的数量；出现时需人工核对
+            throw new IllegalStateException("热点库存回写后库存为负，产品ID: " + productId + ", 变化量: " + delta);
+        }
+        log.debug("热点库存已回写，产品ID: {}, 变化量: {}", productId, delta);
+    }
+
+    /**
+     * 将变化量写入数据库库存（调用方须已对产品行加锁）
+     *
+     * @return 是否写入成功，写入后库存为负时返回 false
+     */
+    private boolean writeBack(Long productId, long delta) {
+        int updated = productRepository.adjustQuantity(productId, Math.toIntExact(delta),
+                Product.ProductStatus.OUT_OF_STOCK, Product.ProductStatus.ACTIVE, LocalDateTime.now());
+        if (updated == 0) {
+            return false;
+        }
+        stockLedger.record(productId, delta, StockLedgerEntry.MovementReason.HOT_STOCK_FLUSH, null);
+        Product product = productRepository.findById(productId).orElseThrow();
+        productCache.evict(productId, product.getSku());
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED,
+                productId, productMapper.toDto(product)));
+        return true;
+    }
+
+    /**
+     * 回写事务回滚时放回取出的变化量；提交结果未知时无法判断是否已写入，记录错误供人工核对
+     */
+    private void restoreUnlessCommitted(Long productId, long delta) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(productId, delta);
+                } else if (status == STATUS_UNKNOWN) {
+                    log.error("热点库存回写事务提交结果未知，需人工核对，产品ID: {}, 变化量: {}", productId, delta);
+                }
+            }
+        });
+    }
+
+    private void restore(Long productId, long delta) {
+        try {
+            if (store.restorePending(productId, delta)) {
+                return;
+            }
+            // 回滚后热点模式已被关闭，关闭时取出的变化量不包含本次取出的部分，直接写入数据库
+            transactionTemplate.executeWithoutResult(status -> {
+                if (productRepository.findByIdForUpdate(productId).isEmpty() || !writeBack(productId, delta)) {
+                    log.error("热点库存变化量无法写回，已放弃，产品ID: {}, 变化量: {}", productId, delta);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("放回热点库存变化量失败，产品ID: {}, 变化量: {}", productId, delta, e);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.nexcommerce.product.inventory;
+
+import java.util.Set;
+
+/**
+ * 热点库存计数存储
+ * 保存处于热点模式的产品的可售库存，以及尚未回写数据库的累计变化量。
+ * 所有扣减都是"检查并扣减"的原子操作，可售库存永远不会小于0。
+ */
+interface HotStockStore {
+
+    /**
+     * 产品不处于热点模式
+     */
+    long NOT_HOT = -2;
+
+    /**
+     * 可售库存不足
+     */
+    long INSUFFICIENT = -1;
+
+    /**
+     * 开启热点模式
+     *
+     * @param productId 产品ID
+     * @param quantity 开启时数据库中的库存
+     * @return 是否开启成功（已开启时返回 false）
+     */
+    boolean enable(long productId, long quantity);
+
+    /**
+     * 关闭热点模式，返回尚未回写的变化量；关闭后不会再有调整成功
+     *
+     * @param productId 产品ID
+     * @return 未回写的变化量，不处于热点模式时返回 null
+     */
+    Long disable(long productId);
+
+    /**
+     * 调整可售库存
+     *
+     * @param productId 产品ID
+     * @param delta 变化量（正数增加，负数减少）
+     * @return 调整后的可售库存，或 {@link #NOT_HOT} / {@link #INSUFFICIENT}
+     */
+    long adjust(long productId, long delta);
+
+    /**
+     * 当前可售库存
+     *
+     * @param productId 产品ID
+     * @return 可售库存，不处于热点模式时返回 {@link #NOT_HOT}
+     */
+    long available(long productId);
+
+    /**
+     * 取出并清零尚未回写的变化量
+     *
+     * @param productId 产品ID
+     * @return 变化量
+     */
+    long drainPending(long productId);
+
+    /**
+     * 放回取出后未能写入数据库的变化量
+     *
+     * @param productId 产品ID
+     * @param delta 取出的变化量
+     * @return 是否放回成功，产品已不处于热点模式时返回 false
+     */
+    boolean restorePending(long productId, long delta);
+
+    /**
+     * 当前处于热点模式的产品
+     *
+     * @return 产品ID集合
+     */
+    Set<Long> hotProductIds();
+}
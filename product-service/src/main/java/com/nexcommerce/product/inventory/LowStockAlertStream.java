@@ -0,0 +1,171 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.product.dto.LowStockAlertDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 低库存告警推送（Server-Sent Events）
+ * 每个订阅者有自己的待发送队列，由发送线程池逐个订阅者按顺序发送：写事务提交后的监听器只负责入队，
+ * 一个慢速客户端只阻塞它自己的发送，不影响其他订阅者；队列积压超过上限的订阅者被断开。
+ * 定期发送心跳注释，及时发现并移除已断开的连接。
+ */
+@Component
+@Slf4j
+public class LowStockAlertStream {
+
+    private static final String EVENT_NAME = "low-stock";
+
+    private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final int maxQueuedEvents;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeats;
+
+    public LowStockAlertStream(@Value("${product.inventory.low-stock.heartbeat-interval-ms:30000}") long heartbeatIntervalMillis,
+                               @Value("${product.inventory.low-stock.subscriber-queue-size:1000}") int maxQueuedEvents) {
+        this.maxQueuedEvents = maxQueuedEvents;
+        // 同一订阅者同时最多占用一个线程，线程数不超过订阅数
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-alerts-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "low-stock-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::heartbeat, heartbeatIntervalMillis, heartbeatIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdown();
+        senders.shutdown();
+        subscribers.keySet().forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    /**
+     * 订阅告警
+     *
+     * @return 事件流（不超时，直到客户端断开）
+     */
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(0L);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.put(emitter, new Subscriber(emitter));
+        log.info("低库存告警新订阅，当前订阅数: {}", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * 推送告警
+     *
+     * @param alerts 告警列表
+     */
+    public void publish(List<LowStockAlertDto> alerts) {
+        for (LowStockAlertDto alert : alerts) {
+            send(() -> SseEmitter.event().name(EVENT_NAME).data(alert, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    private void heartbeat() {
+        send(() -> SseEmitter.event().comment("heartbeat"));
+    }
+
+    /**
+     * 加入所有订阅者的队列；事件构建器在构建时会追加内容，不能复用，每个订阅者发送时单独构建
+     */
+    private void send(Supplier<SseEmitter.SseEventBuilder> event) {
+        subscribers.values().forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void disconnect(Subscriber subscriber) {
+        if (subscribers.remove(subscriber.emitter, subscriber)) {
+            subscriber.queue.clear();
+        }
+    }
+
+    /**
+     * 订阅者及其待发送队列，同一时刻最多有一个发送任务在消费队列，保证事件按入队顺序发送
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Supplier<SseEmitter.SseEventBuilder> event) {
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                log.warn("低库存告警订阅积压超过 {} 条，断开该订阅", maxQueuedEvents);
+                disconnect(this);
+                emitter.complete();
+                return;
+            }
+            queue.add(event);
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // 应用关闭中
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Supplier<SseEmitter.SseEventBuilder> event;
+                while ((event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    try {
+                        emitter.send(event.get());
+                    } catch (IOException | IllegalStateException e) {
+                        // 客户端已断开，连接由容器回收
+                        disconnect(this);
+                        log.debug("低库存告警订阅已断开: {}", e.getMessage());
+                        return;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // 释放标记与入队之间到达的事件
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+    }
+}
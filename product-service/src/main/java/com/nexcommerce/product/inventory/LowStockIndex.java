@@ -0,0 +1,313 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.product.dto.LowStockAlertDto;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 低库存内存索引
+ * 按 (库存, 产品ID) 排序保存所有未停产产品的库存，"库存低于阈值"的查询即有序集合的范围读取，不再扫描产品表。
+ * 索引随产品变更事件增量更新，启动时流式扫描全量重建；重建完成前 {@link #isReady()} 为 false。
+ * 事件按提交后分发的顺序到达，同一产品的并发更新可能乱序，条目记录产品更新时间，丢弃比索引中更旧的库存；
+ * 此外定期从数据库全量对账并替换，对账期间的增量更新在对账完成后重放。
+ * 更新时比较新旧库存，越过配置的告警阈值时通过 {@link LowStockAlertStream} 推送告警。
+ * 热点库存模式下的扣减在回写数据库后才反映到索引中。
+ */
+@Component
+@Slf4j
+public class LowStockIndex {
+
+    private final ProductRepository productRepository;
+    private final LowStockAlertStream alertStream;
+
+    /**
+     * 告警阈值（升序），库存低于阈值视为低库存
+     */
+    private final int[] alertThresholds;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private StockLevels data = new StockLevels();
+
+    /**
+     * 重建期间发生的增量更新，重建完成后重放
+     */
+    private List<Consumer<StockLevels>> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * 对账修正了索引（包括首次构建完成）时递增，用于低库存查询的ETag
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    public LowStockIndex(ProductRepository productRepository,
+                         LowStockAlertStream alertStream,
+                         @Value("${product.inventory.low-stock.alert-thresholds:1,5}") int[] alertThresholds) {
+        this.productRepository = productRepository;
+        this.alertStream = alertStream;
+        this.alertThresholds = alertThresholds.clone();
+        Arrays.sort(this.alertThresholds);
+    }
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 索引版本，对账修正索引时递增（增量更新由产品变更事件驱动，不计入）
+     */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * 查找库存低于阈值的产品
+     *
+     * @param threshold 库存阈值
+     * @return 产品ID列表（按库存升序，库存相同时按ID升序）
+     */
+    public List<Long> findProductIdsBelow(int threshold) {
+        lock.readLock().lock();
+        try {
+            NavigableSet<StockLevel> below = data.levels.headSet(new StockLevel(Long.MIN_VALUE, threshold, null), false);
+            List<Long> productIds = new ArrayList<>(below.size());
+            for (StockLevel level : below) {
+                productIds.add(level.productId);
+            }
+            return productIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 产品变更后更新库存，停产或删除的产品移出索引
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        ProductDto product = event.getProduct();
+        boolean deleted = event.getType() == ProductChangedEvent.Type.DELETED;
+        Integer quantity = deleted || product.getStatus() == Product.ProductStatus.DISCONTINUED
+                ? null : product.getQuantity();
+        // 删除是最终状态，不受更新时间约束
+        LocalDateTime updatedAt = deleted ? null : product.getUpdatedAt();
+        Long productId = event.getProductId();
+
+        Integer previous;
+        boolean applied;
+        lock.writeLock().lock();
+        try {
+            Consumer<StockLevels> update = quantity != null
+                    ? levels -> levels.put(productId, quantity, updatedAt)
+                    : levels -> levels.remove(productId, updatedAt);
+            previous = data.get(productId);
+            applied = !data.isStale(productId, updatedAt);
+            update.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // 重建完成前索引中没有旧库存，无法判断是否越过阈值；乱序到达的旧库存不产生告警
+        if (ready && applied && quantity != null) {
+            List<LowStockAlertDto> alerts = crossings(product, previous, quantity);
+            if (!alerts.isEmpty()) {
+                alertStream.publish(alerts);
+            }
+        }
+    }
+
+    /**
+     * 启动后及定期流式扫描产品表重建索引并替换
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${product.inventory.low-stock.reconcile-interval-ms:600000}",
+            initialDelayString = "${product.inventory.low-stock.reconcile-interval-ms:600000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        StockLevels rebuilt = new StockLevels();
+        try (Stream<ProductQuantity> quantities = productRepository.streamStockLevels(Product.ProductStatus.DISCONTINUED)) {
+            quantities.forEach(quantity -> rebuilt.put(
+                    quantity.getProductId(), quantity.getQuantity(), quantity.getUpdatedAt()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error(ready ? "低库存索引对账失败，继续使用增量维护的索引" : "重建低库存索引失败，低库存查询回退到数据库", e);
+            return;
+        }
+
+        StockLevels previous;
+        boolean wasReady;
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            previous = data;
+            data = rebuilt;
+            wasReady = ready;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        int corrected = rebuilt.differences(previous);
+        if (corrected > 0 || !wasReady) {
+            version.incrementAndGet();
+        }
+        log.info("低库存索引对账完成，产品数: {}, 修正的产品数: {}, 耗时: {}ms",
+                rebuilt.byProduct.size(), corrected, System.currentTimeMillis() - start);
+    }
+
+    private List<LowStockAlertDto> crossings(ProductDto product, Integer previous, int quantity) {
+        List<LowStockAlertDto> alerts = new ArrayList<>();
+        for (int threshold : alertThresholds) {
+            boolean wasBelow = previous != null && previous < threshold;
+            boolean isBelow = quantity < threshold;
+            if (wasBelow == isBelow) {
+                continue;
+            }
+            alerts.add(LowStockAlertDto.builder()
+                    .productId(product.getId())
+                    .sku(product.getSku())
+                    .name(product.getName())
+                    .type(isBelow ? LowStockAlertDto.AlertType.BELOW : LowStockAlertDto.AlertType.RECOVERED)
+                    .threshold(threshold)
+                    .quantity(quantity)
+                    .previousQuantity(previous)
+                    .occurredAt(LocalDateTime.now())
+                    .build());
+        }
+        return alerts;
+    }
+
+    /**
+     * 索引数据：有序集合用于范围读取，散列表用于按产品定位旧条目
+     * 非线程安全，由外层读写锁保护
+     */
+    private static class StockLevels {
+
+        private final NavigableSet<StockLevel> levels = new TreeSet<>();
+        private final Map<Long, StockLevel> byProduct = new HashMap<>();
+
+        Integer get(Long productId) {
+            StockLevel level = byProduct.get(productId);
+            return level != null ? level.quantity : null;
+        }
+
+        /**
+         * 变更是否比索引中的条目更旧（更新时间未知时不视为更旧）
+         */
+        boolean isStale(Long productId, LocalDateTime updatedAt) {
+            StockLevel current = byProduct.get(productId);
+            return current != null && current.updatedAt != null && updatedAt != null
+                    && current.updatedAt.isAfter(updatedAt);
+        }
+
+        void put(Long productId, int quantity, LocalDateTime updatedAt) {
+            if (isStale(productId, updatedAt)) {
+                return;
+            }
+            StockLevel previous = byProduct.get(productId);
+            if (previous != null) {
+                levels.remove(previous);
+            }
+            StockLevel level = new StockLevel(productId, quantity, updatedAt);
+            levels.add(level);
+            byProduct.put(productId, level);
+        }
+
+        void remove(Long productId, LocalDateTime updatedAt) {
+            if (isStale(productId, updatedAt)) {
+                return;
+            }
+            StockLevel previous = byProduct.remove(productId);
+            if (previous != null) {
+                levels.remove(previous);
+            }
+        }
+
+        /**
+         * 统计与另一份数据库存不同的产品数
+         */
+        int differences(StockLevels other) {
+            int differences = 0;
+            for (Map.Entry<Long, StockLevel> entry : byProduct.entrySet()) {
+                if (!Objects.equals(entry.getValue().quantity, other.get(entry.getKey()))) {
+                    differences++;
+                }
+            }
+            for (Long productId : other.byProduct.keySet()) {
+                if (!byProduct.containsKey(productId)) {
+                    differences++;
+                }
+            }
+            return differences;
+        }
+    }
+
+    /**
+     * 产品库存条目，按库存升序、产品ID升序排列
+     */
+    private static final class StockLevel implements Comparable<StockLevel> {
+
+        private final long productId;
+        private final int quantity;
+        private final LocalDateTime updatedAt;
+
+        StockLevel(long productId, int quantity, LocalDateTime updatedAt) {
+            this.productId = productId;
+            this.quantity = quantity;
+            this.updatedAt = updatedAt;
+        }
+
+        @Override
+        public int compareTo(StockLevel other) {
+            int byQuantity = Integer.compare(quantity, other.quantity);
+            return byQuantity != 0 ? byQuantity : Long.compare(productId, other.productId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.nexcommerce.product.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 产品当前库存，通过JPQL构造器表达式直接加载，用于对账和重建低库存索引
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductQuantity {
+
+    private Long productId;
+
+    private Integer quantity;
+
+    /**
+     * 产品更新时间，低库存索引据此丢弃乱序到达的旧库存
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,111 @@
+package com.nexcommerce.product.inventory;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Redis计数存储
+ * 检查并扣减、开启和关闭都在Lua脚本中原子执行，多个服务实例共享同一份可售库存。
+ */
+class RedisHotStockStore implements HotStockStore {
+
+    private static final String IDS_KEY = "product:hot-stock:ids";
+    private static final String AVAILABLE_KEY_PREFIX = "product:hot-stock:available:";
+    private static final String PENDING_KEY_PREFIX = "product:hot-stock:pending:";
+
+    private static final RedisScript<Long> ENABLE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1]) " +
+            "redis.call('SET', KEYS[2], 0) " +
+            "redis.call('SADD', KEYS[3], ARGV[2]) " +
+            "return 1", Long.class);
+
+    private static final RedisScript<Long> DISABLE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return false end " +
+            "local pending = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+            "redis.call('DEL', KEYS[1], KEYS[2]) " +
+            "redis.call('SREM', KEYS[3], ARGV[1]) " +
+            "return pending", Long.class);
+
+    private static final RedisScript<Long> ADJUST = new DefaultRedisScript<>(
+            "local available = redis.call('GET', KEYS[1]) " +
+            "if not available then return " + NOT_HOT + " end " +
+            "local remaining = tonumber(available) + tonumber(ARGV[1]) " +
+            "if remaining < 0 then return " + INSUFFICIENT + " end " +
+            "redis.call('SET', KEYS[1], remaining) " +
+            "redis.call('INCRBY', KEYS[2], ARGV[1]) " +
+            "return remaining", Long.class);
+
+    private static final RedisScript<Long> DRAIN = new DefaultRedisScript<>(
+            "local pending = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "if pending ~= 0 then redis.call('DECRBY', KEYS[1], pending) end " +
+            "return pending", Long.class);
+
+    private static final RedisScript<Long> RESTORE = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('INCRBY', KEYS[2], ARGV[1]) " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    RedisHotStockStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public boolean enable(long productId, long quantity) {
+        Long enabled = redisTemplate.execute(ENABLE,
+                List.of(AVAILABLE_KEY_PREFIX + productId, PENDING_KEY_PREFIX + productId, IDS_KEY),
+                String.valueOf(quantity), String.valueOf(productId));
+        return enabled != null && enabled == 1;
+    }
+
+    @Override
+    public Long disable(long productId) {
+        return redisTemplate.execute(DISABLE,
+                List.of(AVAILABLE_KEY_PREFIX + productId, PENDING_KEY_PREFIX + productId, IDS_KEY),
+                String.valueOf(productId));
+    }
+
+    @Override
+    public long adjust(long productId, long delta) {
+        Long result = redisTemplate.execute(ADJUST,
+                List.of(AVAILABLE_KEY_PREFIX + productId, PENDING_KEY_PREFIX + productId),
+                String.valueOf(delta));
+        return result != null ? result : NOT_HOT;
+    }
+
+    @Override
+    public long available(long productId) {
+        String available = redisTemplate.opsForValue().get(AVAILABLE_KEY_PREFIX + productId);
+        return available != null ? Long.parseLong(available) : NOT_HOT;
+    }
+
+    @Override
+    public long drainPending(long productId) {
+        Long pending = redisTemplate.execute(DRAIN, List.of(PENDING_KEY_PREFIX + productId));
+        return pending != null ? pending : 0;
+    }
+
+    @Override
+    public boolean restorePending(long productId, long delta) {
+        Long restored = redisTemplate.execute(RESTORE,
+                List.of(AVAILABLE_KEY_PREFIX + productId, PENDING_KEY_PREFIX + productId),
+                String.valueOf(delta));
+        return restored != null && restored == 1;
+    }
+
+    @Override
+    public Set<Long> hotProductIds() {
+        Set<String> members = redisTemplate.opsForSet().members(IDS_KEY);
+        if (members == null) {
+            return Set.of();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toSet());
+    }
+}
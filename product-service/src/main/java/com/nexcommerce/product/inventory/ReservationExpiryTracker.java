@@ -0,0 +1,82 @@
+package com.nexcommerce.product.inventory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 库存预留过期跟踪
+ * 持有中的预留登记在分层时间轮中（默认tick为1秒，3层各64槽，覆盖约73小时），
+ * 到期检测只访问当前tick的槽，与持有中的预留总数无关。
+ * 确认或释放的预留只从活动集合中移除，时间轮中的条目在到期时被惰性丢弃。
+ * 时间轮只保存在内存中，预留本身已持久化，重启后由调用方重新登记所有持有中的预留；
+ * 实例停机期间到期的预留由其他实例的兜底扫描处理。
+ */
+@Component
+public class ReservationExpiryTracker {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 3;
+
+    private final long tickMillis;
+    private final HierarchicalTimingWheel<Long> wheel;
+    private final Set<Long> active = ConcurrentHashMap.newKeySet();
+
+    public ReservationExpiryTracker(@Value("${product.inventory.reservation.tick-ms:1000}") long tickMillis) {
+        this.tickMillis = tickMillis;
+        this.wheel = new HierarchicalTimingWheel<>(WHEEL_SIZE, LEVELS, System.currentTimeMillis() / tickMillis);
+    }
+
+    /**
+     * 登记持有中的预留
+     *
+     * @param reservationId 预留ID
+     * @param expiresAt 过期时间
+     * @return 已经过期时返回 false（调用方应立即处理过期）
+     */
+    public boolean track(Long reservationId, LocalDateTime expiresAt) {
+        long deadlineTick = Math.floorDiv(expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + tickMillis - 1, tickMillis);
+        List<Long> expired = new ArrayList<>(1);
+        active.add(reservationId);
+        synchronized (wheel) {
+            wheel.add(reservationId, deadlineTick, expired);
+        }
+        return expired.isEmpty();
+    }
+
+    /**
+     * 取消跟踪（预留已确认或释放）
+     *
+     * @param reservationId 预留ID
+     */
+    public void untrack(Long reservationId) {
+        active.remove(reservationId);
+    }
+
+    /**
+     * 推进时间轮，取出到期且仍在跟踪中的预留
+     *
+     * @return 到期的预留ID
+     */
+    public List<Long> pollExpired() {
+        List<Long> expired;
+        synchronized (wheel) {
+            expired = wheel.advanceTo(System.currentTimeMillis() / tickMillis);
+        }
+        expired.removeIf(id -> !active.remove(id));
+        return expired;
+    }
+
+    /**
+     * 持有中的预留数量
+     */
+    public int activeCount() {
+        return active.size();
+    }
+}
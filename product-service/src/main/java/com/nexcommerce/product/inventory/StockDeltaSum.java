@@ -0,0 +1,21 @@
+package com.nexcommerce.product.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 单个产品一段流水的汇总（变化量之和、最后一条流水ID）
+ * 通过JPQL构造器表达式直接加载
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockDeltaSum {
+
+    private Long productId;
+
+    private Long delta;
+
+    private Long lastEntryId;
+}
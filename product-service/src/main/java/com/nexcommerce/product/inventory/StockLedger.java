@@ -0,0 +1,88 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.product.model.StockLedgerEntry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 库存流水写入
+ * 同一事务中记录的流水先缓存在事务资源中，在事务提交前以一次JDBC批量插入写入，
+ * 与库存更新一起提交或回滚；没有活动事务时立即写入。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockLedger {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_ledger (product_id, delta, reason, correlation_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 记录库存变动
+     *
+     * @param productId 产品ID
+     * @param delta 变化量（为0时不记录）
+     * @param reason 变动原因
+     * @param correlationId 关联ID（可为空）
+     */
+    public void record(Long productId, long delta, StockLedgerEntry.MovementReason reason, String correlationId) {
+        if (delta == 0) {
+            return;
+        }
+        StockLedgerEntry entry = StockLedgerEntry.builder()
+                .productId(productId)
+                .delta(Math.toIntExact(delta))
+                .reason(reason)
+                .correlationId(correlationId)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(List.of(entry));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<StockLedgerEntry> buffer = (List<StockLedgerEntry>) TransactionSynchronizationManager.getResource(this);
+        if (buffer == null) {
+            List<StockLedgerEntry> newBuffer = new ArrayList<>();
+            buffer = newBuffer;
+            TransactionSynchronizationManager.bindResource(this, newBuffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    write(newBuffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StockLedger.this);
+                }
+            });
+        }
+        buffer.add(entry);
+    }
+
+    private void write(List<StockLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (statement, entry) -> {
+            statement.setLong(1, entry.getProductId());
+            statement.setInt(2, entry.getDelta());
+            statement.setString(3, entry.getReason().name());
+            statement.setString(4, entry.getCorrelationId());
+            statement.setTimestamp(5, Timestamp.valueOf(entry.getCreatedAt()));
+        });
+        log.debug("写入库存流水，条数: {}", entries.size());
+    }
+}
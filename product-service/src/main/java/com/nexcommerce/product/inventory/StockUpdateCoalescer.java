@@ -0,0 +1,292 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.cache.ProductCache;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.mapper.ProductMapper;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 库存更新合并提交（group commit）
+ * 同一产品没有进行中的提交时，调整直接在调用线程上提交，不等待也不切换线程；
+ * 提交进行中到达的调整（它们本来也要等待同一行的行锁）被收集为一批，上一次提交完成后立即由合并线程提交。
+ * 每批在一个事务中以一条条件UPDATE写入净变化量，整批库存不足时才加行锁读取库存、按到达顺序逐个判断
+ * （库存不足的调整单独失败，不影响同批其他调整）。每个调用方的 future 以携带其各自调整后库存的产品DTO完成。
+ * 同一产品同时只有一次提交，合并线程数只限制同时有批次待提交的产品数。
+ * 写入在独立事务中提交，不参与调用方的事务，因此只用于独立的库存调整请求。
+ */
+@Component
+@Slf4j
+public class StockUpdateCoalescer {
+
+    private final ExecutorService executor;
+
+    /**
+     * 有进行中提交的产品 -> 提交期间到达、等待下一次提交的调整
+     */
+    private final Map<Long, List<PendingAdjustment>> pending = new ConcurrentHashMap<>();
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final HotStockManager hotStockManager;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockUpdateCoalescer(@Value("${product.inventory.coalesce.threads:4}") int threads,
+                                ProductRepository productRepository,
+                                ProductMapper productMapper,
+                                ProductCache productCache,
+                                HotStockManager hotStockManager,
+                                StockLedger stockLedger,
+                                ApplicationEventPublisher eventPublisher,
+                                PlatformTransactionManager transactionManager) {
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.productCache = productCache;
+        this.hotStockManager = hotStockManager;
+        this.stockLedger = stockLedger;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 提交库存调整
+     *
+     * @param productId 产品ID
+     * @param delta 库存变化（正数增加，负数减少）
+     * @param reason 变动原因
+     * @param correlationId 关联ID（可为空）
+     * @return 携带调整后库存的产品DTO；库存不足时以 IllegalArgumentException 失败，产品不存在时以 ResourceNotFoundException 失败，
+     * 已停止时以 IllegalStateException 失败
+     */
+    public CompletableFuture<ProductDto> submit(Long productId, int delta, StockLedgerEntry.MovementReason reason,
+                                                String correlationId) {
+        if (executor.isShutdown()) {
+            return CompletableFuture.failedFuture(new IllegalStateException("库存合并提交已停止，产品ID: " + productId));
+        }
+        PendingAdjustment adjustment = new PendingAdjustment(delta, reason, correlationId);
+        boolean[] direct = new boolean[1];
+        pending.compute(productId, (id, batch) -> {
+            if (batch == null) {
+                // 没有进行中的提交：登记为进行中，本调整直接提交
+                direct[0] = true;
+                return new ArrayList<>();
+            }
+            batch.add(adjustment);
+            return batch;
+        });
+        if (direct[0]) {
+            try {
+                commit(productId, List.of(adjustment));
+            } finally {
+                commitNext(productId);
+            }
+        }
+        return adjustment.future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 上一次提交完成后，将其间收集的调整交给合并线程提交；没有时结束进行中状态
+     */
+    private void commitNext(Long productId) {
+        AtomicReference<List<PendingAdjustment>> next = new AtomicReference<>();
+        pending.compute(productId, (id, batch) -> {
+            if (batch == null || batch.isEmpty()) {
+                return null;
+            }
+            next.set(batch);
+            return new ArrayList<>();
+        });
+        List<PendingAdjustment> batch = next.get();
+        if (batch == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    commit(productId, batch);
+                } finally {
+                    commitNext(productId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            IllegalStateException stopped = new IllegalStateException("库存合并提交已停止，产品ID: " + productId);
+            batch.forEach(adjustment -> adjustment.future.completeExceptionally(stopped));
+            commitNext(productId);
+        }
+    }
+
+    private void commit(Long productId, List<PendingAdjustment> batch) {
+        ProductDto product;
+        try {
+            product = transactionTemplate.execute(status -> apply(productId, batch, status));
+        } catch (RuntimeException e) {
+            log.error("合并提交库存调整失败，产品ID: {}, 批大小: {}", productId, batch.size(), e);
+            batch.forEach(adjustment -> adjustment.future.completeExceptionally(e));
+            return;
+        }
+        for (PendingAdjustment adjustment : batch) {
+            if (adjustment.rerouteToHot) {
+                adjustHot(productId, product, adjustment);
+            } else if (adjustment.error != null) {
+                adjustment.future.completeExceptionally(adjustment.error);
+            } else {
+                adjustment.future.complete(product.toBuilder().quantity(adjustment.result).build());
+            }
+        }
+    }
+
+    /**
+     * 在事务中应用一批调整
+     * 先以一条条件UPDATE写入整批的净变化量；批内按到达顺序有调整会因库存不足失败时，
+     * 在同一行锁下按实际接受的调整修正净变化量。整批净变化量导致库存不足（或产品不存在）时，
+     * 加行锁读取库存后逐个判断，再写入接受的调整之和。
+     *
+     * @return 应用后的产品DTO，产品不存在时为 null
+     */
+    private ProductDto apply(Long productId, List<PendingAdjustment> batch, TransactionStatus status) {
+        int total = 0;
+        for (PendingAdjustment adjustment : batch) {
+            total += adjustment.delta;
+        }
+        Product locked;
+        int quantity;
+        if (adjustQuantity(productId, total) == 1) {
+            // UPDATE 之后持有行锁，读到的库存即本批写入后的库存
+            locked = productRepository.findById(productId).orElseThrow();
+            quantity = locked.getQuantity() - total;
+        } else {
+            locked = productRepository.findByIdForUpdate(productId).orElse(null);
+            if (locked == null) {
+                ResourceNotFoundException notFound = new ResourceNotFoundException("产品不存在，ID: " + productId);
+                batch.forEach(adjustment -> adjustment.error = notFound);
+                return null;
+            }
+            quantity = locked.getQuantity();
+            total = 0;
+        }
+        // 开启热点模式时持有行锁，加锁后检查可保证不会与模式切换交错；已开启时撤销本批写入，逐个改走计数存储
+        if (HotStockManager.isHot(locked)) {
+            status.setRollbackOnly();
+            return rerouteToHot(productId, batch);
+        }
+
+        int accepted = 0;
+        int applied = 0;
+        for (PendingAdjustment adjustment : batch) {
+            if (quantity + adjustment.delta < 0) {
+                adjustment.error = new IllegalArgumentException("库存不足，当前库存: " + quantity + ", 请求减少: " + Math.abs(adjustment.delta));
+                continue;
+            }
+            quantity += adjustment.delta;
+            accepted += adjustment.delta;
+            adjustment.result = quantity;
+            applied++;
+            stockLedger.record(productId, adjustment.delta, adjustment.reason, adjustment.correlationId);
+        }
+        if (accepted != total && adjustQuantity(productId, accepted - total) == 0) {
+            // 持有行锁且修正后的库存不为负，不应发生
+            throw new IllegalStateException("库存调整修正失败，产品ID: " + productId);
+        }
+
+        Product updatedProduct = productRepository.findById(productId).orElseThrow();
+        ProductDto updatedDto = productMapper.toDto(updatedProduct);
+        if (applied == 0) {
+            return updatedDto;
+        }
+        productCache.evict(productId, updatedProduct.getSku());
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, updatedDto));
+        log.debug("合并提交库存调整，产品ID: {}, 批大小: {}, 成功: {}", productId, batch.size(), applied);
+        return updatedDto;
+    }
+
+    private int adjustQuantity(Long productId, int delta) {
+        return productRepository.adjustQuantity(productId, delta,
+                Product.ProductStatus.OUT_OF_STOCK, Product.ProductStatus.ACTIVE, LocalDateTime.now());
+    }
+
+    private ProductDto rerouteToHot(Long productId, List<PendingAdjustment> batch) {
+        ProductDto product = productRepository.findById(productId).map(productMapper::toDto).orElse(null);
+        if (product == null) {
+            ResourceNotFoundException notFound = new ResourceNotFoundException("产品不存在，ID: " + productId);
+            batch.forEach(adjustment -> adjustment.error = notFound);
+            return null;
+        }
+        batch.forEach(adjustment -> adjustment.rerouteToHot = true);
+        return product;
+    }
+
+    private void adjustHot(Long productId, ProductDto product, PendingAdjustment adjustment) {
+        long available;
+        try {
+            available = hotStockManager.adjust(productId, adjustment.delta);
+        } catch (RuntimeException e) {
+            adjustment.future.completeExceptionally(e);
+            return;
+        }
+        if (HotStockManager.isInsufficient(available)) {
+            adjustment.future.completeExceptionally(
+                    new IllegalArgumentException("库存不足，请求减少: " + Math.abs(adjustment.delta)));
+        } else if (HotStockManager.isNotHot(available)) {
+            adjustment.future.completeExceptionally(
+                    new IllegalStateException("产品库存模式切换中，请重试，ID: " + productId));
+        } else {
+            adjustment.future.complete(product.toBuilder().quantity(Math.toIntExact(available)).build());
+        }
+    }
+
+    /**
+     * 等待合并提交的单个调整
+     */
+    private static class PendingAdjustment {
+        private final int delta;
+        private final StockLedgerEntry.MovementReason reason;
+        private final String correlationId;
+        private final CompletableFuture<ProductDto> future = new CompletableFuture<>();
+        private Integer result;
+        private RuntimeException error;
+        private boolean rerouteToHot;
+
+        PendingAdjustment(int delta, StockLedgerEntry.MovementReason reason, String correlationId) {
+            this.delta = delta;
+            this.reason = reason;
+            this.correlationId = correlationId;
+        }
+    }
+}
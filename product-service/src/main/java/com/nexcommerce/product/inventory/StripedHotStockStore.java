@@ -0,0 +1,162 @@
+package com.nexcommerce.product.inventory;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 进程内分段计数存储
+ * 每个产品的库存分散到多个原子计数器，扣减随机选择起始分段并通过CAS扣减，
+ * 并发请求落在不同分段上，互不竞争；所有分段都不足时加锁合并后再判断。
+ * 仅适用于单实例部署（或测试），多实例部署应使用 {@link RedisHotStockStore}。
+ */
+class StripedHotStockStore implements HotStockStore {
+
+    private final int stripes;
+    private final Map<Long, StripedCounter> counters = new ConcurrentHashMap<>();
+
+    StripedHotStockStore(int stripes) {
+        this.stripes = stripes;
+    }
+
+    @Override
+    public boolean enable(long productId, long quantity) {
+        return counters.putIfAbsent(productId, new StripedCounter(stripes, quantity)) == null;
+    }
+
+    @Override
+    public Long disable(long productId) {
+        StripedCounter counter = counters.remove(productId);
+        if (counter == null) {
+            return null;
+        }
+        counter.closed = true;
+        // 等待已经开始的调整完成，保证它们的变化量计入返回值
+        while (counter.inFlight.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        return counter.pending.sumThenReset();
+    }
+
+    @Override
+    public long adjust(long productId, long delta) {
+        StripedCounter counter = counters.get(productId);
+        if (counter == null) {
+            return NOT_HOT;
+        }
+        counter.inFlight.increment();
+        try {
+            if (counter.closed) {
+                return NOT_HOT;
+            }
+            return delta >= 0 ? counter.add(delta) : counter.take(-delta);
+        } finally {
+            counter.inFlight.decrement();
+        }
+    }
+
+    @Override
+    public long available(long productId) {
+        StripedCounter counter = counters.get(productId);
+        return counter != null ? counter.available() : NOT_HOT;
+    }
+
+    @Override
+    public long drainPending(long productId) {
+        StripedCounter counter = counters.get(productId);
+        return counter != null ? counter.pending.sumThenReset() : 0;
+    }
+
+    @Override
+    public boolean restorePending(long productId, long delta) {
+        StripedCounter counter = counters.get(productId);
+        if (counter == null) {
+            return false;
+        }
+        counter.inFlight.increment();
+        try {
+            if (counter.closed) {
+                return false;
+            }
+            counter.pending.add(delta);
+            return true;
+        } finally {
+            counter.inFlight.decrement();
+        }
+    }
+
+    @Override
+    public Set<Long> hotProductIds() {
+        return new HashSet<>(counters.keySet());
+    }
+
+    /**
+     * 单个产品的分段计数器
+     */
+    private static class StripedCounter {
+
+        private final AtomicLong[] stripes;
+        private final LongAdder pending = new LongAdder();
+        private final LongAdder inFlight = new LongAdder();
+        private volatile boolean closed;
+
+        StripedCounter(int stripeCount, long quantity) {
+            stripes = new AtomicLong[stripeCount];
+            for (int i = 0; i < stripeCount; i++) {
+                stripes[i] = new AtomicLong(quantity / stripeCount + (i < quantity % stripeCount ? 1 : 0));
+            }
+        }
+
+        long add(long amount) {
+            stripes[ThreadLocalRandom.current().nextInt(stripes.length)].addAndGet(amount);
+            pending.add(amount);
+            return available();
+        }
+
+        long take(long amount) {
+            int start = ThreadLocalRandom.current().nextInt(stripes.length);
+            for (int i = 0; i < stripes.length; i++) {
+                AtomicLong stripe = stripes[(start + i) % stripes.length];
+                long current;
+                while ((current = stripe.get()) >= amount) {
+                    if (stripe.compareAndSet(current, current - amount)) {
+                        pending.add(-amount);
+                        return available();
+                    }
+                }
+            }
+            return takeAcrossStripes(amount);
+        }
+
+        /**
+         * 单个分段都不足时，加锁取出所有分段合并判断，再均匀放回
+         */
+        private synchronized long takeAcrossStripes(long amount) {
+            long total = 0;
+            for (AtomicLong stripe : stripes) {
+                total += stripe.getAndSet(0);
+            }
+            boolean enough = total >= amount;
+            if (enough) {
+                total -= amount;
+                pending.add(-amount);
+            }
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i].addAndGet(total / stripes.length + (i < total % stripes.length ? 1 : 0));
+            }
+            return enough ? available() : INSUFFICIENT;
+        }
+
+        long available() {
+            long sum = 0;
+            for (AtomicLong stripe : stripes) {
+                sum += stripe.get();
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.nexcommerce.product.mapper;
+
+import com.nexcommerce.product.dto.AttributeDefinitionDto;
+import com.nexcommerce.product.model.AttributeDefinition;
+import org.mapstruct.*;
+
+import java.util.List;
+
+/**
+ * 属性定义实体与DTO之间的映射接口
+ */
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface AttributeDefinitionMapper {
+
+    /**
+     * 将实体转换为DTO
+     *
+     * @param definition 属性定义实体
+     * @return 属性定义DTO
+     */
+    AttributeDefinitionDto toDto(AttributeDefinition definition);
+
+    /**
+     * 将DTO转换为实体
+     *
+     * @param definitionDto 属性定义DTO
+     * @return 属性定义实体
+     */
+    AttributeDefinition toEntity(AttributeDefinitionDto definitionDto);
+
+    /**
+     * 将实体列表转换为DTO列表
+     *
+     * @param definitions 属性定义实体列表
+     * @return 属性定义DTO列表
+     */
+    List<AttributeDefinitionDto> toDtoList(List<AttributeDefinition> definitions);
+
+    /**
+     * 更新属性定义实体（属性名不可修改）
+     *
+     * @param definitionDto 属性定义DTO
+     * @param definition 目标属性定义实体
+     */
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "attributeName", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    void updateDefinitionFromDto(AttributeDefinitionDto definitionDto, @MappingTarget AttributeDefinition definition);
+}
@@ -18,8 +18,25 @@ public interface BrandMapper {
      * @param brand 品牌实体
      * @return 品牌DTO
      */
+    @Mapping(target = "productCount", ignore = true)
     BrandDto toDto(Brand brand);
 
+    /**
+     * 复制DTO（快照中的DTO共享于多个线程，填充额外字段前先复制）
+     *
+     * @param brandDto 品牌DTO
+     * @return 品牌DTO副本
+     */
+    BrandDto copy(BrandDto brandDto);
+
+    /**
+     * 复制DTO列表
+     *
+     * @param brandDtos 品牌DTO列表
+     * @return 品牌DTO副本列表
+     */
+    List<BrandDto> copyList(List<BrandDto> brandDtos);
+
     /**
      * 将DTO转换为实体
      *
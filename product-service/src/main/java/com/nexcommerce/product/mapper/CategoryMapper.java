@@ -1,5 +1,6 @@
 package com.nexcommerce.product.mapper;
 
+import com.nexcommerce.product.category.CategoryNode;
 import com.nexcommerce.product.dto.CategoryDto;
 import com.nexcommerce.product.model.Category;
 import org.mapstruct.*;
@@ -21,8 +22,29 @@ public interface CategoryMapper {
      */
     @Mapping(source = "parent.id", target = "parentId")
     @Mapping(source = "parent.name", target = "parentName")
+    @Mapping(target = "productCount", ignore = true)
+    @Mapping(target = "subtreeProductCount", ignore = true)
     CategoryDto toDto(Category category);
 
+    /**
+     * 将类别树节点转换为DTO（包含子类别）
+     *
+     * @param node 类别树节点
+     * @return 类别DTO
+     */
+    @Mapping(source = "parent.name", target = "parentName")
+    @Mapping(target = "productCount", ignore = true)
+    @Mapping(target = "subtreeProductCount", ignore = true)
+    CategoryDto toDto(CategoryNode node);
+
+    /**
+     * 将类别树节点列表转换为DTO列表
+     *
+     * @param nodes 类别树节点列表
+     * @return 类别DTO列表
+     */
+    List<CategoryDto> nodesToDtoList(List<CategoryNode> nodes);
+
     /**
      * 将DTO转换为实体
      *
@@ -32,6 +54,9 @@ public interface CategoryMapper {
     @Mapping(target = "parent", ignore = true)
     @Mapping(target = "children", ignore = true)
     @Mapping(target = "products", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "lft", ignore = true)
+    @Mapping(target = "rgt", ignore = true)
     Category toEntity(CategoryDto categoryDto);
 
     /**
@@ -69,6 +94,9 @@ public interface CategoryMapper {
     @Mapping(target = "parent", ignore = true)
     @Mapping(target = "children", ignore = true)
     @Mapping(target = "products", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "lft", ignore = true)
+    @Mapping(target = "rgt", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     void updateCategoryFromDto(CategoryDto categoryDto, @MappingTarget Category category);
 }
@@ -0,0 +1,20 @@
+package com.nexcommerce.product.mapper;
+
+import com.nexcommerce.product.dto.ProductChangeDto;
+import com.nexcommerce.product.model.ProductChange;
+import org.mapstruct.*;
+
+/**
+ * 产品变更实体与DTO之间的映射接口
+ */
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface ProductChangeMapper {
+
+    /**
+     * 将实体转换为DTO
+     *
+     * @param change 产品变更实体
+     * @return 产品变更DTO
+     */
+    ProductChangeDto toDto(ProductChange change);
+}
@@ -36,6 +36,7 @@ public interface ProductMapper {
     @Mapping(target = "brand", ignore = true)
     @Mapping(target = "images", ignore = true)
     @Mapping(target = "attributes", ignore = true)
+    @Mapping(target = "hotStock", ignore = true)
     Product toEntity(ProductDto productDto);
 
     /**
@@ -67,5 +68,6 @@ public interface ProductMapper {
     @Mapping(target = "images", ignore = true)
     @Mapping(target = "attributes", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "hotStock", ignore = true)
     void updateProductFromDto(ProductDto productDto, @MappingTarget Product product);
 }
@@ -0,0 +1,20 @@
+package com.nexcommerce.product.mapper;
+
+import com.nexcommerce.product.dto.StockLedgerEntryDto;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import org.mapstruct.*;
+
+/**
+ * 库存流水实体与DTO之间的映射接口
+ */
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface StockLedgerEntryMapper {
+
+    /**
+     * 将实体转换为DTO
+     *
+     * @param entry 库存流水实体
+     * @return 库存流水DTO
+     */
+    StockLedgerEntryDto toDto(StockLedgerEntry entry);
+}
@@ -0,0 +1,21 @@
+package com.nexcommerce.product.mapper;
+
+import com.nexcommerce.product.dto.StockReservationDto;
+import com.nexcommerce.product.model.StockReservation;
+import org.mapstruct.*;
+
+/**
+ * 库存预留实体与DTO之间的映射接口
+ */
+@Mapper(componentModel = "spring", injectionStrategy = InjectionStrategy.CONSTRUCTOR)
+public interface StockReservationMapper {
+
+    /**
+     * 将实体转换为DTO
+     *
+     * @param reservation 库存预留实体
+     * @return 库存预留DTO
+     */
+    @Mapping(target = "ttlSeconds", ignore = true)
+    StockReservationDto toDto(StockReservation reservation);
+}
@@ -0,0 +1,67 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * 属性定义实体类
+ * 为指定属性名声明值类型，写入产品属性时按类型校验；数值型属性进入数值索引以支持范围查询
+ */
+@Entity
+@Table(name = "attribute_definitions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttributeDefinition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "attribute_name", nullable = false, unique = true)
+    private String attributeName;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private AttributeType type;
+
+    /**
+     * 数值单位（如 mAh、英寸），仅用于展示，数值型属性值可带此后缀
+     */
+    @Column(name = "unit")
+    private String unit;
+
+    /**
+     * 枚举型属性的可选值
+     */
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "attribute_definition_values", joinColumns = @JoinColumn(name = "definition_id"))
+    @Column(name = "allowed_value", nullable = false)
+    @Builder.Default
+    private Set<String> allowedValues = new HashSet<>();
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * 属性值类型枚举
+     */
+    public enum AttributeType {
+        NUMERIC, ENUM, BOOLEAN
+    }
+}
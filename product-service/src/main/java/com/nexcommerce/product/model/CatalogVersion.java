@@ -0,0 +1,27 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * 目录版本实体类
+ * 类别、品牌和属性定义各有一行，在其写事务中递增，所有实例据此发现其他实例上的变更；
+ * 由 {@link com.nexcommerce.product.cache.CatalogSync} 通过JDBC维护
+ */
+@Entity
+@Table(name = "catalog_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 32)
+    private String name;
+
+    @Column(nullable = false)
+    private Long version;
+}
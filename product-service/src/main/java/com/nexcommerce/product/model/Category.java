@@ -16,7 +16,10 @@ import java.util.Set;
  * 产品类别实体类
  */
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", indexes = {
+        @Index(name = "idx_categories_path", columnList = "path"),
+        @Index(name = "idx_categories_interval", columnList = "lft, rgt")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -46,6 +49,24 @@ public class Category {
     @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL)
     private Set<Category> children = new HashSet<>();
 
+    /**
+     * 物化路径（从顶级类别到自身的ID序列，如 /1/5/12/），随创建和移动在同一事务中维护
+     */
+    @Column(length = 512)
+    private String path;
+
+    /**
+     * 先序区间左端，后代的区间落在 [lft, rgt] 之内；只由 CategoryIntervals 维护
+     */
+    @Column(insertable = false, updatable = false)
+    private Integer lft;
+
+    /**
+     * 先序区间右端
+     */
+    @Column(insertable = false, updatable = false)
+    private Integer rgt;
+
     @OneToMany(mappedBy = "category")
     private Set<Product> products = new HashSet<>();
 
@@ -0,0 +1,29 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * 类别树锁实体类
+ * 只有一行，类别树结构变更（创建、移动）先对该行加锁，再锁定涉及的类别行，加锁顺序固定；
+ * 由 {@link com.nexcommerce.product.category.CategoryIntervals} 通过JDBC维护
+ */
+@Entity
+@Table(name = "category_tree_lock")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryTreeLock {
+
+    @Id
+    private Long id;
+
+    /**
+     * 结构版本，每次区间重新编号时递增
+     */
+    @Column(nullable = false)
+    private Long version;
+}
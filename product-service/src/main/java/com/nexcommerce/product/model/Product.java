@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -17,7 +18,12 @@ import java.util.Set;
  * 产品实体类
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_updated_at_id", columnList = "updated_at, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -46,11 +52,12 @@ public class Product {
     @Column(nullable = false)
     private Integer quantity;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // 类别和品牌改为延迟加载，由存储库查询上的实体图按需JOIN获取
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "brand_id")
     private Brand brand;
 
@@ -58,15 +65,24 @@ public class Product {
     @Enumerated(EnumType.STRING)
     private ProductStatus status;
 
+    // 图片和属性按批加载：一页产品的集合各用一条 IN 查询加载
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private Set<ProductImage> images = new HashSet<>();
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
     private Set<ProductAttribute> attributes = new HashSet<>();
 
     @Column(name = "is_featured")
     private Boolean isFeatured;
 
+    /**
+     * 是否处于热点库存模式，开启和关闭时都持有行锁；库存写入以加锁读取到的值决定写数据库还是计数存储
+     */
+    @Column(name = "hot_stock")
+    private Boolean hotStock;
+
     @Column(name = "weight")
     private Double weight;
 
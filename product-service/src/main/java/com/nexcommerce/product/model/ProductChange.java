@@ -0,0 +1,70 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 产品变更记录实体类（事务性发件箱）
+ * 与产品变更在同一事务中插入，此时 seq 为空；提交后由定序器按提交后可见的顺序分配连续的序号，
+ * 消费者只读取已分配序号的记录，因此序号没有空洞，且不会出现小序号晚于大序号可见的情况
+ */
+@Entity
+@Table(name = "product_changes", indexes = {
+        @Index(name = "uk_product_changes_seq", columnList = "seq", unique = true),
+        @Index(name = "idx_product_changes_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 变更序号，从1开始连续递增；未定序时为空
+     */
+    private Long seq;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    /**
+     * 产品SKU（变更事件携带产品时记录，删除变更一定有）
+     */
+    @Column(updatable = false, length = 100)
+    private String sku;
+
+    @Column(name = "change_type", nullable = false, updatable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private ChangeType changeType;
+
+    /**
+     * 变更后的库存（库存变更时记录）
+     */
+    @Column(updatable = false)
+    private Integer quantity;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 变更类型枚举
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /** 只有库存和状态变化 */
+        STOCK_CHANGED,
+        ATTRIBUTES_CHANGED,
+        IMAGES_CHANGED
+    }
+}
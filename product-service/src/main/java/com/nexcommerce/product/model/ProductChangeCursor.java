@@ -0,0 +1,27 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+/**
+ * 产品变更游标实体类
+ * 记录服务端各处理方在变更流中的位置：定序器为已分配的最大序号，发布器为已发布的最大序号。
+ * 各处理方每轮都对自己的行加锁，多实例部署时同一时刻只有一个实例在处理
+ */
+@Entity
+@Table(name = "product_change_cursors")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChangeCursor {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private Long position;
+}
@@ -0,0 +1,69 @@
+package com.nexcommerce.product.model;
+
+import com.nexcommerce.product.importer.ProductImportFormat;
+import com.nexcommerce.product.importer.ProductImportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 产品导入任务状态实体类
+ * 执行任务的实例定期保存进度快照，任一实例都可以据此查询任务进度；
+ * 未结束的任务长时间没有更新说明执行它的实例已停止
+ */
+@Entity
+@Table(name = "product_import_jobs", indexes = {
+        @Index(name = "idx_product_import_jobs_finished_at", columnList = "finished_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportJobState {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private ProductImportFormat format;
+
+    @Column(nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private ProductImportJob.Status status;
+
+    @Column(name = "imported_rows", nullable = false)
+    private long importedRows;
+
+    @Column(name = "failed_rows", nullable = false)
+    private long failedRows;
+
+    @Column(name = "rows_per_second", nullable = false)
+    private long rowsPerSecond;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String message;
+
+    /**
+     * 单行错误（JSON数组）
+     */
+    @Lob
+    private String errors;
+
+    /**
+     * 最近一次保存快照的时间
+     */
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,70 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水实体类
+ * 每次库存变动追加一条记录，只插入不修改；与库存更新在同一事务中批量写入
+ */
+@Entity
+@Table(name = "stock_ledger", indexes = {
+        @Index(name = "idx_stock_ledger_product_id_id", columnList = "product_id, id"),
+        @Index(name = "idx_stock_ledger_created_at", columnList = "created_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer delta;
+
+    @Column(nullable = false, updatable = false, length = 32)
+    @Enumerated(EnumType.STRING)
+    private MovementReason reason;
+
+    /**
+     * 关联ID（如订单号、预留ID），用于追溯
+     */
+    @Column(name = "correlation_id", updatable = false, length = 64)
+    private String correlationId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * 库存变动原因枚举
+     */
+    public enum MovementReason {
+        /** 期初余额（启用流水前已有的库存） */
+        OPENING_BALANCE,
+        /** 创建产品时的初始库存 */
+        INITIAL,
+        /** 库存调整接口 */
+        ADJUSTMENT,
+        /** 修改产品时直接修改库存 */
+        MANUAL_UPDATE,
+        /** 预留扣减 */
+        RESERVATION,
+        /** 预留释放归还 */
+        RESERVATION_RELEASE,
+        /** 预留过期归还 */
+        RESERVATION_EXPIRE,
+        /** 热点库存回写（一段时间内的净变化量） */
+        HOT_STOCK_FLUSH
+    }
+}
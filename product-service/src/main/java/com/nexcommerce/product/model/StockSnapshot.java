@@ -0,0 +1,44 @@
+package com.nexcommerce.product.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 库存快照实体类
+ * 某产品截至某条流水（包含）的库存，由流水定期压缩生成；
+ * 任意时刻的库存 = 之前最近的快照 + 快照之后的流水之和
+ */
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+        @Index(name = "idx_stock_snapshots_product_id_entry", columnList = "product_id, last_entry_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private Long productId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer quantity;
+
+    /**
+     * 快照包含的最后一条流水ID
+     */
+    @Column(name = "last_entry_id", nullable = false, updatable = false)
+    private Long lastEntryId;
+
+    @Column(name = "snapshot_at", nullable = false, updatable = false)
+    private LocalDateTime snapshotAt;
+}
@@ -0,0 +1,31 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.AttributeDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 属性定义存储库接口
+ */
+@Repository
+public interface AttributeDefinitionRepository extends JpaRepository<AttributeDefinition, Long> {
+
+    /**
+     * 根据属性名查找属性定义
+     *
+     * @param attributeName 属性名
+     * @return 属性定义
+     */
+    Optional<AttributeDefinition> findByAttributeName(String attributeName);
+
+    /**
+     * 根据类型查找属性定义
+     *
+     * @param type 属性类型
+     * @return 属性定义列表
+     */
+    List<AttributeDefinition> findByType(AttributeDefinition.AttributeType type);
+}
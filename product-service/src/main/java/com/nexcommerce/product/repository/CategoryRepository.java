@@ -1,7 +1,11 @@
 package com.nexcommerce.product.repository;
 
+import com.nexcommerce.product.category.CategoryNode;
 import com.nexcommerce.product.model.Category;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -76,4 +80,49 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     @Query("SELECT c FROM Category c LEFT JOIN FETCH c.children WHERE c.id = :parentId")
     Optional<Category> findWithChildrenById(@Param("parentId") Long parentId);
+
+    /**
+     * 根据ID查找类别并加行锁（移动类别时防止并发移动形成环）
+     *
+     * @param id 类别ID
+     * @return 类别对象
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Category c WHERE c.id = :id")
+    Optional<Category> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 移动子树：把路径以旧前缀开头的类别（即被移动类别的所有后代）改为以新前缀开头
+     *
+     * @param oldPath 被移动类别的旧路径
+     * @param newPath 被移动类别的新路径
+     * @return 更新的行数
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Category c SET c.path = CONCAT(:newPath, SUBSTRING(c.path, LENGTH(:oldPath) + 1)) " +
+            "WHERE c.path LIKE CONCAT(:oldPath, '%')")
+    int rebasePaths(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    /**
+     * 统计尚未设置路径的类别数量
+     *
+     * @return 类别数量
+     */
+    long countByPathIsNull();
+
+    /**
+     * 统计尚未分配区间编号的类别数量
+     *
+     * @return 类别数量
+     */
+    long countByLftIsNull();
+
+    /**
+     * 一次查询加载所有类别的字段和父类别ID（用于构建类别树快照）
+     *
+     * @return 未链接的类别节点列表
+     */
+    @Query("SELECT new com.nexcommerce.product.category.CategoryNode(c.id, c.name, c.slug, c.description, c.imageUrl, " +
+            "p.id, c.isActive, c.sortOrder, c.createdAt, c.updatedAt) FROM Category c LEFT JOIN c.parent p")
+    List<CategoryNode> findAllNodes();
 }
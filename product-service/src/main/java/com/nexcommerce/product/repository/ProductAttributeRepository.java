@@ -1,12 +1,18 @@
 package com.nexcommerce.product.repository;
 
 import com.nexcommerce.product.model.ProductAttribute;
+import com.nexcommerce.product.search.ProductAttributeFacet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 产品属性数据访问接口
@@ -38,4 +44,47 @@ public interface ProductAttributeRepository extends JpaRepository<ProductAttribu
      */
     @Query("SELECT DISTINCT pa.attributeValue FROM ProductAttribute pa WHERE pa.attributeName = :attributeName")
     List<String> findDistinctAttributeValuesByAttributeName(@Param("attributeName") String attributeName);
+
+    /**
+     * 获取产品的可筛选属性
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductAttributeFacet(pa.product.id, pa.attributeName, pa.attributeValue) " +
+            "FROM ProductAttribute pa WHERE pa.product.id = :productId AND pa.isFilterable = true")
+    List<ProductAttributeFacet> findFilterableFacetsByProductId(@Param("productId") Long productId);
+
+    /**
+     * 获取产品的所有属性（属性名、属性值）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductAttributeFacet(pa.product.id, pa.attributeName, pa.attributeValue) " +
+            "FROM ProductAttribute pa WHERE pa.product.id = :productId")
+    List<ProductAttributeFacet> findAttributeFacetsByProductId(@Param("productId") Long productId);
+
+    /**
+     * 获取指定属性名的所有产品属性值
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductAttributeFacet(pa.product.id, pa.attributeName, pa.attributeValue) " +
+            "FROM ProductAttribute pa WHERE pa.attributeName = :attributeName")
+    List<ProductAttributeFacet> findAttributeFacetsByAttributeName(@Param("attributeName") String attributeName);
+
+    /**
+     * 流式读取指定属性名的所有产品属性值（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductAttributeFacet(pa.product.id, pa.attributeName, pa.attributeValue) " +
+            "FROM ProductAttribute pa WHERE pa.attributeName IN :attributeNames")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductAttributeFacet> streamAttributeFacetsByAttributeNames(@Param("attributeNames") Collection<String> attributeNames);
+
+    /**
+     * 流式读取所有可筛选属性（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductAttributeFacet(pa.product.id, pa.attributeName, pa.attributeValue) " +
+            "FROM ProductAttribute pa WHERE pa.isFilterable = true")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductAttributeFacet> streamFilterableFacets();
 }
@@ -0,0 +1,26 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 产品变更存储库接口
+ * 写入和定序由 {@link com.nexcommerce.product.changefeed.ProductChangeOutbox} 和
+ * {@link com.nexcommerce.product.changefeed.ProductChangeSequencer} 通过JDBC完成，此处只用于查询
+ */
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    /**
+     * 查找序号大于指定值的变更（按序号升序）
+     *
+     * @param seq 起始序号（不包含）
+     * @param pageable 分页参数（只取第一页）
+     * @return 变更列表
+     */
+    List<ProductChange> findBySeqGreaterThanOrderBySeqAsc(Long seq, Pageable pageable);
+}
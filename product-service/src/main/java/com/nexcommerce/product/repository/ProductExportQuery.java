@@ -0,0 +1,28 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 产品目录导出条件，各条件为空表示不限制
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductExportQuery {
+
+    private Long categoryId;
+    private Long brandId;
+    private Product.ProductStatus status;
+
+    /**
+     * 只导出在该时刻及之后更新过的产品（增量导出）
+     */
+    private LocalDateTime updatedSince;
+}
@@ -0,0 +1,27 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.ProductImportJobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * 产品导入任务状态存储库接口
+ */
+@Repository
+public interface ProductImportJobStateRepository extends JpaRepository<ProductImportJobState, String> {
+
+    /**
+     * 删除在给定时间之前结束的任务
+     *
+     * @param cutoff 结束时间上限（不含）
+     * @return 删除的行数
+     */
+    @Modifying
+    @Query("DELETE FROM ProductImportJobState j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,44 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+/**
+ * 产品游标（键集）分页查询条件
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductKeysetQuery {
+
+    private Long categoryId;
+    private Long brandId;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Product.ProductStatus status;
+
+    @Builder.Default
+    private ProductSortKey sortKey = ProductSortKey.ID;
+
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+
+    /**
+     * 上一页最后一行的排序值（字符串形式），为空表示第一页
+     */
+    private String afterValue;
+
+    /**
+     * 上一页最后一行的ID，为空表示第一页
+     */
+    private Long afterId;
+
+    private int limit;
+}
@@ -1,22 +1,66 @@
 package com.nexcommerce.product.repository;
 
+import com.nexcommerce.product.dto.ProductSummaryDto;
+import com.nexcommerce.product.inventory.ProductQuantity;
 import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.search.ProductFacets;
+import com.nexcommerce.product.search.ProductSearchDocument;
+import com.nexcommerce.product.search.ProductSuggestionSource;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 产品存储库接口
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+
+    /**
+     * 产品摘要构造器表达式（主图通过标量子查询获取）
+     */
+    String SUMMARY_SELECT = "SELECT new com.nexcommerce.product.dto.ProductSummaryDto(" +
+            "p.id, p.name, p.sku, p.price, p.salePrice, " +
+            "(SELECT MIN(pi.imageUrl) FROM ProductImage pi WHERE pi.product.id = p.id AND pi.isPrimary = true), " +
+            "c.name, b.name) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.brand b ";
+
+    /**
+     * 根据ID查找产品（同时JOIN获取类别和品牌）
+     *
+     * @param id 产品ID
+     * @return 产品对象
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand"})
+    Optional<Product> findById(Long id);
+
+    /**
+     * 分页查找所有产品（同时JOIN获取类别和品牌）
+     *
+     * @param pageable 分页对象
+     * @return 产品分页列表
+     */
+    @Override
+    @EntityGraph(attributePaths = {"category", "brand"})
+    Page<Product> findAll(Pageable pageable);
 
     /**
      * 根据商品SKU查找产品
@@ -24,8 +68,130 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param sku 商品SKU
      * @return 产品对象
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Optional<Product> findBySku(String sku);
 
+    /**
+     * 根据ID查找产品并加行锁（SELECT ... FOR UPDATE），锁持有到事务结束
+     *
+     * @param id 产品ID
+     * @return 产品对象
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * 查找ID范围内产品的当前库存（用于对账）
+     *
+     * @param fromId 起始ID（包含）
+     * @param toId 结束ID（包含）
+     * @return 产品库存列表
+     */
+    @Query("SELECT new com.nexcommerce.product.inventory.ProductQuantity(p.id, p.quantity, p.updatedAt) " +
+            "FROM Product p WHERE p.id BETWEEN :fromId AND :toId")
+    List<ProductQuantity> findQuantitiesByIdBetween(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    /**
+     * 查找类别下所有产品的ID（用于类别变更后淘汰产品缓存）
+     *
+     * @param categoryId 类别ID
+     * @return 产品ID列表
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查找品牌下所有产品的ID（用于品牌变更后淘汰产品缓存）
+     *
+     * @param brandId 品牌ID
+     * @return 产品ID列表
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.brand.id = :brandId")
+    List<Long> findIdsByBrandId(@Param("brandId") Long brandId);
+
+    /**
+     * 查找最大的产品ID
+     *
+     * @return 最大产品ID，没有产品时为 null
+     */
+    @Query("SELECT MAX(p.id) FROM Product p")
+    Long findMaxId();
+
+    /**
+     * 根据SKU集合查找产品
+     *
+     * @param skus SKU集合
+     * @return 产品列表（顺序不保证）
+     */
+    List<Product> findBySkuIn(Collection<String> skus);
+
+    /**
+     * 根据SKU集合查找产品（同时JOIN获取类别和品牌）
+     *
+     * @param skus SKU集合
+     * @return 产品列表（顺序不保证）
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    List<Product> findWithCategoryAndBrandBySkuIn(Collection<String> skus);
+
+    /**
+     * 查找集合中已存在的SKU
+     *
+     * @param skus SKU集合
+     * @return 已存在的SKU
+     */
+    @Query("SELECT p.sku FROM Product p WHERE p.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    /**
+     * 原子调整库存
+     * 在单条条件UPDATE中完成校验和修改，库存不足时不更新任何行；行锁从该语句开始持有，不再跨越Java侧的读取和计算。
+     * 状态在库存之前赋值：MySQL按从左到右的顺序求值SET子句，先赋值状态可保证其基于调整前的库存计算。
+     *
+     * @param id 产品ID
+     * @param delta 库存变化（正数增加，负数减少）
+     * @param outOfStock 缺货状态
+     * @param active 上架状态
+     * @param now 更新时间（批量UPDATE不会触发 @UpdateTimestamp）
+     * @return 更新的行数，0表示产品不存在或库存不足
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET " +
+            "p.status = CASE WHEN p.quantity + :delta = 0 THEN :outOfStock " +
+            "WHEN p.status = :outOfStock THEN :active ELSE p.status END, " +
+            "p.quantity = p.quantity + :delta, " +
+            "p.updatedAt = :now " +
+            "WHERE p.id = :id AND p.quantity + :delta >= 0")
+    int adjustQuantity(@Param("id") Long id,
+                       @Param("delta") int delta,
+                       @Param("outOfStock") Product.ProductStatus outOfStock,
+                       @Param("active") Product.ProductStatus active,
+                       @Param("now") LocalDateTime now);
+
+    /**
+     * 设置产品的热点库存模式标记（调用方须已对产品行加锁）
+     *
+     * @param id 产品ID
+     * @param hotStock 是否处于热点库存模式
+     * @return 更新的行数
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.hotStock = :hotStock WHERE p.id = :id")
+    int updateHotStock(@Param("id") Long id, @Param("hotStock") boolean hotStock);
+
+    /**
+     * 更新产品的更新时间
+     * 产品图片或属性变更时调用，使产品的版本（updatedAt）反映其全部内容
+     *
+     * @param id 产品ID
+     * @param now 更新时间
+     * @return 更新的行数
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.updatedAt = :now WHERE p.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
+
     /**
      * 根据商品名称查找产品（模糊匹配）
      *
@@ -33,6 +199,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByNameContaining(String name, Pageable pageable);
 
     /**
@@ -42,9 +209,25 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE p.category.id = :categoryId")
     Page<Product> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 
+    /**
+     * 查找类别及其所有后代类别下的产品
+     * 后代类别的先序区间落在该类别的区间之内，一个范围条件即可覆盖整棵子树
+     *
+     * @param categoryId 类别ID
+     * @param pageable 分页对象
+     * @return 产品分页列表
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    @Query(value = "SELECT p FROM Product p JOIN p.category c, Category root " +
+            "WHERE root.id = :categoryId AND c.lft BETWEEN root.lft AND root.rgt",
+            countQuery = "SELECT COUNT(p) FROM Product p JOIN p.category c, Category root " +
+                    "WHERE root.id = :categoryId AND c.lft BETWEEN root.lft AND root.rgt")
+    Page<Product> findByCategorySubtree(@Param("categoryId") Long categoryId, Pageable pageable);
+
     /**
      * 根据品牌ID查找产品
      *
@@ -52,6 +235,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE p.brand.id = :brandId")
     Page<Product> findByBrandId(@Param("brandId") Long brandId, Pageable pageable);
 
@@ -61,6 +245,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findBySalePriceIsNotNull(Pageable pageable);
 
     /**
@@ -71,6 +256,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
     /**
@@ -79,6 +265,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByIsFeatured(Boolean isFeatured, Pageable pageable);
 
     /**
@@ -88,6 +275,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     Page<Product> findByStatus(Product.ProductStatus status, Pageable pageable);
 
     /**
@@ -100,6 +288,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param pageable 分页对象
      * @return 产品分页列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     @Query("SELECT p FROM Product p WHERE " +
             "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
             "(:brandId IS NULL OR p.brand.id = :brandId) AND " +
@@ -119,5 +308,135 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @param threshold 库存阈值
      * @return 产品列表
      */
+    @EntityGraph(attributePaths = {"category", "brand"})
     List<Product> findByQuantityLessThanAndStatusNot(Integer threshold, Product.ProductStatus status);
+
+    /**
+     * 根据ID集合查找产品（同时JOIN获取类别和品牌）
+     *
+     * @param ids 产品ID集合
+     * @return 产品列表（顺序不保证）
+     */
+    @EntityGraph(attributePaths = {"category", "brand"})
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    /**
+     * 流式读取所有产品的搜索文档
+     * 使用只进游标（MySQL驱动以 Integer.MIN_VALUE 作为fetchSize时逐行读取），内存占用与产品数量无关
+     *
+     * @return 搜索文档流（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductSearchDocument(p.id, p.name, p.description, c.name, b.name) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.brand b")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductSearchDocument> streamSearchDocuments();
+
+    /**
+     * 查找类别下所有产品的搜索文档（类别改名后重建这些产品的索引）
+     *
+     * @param categoryId 类别ID
+     * @return 搜索文档列表
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductSearchDocument(p.id, p.name, p.description, c.name, b.name) " +
+            "FROM Product p JOIN p.category c LEFT JOIN p.brand b WHERE c.id = :categoryId")
+    List<ProductSearchDocument> findSearchDocumentsByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * 查找品牌下所有产品的搜索文档（品牌改名后重建这些产品的索引）
+     *
+     * @param brandId 品牌ID
+     * @return 搜索文档列表
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductSearchDocument(p.id, p.name, p.description, c.name, b.name) " +
+            "FROM Product p LEFT JOIN p.category c JOIN p.brand b WHERE b.id = :brandId")
+    List<ProductSearchDocument> findSearchDocumentsByBrandId(@Param("brandId") Long brandId);
+
+    /**
+     * 流式读取所有产品的分面文档（类别、品牌、状态）
+     *
+     * @return 分面文档流（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductFacets(p.id, c.id, b.id, p.status) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.brand b")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductFacets> streamFacetDocuments();
+
+    /**
+     * 流式读取所有不处于指定状态的产品的当前库存（用于重建和对账低库存索引，排除停产产品）
+     *
+     * @param excludedStatus 排除的产品状态
+     * @return 产品库存流（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.inventory.ProductQuantity(p.id, p.quantity, p.updatedAt) " +
+            "FROM Product p WHERE p.status <> :excludedStatus")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductQuantity> streamStockLevels(@Param("excludedStatus") Product.ProductStatus excludedStatus);
+
+    /**
+     * 流式读取所有产品的补全数据（名称、是否推荐、状态）
+     *
+     * @return 补全数据流（须在事务内消费并关闭）
+     */
+    @Query("SELECT new com.nexcommerce.product.search.ProductSuggestionSource(p.id, p.name, p.isFeatured, p.status) " +
+            "FROM Product p")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ProductSuggestionSource> streamSuggestionSources();
+
+    /**
+     * 查找推荐商品摘要
+     *
+     * @param isFeatured 是否推荐
+     * @param pageable 分页对象
+     * @return 产品摘要分页列表
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.isFeatured = :isFeatured",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.isFeatured = :isFeatured")
+    Page<ProductSummaryDto> findSummariesByIsFeatured(@Param("isFeatured") Boolean isFeatured, Pageable pageable);
+
+    /**
+     * 查找特价商品摘要
+     *
+     * @param pageable 分页对象
+     * @return 产品摘要分页列表
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.salePrice IS NOT NULL",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.salePrice IS NOT NULL")
+    Page<ProductSummaryDto> findSummariesBySalePriceIsNotNull(Pageable pageable);
+
+    /**
+     * 查找价格在指定范围内的产品摘要
+     *
+     * @param minPrice 最低价格
+     * @param maxPrice 最高价格
+     * @param pageable 分页对象
+     * @return 产品摘要分页列表
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.price BETWEEN :minPrice AND :maxPrice",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.price BETWEEN :minPrice AND :maxPrice")
+    Page<ProductSummaryDto> findSummariesByPriceBetween(@Param("minPrice") BigDecimal minPrice,
+                                                        @Param("maxPrice") BigDecimal maxPrice,
+                                                        Pageable pageable);
+
+    /**
+     * 根据状态查找产品摘要
+     *
+     * @param status 产品状态
+     * @param pageable 分页对象
+     * @return 产品摘要分页列表
+     */
+    @Query(value = SUMMARY_SELECT + "WHERE p.status = :status",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.status = :status")
+    Page<ProductSummaryDto> findSummariesByStatus(@Param("status") Product.ProductStatus status, Pageable pageable);
 }
@@ -0,0 +1,31 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.dto.ProductExportDto;
+import com.nexcommerce.product.model.Product;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 产品存储库自定义查询接口
+ */
+public interface ProductRepositoryCustom {
+
+    /**
+     * 游标分页查询产品
+     * 使用 WHERE (sort, id) > (?, ?) 定位，不执行 COUNT 查询
+     *
+     * @param query 查询条件
+     * @return 产品列表（最多 limit 条）
+     */
+    List<Product> findByKeyset(ProductKeysetQuery query);
+
+    /**
+     * 按条件流式读取产品导出行（按ID升序）
+     * 使用只进游标逐行读取，内存占用与结果数量无关
+     *
+     * @param query 导出条件
+     * @return 导出行流（须在事务内消费并关闭）
+     */
+    Stream<ProductExportDto> streamForExport(ProductExportQuery query);
+}
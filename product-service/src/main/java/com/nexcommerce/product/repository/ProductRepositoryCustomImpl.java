@@ -0,0 +1,126 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.dto.ProductExportDto;
+import com.nexcommerce.product.model.Brand;
+import com.nexcommerce.product.model.Category;
+import com.nexcommerce.product.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 产品存储库自定义查询实现
+ */
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Product> findByKeyset(ProductKeysetQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> cq = cb.createQuery(Product.class);
+        Root<Product> product = cq.from(Product.class);
+        product.fetch("category", JoinType.LEFT);
+        product.fetch("brand", JoinType.LEFT);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getCategoryId() != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), query.getCategoryId()));
+        }
+        if (query.getBrandId() != null) {
+            predicates.add(cb.equal(product.get("brand").get("id"), query.getBrandId()));
+        }
+        if (query.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), query.getMinPrice()));
+        }
+        if (query.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), query.getMaxPrice()));
+        }
+        if (query.getStatus() != null) {
+            predicates.add(cb.equal(product.get("status"), query.getStatus()));
+        }
+
+        ProductSortKey sortKey = query.getSortKey();
+        boolean ascending = query.getDirection() == Sort.Direction.ASC;
+        Expression<Long> id = product.get("id");
+        Expression sortExpression = product.get(sortKey.getProperty());
+
+        // (sort, id) > (?, ?) 展开为 sort > ? OR (sort = ? AND id > ?)，便于MySQL使用 (sort, id) 联合索引
+        if (query.getAfterId() != null) {
+            if (sortKey == ProductSortKey.ID) {
+                predicates.add(ascending ? cb.greaterThan(id, query.getAfterId()) : cb.lessThan(id, query.getAfterId()));
+            } else {
+                Comparable afterValue = sortKey.parse(query.getAfterValue());
+                predicates.add(cb.or(
+                        ascending ? cb.greaterThan(sortExpression, afterValue) : cb.lessThan(sortExpression, afterValue),
+                        cb.and(cb.equal(sortExpression, afterValue),
+                                ascending ? cb.greaterThan(id, query.getAfterId()) : cb.lessThan(id, query.getAfterId()))));
+            }
+        }
+
+        cq.select(product).where(predicates.toArray(new Predicate[0]));
+        if (sortKey == ProductSortKey.ID) {
+            cq.orderBy(ascending ? cb.asc(id) : cb.desc(id));
+        } else {
+            cq.orderBy(ascending ? cb.asc(sortExpression) : cb.desc(sortExpression),
+                    ascending ? cb.asc(id) : cb.desc(id));
+        }
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(query.getLimit())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ProductExportDto> streamForExport(ProductExportQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductExportDto> cq = cb.createQuery(ProductExportDto.class);
+        Root<Product> product = cq.from(Product.class);
+        Join<Product, Category> category = product.join("category", JoinType.LEFT);
+        Join<Product, Brand> brand = product.join("brand", JoinType.LEFT);
+
+        // 只为给出的条件生成谓词，增量导出时可以使用 (updated_at, id) 索引
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getCategoryId() != null) {
+            predicates.add(cb.equal(category.get("id"), query.getCategoryId()));
+        }
+        if (query.getBrandId() != null) {
+            predicates.add(cb.equal(brand.get("id"), query.getBrandId()));
+        }
+        if (query.getStatus() != null) {
+            predicates.add(cb.equal(product.get("status"), query.getStatus()));
+        }
+        if (query.getUpdatedSince() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("updatedAt"), query.getUpdatedSince()));
+        }
+
+        cq.select(cb.construct(ProductExportDto.class,
+                        product.get("id"), product.get("name"), product.get("sku"), product.get("description"),
+                        product.get("price"), product.get("salePrice"), product.get("quantity"),
+                        category.get("id"), category.get("name"), brand.get("id"), brand.get("name"),
+                        product.get("status"), product.get("isFeatured"),
+                        product.get("weight"), product.get("length"), product.get("width"), product.get("height"),
+                        product.get("createdAt"), product.get("updatedAt")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(product.get("id")));
+
+        return entityManager.createQuery(cq)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
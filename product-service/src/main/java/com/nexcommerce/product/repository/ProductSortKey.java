@@ -0,0 +1,57 @@
+package com.nexcommerce.product.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * 游标分页支持的产品排序字段
+ * 只允许非空列，保证 (排序值, ID) 构成全序
+ */
+public enum ProductSortKey {
+
+    ID("id", Long::valueOf),
+    NAME("name", Function.identity()),
+    PRICE("price", BigDecimal::new),
+    CREATED_AT("createdAt", LocalDateTime::parse);
+
+    private final String property;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    ProductSortKey(String property, Function<String, ? extends Comparable<?>> parser) {
+        this.property = property;
+        this.parser = parser;
+    }
+
+    /**
+     * 实体属性名
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    /**
+     * 将游标中的字符串还原为排序值
+     *
+     * @param value 字符串形式的排序值
+     * @return 排序值
+     */
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * 根据实体属性名查找排序字段
+     *
+     * @param property 实体属性名
+     * @return 排序字段
+     */
+    public static ProductSortKey fromProperty(String property) {
+        for (ProductSortKey key : values()) {
+            if (key.property.equals(property)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("不支持的游标排序字段: " + property);
+    }
+}
@@ -0,0 +1,101 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.inventory.StockDeltaSum;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 库存流水存储库接口
+ * 写入由 {@link com.nexcommerce.product.inventory.StockLedger} 通过JDBC批量完成，此处只用于查询
+ */
+@Repository
+public interface StockLedgerEntryRepository extends JpaRepository<StockLedgerEntry, Long> {
+
+    /**
+     * 查找产品的流水（按ID倒序，分页）
+     *
+     * @param productId 产品ID
+     * @param pageable 分页参数
+     * @return 流水分页列表
+     */
+    Page<StockLedgerEntry> findByProductIdOrderByIdDesc(Long productId, Pageable pageable);
+
+    /**
+     * 汇总ID范围内各产品在其最近快照之后的流水
+     *
+     * @param fromProductId 起始产品ID（包含）
+     * @param toProductId 结束产品ID（包含）
+     * @return 各产品的流水汇总（没有新流水的产品不返回）
+     */
+    @Query("SELECT new com.nexcommerce.product.inventory.StockDeltaSum(l.productId, SUM(l.delta), MAX(l.id)) " +
+            "FROM StockLedgerEntry l " +
+            "WHERE l.productId BETWEEN :fromProductId AND :toProductId " +
+            "AND l.id > COALESCE((SELECT MAX(s.lastEntryId) FROM StockSnapshot s WHERE s.productId = l.productId), 0) " +
+            "GROUP BY l.productId")
+    List<StockDeltaSum> sumSinceLatestSnapshot(@Param("fromProductId") Long fromProductId,
+                                               @Param("toProductId") Long toProductId);
+
+    /**
+     * 汇总ID范围内各产品在其最近快照之后、截止流水（包含）之前的流水（用于压缩）
+     *
+     * @param fromProductId 起始产品ID（包含）
+     * @param toProductId 结束产品ID（包含）
+     * @param maxEntryId 截止流水ID
+     * @return 各产品的流水汇总
+     */
+    @Query("SELECT new com.nexcommerce.product.inventory.StockDeltaSum(l.productId, SUM(l.delta), MAX(l.id)) " +
+            "FROM StockLedgerEntry l " +
+            "WHERE l.productId BETWEEN :fromProductId AND :toProductId AND l.id <= :maxEntryId " +
+            "AND l.id > COALESCE((SELECT MAX(s.lastEntryId) FROM StockSnapshot s WHERE s.productId = l.productId), 0) " +
+            "GROUP BY l.productId")
+    List<StockDeltaSum> sumSinceLatestSnapshotUpTo(@Param("fromProductId") Long fromProductId,
+                                                   @Param("toProductId") Long toProductId,
+                                                   @Param("maxEntryId") Long maxEntryId);
+
+    /**
+     * 查找指定时间之前写入的最大流水ID
+     *
+     * @param before 时间
+     * @return 流水ID，没有时为 null
+     */
+    @Query("SELECT MAX(l.id) FROM StockLedgerEntry l WHERE l.createdAt < :before")
+    Long findMaxIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    /**
+     * 汇总产品在指定流水之后、指定时间之前（包含）的变化量
+     *
+     * @param productId 产品ID
+     * @param afterEntryId 起始流水ID（不包含）
+     * @param time 截止时间
+     * @return 变化量之和
+     */
+    @Query("SELECT COALESCE(SUM(l.delta), 0) FROM StockLedgerEntry l " +
+            "WHERE l.productId = :productId AND l.id > :afterEntryId AND l.createdAt <= :time")
+    Long sumDeltaAfter(@Param("productId") Long productId,
+                       @Param("afterEntryId") Long afterEntryId,
+                       @Param("time") LocalDateTime time);
+
+    /**
+     * 查找没有任何流水的产品（启用流水前创建的产品）
+     *
+     * @return 产品ID列表
+     */
+    @Query("SELECT p.id FROM Product p WHERE NOT EXISTS (SELECT 1 FROM StockLedgerEntry l WHERE l.productId = p.id)")
+    List<Long> findProductIdsWithoutEntries();
+
+    /**
+     * 产品是否已有流水
+     *
+     * @param productId 产品ID
+     * @return 是否已有流水
+     */
+    boolean existsByProductId(Long productId);
+}
@@ -0,0 +1,73 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 库存预留存储库接口
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * 根据状态查找预留
+     *
+     * @param status 预留状态
+     * @return 预留列表
+     */
+    List<StockReservation> findByStatus(StockReservation.ReservationStatus status);
+
+    /**
+     * 查找指定状态下在给定时间之前过期的预留ID，按过期时间升序
+     *
+     * @param status 预留状态
+     * @param before 过期时间上限（不含）
+     * @param pageable 分页参数
+     * @return 预留ID列表
+     */
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :before ORDER BY r.expiresAt")
+    List<Long> findIdsByStatusAndExpiresAtBefore(@Param("status") StockReservation.ReservationStatus status,
+                                                 @Param("before") LocalDateTime before,
+                                                 Pageable pageable);
+
+    /**
+     * 条件转换预留状态
+     *
+     * @param id 预留ID
+     * @param from 当前状态
+     * @param to 目标状态
+     * @param now 更新时间
+     * @return 更新的行数，0表示预留不存在或已不处于当前状态
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.updatedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") StockReservation.ReservationStatus from,
+                   @Param("to") StockReservation.ReservationStatus to,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * 条件转换未过期预留的状态
+     *
+     * @param id 预留ID
+     * @param from 当前状态
+     * @param to 目标状态
+     * @param now 当前时间
+     * @return 更新的行数，0表示预留不存在、已不处于当前状态或已过期
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :to, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.status = :from AND r.expiresAt > :now")
+    int transitionIfNotExpired(@Param("id") Long id,
+                               @Param("from") StockReservation.ReservationStatus from,
+                               @Param("to") StockReservation.ReservationStatus to,
+                               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,40 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 库存快照存储库接口
+ */
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    /**
+     * 查找ID范围内各产品最近的快照
+     *
+     * @param fromProductId 起始产品ID（包含）
+     * @param toProductId 结束产品ID（包含）
+     * @return 快照列表（每个产品最多一条，同一流水位置的重复快照可能都返回）
+     */
+    @Query("SELECT s FROM StockSnapshot s WHERE s.productId BETWEEN :fromProductId AND :toProductId " +
+            "AND s.lastEntryId = (SELECT MAX(s2.lastEntryId) FROM StockSnapshot s2 WHERE s2.productId = s.productId)")
+    List<StockSnapshot> findLatestByProductIdBetween(@Param("fromProductId") Long fromProductId,
+                                                     @Param("toProductId") Long toProductId);
+
+    /**
+     * 查找产品在指定时间之前（包含）生成的最近快照
+     *
+     * @param productId 产品ID
+     * @param time 时间
+     * @return 快照
+     */
+    Optional<StockSnapshot> findFirstByProductIdAndSnapshotAtLessThanEqualOrderByLastEntryIdDesc(Long productId,
+                                                                                                 LocalDateTime time);
+}
@@ -0,0 +1,38 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 分面筛选条件
+ * 同一维度内的多个取值为OR，不同维度（类别、品牌、状态、各属性名）之间为AND；空集合表示不限制
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetQuery {
+
+    @Builder.Default
+    private Set<Long> categoryIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<Long> brandIds = new HashSet<>();
+
+    @Builder.Default
+    private Set<Product.ProductStatus> statuses = new HashSet<>();
+
+    /**
+     * 属性条件（属性名 -> 可接受的属性值）
+     */
+    @Builder.Default
+    private Map<String, Set<String>> attributes = new HashMap<>();
+}
@@ -0,0 +1,368 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.event.AttributeDefinitionChangedEvent;
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.AttributeDefinition;
+import com.nexcommerce.product.repository.AttributeDefinitionRepository;
+import com.nexcommerce.product.repository.ProductAttributeRepository;
+import com.nexcommerce.product.util.AttributeValues;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 数值型属性内存索引
+ * 每个数值型属性（由 {@link AttributeDefinition} 声明）维护按 (数值, 产品ID) 排序的原始类型数组，
+ * 范围查询通过二分查找定位上下界，耗时与命中数量成正比，与产品总数无关。
+ * 索引随产品属性写操作和属性定义变更增量更新，启动时全量重建；重建完成前 {@link #isReady()} 为 false。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NumericAttributeIndex {
+
+    private final AttributeDefinitionRepository attributeDefinitionRepository;
+    private final ProductAttributeRepository productAttributeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NumericData data = new NumericData();
+
+    /**
+     * 重建期间发生的增量更新，重建完成后重放
+     */
+    private List<Consumer<NumericData>> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 属性是否为已索引的数值型属性
+     *
+     * @param attributeName 属性名
+     * @return 是否已索引
+     */
+    public boolean isIndexed(String attributeName) {
+        lock.readLock().lock();
+        try {
+            return data.columns.containsKey(attributeName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 范围查询
+     * 边界为 null 表示不限制，结果按数值升序（数值相同时按产品ID升序）
+     *
+     * @param attributeName 属性名
+     * @param min 最小值（包含）
+     * @param max 最大值（包含）
+     * @param limit 最多返回数量
+     * @return 产品ID列表
+     */
+    public List<Long> findProductIdsInRange(String attributeName, Double min, Double max, int limit) {
+        lock.readLock().lock();
+        try {
+            NumericColumn column = data.columns.get(attributeName);
+            if (column == null) {
+                return Collections.emptyList();
+            }
+            return column.range(min != null ? min : Double.NEGATIVE_INFINITY,
+                    max != null ? max : Double.POSITIVE_INFINITY, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 产品属性变更后重新加载该产品的数值型属性
+     *
+     * @param event 产品属性变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductAttributesChanged(ProductAttributesChangedEvent event) {
+        Long productId = event.getProductId();
+        List<ProductAttributeFacet> attributes = productAttributeRepository.findAttributeFacetsByProductId(productId);
+        apply(index -> index.replaceProduct(productId, attributes));
+    }
+
+    /**
+     * 产品删除后移除其数值；随产品一起创建的属性（如批量导入）直接从事件中索引，不再回查数据库
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.getProductId();
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            apply(index -> index.replaceProduct(productId, Collections.emptyList()));
+        } else if (event.getType() == ProductChangedEvent.Type.CREATED && event.getProduct().getAttributes() != null
+                && !event.getProduct().getAttributes().isEmpty()) {
+            List<ProductAttributeFacet> attributes = event.getProduct().getAttributes().stream()
+                    .map(attribute -> new ProductAttributeFacet(productId, attribute.getAttributeName(), attribute.getAttributeValue()))
+                    .collect(Collectors.toList());
+            apply(index -> index.replaceProduct(productId, attributes));
+        }
+    }
+
+    /**
+     * 属性定义变更后按新定义重建该属性的索引
+     *
+     * @param event 属性定义变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttributeDefinitionChanged(AttributeDefinitionChangedEvent event) {
+        String attributeName = event.getAttributeName();
+        boolean numeric = attributeDefinitionRepository.findByAttributeName(attributeName)
+                .map(definition -> definition.getType() == AttributeDefinition.AttributeType.NUMERIC)
+                .orElse(false);
+        List<ProductAttributeFacet> attributes = numeric
+                ? productAttributeRepository.findAttributeFacetsByAttributeName(attributeName)
+                : Collections.emptyList();
+        apply(index -> index.replaceColumn(attributeName, numeric, attributes));
+    }
+
+    /**
+     * 启动后加载数值型属性定义并流式扫描其属性值重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("开始重建数值属性索引");
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NumericData rebuilt = new NumericData();
+        try {
+            Set<String> numericNames = attributeDefinitionRepository.findByType(AttributeDefinition.AttributeType.NUMERIC)
+                    .stream()
+                    .map(AttributeDefinition::getAttributeName)
+                    .collect(Collectors.toSet());
+            if (!numericNames.isEmpty()) {
+                numericNames.forEach(name -> rebuilt.columns.put(name, new NumericColumn()));
+                try (Stream<ProductAttributeFacet> attributes =
+                             productAttributeRepository.streamAttributeFacetsByAttributeNames(numericNames)) {
+                    attributes.forEach(rebuilt::add);
+                }
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("重建数值属性索引失败，数值范围查询不可用", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            rebuilt.columns.values().forEach(NumericColumn::trimToSize);
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("数值属性索引重建完成，属性数: {}, 耗时: {}ms", rebuilt.columns.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Consumer<NumericData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 索引数据，由外层读写锁保护
+     */
+    private static class NumericData {
+
+        private final Map<String, NumericColumn> columns = new HashMap<>();
+
+        /**
+         * 产品ID -> 该产品已索引的数值型属性名
+         */
+        private final Map<Long, Set<String>> productColumns = new HashMap<>();
+
+        void add(ProductAttributeFacet attribute) {
+            NumericColumn column = columns.get(attribute.getAttributeName());
+            Double value = AttributeValues.parseNumeric(attribute.getAttributeValue());
+            if (column == null || value == null) {
+                return;
+            }
+            column.put(attribute.getProductId(), value);
+            productColumns.computeIfAbsent(attribute.getProductId(), id -> new HashSet<>()).add(attribute.getAttributeName());
+        }
+
+        void replaceProduct(Long productId, List<ProductAttributeFacet> attributes) {
+            Set<String> indexed = productColumns.remove(productId);
+            if (indexed != null) {
+                for (String name : indexed) {
+                    NumericColumn column = columns.get(name);
+                    if (column != null) {
+                        column.remove(productId);
+                    }
+                }
+            }
+            attributes.forEach(this::add);
+        }
+
+        void replaceColumn(String attributeName, boolean numeric, List<ProductAttributeFacet> attributes) {
+            NumericColumn previous = numeric ? columns.put(attributeName, new NumericColumn()) : columns.remove(attributeName);
+            if (previous != null) {
+                Iterator<Map.Entry<Long, Set<String>>> iterator = productColumns.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Set<String> names = iterator.next().getValue();
+                    if (names.remove(attributeName) && names.isEmpty()) {
+                        iterator.remove();
+                    }
+                }
+            }
+            attributes.forEach(this::add);
+        }
+    }
+
+    /**
+     * 单个数值型属性的列索引
+     * 以 (数值, 产品ID) 升序保存在平行的原始类型数组中
+     */
+    private static class NumericColumn {
+
+        private double[] values = new double[16];
+        private long[] productIds = new long[16];
+        private int size;
+
+        /**
+         * 产品当前的数值，用于删除时定位
+         */
+        private final Map<Long, Double> valueByProduct = new HashMap<>();
+
+        void put(long productId, double value) {
+            remove(productId);
+            int index = search(value, productId);
+            int insertAt = -index - 1;
+            if (size == values.length) {
+                int capacity = size + (size >> 1) + 1;
+                values = Arrays.copyOf(values, capacity);
+                productIds = Arrays.copyOf(productIds, capacity);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            System.arraycopy(productIds, insertAt, productIds, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            productIds[insertAt] = productId;
+            size++;
+            valueByProduct.put(productId, value);
+        }
+
+        void remove(long productId) {
+            Double value = valueByProduct.remove(productId);
+            if (value == null) {
+                return;
+            }
+            int index = search(value, productId);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            System.arraycopy(productIds, index + 1, productIds, index, size - index - 1);
+            size--;
+        }
+
+        List<Long> range(double min, double max, int limit) {
+            List<Long> result = new ArrayList<>();
+            int from = lowerBound(min);
+            for (int i = from; i < size && values[i] <= max && result.size() < limit; i++) {
+                result.add(productIds[i]);
+            }
+            return result;
+        }
+
+        void trimToSize() {
+            if (values.length > size) {
+                values = Arrays.copyOf(values, size);
+                productIds = Arrays.copyOf(productIds, size);
+            }
+        }
+
+        /**
+         * 第一个数值不小于 min 的位置
+         */
+        private int lowerBound(double min) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[mid] < min) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * 按 (数值, 产品ID) 二分查找，未找到时返回 -(插入位置) - 1
+         */
+        private int search(double value, long productId) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = Double.compare(values[mid], value);
+                if (cmp == 0) {
+                    cmp = Long.compare(productIds[mid], productId);
+                }
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.nexcommerce.product.search;
+
+import java.util.Arrays;
+
+/**
+ * 倒排表
+ * 以按产品ID升序排列的原始类型数组保存 (产品ID, 加权词频)，避免装箱对象带来的内存开销
+ * 非线程安全，由 {@link ProductSearchIndex} 的读写锁保护
+ */
+class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private final String term;
+
+    private long[] productIds = new long[INITIAL_CAPACITY];
+    private float[] frequencies = new float[INITIAL_CAPACITY];
+    private int size;
+
+    PostingList(String term) {
+        this.term = term;
+    }
+
+    /**
+     * 添加或替换产品的词频
+     */
+    void put(long productId, float frequency) {
+        int index = Arrays.binarySearch(productIds, 0, size, productId);
+        if (index >= 0) {
+            frequencies[index] = frequency;
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == productIds.length) {
+            int capacity = size + (size >> 1) + 1;
+            productIds = Arrays.copyOf(productIds, capacity);
+            frequencies = Arrays.copyOf(frequencies, capacity);
+        }
+        System.arraycopy(productIds, insertAt, productIds, insertAt + 1, size - insertAt);
+        System.arraycopy(frequencies, insertAt, frequencies, insertAt + 1, size - insertAt);
+        productIds[insertAt] = productId;
+        frequencies[insertAt] = frequency;
+        size++;
+    }
+
+    /**
+     * 移除产品
+     */
+    void remove(long productId) {
+        int index = Arrays.binarySearch(productIds, 0, size, productId);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(productIds, index + 1, productIds, index, size - index - 1);
+        System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * 将数组容量收缩到实际大小
+     */
+    void trimToSize() {
+        if (productIds.length > size) {
+            productIds = Arrays.copyOf(productIds, size);
+            frequencies = Arrays.copyOf(frequencies, size);
+        }
+    }
+
+    /**
+     * 查找产品的位置，不存在时返回负数
+     */
+    int indexOf(long productId) {
+        return Arrays.binarySearch(productIds, 0, size, productId);
+    }
+
+    String getTerm() {
+        return term;
+    }
+
+    long productIdAt(int index) {
+        return productIds[index];
+    }
+
+    float frequencyAt(int index) {
+        return frequencies[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
@@ -0,0 +1,19 @@
+package com.nexcommerce.product.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 产品可筛选属性（产品ID, 属性名, 属性值）
+ * 通过构造器表达式加载，不实例化属性实体
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductAttributeFacet {
+
+    private Long productId;
+    private String attributeName;
+    private String attributeValue;
+}
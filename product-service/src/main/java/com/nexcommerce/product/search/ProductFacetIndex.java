@@ -0,0 +1,441 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.ProductAttributeRepository;
+import com.nexcommerce.product.repository.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 产品分面筛选内存位图索引
+ * 按类别、品牌、状态和 (属性名, 属性值) 维护产品ID的Roaring压缩位图，多条件筛选即位图的交并运算，
+ * 并在同一次查询中返回各维度的分面计数。仅索引标记为可筛选（isFilterable）的属性。
+ * 索引随产品和属性写操作增量更新，启动时通过流式扫描全量重建；重建完成前 {@link #isReady()} 为 false。
+ * 位图以int保存产品ID，产品ID超出int范围时拒绝索引。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductFacetIndex {
+
+    private final ProductRepository productRepository;
+    private final ProductAttributeRepository productAttributeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private FacetData data = new FacetData();
+
+    /**
+     * 重建期间发生的增量更新，重建完成后重放
+     */
+    private List<Consumer<FacetData>> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 添加或更新产品的分面文档
+     *
+     * @param facets 分面文档
+     */
+    public void index(ProductFacets facets) {
+        apply(index -> index.put(facets));
+    }
+
+    /**
+     * 替换产品的可筛选属性，产品不在索引中时忽略
+     *
+     * @param productId 产品ID
+     * @param attributes 可筛选属性（属性名 -> 属性值）
+     */
+    public void replaceAttributes(Long productId, Map<String, String> attributes) {
+        apply(index -> index.replaceAttributes(productId, attributes));
+    }
+
+    /**
+     * 从索引中移除产品
+     *
+     * @param productId 产品ID
+     */
+    public void remove(Long productId) {
+        apply(index -> index.remove(productId));
+    }
+
+    /**
+     * 分面筛选
+     * 返回按产品ID升序的一页结果和各维度的分面计数
+     *
+     * @param query 筛选条件
+     * @param offset 偏移量
+     * @param limit 返回数量
+     * @return 筛选结果
+     */
+    public FacetResult filter(FacetQuery query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return data.filter(query, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 产品变更后增量更新索引
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(ProductFacets.from(event.getProduct()));
+        }
+    }
+
+    /**
+     * 产品属性变更后重新加载该产品的可筛选属性
+     *
+     * @param event 产品属性变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductAttributesChanged(ProductAttributesChangedEvent event) {
+        Map<String, String> attributes = new HashMap<>();
+        for (ProductAttributeFacet attribute : productAttributeRepository.findFilterableFacetsByProductId(event.getProductId())) {
+            attributes.put(attribute.getAttributeName(), attribute.getAttributeValue());
+        }
+        replaceAttributes(event.getProductId(), attributes);
+    }
+
+    /**
+     * 启动后流式扫描产品表和属性表重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("开始重建产品分面索引");
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        FacetData rebuilt = new FacetData();
+        try {
+            try (Stream<ProductFacets> products = productRepository.streamFacetDocuments()) {
+                products.forEach(rebuilt::put);
+            }
+            try (Stream<ProductAttributeFacet> attributes = productAttributeRepository.streamFilterableFacets()) {
+                attributes.forEach(rebuilt::addAttribute);
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("重建产品分面索引失败，分面筛选不可用", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            rebuilt.runOptimize();
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("产品分面索引重建完成，产品数: {}, 属性名数: {}, 耗时: {}ms",
+                rebuilt.products.size(), rebuilt.attributes.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Consumer<FacetData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 分面筛选结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class FacetResult {
+
+        private final long total;
+
+        private final List<Long> productIds;
+
+        private final Map<Long, Integer> categoryCounts;
+
+        private final Map<Long, Integer> brandCounts;
+
+        private final Map<Product.ProductStatus, Integer> statusCounts;
+
+        private final Map<String, Map<String, Integer>> attributeCounts;
+    }
+
+    /**
+     * 索引数据，由外层读写锁保护
+     */
+    private static class FacetData {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<Long, RoaringBitmap> categories = new HashMap<>();
+        private final Map<Long, RoaringBitmap> brands = new HashMap<>();
+        private final Map<Product.ProductStatus, RoaringBitmap> statuses = new EnumMap<>(Product.ProductStatus.class);
+        private final Map<String, Map<String, RoaringBitmap>> attributes = new HashMap<>();
+        private final Map<Long, ProductFacets> products = new HashMap<>();
+
+        void put(ProductFacets facets) {
+            int id = toIntId(facets.getId());
+            ProductFacets existing = products.get(facets.getId());
+            if (existing != null) {
+                removeAttributes(id, existing.getAttributes());
+                removeFields(id, existing);
+            }
+            ProductFacets copy = new ProductFacets(facets.getId(), facets.getCategoryId(), facets.getBrandId(),
+                    facets.getStatus(), new HashMap<>(facets.getAttributes()));
+            products.put(copy.getId(), copy);
+            all.add(id);
+            addTo(categories, copy.getCategoryId(), id);
+            addTo(brands, copy.getBrandId(), id);
+            addTo(statuses, copy.getStatus(), id);
+            addAttributes(id, copy.getAttributes());
+        }
+
+        void addAttribute(ProductAttributeFacet attribute) {
+            ProductFacets facets = products.get(attribute.getProductId());
+            if (facets == null) {
+                return;
+            }
+            int id = toIntId(attribute.getProductId());
+            String previous = facets.getAttributes().put(attribute.getAttributeName(), attribute.getAttributeValue());
+            if (previous != null) {
+                removeFrom(attributes.get(attribute.getAttributeName()), previous, id);
+            }
+            addTo(attributes.computeIfAbsent(attribute.getAttributeName(), name -> new HashMap<>()),
+                    attribute.getAttributeValue(), id);
+        }
+
+        void replaceAttributes(Long productId, Map<String, String> newAttributes) {
+            ProductFacets facets = products.get(productId);
+            if (facets == null) {
+                return;
+            }
+            int id = toIntId(productId);
+            removeAttributes(id, facets.getAttributes());
+            facets.setAttributes(new HashMap<>(newAttributes));
+            addAttributes(id, facets.getAttributes());
+        }
+
+        void remove(Long productId) {
+            ProductFacets existing = products.remove(productId);
+            if (existing == null) {
+                return;
+            }
+            int id = toIntId(productId);
+            removeAttributes(id, existing.getAttributes());
+            removeFields(id, existing);
+            all.remove(id);
+        }
+
+        void runOptimize() {
+            all.runOptimize();
+            categories.values().forEach(RoaringBitmap::runOptimize);
+            brands.values().forEach(RoaringBitmap::runOptimize);
+            statuses.values().forEach(RoaringBitmap::runOptimize);
+            attributes.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        }
+
+        FacetResult filter(FacetQuery query, int offset, int limit) {
+            // 各维度的匹配集合，null表示该维度不限制
+            RoaringBitmap categoryMatch = union(categories, query.getCategoryIds());
+            RoaringBitmap brandMatch = union(brands, query.getBrandIds());
+            RoaringBitmap statusMatch = union(statuses, query.getStatuses());
+            Map<String, RoaringBitmap> attributeMatches = new HashMap<>();
+            for (Map.Entry<String, Set<String>> entry : query.getAttributes().entrySet()) {
+                if (entry.getValue() != null && !entry.getValue().isEmpty()) {
+                    attributeMatches.put(entry.getKey(),
+                            union(attributes.getOrDefault(entry.getKey(), Map.of()), entry.getValue()));
+                }
+            }
+
+            RoaringBitmap attributeMatch = intersect(all, attributeMatches.values());
+            RoaringBitmap result = intersect(attributeMatch, nonNull(categoryMatch, brandMatch, statusMatch));
+
+            // 每个维度的计数基于"除该维度外的所有条件"，便于侧边栏展示可切换的选项
+            Map<Long, Integer> categoryCounts = count(categories,
+                    categoryMatch == null ? result : intersect(attributeMatch, nonNull(brandMatch, statusMatch)));
+            Map<Long, Integer> brandCounts = count(brands,
+                    brandMatch == null ? result : intersect(attributeMatch, nonNull(categoryMatch, statusMatch)));
+            Map<Product.ProductStatus, Integer> statusCounts = count(statuses,
+                    statusMatch == null ? result : intersect(attributeMatch, nonNull(categoryMatch, brandMatch)));
+
+            RoaringBitmap fieldMatch = intersect(all, nonNull(categoryMatch, brandMatch, statusMatch));
+            Map<String, Map<String, Integer>> attributeCounts = new HashMap<>();
+            for (Map.Entry<String, Map<String, RoaringBitmap>> entry : attributes.entrySet()) {
+                RoaringBitmap base = result;
+                if (attributeMatches.containsKey(entry.getKey())) {
+                    List<RoaringBitmap> others = new ArrayList<>();
+                    attributeMatches.forEach((name, match) -> {
+                        if (!name.equals(entry.getKey())) {
+                            others.add(match);
+                        }
+                    });
+                    base = intersect(fieldMatch, others);
+                }
+                Map<String, Integer> valueCounts = count(entry.getValue(), base);
+                if (!valueCounts.isEmpty()) {
+                    attributeCounts.put(entry.getKey(), valueCounts);
+                }
+            }
+
+            return new FacetResult(result.getLongCardinality(), page(result, offset, limit),
+                    categoryCounts, brandCounts, statusCounts, attributeCounts);
+        }
+
+        private void removeFields(int id, ProductFacets facets) {
+            removeFrom(categories, facets.getCategoryId(), id);
+            removeFrom(brands, facets.getBrandId(), id);
+            removeFrom(statuses, facets.getStatus(), id);
+        }
+
+        private void addAttributes(int id, Map<String, String> values) {
+            values.forEach((name, value) -> addTo(attributes.computeIfAbsent(name, key -> new HashMap<>()), value, id));
+        }
+
+        private void removeAttributes(int id, Map<String, String> values) {
+            values.forEach((name, value) -> {
+                Map<String, RoaringBitmap> bitmaps = attributes.get(name);
+                removeFrom(bitmaps, value, id);
+                if (bitmaps != null && bitmaps.isEmpty()) {
+                    attributes.remove(name);
+                }
+            });
+        }
+
+        private static <K> void addTo(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+            if (key != null) {
+                bitmaps.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+            if (bitmaps == null || key == null) {
+                return;
+            }
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+
+        private static <K> RoaringBitmap union(Map<K, RoaringBitmap> bitmaps, Collection<K> keys) {
+            if (keys == null || keys.isEmpty()) {
+                return null;
+            }
+            RoaringBitmap result = new RoaringBitmap();
+            for (K key : keys) {
+                RoaringBitmap bitmap = bitmaps.get(key);
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+            return result;
+        }
+
+        private static RoaringBitmap intersect(RoaringBitmap base, Collection<RoaringBitmap> bitmaps) {
+            RoaringBitmap result = base.clone();
+            for (RoaringBitmap bitmap : bitmaps) {
+                result.and(bitmap);
+            }
+            return result;
+        }
+
+        private static List<RoaringBitmap> nonNull(RoaringBitmap... bitmaps) {
+            List<RoaringBitmap> result = new ArrayList<>(bitmaps.length);
+            for (RoaringBitmap bitmap : bitmaps) {
+                if (bitmap != null) {
+                    result.add(bitmap);
+                }
+            }
+            return result;
+        }
+
+        private static <K> Map<K, Integer> count(Map<K, RoaringBitmap> bitmaps, RoaringBitmap base) {
+            Map<K, Integer> counts = new HashMap<>();
+            if (base.isEmpty()) {
+                return counts;
+            }
+            bitmaps.forEach((key, bitmap) -> {
+                int count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    counts.put(key, count);
+                }
+            });
+            return counts;
+        }
+
+        private static List<Long> page(RoaringBitmap result, int offset, int limit) {
+            List<Long> ids = new ArrayList<>();
+            if (limit <= 0 || offset < 0 || offset >= result.getCardinality()) {
+                return ids;
+            }
+            PeekableIntIterator iterator = result.getIntIterator();
+            iterator.advanceIfNeeded(result.select(offset));
+            while (iterator.hasNext() && ids.size() < limit) {
+                ids.add((long) iterator.next());
+            }
+            return ids;
+        }
+
+        private static int toIntId(Long productId) {
+            return Math.toIntExact(productId);
+        }
+    }
+}
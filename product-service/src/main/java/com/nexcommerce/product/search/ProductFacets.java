@@ -0,0 +1,56 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.dto.ProductAttributeDto;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 产品分面文档
+ * 只包含参与分面筛选的字段：类别、品牌、状态和可筛选属性
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacets {
+
+    private Long id;
+    private Long categoryId;
+    private Long brandId;
+    private Product.ProductStatus status;
+
+    /**
+     * 可筛选属性（属性名 -> 属性值）
+     */
+    private Map<String, String> attributes = new HashMap<>();
+
+    /**
+     * 启动重建时通过构造器表达式加载，属性随后单独流式加载
+     */
+    public ProductFacets(Long id, Long categoryId, Long brandId, Product.ProductStatus status) {
+        this(id, categoryId, brandId, status, new HashMap<>());
+    }
+
+    /**
+     * 从产品DTO构建分面文档
+     *
+     * @param product 产品DTO
+     * @return 分面文档
+     */
+    public static ProductFacets from(ProductDto product) {
+        ProductFacets facets = new ProductFacets(product.getId(), product.getCategoryId(), product.getBrandId(), product.getStatus());
+        if (product.getAttributes() != null) {
+            for (ProductAttributeDto attribute : product.getAttributes()) {
+                if (Boolean.TRUE.equals(attribute.getIsFilterable())) {
+                    facets.attributes.put(attribute.getAttributeName(), attribute.getAttributeValue());
+                }
+            }
+        }
+        return facets;
+    }
+}
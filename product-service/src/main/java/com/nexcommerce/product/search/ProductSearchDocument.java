@@ -0,0 +1,33 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.dto.ProductDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 产品搜索文档
+ * 只包含参与全文检索的字段，启动重建时通过构造器表达式流式加载
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchDocument {
+
+    private Long id;
+    private String name;
+    private String description;
+    private String categoryName;
+    private String brandName;
+
+    /**
+     * 从产品DTO构建搜索文档
+     *
+     * @param product 产品DTO
+     * @return 搜索文档
+     */
+    public static ProductSearchDocument from(ProductDto product) {
+        return new ProductSearchDocument(product.getId(), product.getName(), product.getDescription(),
+                product.getCategoryName(), product.getBrandName());
+    }
+}
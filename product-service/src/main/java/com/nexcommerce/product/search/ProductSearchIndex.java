@@ -0,0 +1,398 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.repository.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * 产品全文检索内存倒排索引
+ * 覆盖产品名称、描述、品牌名和类别名，使用BM25排序。
+ * 索引随产品写操作增量更新，启动时通过流式扫描全量重建；重建完成前 {@link #isReady()} 为 false。
+ * 类别或品牌改名后，其下产品的文档在提交后重新读取并更新。
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float CATEGORY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final ProductRepository productRepository;
+    private final ProductTokenizer tokenizer;
+
+    /**
+     * 提交后监听器中读取数据库使用的新只读事务
+     */
+    private final TransactionTemplate readTransaction;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private IndexData data = new IndexData();
+
+    /**
+     * 重建期间发生的增量更新，重建完成后重放
+     */
+    private List<Consumer<IndexData>> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              ProductTokenizer tokenizer,
+                              PlatformTransactionManager transactionManager) {
+        this.productRepository = productRepository;
+        this.tokenizer = tokenizer;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 添加或更新产品文档
+     *
+     * @param document 搜索文档
+     */
+    public void index(ProductSearchDocument document) {
+        Map<String, Float> frequencies = termFrequencies(document);
+        apply(index -> index.put(document.getId(), frequencies));
+    }
+
+    /**
+     * 从索引中移除产品
+     *
+     * @param productId 产品ID
+     */
+    public void remove(Long productId) {
+        apply(index -> index.remove(productId));
+    }
+
+    /**
+     * 搜索产品
+     * 所有查询词都必须命中（AND语义），结果按BM25得分降序排列
+     *
+     * @param query 查询文本
+     * @param offset 偏移量
+     * @param limit 返回数量
+     * @return 命中结果
+     */
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenizer.tokenizeQuery(query)));
+        if (terms.isEmpty()) {
+            return new SearchHits(0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            return data.search(terms, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 产品变更后增量更新索引
+     * 文档中不含库存和状态，库存变化事件不影响索引，直接忽略
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.getType() == ProductChangedEvent.Type.STOCK_CHANGED) {
+            return;
+        }
+        if (event.getType() == ProductChangedEvent.Type.DELETED) {
+            remove(event.getProductId());
+        } else {
+            index(ProductSearchDocument.from(event.getProduct()));
+        }
+    }
+
+    /**
+     * 类别更新后重建其下产品的文档（文档中带有类别名称）
+     *
+     * @param event 类别变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        if (event.getType() == CategoryChangedEvent.Type.UPDATED) {
+            reindex("类别", event.getCategoryId(), productRepository::findSearchDocumentsByCategoryId);
+        }
+    }
+
+    /**
+     * 品牌更新后重建其下产品的文档（文档中带有品牌名称）
+     *
+     * @param event 品牌变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        if (event.getType() == BrandChangedEvent.Type.UPDATED) {
+            reindex("品牌", event.getBrandId(), productRepository::findSearchDocumentsByBrandId);
+        }
+    }
+
+    /**
+     * 在新的只读事务中读取已提交的文档并更新索引
+     */
+    private void reindex(String owner, Long ownerId, Function<Long, List<ProductSearchDocument>> loader) {
+        try {
+            List<ProductSearchDocument> documents = readTransaction.execute(status -> loader.apply(ownerId));
+            if (documents == null || documents.isEmpty()) {
+                return;
+            }
+            documents.forEach(this::index);
+            log.info("{}变更后更新产品搜索索引，{}ID: {}, 文档数: {}", owner, owner, ownerId, documents.size());
+        } catch (RuntimeException e) {
+            log.error("{}变更后更新产品搜索索引失败，{}ID: {}", owner, owner, ownerId, e);
+        }
+    }
+
+    /**
+     * 启动后流式扫描产品表重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("开始重建产品搜索索引");
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        IndexData rebuilt = new IndexData();
+        int count = 0;
+        try (Stream<ProductSearchDocument> documents = productRepository.streamSearchDocuments()) {
+            for (ProductSearchDocument document : (Iterable<ProductSearchDocument>) documents::iterator) {
+                rebuilt.put(document.getId(), termFrequencies(document));
+                count++;
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("重建产品搜索索引失败，将继续使用数据库搜索", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            rebuilt.trimToSize();
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("产品搜索索引重建完成，文档数: {}, 词项数: {}, 耗时: {}ms",
+                count, rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    private void apply(Consumer<IndexData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 计算文档的字段加权词频
+     */
+    private Map<String, Float> termFrequencies(ProductSearchDocument document) {
+        Map<String, Float> frequencies = new HashMap<>();
+        addField(frequencies, tokenizer.tokenizeName(document.getName()), NAME_WEIGHT);
+        addField(frequencies, tokenizer.tokenizeName(document.getBrandName()), BRAND_WEIGHT);
+        addField(frequencies, tokenizer.tokenizeName(document.getCategoryName()), CATEGORY_WEIGHT);
+        addField(frequencies, tokenizer.tokenize(document.getDescription()), DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private void addField(Map<String, Float> frequencies, List<String> terms, float weight) {
+        for (String term : terms) {
+            frequencies.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * 搜索命中结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class SearchHits {
+
+        private final long total;
+
+        private final List<Long> productIds;
+    }
+
+    /**
+     * 索引数据，由外层读写锁保护
+     */
+    private static class IndexData {
+
+        private final Map<String, PostingList> postings = new HashMap<>();
+        private final Map<Long, DocumentInfo> documents = new HashMap<>();
+        private double totalLength;
+
+        void put(Long productId, Map<String, Float> frequencies) {
+            remove(productId);
+            // 文档引用倒排表而非词项字符串，词项在索引中只保存一份
+            PostingList[] lists = new PostingList[frequencies.size()];
+            float length = 0;
+            int i = 0;
+            for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+                PostingList postingList = postings.computeIfAbsent(entry.getKey(), PostingList::new);
+                postingList.put(productId, entry.getValue());
+                lists[i++] = postingList;
+                length += entry.getValue();
+            }
+            documents.put(productId, new DocumentInfo(lists, length));
+            totalLength += length;
+        }
+
+        void remove(Long productId) {
+            DocumentInfo document = documents.remove(productId);
+            if (document == null) {
+                return;
+            }
+            for (PostingList postingList : document.postings) {
+                postingList.remove(productId);
+                if (postingList.isEmpty()) {
+                    postings.remove(postingList.getTerm());
+                }
+            }
+            totalLength -= document.length;
+        }
+
+        /**
+         * 释放倒排表的预留容量（全量重建后调用）
+         */
+        void trimToSize() {
+            postings.values().forEach(PostingList::trimToSize);
+        }
+
+        SearchHits search(List<String> terms, int offset, int limit) {
+            PostingList[] lists = new PostingList[terms.size()];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(terms.get(i));
+                if (lists[i] == null) {
+                    return new SearchHits(0, Collections.emptyList());
+                }
+            }
+            // 从最短的倒排表开始求交集
+            Arrays.sort(lists, (a, b) -> Integer.compare(a.size(), b.size()));
+
+            int documentCount = documents.size();
+            double averageLength = documentCount == 0 ? 1.0 : Math.max(totalLength / documentCount, 1.0);
+            double[] idf = new double[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                int df = lists[i].size();
+                idf[i] = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+            }
+
+            int wanted = Math.max(offset + limit, 0);
+            PriorityQueue<ScoredProduct> top = new PriorityQueue<>();
+            long total = 0;
+            PostingList shortest = lists[0];
+            outer:
+            for (int i = 0; i < shortest.size(); i++) {
+                long productId = shortest.productIdAt(i);
+                double normalization = K1 * (1 - B + B * documents.get(productId).length / averageLength);
+                double score = 0;
+                for (int j = 0; j < lists.length; j++) {
+                    int position = j == 0 ? i : lists[j].indexOf(productId);
+                    if (position < 0) {
+                        continue outer;
+                    }
+                    float tf = lists[j].frequencyAt(position);
+                    score += idf[j] * tf * (K1 + 1) / (tf + normalization);
+                }
+                total++;
+                if (wanted == 0) {
+                    continue;
+                }
+                if (top.size() < wanted) {
+                    top.add(new ScoredProduct(productId, score));
+                } else if (score > top.peek().score) {
+                    top.poll();
+                    top.add(new ScoredProduct(productId, score));
+                }
+            }
+
+            List<ScoredProduct> ranked = new ArrayList<>(top);
+            ranked.sort(Collections.reverseOrder());
+            List<Long> page = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                page.add(ranked.get(i).productId);
+            }
+            return new SearchHits(total, page);
+        }
+    }
+
+    @AllArgsConstructor
+    private static class DocumentInfo {
+        private final PostingList[] postings;
+        private final float length;
+    }
+
+    @AllArgsConstructor
+    private static class ScoredProduct implements Comparable<ScoredProduct> {
+        private final long productId;
+        private final double score;
+
+        @Override
+        public int compareTo(ScoredProduct other) {
+            int result = Double.compare(score, other.score);
+            // 得分相同时ID较小者排前
+            return result != 0 ? result : Long.compare(other.productId, productId);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.model.Product;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 产品补全来源（产品ID、名称、是否推荐、状态）
+ * 启动重建时通过构造器表达式流式加载
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSuggestionSource {
+
+    private Long id;
+    private String name;
+    private Boolean isFeatured;
+    private Product.ProductStatus status;
+}
@@ -0,0 +1,233 @@
+package com.nexcommerce.product.search;
+
+import lombok.AllArgsConstructor;
+import net.sourceforge.pinyin4j.PinyinHelper;
+import net.sourceforge.pinyin4j.format.HanyuPinyinCaseType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinOutputFormat;
+import net.sourceforge.pinyin4j.format.HanyuPinyinToneType;
+import net.sourceforge.pinyin4j.format.HanyuPinyinVCharType;
+import net.sourceforge.pinyin4j.format.exception.BadHanyuPinyinOutputFormatCombination;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 产品搜索分词器
+ * 字母和数字按连续片段切分并转为小写；连续汉字片段按单字和二元组（bigram）切分。
+ * 产品、品牌和类别名称额外生成拼音词项：每个二元组的全拼、整个汉字片段的全拼及其首字母，
+ * 例如"华为智能手表"可以被"华为"、"手表"、"huawei"、"zhineng"或"hwznsb"检索到。
+ */
+@Component
+public class ProductTokenizer {
+
+    private static final HanyuPinyinOutputFormat PINYIN_FORMAT = new HanyuPinyinOutputFormat();
+
+    static {
+        PINYIN_FORMAT.setCaseType(HanyuPinyinCaseType.LOWERCASE);
+        PINYIN_FORMAT.setToneType(HanyuPinyinToneType.WITHOUT_TONE);
+        PINYIN_FORMAT.setVCharType(HanyuPinyinVCharType.WITH_V);
+    }
+
+    /**
+     * 对索引文本分词（用于描述等长文本，不生成拼音）
+     *
+     * @param text 文本
+     * @return 词项列表（保留重复，用于统计词频）
+     */
+    public List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Segment segment : segment(text)) {
+            if (segment.han) {
+                addHanGrams(segment.text, tokens, true);
+            } else {
+                tokens.add(segment.text);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 对名称分词（产品名、品牌名、类别名），在 {@link #tokenize(String)} 的基础上追加拼音词项
+     *
+     * @param text 名称
+     * @return 词项列表（保留重复，用于统计词频）
+     */
+    public List<String> tokenizeName(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Segment segment : segment(text)) {
+            if (segment.han) {
+                addHanGrams(segment.text, tokens, true);
+                addPinyin(segment.text, tokens);
+            } else {
+                tokens.add(segment.text);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 对查询文本分词
+     * 汉字片段只取二元组（单字片段取单字），以减少需要求交集的倒排表并提高精度
+     *
+     * @param text 查询文本
+     * @return 词项列表
+     */
+    public List<String> tokenizeQuery(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (Segment segment : segment(text)) {
+            if (segment.han) {
+                addHanGrams(segment.text, tokens, false);
+            } else {
+                tokens.add(segment.text);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * 生成整段文本的拼音键：全拼和首字母（字母数字原样保留，其余字符忽略），用于前缀补全
+     * 例如"华为Mate 60"生成 "huaweimate60" 和 "hwmate60"；不含可转换汉字时返回空列表
+     *
+     * @param text 文本
+     * @return 拼音键列表
+     */
+    public List<String> toPinyinKeys(String text) {
+        List<String> keys = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return keys;
+        }
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        boolean hasPinyin = false;
+        String normalized = text.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            String syllable = isHan(codePoint) ? toPinyin(codePoint) : null;
+            if (syllable != null) {
+                full.append(syllable);
+                initials.append(syllable.charAt(0));
+                hasPinyin = true;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                full.appendCodePoint(codePoint);
+                initials.appendCodePoint(codePoint);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (hasPinyin) {
+            keys.add(full.toString());
+            keys.add(initials.toString());
+        }
+        return keys;
+    }
+
+    /**
+     * 添加汉字片段的单字和二元组
+     */
+    private static void addHanGrams(String run, List<String> tokens, boolean unigrams) {
+        int[] codePoints = run.codePoints().toArray();
+        if (codePoints.length == 1 || unigrams) {
+            for (int codePoint : codePoints) {
+                tokens.add(new String(Character.toChars(codePoint)));
+            }
+        }
+        for (int i = 0; i + 1 < codePoints.length; i++) {
+            tokens.add(new String(codePoints, i, 2));
+        }
+    }
+
+    /**
+     * 添加汉字片段的拼音词项
+     * 多音字取第一个读音；无法转换的字（如生僻字）使片段中断
+     */
+    private static void addPinyin(String run, List<String> tokens) {
+        int[] codePoints = run.codePoints().toArray();
+        String[] syllables = new String[codePoints.length];
+        for (int i = 0; i < codePoints.length; i++) {
+            syllables[i] = toPinyin(codePoints[i]);
+        }
+
+        StringBuilder full = new StringBuilder();
+        StringBuilder initials = new StringBuilder();
+        int length = 0;
+        for (int i = 0; i <= syllables.length; i++) {
+            if (i < syllables.length && syllables[i] != null) {
+                full.append(syllables[i]);
+                initials.append(syllables[i].charAt(0));
+                length++;
+                if (i > 0 && syllables[i - 1] != null) {
+                    tokens.add(syllables[i - 1] + syllables[i]);
+                }
+                continue;
+            }
+            // 两字片段的全拼与其二元组拼音相同，无需重复添加
+            if (length == 1 || length > 2) {
+                tokens.add(full.toString());
+            }
+            if (length > 1) {
+                tokens.add(initials.toString());
+            }
+            full.setLength(0);
+            initials.setLength(0);
+            length = 0;
+        }
+    }
+
+    private static String toPinyin(int codePoint) {
+        if (Character.isSupplementaryCodePoint(codePoint)) {
+            return null;
+        }
+        try {
+            String[] readings = PinyinHelper.toHanyuPinyinStringArray((char) codePoint, PINYIN_FORMAT);
+            return readings != null && readings.length > 0 ? readings[0] : null;
+        } catch (BadHanyuPinyinOutputFormatCombination e) {
+            throw new IllegalStateException("拼音输出格式配置错误", e);
+        }
+    }
+
+    /**
+     * 将文本切分为汉字片段和字母数字片段，其余字符作为分隔符
+     */
+    private static List<Segment> segment(String text) {
+        List<Segment> segments = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return segments;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder current = new StringBuilder();
+        boolean currentHan = false;
+        int i = 0;
+        while (i < normalized.length()) {
+            int codePoint = normalized.codePointAt(i);
+            boolean han = isHan(codePoint);
+            if (han || Character.isLetterOrDigit(codePoint)) {
+                if (current.length() > 0 && han != currentHan) {
+                    segments.add(new Segment(current.toString(), currentHan));
+                    current.setLength(0);
+                }
+                current.appendCodePoint(codePoint);
+                currentHan = han;
+            } else if (current.length() > 0) {
+                segments.add(new Segment(current.toString(), currentHan));
+                current.setLength(0);
+            }
+            i += Character.charCount(codePoint);
+        }
+        if (current.length() > 0) {
+            segments.add(new Segment(current.toString(), currentHan));
+        }
+        return segments;
+    }
+
+    private static boolean isHan(int codePoint) {
+        return Character.UnicodeScript.of(codePoint) == Character.UnicodeScript.HAN;
+    }
+
+    @AllArgsConstructor
+    private static class Segment {
+        private final String text;
+        private final boolean han;
+    }
+}
@@ -0,0 +1,600 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.dto.SuggestionDto;
+import com.nexcommerce.product.event.BrandChangedEvent;
+import com.nexcommerce.product.event.CategoryChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.Brand;
+import com.nexcommerce.product.model.Category;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.BrandRepository;
+import com.nexcommerce.product.repository.CategoryRepository;
+import com.nexcommerce.product.repository.ProductRepository;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 搜索补全索引
+ * 覆盖产品名、类别名和品牌名。所有补全键（名称、名称中每个单词开始的后缀、拼音全拼和首字母）
+ * 保存在前缀树中，每个节点维护其子树的 top-K，任意长度的前缀查询都只需沿树查找一次。
+ * 索引随产品、类别和品牌写操作增量更新，名称、状态和推荐标记都没有变化的产品事件（如库存变化）直接跳过；
+ * 启动时全量重建，重建完成前 {@link #isReady()} 为 false。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionIndex {
+
+    /**
+     * 单次查询最多返回的建议数量，也是前缀树节点保存的 top-K 大小
+     */
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private static final int REFERENCE_WEIGHT = 3;
+    private static final int FEATURED_PRODUCT_WEIGHT = 2;
+    private static final int PRODUCT_WEIGHT = 1;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final ProductTokenizer tokenizer;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private SuggestionData data = new SuggestionData();
+
+    /**
+     * 重建期间发生的增量更新，重建完成后重放
+     */
+    private List<Consumer<SuggestionData>> pendingDuringRebuild;
+
+    private volatile boolean ready;
+
+    /**
+     * 索引是否已完成初始构建
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 前缀补全
+     * 按权重（类别和品牌 > 推荐产品 > 普通产品）降序，权重相同时较短的名称优先
+     *
+     * @param prefix 用户输入的前缀
+     * @param limit 返回数量（不超过 {@link #MAX_SUGGESTIONS}）
+     * @return 补全建议
+     */
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int count = Math.min(limit, MAX_SUGGESTIONS);
+        if (normalized.isEmpty() || count <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return data.suggest(normalized, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 产品变更后增量更新
+     *
+     * @param event 产品变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        String key = entryKey(SuggestionDto.Type.PRODUCT, event.getProductId());
+        if (event.getType() == ProductChangedEvent.Type.DELETED || !isSuggestible(event.getProduct().getStatus())) {
+            if (!isUnchanged(key, null, 0)) {
+                apply(index -> index.remove(key));
+            }
+            return;
+        }
+        SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.PRODUCT, event.getProductId(), event.getProduct().getName());
+        int weight = productWeight(event.getProduct().getIsFeatured());
+        if (isUnchanged(key, suggestion, weight)) {
+            return;
+        }
+        String[] keys = keysOf(suggestion.getText());
+        apply(index -> index.put(key, suggestion, weight, keys));
+    }
+
+    /**
+     * 类别变更后增量更新
+     *
+     * @param event 类别变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        String key = entryKey(SuggestionDto.Type.CATEGORY, event.getCategoryId());
+        if (event.getType() == CategoryChangedEvent.Type.DELETED || !Boolean.TRUE.equals(event.getCategory().getIsActive())) {
+            apply(index -> index.remove(key));
+            return;
+        }
+        SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.CATEGORY, event.getCategoryId(), event.getCategory().getName());
+        String[] keys = keysOf(suggestion.getText());
+        apply(index -> index.put(key, suggestion, REFERENCE_WEIGHT, keys));
+    }
+
+    /**
+     * 品牌变更后增量更新
+     *
+     * @param event 品牌变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBrandChanged(BrandChangedEvent event) {
+        String key = entryKey(SuggestionDto.Type.BRAND, event.getBrandId());
+        if (event.getType() == BrandChangedEvent.Type.DELETED || !Boolean.TRUE.equals(event.getBrand().getIsActive())) {
+            apply(index -> index.remove(key));
+            return;
+        }
+        SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.BRAND, event.getBrandId(), event.getBrand().getName());
+        String[] keys = keysOf(suggestion.getText());
+        apply(index -> index.put(key, suggestion, REFERENCE_WEIGHT, keys));
+    }
+
+    /**
+     * 启动后加载类别、品牌并流式扫描产品重建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        log.info("开始重建搜索补全索引");
+        long start = System.currentTimeMillis();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        SuggestionData rebuilt = new SuggestionData();
+        try {
+            for (Category category : categoryRepository.findByIsActiveTrue()) {
+                SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.CATEGORY, category.getId(), category.getName());
+                rebuilt.put(entryKey(suggestion.getType(), suggestion.getId()), suggestion, REFERENCE_WEIGHT,
+                        keysOf(suggestion.getText()));
+            }
+            for (Brand brand : brandRepository.findByIsActiveTrue()) {
+                SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.BRAND, brand.getId(), brand.getName());
+                rebuilt.put(entryKey(suggestion.getType(), suggestion.getId()), suggestion, REFERENCE_WEIGHT,
+                        keysOf(suggestion.getText()));
+            }
+            try (Stream<ProductSuggestionSource> products = productRepository.streamSuggestionSources()) {
+                products.filter(product -> isSuggestible(product.getStatus())).forEach(product -> {
+                    SuggestionDto suggestion = new SuggestionDto(SuggestionDto.Type.PRODUCT, product.getId(), product.getName());
+                    rebuilt.put(entryKey(suggestion.getType(), suggestion.getId()), suggestion,
+                            productWeight(product.getIsFeatured()), keysOf(suggestion.getText()));
+                });
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("重建搜索补全索引失败，补全不可用", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild.forEach(update -> update.accept(rebuilt));
+            pendingDuringRebuild = null;
+            data = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("搜索补全索引重建完成，条目数: {}, 键数: {}, 耗时: {}ms",
+                rebuilt.slotByKey.size(), rebuilt.size, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 条目的文本和权重与索引中的相同（suggestion 为 null 表示条目不应存在），无需更新
+     * 重建期间不跳过：重建读取的数据可能早于本次变更，变更需要重放到新索引
+     */
+    private boolean isUnchanged(String key, SuggestionDto suggestion, int weight) {
+        lock.readLock().lock();
+        try {
+            return pendingDuringRebuild == null && data.isCurrent(key, suggestion, weight);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<SuggestionData> update) {
+        lock.writeLock().lock();
+        try {
+            update.accept(data);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(update);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 生成名称的补全键：完整名称、每个单词开始的后缀、拼音全拼和首字母
+     */
+    private String[] keysOf(String text) {
+        String normalized = normalize(text);
+        Set<String> keys = new LinkedHashSet<>();
+        if (normalized.isEmpty()) {
+            return new String[0];
+        }
+        keys.add(truncate(normalized));
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(truncate(normalized.substring(i + 1)));
+        }
+        for (String pinyin : tokenizer.toPinyinKeys(normalized)) {
+            keys.add(truncate(pinyin));
+        }
+        return keys.toArray(new String[0]);
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).trim().replaceAll("\\s+", " ");
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private static String entryKey(SuggestionDto.Type type, Long id) {
+        return type + ":" + id;
+    }
+
+    private static int productWeight(Boolean isFeatured) {
+        return Boolean.TRUE.equals(isFeatured) ? FEATURED_PRODUCT_WEIGHT : PRODUCT_WEIGHT;
+    }
+
+    private static boolean isSuggestible(Product.ProductStatus status) {
+        return status != Product.ProductStatus.INACTIVE && status != Product.ProductStatus.DISCONTINUED;
+    }
+
+    /**
+     * 索引数据，由外层读写锁保护
+     * 补全键保存在压缩前缀树（radix trie）中，只在分叉处和键的结尾处有节点；
+     * 每个节点保存其子树内排名最高的 {@link #MAX_SUGGESTIONS} 个不同条目，
+     * 结束于边中间的前缀与该边下方的节点覆盖同样的键，查询只需沿树走一遍前缀，与键的总数无关。
+     */
+    private static class SuggestionData {
+
+        private final List<Entry> entries = new ArrayList<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final Map<String, Integer> slotByKey = new HashMap<>();
+
+        private final Node root = new Node("");
+
+        /**
+         * 补全键数量（同一个键属于多个条目时分别计数）
+         */
+        private int size;
+
+        List<SuggestionDto> suggest(String prefix, int limit) {
+            Node node = find(prefix);
+            if (node == null) {
+                return Collections.emptyList();
+            }
+            int[] top = node.top;
+            List<SuggestionDto> result = new ArrayList<>(Math.min(limit, top.length));
+            for (int i = 0; i < top.length && i < limit; i++) {
+                result.add(entries.get(top[i]).suggestion);
+            }
+            return result;
+        }
+
+        /**
+         * 条目当前的文本和权重是否与给定的相同；suggestion 为 null 时判断条目是否不存在
+         */
+        boolean isCurrent(String entryKey, SuggestionDto suggestion, int weight) {
+            Integer slot = slotByKey.get(entryKey);
+            if (slot == null || suggestion == null) {
+                return slot == null && suggestion == null;
+            }
+            Entry entry = entries.get(slot);
+            return entry.weight == weight && entry.suggestion.getText().equals(suggestion.getText());
+        }
+
+        void put(String entryKey, SuggestionDto suggestion, int weight, String[] entryKeys) {
+            remove(entryKey);
+            int slot = allocate(entryKey, suggestion, weight, entryKeys);
+            for (String key : entryKeys) {
+                insertKey(key, slot);
+            }
+        }
+
+        void remove(String entryKey) {
+            Integer slot = slotByKey.remove(entryKey);
+            if (slot == null) {
+                return;
+            }
+            Entry entry = entries.get(slot);
+            for (String key : entry.keys) {
+                removeKey(key, slot);
+            }
+            entries.set(slot, null);
+            freeSlots.push(slot);
+        }
+
+        private int allocate(String entryKey, SuggestionDto suggestion, int weight, String[] entryKeys) {
+            Entry entry = new Entry(suggestion, weight, entryKeys);
+            int slot;
+            if (freeSlots.isEmpty()) {
+                slot = entries.size();
+                entries.add(entry);
+            } else {
+                slot = freeSlots.pop();
+                entries.set(slot, entry);
+            }
+            slotByKey.put(entryKey, slot);
+            return slot;
+        }
+
+        /**
+         * 前缀对应的节点：前缀结束于某条边的中间时为该边下方的节点
+         */
+        private Node find(String prefix) {
+            Node node = root;
+            int i = 0;
+            while (i < prefix.length()) {
+                Node child = node.child(prefix.charAt(i));
+                if (child == null) {
+                    return null;
+                }
+                int common = commonLength(child.label, prefix, i);
+                if (i + common == prefix.length()) {
+                    return child;
+                }
+                if (common < child.label.length()) {
+                    return null;
+                }
+                i += common;
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * 插入键，必要时拆分边；路径上每个节点的 top-K 并入该条目
+         */
+        private void insertKey(String key, int slot) {
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                char first = key.charAt(i);
+                Node child = node.child(first);
+                if (child == null) {
+                    child = new Node(key.substring(i));
+                    node.putChild(child);
+                    i = key.length();
+                } else {
+                    int common = commonLength(child.label, key, i);
+                    if (common < child.label.length()) {
+                        // 在边中间分叉：新节点覆盖原子树，top-K 与原子树相同
+                        Node middle = new Node(child.label.substring(0, common));
+                        child.label = child.label.substring(common);
+                        middle.putChild(child);
+                        middle.top = child.top;
+                        node.putChild(middle);
+                        child = middle;
+                    }
+                    i += common;
+                }
+                child.top = offer(child.top, slot, MAX_SUGGESTIONS);
+                node = child;
+            }
+            node.addTerminal(slot);
+            size++;
+        }
+
+        /**
+         * 删除键：自下而上重算包含该条目的 top-K，并删除空节点、合并只剩一个子节点的节点
+         */
+        private void removeKey(String key, int slot) {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int i = 0;
+            while (i < key.length()) {
+                Node child = node.child(key.charAt(i));
+                if (child == null || !key.startsWith(child.label, i)) {
+                    return;
+                }
+                i += child.label.length();
+                node = child;
+                path.add(node);
+            }
+            if (!node.removeTerminal(slot)) {
+                return;
+            }
+            size--;
+            for (int depth = path.size() - 1; depth > 0; depth--) {
+                Node current = path.get(depth);
+                Node parent = path.get(depth - 1);
+                if (current.terminalCount == 0 && current.children == null) {
+                    parent.children.remove(current.label.charAt(0));
+                    if (parent.children.isEmpty()) {
+                        parent.children = null;
+                    }
+                    continue;
+                }
+                if (contains(current.top, slot)) {
+                    current.top = recompute(current);
+                }
+                if (current.terminalCount == 0 && current.children.size() == 1) {
+                    Node only = current.children.values().iterator().next();
+                    only.label = current.label + only.label;
+                    parent.putChild(only);
+                }
+            }
+        }
+
+        /**
+         * 由节点自身结尾的键和子节点的 top-K 合并出节点的 top-K
+         */
+        private int[] recompute(Node node) {
+            int[] top = new int[0];
+            for (int i = 0; i < node.terminalCount; i++) {
+                top = offer(top, node.terminals[i], MAX_SUGGESTIONS);
+            }
+            if (node.children != null) {
+                for (Node child : node.children.values()) {
+                    for (int slot : child.top) {
+                        top = offer(top, slot, MAX_SUGGESTIONS);
+                    }
+                }
+            }
+            return top;
+        }
+
+        /**
+         * 将条目并入已排序的 top-K 数组（去重），返回新数组
+         */
+        private int[] offer(int[] top, int slot, int limit) {
+            if (contains(top, slot)) {
+                return top;
+            }
+            int position = top.length;
+            while (position > 0 && rank(slot, top[position - 1]) < 0) {
+                position--;
+            }
+            if (position >= limit) {
+                return top;
+            }
+            int length = Math.min(top.length + 1, limit);
+            int[] result = new int[length];
+            System.arraycopy(top, 0, result, 0, position);
+            result[position] = slot;
+            System.arraycopy(top, position, result, position + 1, length - position - 1);
+            return result;
+        }
+
+        private int rank(int a, int b) {
+            Entry first = entries.get(a);
+            Entry second = entries.get(b);
+            if (first.weight != second.weight) {
+                return Integer.compare(second.weight, first.weight);
+            }
+            int lengthCompare = Integer.compare(first.suggestion.getText().length(), second.suggestion.getText().length());
+            return lengthCompare != 0 ? lengthCompare : Integer.compare(a, b);
+        }
+
+        private static boolean contains(int[] top, int slot) {
+            for (int value : top) {
+                if (value == slot) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * label 与 text 从 offset 开始的公共前缀长度
+         */
+        private static int commonLength(String label, String text, int offset) {
+            int max = Math.min(label.length(), text.length() - offset);
+            int length = 0;
+            while (length < max && label.charAt(length) == text.charAt(offset + length)) {
+                length++;
+            }
+            return length;
+        }
+    }
+
+    /**
+     * 前缀树节点
+     */
+    private static class Node {
+
+        /**
+         * 从父节点到本节点的边上的字符
+         */
+        private String label;
+
+        private Map<Character, Node> children;
+
+        /**
+         * 以本节点结尾的键所属的条目槽位（无序）
+         */
+        private int[] terminals = new int[0];
+        private int terminalCount;
+
+        /**
+         * 子树内排名最高的条目槽位，已排序
+         */
+        private int[] top = new int[0];
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            return children != null ? children.get(first) : null;
+        }
+
+        void putChild(Node child) {
+            if (children == null) {
+                children = new HashMap<>(4);
+            }
+            children.put(child.label.charAt(0), child);
+        }
+
+        void addTerminal(int slot) {
+            if (terminalCount == terminals.length) {
+                terminals = Arrays.copyOf(terminals, terminalCount + (terminalCount >> 1) + 1);
+            }
+            terminals[terminalCount++] = slot;
+        }
+
+        boolean removeTerminal(int slot) {
+            for (int i = 0; i < terminalCount; i++) {
+                if (terminals[i] == slot) {
+                    terminals[i] = terminals[--terminalCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final SuggestionDto suggestion;
+        private final int weight;
+        private final String[] keys;
+    }
+}
@@ -0,0 +1,59 @@
+package com.nexcommerce.product.service;
+
+import com.nexcommerce.product.dto.AttributeDefinitionDto;
+
+import java.util.List;
+
+/**
+ * 属性定义服务接口
+ */
+public interface AttributeDefinitionService {
+
+    /**
+     * 创建属性定义
+     *
+     * @param definitionDto 属性定义DTO
+     * @return 创建后的属性定义DTO
+     */
+    AttributeDefinitionDto createDefinition(AttributeDefinitionDto definitionDto);
+
+    /**
+     * 根据属性名获取属性定义
+     *
+     * @param attributeName 属性名
+     * @return 属性定义DTO
+     */
+    AttributeDefinitionDto getDefinitionByName(String attributeName);
+
+    /**
+     * 获取所有属性定义
+     *
+     * @return 属性定义DTO列表
+     */
+    List<AttributeDefinitionDto> getAllDefinitions();
+
+    /**
+     * 更新属性定义
+     *
+     * @param id 属性定义ID
+     * @param definitionDto 属性定义DTO
+     * @return 更新后的属性定义DTO
+     */
+    AttributeDefinitionDto updateDefinition(Long id, AttributeDefinitionDto definitionDto);
+
+    /**
+     * 删除属性定义
+     *
+     * @param id 属性定义ID
+     */
+    void deleteDefinition(Long id);
+
+    /**
+     * 按属性定义校验属性值，属性名没有定义时不做校验
+     *
+     * @param attributeName 属性名
+     * @param attributeValue 属性值
+     * @throws IllegalArgumentException 属性值与定义的类型不符
+     */
+    void validateValue(String attributeName, String attributeValue);
+}
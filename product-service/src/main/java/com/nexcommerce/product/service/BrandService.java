@@ -1,5 +1,6 @@
 package com.nexcommerce.product.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nexcommerce.product.dto.BrandDto;
 
 import java.util.List;
@@ -47,6 +48,13 @@ public interface BrandService {
      */
     List<BrandDto> getAllActiveBrands();
 
+    /**
+     * 获取预序列化的所有激活品牌JSON（可直接作为响应数据写出）
+     *
+     * @return 激活品牌列表的JSON
+     */
+    RawValue getAllActiveBrandsJson();
+
     /**
      * 更新品牌
      *
@@ -1,5 +1,7 @@
 package com.nexcommerce.product.service;
 
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
 import com.nexcommerce.product.dto.CategoryDto;
 
 import java.util.List;
@@ -47,6 +49,13 @@ public interface CategoryService {
      */
     List<CategoryDto> getAllActiveCategories();
 
+    /**
+     * 获取预序列化的所有激活类别JSON（可直接作为响应数据写出）
+     *
+     * @return 激活类别列表的JSON
+     */
+    RawValue getAllActiveCategoriesJson();
+
     /**
      * 更新类别
      *
@@ -100,4 +109,12 @@ public interface CategoryService {
      * @return 带有子类别的类别DTO
      */
     CategoryDto getCategoryTreeById(Long id);
+
+    /**
+     * 获取类别的面包屑
+     *
+     * @param id 类别ID
+     * @return 从顶级类别到该类别的祖先链
+     */
+    List<CategoryBreadcrumbDto> getBreadcrumb(Long id);
 }
@@ -93,6 +93,17 @@ public interface ProductAttributeService {
      */
     List<Long> findProductIdsByAttribute(String attributeName, String attributeValue);
 
+    /**
+     * 根据数值型属性的范围搜索产品
+     *
+     * @param attributeName 属性名
+     * @param min 最小值（包含，可选）
+     * @param max 最大值（包含，可选）
+     * @param limit 最多返回数量
+     * @return 产品ID列表（按属性值升序）
+     */
+    List<Long> findProductIdsByAttributeRange(String attributeName, Double min, Double max, int limit);
+
     /**
      * 获取指定属性名的所有可能值
      *
@@ -0,0 +1,25 @@
+package com.nexcommerce.product.service;
+
+import com.nexcommerce.product.dto.ProductChangeFeedDto;
+
+/**
+ * 产品变更流服务接口
+ */
+public interface ProductChangeFeedService {
+
+    /**
+     * 拉取序号大于 since 的变更（按序号升序）
+     *
+     * @param since 已处理的最大序号，首次同步为0
+     * @param limit 最多返回的变更数
+     * @return 变更及下次拉取的位置
+     */
+    ProductChangeFeedDto getChanges(long since, int limit);
+
+    /**
+     * 清理超过保留期的变更
+     *
+     * @return 清理的变更数量
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,32 @@
+package com.nexcommerce.product.service;
+
+import com.nexcommerce.product.dto.ProductImportJobDto;
+import com.nexcommerce.product.importer.ProductImportFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 产品批量导入服务接口
+ */
+public interface ProductImportService {
+
+    /**
+     * 提交导入任务
+     * 请求体先流式写入临时文件，随后在后台线程中解析和写入，调用方通过任务ID查询进度
+     *
+     * @param format 文件格式
+     * @param input 文件内容
+     * @return 已提交的任务
+     * @throws IOException 读取请求体失败
+     */
+    ProductImportJobDto startImport(ProductImportFormat format, InputStream input) throws IOException;
+
+    /**
+     * 获取导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    ProductImportJobDto getJob(String jobId);
+}
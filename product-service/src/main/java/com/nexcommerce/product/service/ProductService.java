@@ -1,12 +1,28 @@
 package com.nexcommerce.product.service;
 
+import com.nexcommerce.product.dto.BatchStockAdjustmentDto;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
+import com.nexcommerce.product.dto.CursorPageDto;
+import com.nexcommerce.product.dto.FacetedPageDto;
+import com.nexcommerce.product.dto.ProductBatchGetDto;
+import com.nexcommerce.product.dto.ProductBatchItemDto;
 import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.ProductSummaryDto;
+import com.nexcommerce.product.dto.StockAdjustmentResultDto;
+import com.nexcommerce.product.dto.SuggestionDto;
 import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.ProductExportQuery;
+import com.nexcommerce.product.search.FacetQuery;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 产品服务接口
@@ -37,6 +53,23 @@ public interface ProductService {
      */
     ProductDto getProductBySku(String sku);
 
+    /**
+     * 获取产品所属类别的面包屑
+     *
+     * @param id 产品ID
+     * @return 从顶级类别到产品所属类别的祖先链，产品没有类别时为空
+     */
+    List<CategoryBreadcrumbDto> getProductBreadcrumb(Long id);
+
+    /**
+     * 批量获取产品
+     * 结果与请求的ID或SKU一一对应并保持请求顺序，不存在的产品以 found=false 表示
+     *
+     * @param request 产品ID列表或SKU列表
+     * @return 获取结果
+     */
+    List<ProductBatchItemDto> getProductsBatch(ProductBatchGetDto request);
+
     /**
      * 获取所有产品（分页）
      *
@@ -45,6 +78,28 @@ public interface ProductService {
      */
     Page<ProductDto> getAllProducts(Pageable pageable);
 
+    /**
+     * 游标分页获取所有产品（不执行COUNT查询）
+     *
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    CursorPageDto<ProductDto> scrollProducts(String cursor, int size, String sortBy, String direction);
+
+    /**
+     * 以NDJSON格式导出产品目录（每行一个产品，按ID升序）
+     * 在一个只读事务中从只进游标逐行读取并写出，导出内容来自同一个一致性读视图
+     *
+     * @param query 导出条件
+     * @param output 输出流
+     * @return 导出的产品数量
+     * @throws IOException 写出失败（如客户端断开）
+     */
+    long exportProducts(ProductExportQuery query, OutputStream output) throws IOException;
+
     /**
      * 更新产品
      *
@@ -70,6 +125,15 @@ public interface ProductService {
      */
     Page<ProductDto> searchProductsByName(String name, Pageable pageable);
 
+    /**
+     * 搜索补全：按前缀匹配产品、类别和品牌名称（支持拼音全拼和首字母）
+     *
+     * @param prefix 用户输入的前缀
+     * @param limit 返回数量
+     * @return 补全建议列表
+     */
+    List<SuggestionDto> suggest(String prefix, int limit);
+
     /**
      * 根据类别ID获取产品（分页）
      *
@@ -79,6 +143,15 @@ public interface ProductService {
      */
     Page<ProductDto> getProductsByCategoryId(Long categoryId, Pageable pageable);
 
+    /**
+     * 获取类别及其所有后代类别下的产品（分页）
+     *
+     * @param categoryId 类别ID
+     * @param pageable 分页参数
+     * @return 产品分页列表
+     */
+    Page<ProductDto> getProductsByCategorySubtree(Long categoryId, Pageable pageable);
+
     /**
      * 根据品牌ID获取产品（分页）
      *
@@ -96,6 +169,14 @@ public interface ProductService {
      */
     Page<ProductDto> getProductsOnSale(Pageable pageable);
 
+    /**
+     * 获取特价产品摘要（分页）
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    Page<ProductSummaryDto> getProductSummariesOnSale(Pageable pageable);
+
     /**
      * 获取价格在指定范围内的产品（分页）
      *
@@ -106,6 +187,16 @@ public interface ProductService {
      */
     Page<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
+    /**
+     * 获取价格在指定范围内的产品摘要（分页）
+     *
+     * @param minPrice 最低价格
+     * @param maxPrice 最高价格
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    Page<ProductSummaryDto> getProductSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
+
     /**
      * 获取推荐产品（分页）
      *
@@ -114,6 +205,14 @@ public interface ProductService {
      */
     Page<ProductDto> getFeaturedProducts(Pageable pageable);
 
+    /**
+     * 获取推荐产品摘要（分页）
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    Page<ProductSummaryDto> getFeaturedProductSummaries(Pageable pageable);
+
     /**
      * 根据状态获取产品（分页）
      *
@@ -123,6 +222,15 @@ public interface ProductService {
      */
     Page<ProductDto> getProductsByStatus(Product.ProductStatus status, Pageable pageable);
 
+    /**
+     * 根据状态获取产品摘要（分页）
+     *
+     * @param status 产品状态
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    Page<ProductSummaryDto> getProductSummariesByStatus(Product.ProductStatus status, Pageable pageable);
+
     /**
      * 根据多个条件筛选产品（分页）
      *
@@ -135,6 +243,32 @@ public interface ProductService {
      */
     Page<ProductDto> getProductsByFilters(Long categoryId, Long brandId, BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable);
 
+    /**
+     * 根据多个条件游标分页筛选产品（不执行COUNT查询）
+     *
+     * @param categoryId 类别ID（可选）
+     * @param brandId 品牌ID（可选）
+     * @param minPrice 最低价格（可选）
+     * @param maxPrice 最高价格（可选）
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    CursorPageDto<ProductDto> scrollProductsByFilters(Long categoryId, Long brandId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                      String cursor, int size, String sortBy, String direction);
+
+    /**
+     * 分面筛选产品（分页）
+     * 结果按产品ID升序排列，并附带各维度的分面计数
+     *
+     * @param query 筛选条件
+     * @param pageable 分页参数
+     * @return 产品分页列表及分面计数
+     */
+    FacetedPageDto<ProductDto> filterProductsByFacets(FacetQuery query, Pageable pageable);
+
     /**
      * 更新产品库存
      *
@@ -144,11 +278,64 @@ public interface ProductService {
      */
     ProductDto updateProductStock(Long id, Integer quantityChange);
 
+    /**
+     * 更新产品库存并以指定原因记录流水
+     *
+     * @param id 产品ID
+     * @param quantityChange 库存变化（正数增加，负数减少）
+     * @param reason 变动原因
+     * @param correlationId 关联ID（如订单号、预留ID，可为空）
+     * @return 更新后的产品DTO
+     */
+    ProductDto updateProductStock(Long id, Integer quantityChange, StockLedgerEntry.MovementReason reason, String correlationId);
+
+    /**
+     * 更新产品库存（合并提交）
+     * 同一产品短时间内的并发调整合并为一次数据库写入，在独立事务中提交，不参与调用方的事务
+     *
+     * @param id 产品ID
+     * @param quantityChange 库存变化（正数增加，负数减少）
+     * @param correlationId 关联ID（可为空）
+     * @return 携带本次调整后库存的产品DTO
+     */
+    CompletableFuture<ProductDto> updateProductStockCoalesced(Long id, Integer quantityChange, String correlationId);
+
+    /**
+     * 批量调整库存（单个事务）
+     *
+     * @param request 批量库存调整请求
+     * @return 每行的调整结果
+     */
+    List<StockAdjustmentResultDto> adjustStockBatch(BatchStockAdjustmentDto request);
+
+    /**
+     * 开启热点库存模式（秒杀场景），库存调整改为在计数存储中无锁扣减并定时回写
+     *
+     * @param id 产品ID
+     * @return 产品DTO
+     */
+    ProductDto enableHotStock(Long id);
+
+    /**
+     * 关闭热点库存模式，回写剩余的变化量
+     *
+     * @param id 产品ID
+     * @return 回写后的产品DTO
+     */
+    ProductDto disableHotStock(Long id);
+
     /**
      * 获取低库存产品
      *
      * @param threshold 库存阈值
-     * @return 低库存产品列表
+     * @return 低库存产品列表（按库存升序）
      */
     List<ProductDto> getLowStockProducts(Integer threshold);
+
+    /**
+     * 订阅低库存告警：产品库存越过配置的阈值时推送
+     *
+     * @return 告警事件流
+     */
+    SseEmitter subscribeLowStockAlerts();
 }
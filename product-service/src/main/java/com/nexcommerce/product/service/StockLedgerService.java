@@ -0,0 +1,46 @@
+package com.nexcommerce.product.service;
+
+import com.nexcommerce.product.dto.StockLedgerEntryDto;
+import com.nexcommerce.product.dto.StockReconciliationDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 库存流水服务接口
+ */
+public interface StockLedgerService {
+
+    /**
+     * 获取产品的库存流水（按时间倒序，分页）
+     *
+     * @param productId 产品ID
+     * @param pageable 分页参数
+     * @return 流水分页列表
+     */
+    Page<StockLedgerEntryDto> getEntries(Long productId, Pageable pageable);
+
+    /**
+     * 计算产品在指定时刻的库存
+     *
+     * @param productId 产品ID
+     * @param time 时刻
+     * @return 库存
+     */
+    long getStockAt(Long productId, LocalDateTime time);
+
+    /**
+     * 将新流水压缩为各产品的快照
+     *
+     * @return 生成的快照数量
+     */
+    int compact();
+
+    /**
+     * 并行核对 products.quantity 与流水推算的库存
+     *
+     * @return 对账结果
+     */
+    StockReconciliationDto reconcile();
+}
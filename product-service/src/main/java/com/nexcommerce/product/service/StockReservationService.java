@@ -0,0 +1,51 @@
+package com.nexcommerce.product.service;
+
+import com.nexcommerce.product.dto.StockAvailabilityDto;
+import com.nexcommerce.product.dto.StockReservationDto;
+
+/**
+ * 库存预留服务接口
+ */
+public interface StockReservationService {
+
+    /**
+     * 预留库存
+     * 立即从产品库存中扣除，持有时长内未确认则自动过期并归还
+     *
+     * @param reservationDto 预留请求（产品ID、数量、持有时长）
+     * @return 创建的预留
+     */
+    StockReservationDto reserve(StockReservationDto reservationDto);
+
+    /**
+     * 确认预留，扣减生效
+     *
+     * @param id 预留ID
+     * @return 确认后的预留
+     */
+    StockReservationDto confirm(Long id);
+
+    /**
+     * 释放预留，归还库存
+     *
+     * @param id 预留ID
+     * @return 释放后的预留
+     */
+    StockReservationDto release(Long id);
+
+    /**
+     * 根据ID获取预留
+     *
+     * @param id 预留ID
+     * @return 预留
+     */
+    StockReservationDto getReservation(Long id);
+
+    /**
+     * 获取产品的可售库存
+     *
+     * @param productId 产品ID
+     * @return 可售库存
+     */
+    StockAvailabilityDto getAvailability(Long productId);
+}
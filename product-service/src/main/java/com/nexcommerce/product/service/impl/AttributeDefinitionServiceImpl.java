@@ -0,0 +1,144 @@
+package com.nexcommerce.product.service.impl;
+
+import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.dto.AttributeDefinitionDto;
+import com.nexcommerce.product.event.AttributeDefinitionChangedEvent;
+import com.nexcommerce.product.mapper.AttributeDefinitionMapper;
+import com.nexcommerce.product.model.AttributeDefinition;
+import com.nexcommerce.product.repository.AttributeDefinitionRepository;
+import com.nexcommerce.product.service.AttributeDefinitionService;
+import com.nexcommerce.product.util.AttributeValues;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * 属性定义服务实现
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AttributeDefinitionServiceImpl implements AttributeDefinitionService {
+
+    private final AttributeDefinitionRepository attributeDefinitionRepository;
+    private final AttributeDefinitionMapper attributeDefinitionMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 创建属性定义
+     *
+     * @param definitionDto 属性定义DTO
+     * @return 创建后的属性定义DTO
+     */
+    @Override
+    @Transactional
+    public AttributeDefinitionDto createDefinition(AttributeDefinitionDto definitionDto) {
+        log.info("创建属性定义: {}", definitionDto.getAttributeName());
+
+        if (attributeDefinitionRepository.findByAttributeName(definitionDto.getAttributeName()).isPresent()) {
+            throw new IllegalArgumentException("属性定义已存在: " + definitionDto.getAttributeName());
+        }
+
+        AttributeDefinition definition = attributeDefinitionMapper.toEntity(definitionDto);
+        checkAllowedValues(definition);
+        AttributeDefinition savedDefinition = attributeDefinitionRepository.save(definition);
+        eventPublisher.publishEvent(new AttributeDefinitionChangedEvent(savedDefinition.getAttributeName()));
+
+        return attributeDefinitionMapper.toDto(savedDefinition);
+    }
+
+    /**
+     * 根据属性名获取属性定义
+     *
+     * @param attributeName 属性名
+     * @return 属性定义DTO
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AttributeDefinitionDto getDefinitionByName(String attributeName) {
+        log.info("获取属性定义: {}", attributeName);
+
+        AttributeDefinition definition = attributeDefinitionRepository.findByAttributeName(attributeName)
+                .orElseThrow(() -> new ResourceNotFoundException("属性定义不存在: " + attributeName));
+
+        return attributeDefinitionMapper.toDto(definition);
+    }
+
+    /**
+     * 获取所有属性定义
+     *
+     * @return 属性定义DTO列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttributeDefinitionDto> getAllDefinitions() {
+        log.info("获取所有属性定义");
+
+        return attributeDefinitionMapper.toDtoList(attributeDefinitionRepository.findAll());
+    }
+
+    /**
+     * 更新属性定义
+     * 已有的产品属性值不会被重新校验，数值索引按新定义重建
+     *
+     * @param id 属性定义ID
+     * @param definitionDto 属性定义DTO
+     * @return 更新后的属性定义DTO
+     */
+    @Override
+    @Transactional
+    public AttributeDefinitionDto updateDefinition(Long id, AttributeDefinitionDto definitionDto) {
+        log.info("更新属性定义，ID: {}", id);
+
+        AttributeDefinition definition = attributeDefinitionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("属性定义不存在，ID: " + id));
+
+        attributeDefinitionMapper.updateDefinitionFromDto(definitionDto, definition);
+        checkAllowedValues(definition);
+        AttributeDefinition updatedDefinition = attributeDefinitionRepository.save(definition);
+        eventPublisher.publishEvent(new AttributeDefinitionChangedEvent(updatedDefinition.getAttributeName()));
+
+        return attributeDefinitionMapper.toDto(updatedDefinition);
+    }
+
+    /**
+     * 删除属性定义
+     *
+     * @param id 属性定义ID
+     */
+    @Override
+    @Transactional
+    public void deleteDefinition(Long id) {
+        log.info("删除属性定义，ID: {}", id);
+
+        AttributeDefinition definition = attributeDefinitionRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("属性定义不存在，ID: " + id));
+
+        attributeDefinitionRepository.delete(definition);
+        eventPublisher.publishEvent(new AttributeDefinitionChangedEvent(definition.getAttributeName()));
+    }
+
+    /**
+     * 按属性定义校验属性值，属性名没有定义时不做校验
+     *
+     * @param attributeName 属性名
+     * @param attributeValue 属性值
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void validateValue(String attributeName, String attributeValue) {
+        AttributeDefinition definition = attributeDefinitionRepository.findByAttributeName(attributeName).orElse(null);
+        AttributeValues.checkValue(definition, attributeName, attributeValue);
+    }
+
+    private void checkAllowedValues(AttributeDefinition definition) {
+        if (definition.getType() == AttributeDefinition.AttributeType.ENUM &&
+                (definition.getAllowedValues() == null || definition.getAllowedValues().isEmpty())) {
+            throw new IllegalArgumentException("枚举型属性必须声明可选值: " + definition.getAttributeName());
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.nexcommerce.product.service.impl;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.brand.BrandSnapshot;
+import com.nexcommerce.product.brand.BrandSnapshotCache;
+import com.nexcommerce.product.cache.ProductCounts;
+import com.nexcommerce.product.cache.SerializedJsonCache;
 import com.nexcommerce.product.dto.BrandDto;
+import com.nexcommerce.product.event.BrandChangedEvent;
 import com.nexcommerce.product.mapper.BrandMapper;
 import com.nexcommerce.product.model.Brand;
 import com.nexcommerce.product.repository.BrandRepository;
 import com.nexcommerce.product.service.BrandService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,8 +28,14 @@ import java.util.List;
 @Slf4j
 public class BrandServiceImpl implements BrandService {
 
+    private static final String ACTIVE_BRANDS_JSON = "brands.active";
+
     private final BrandRepository brandRepository;
     private final BrandMapper brandMapper;
+    private final ProductCounts productCounts;
+    private final BrandSnapshotCache brandSnapshotCache;
+    private final SerializedJsonCache serializedJsonCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建新品牌
@@ -44,71 +57,81 @@ public class BrandServiceImpl implements BrandService {
         Brand brand = brandMapper.toEntity(brandDto);
         Brand savedBrand = brandRepository.save(brand);
 
-        return brandMapper.toDto(savedBrand);
+        BrandDto savedDto = brandMapper.toDto(savedBrand);
+        eventPublisher.publishEvent(new BrandChangedEvent(BrandChangedEvent.Type.CREATED, savedDto.getId(), savedDto));
+
+        return savedDto;
     }
 
     /**
-     * 根据ID获取品牌
+     * 根据ID获取品牌，从品牌快照读取
      *
      * @param id 品牌ID
      * @return 品牌DTO
      */
     @Override
-    @Transactional(readOnly = true)
     public BrandDto getBrandById(Long id) {
         log.info("获取品牌，ID: {}", id);
 
-        Brand brand = brandRepository.findById(id)
+        BrandDto brand = brandSnapshotCache.get().findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("品牌不存在，ID: " + id));
 
-        return brandMapper.toDto(brand);
+        return withProductCount(brandMapper.copy(brand));
     }
 
     /**
-     * 根据slug获取品牌
+     * 根据slug获取品牌，从品牌快照的 slug 索引读取
      *
      * @param slug 品牌标识符
      * @return 品牌DTO
      */
     @Override
-    @Transactional(readOnly = true)
     public BrandDto getBrandBySlug(String slug) {
         log.info("根据标识获取品牌: {}", slug);
 
-        Brand brand = brandRepository.findBySlug(slug)
+        BrandDto brand = brandSnapshotCache.get().findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("品牌不存在，标识: " + slug));
 
-        return brandMapper.toDto(brand);
+        return withProductCount(brandMapper.copy(brand));
     }
 
     /**
-     * 获取所有品牌
+     * 获取所有品牌，从品牌快照读取
      *
      * @return 品牌DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<BrandDto> getAllBrands() {
         log.info("获取所有品牌");
 
-        List<Brand> brands = brandRepository.findAllByOrderBySortOrderAsc();
-
-        return brandMapper.toDtoList(brands);
+        return withProductCounts(brandMapper.copyList(brandSnapshotCache.get().getAll()));
     }
 
     /**
-     * 获取所有激活的品牌
+     * 获取所有激活的品牌，从品牌快照读取
      *
      * @return 品牌DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<BrandDto> getAllActiveBrands() {
         log.info("获取所有激活的品牌");
 
-        List<Brand> activeBrands = brandRepository.findByIsActiveTrue();
+        return withProductCounts(brandMapper.copyList(brandSnapshotCache.get().getActive()));
+    }
 
-        return brandMapper.toDtoList(activeBrands);
+    /**
+     * 获取预序列化的所有激活品牌JSON
+     * 快照替换或产品数变化之前重复返回同一份字节
+     *
+     * @return 激活品牌列表的JSON
+     */
+    @Override
+    public RawValue getAllActiveBrandsJson() {
+        // 先取计数版本再读取数据，缓存的内容至少与版本一样新
+        long countsVersion = productCounts.version();
+        BrandSnapshot brands = brandSnapshotCache.get();
+        return serializedJsonCache.get(ACTIVE_BRANDS_JSON, List.of(brands, countsVersion),
+                () -> withProductCounts(brandMapper.copyList(brands.getActive())));
     }
 
     /**
@@ -137,7 +160,10 @@ public class BrandServiceImpl implements BrandService {
         brandMapper.updateBrandFromDto(brandDto, brand);
         Brand updatedBrand = brandRepository.save(brand);
 
-        return brandMapper.toDto(updatedBrand);
+        BrandDto updatedDto = brandMapper.toDto(updatedBrand);
+        eventPublisher.publishEvent(new BrandChangedEvent(BrandChangedEvent.Type.UPDATED, id, updatedDto));
+
+        return updatedDto;
     }
 
     /**
@@ -157,6 +183,7 @@ public class BrandServiceImpl implements BrandService {
 
         // 删除品牌
         brandRepository.deleteById(id);
+        eventPublisher.publishEvent(new BrandChangedEvent(BrandChangedEvent.Type.DELETED, id, null));
     }
 
     /**
@@ -172,6 +199,21 @@ public class BrandServiceImpl implements BrandService {
 
         List<Brand> brands = brandRepository.findByNameContaining(keyword);
 
-        return brandMapper.toDtoList(brands);
+        return withProductCounts(brandMapper.toDtoList(brands));
+    }
+
+    /**
+     * 填充品牌的在售产品数（来自增量维护的计数，计数尚未构建时保持为空）
+     */
+    private BrandDto withProductCount(BrandDto brand) {
+        if (productCounts.isReady()) {
+            brand.setProductCount(productCounts.countByBrand(brand.getId()));
+        }
+        return brand;
+    }
+
+    private List<BrandDto> withProductCounts(List<BrandDto> brands) {
+        brands.forEach(this::withProductCount);
+        return brands;
     }
 }
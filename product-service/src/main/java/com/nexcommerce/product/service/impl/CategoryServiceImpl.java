@@ -1,18 +1,32 @@
 package com.nexcommerce.product.service.impl;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.cache.ProductCounts;
+import com.nexcommerce.product.cache.SerializedJsonCache;
+import com.nexcommerce.product.category.CategoryIntervals;
+import com.nexcommerce.product.category.CategoryNode;
+import com.nexcommerce.product.category.CategoryTree;
+import com.nexcommerce.product.category.CategoryTreeCache;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
 import com.nexcommerce.product.dto.CategoryDto;
+import com.nexcommerce.product.event.CategoryChangedEvent;
 import com.nexcommerce.product.mapper.CategoryMapper;
 import com.nexcommerce.product.model.Category;
 import com.nexcommerce.product.repository.CategoryRepository;
 import com.nexcommerce.product.service.CategoryService;
+import com.nexcommerce.product.util.CategoryPaths;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * 类别服务实现
@@ -22,8 +36,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CategoryServiceImpl implements CategoryService {
 
+    private static final String ACTIVE_CATEGORIES_JSON = "categories.active";
+
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryIntervals categoryIntervals;
+    private final ProductCounts productCounts;
+    private final SerializedJsonCache serializedJsonCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建新类别
@@ -44,81 +65,95 @@ public class CategoryServiceImpl implements CategoryService {
         // 转换为实体
         Category category = categoryMapper.toEntity(categoryDto);
 
-        // 设置父类别
+        // 设置父类别（先锁定类别树再加锁读取父类别，防止父类别同时被移动导致路径过期）
+        categoryIntervals.lockTree();
+        Category parent = null;
         if (categoryDto.getParentId() != null) {
-            Category parent = categoryRepository.findById(categoryDto.getParentId())
+            parent = categoryRepository.findByIdForUpdate(categoryDto.getParentId())
                     .orElseThrow(() -> new ResourceNotFoundException("父类别不存在，ID: " + categoryDto.getParentId()));
             category.setParent(parent);
         }
 
-        // 保存
+        // 保存，取得ID后设置物化路径
         Category savedCategory = categoryRepository.save(category);
+        savedCategory.setPath(CategoryPaths.childPath(parent != null ? pathOf(parent) : null, savedCategory.getId()));
+        categoryIntervals.renumber();
+
+        CategoryDto savedDto = categoryMapper.toDto(savedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.CREATED, savedDto.getId(), savedDto));
 
-        return categoryMapper.toDto(savedCategory);
+        return savedDto;
     }
 
     /**
-     * 根据ID获取类别
+     * 根据ID获取类别，从类别树快照读取
      *
      * @param id 类别ID
      * @return 类别DTO
      */
     @Override
-    @Transactional(readOnly = true)
     public CategoryDto getCategoryById(Long id) {
         log.info("获取类别，ID: {}", id);
 
-        Category category = categoryRepository.findById(id)
+        CategoryNode node = categoryTreeCache.get().find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("类别不存在，ID: " + id));
 
-        return categoryMapper.toDto(category);
+        return withProductCounts(categoryMapper.toDto(node));
     }
 
     /**
-     * 根据slug获取类别
+     * 根据slug获取类别，从类别树快照的 slug 索引读取
      *
      * @param slug 类别标识符
      * @return 类别DTO
      */
     @Override
-    @Transactional(readOnly = true)
     public CategoryDto getCategoryBySlug(String slug) {
         log.info("根据标识获取类别: {}", slug);
 
-        Category category = categoryRepository.findBySlug(slug)
+        CategoryNode node = categoryTreeCache.get().findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException("类别不存在，标识: " + slug));
 
-        return categoryMapper.toDto(category);
+        return withProductCounts(categoryMapper.toDto(node));
     }
 
     /**
-     * 获取所有类别
+     * 获取所有类别，从类别树快照读取
      *
      * @return 类别DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories() {
         log.info("获取所有类别");
 
-        List<Category> categories = categoryRepository.findAllByOrderBySortOrderAsc();
-
-        return categoryMapper.toDtoList(categories);
+        return withProductCounts(categoryMapper.nodesToDtoList(categoryTreeCache.get().getAll()));
     }
 
     /**
-     * 获取所有激活的类别
+     * 获取所有激活的类别，从类别树快照读取
      *
      * @return 类别DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getAllActiveCategories() {
         log.info("获取所有激活的类别");
 
-        List<Category> activeCategories = categoryRepository.findByIsActiveTrue();
+        return withProductCounts(categoryMapper.nodesToDtoList(categoryTreeCache.get().getActive()));
+    }
 
-        return categoryMapper.toDtoList(activeCategories);
+    /**
+     * 获取预序列化的所有激活类别JSON
+     * 快照替换或产品数变化之前重复返回同一份字节
+     *
+     * @return 激活类别列表的JSON
+     */
+    @Override
+    public RawValue getAllActiveCategoriesJson() {
+        // 先取计数版本再读取数据，缓存的内容至少与版本一样新
+        long countsVersion = productCounts.version();
+        CategoryTree tree = categoryTreeCache.get();
+        return serializedJsonCache.get(ACTIVE_CATEGORIES_JSON, List.of(tree, countsVersion),
+                () -> withProductCounts(categoryMapper.nodesToDtoList(tree.getActive()), tree));
     }
 
     /**
@@ -133,8 +168,9 @@ public class CategoryServiceImpl implements CategoryService {
     public CategoryDto updateCategory(Long id, CategoryDto categoryDto) {
         log.info("更新类别，ID: {}", id);
 
-        // 验证类别是否存在
-        Category category = categoryRepository.findById(id)
+        // 验证类别是否存在（先锁定类别树再加锁读取，防止并发移动形成环）
+        categoryIntervals.lockTree();
+        Category category = categoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("类别不存在，ID: " + id));
 
         // 如果更新slug，验证是否已存在
@@ -153,41 +189,79 @@ public class CategoryServiceImpl implements CategoryService {
                 throw new IllegalArgumentException("类别不能成为自己的父类别");
             }
 
-            // 防止循环依赖
-            if (isChildCategory(id, categoryDto.getParentId())) {
-                throw new IllegalArgumentException("不能将当前类别的子类别设置为其父类别");
-            }
+            Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+            if (!categoryDto.getParentId().equals(currentParentId)) {
+                Category parent = categoryRepository.findByIdForUpdate(categoryDto.getParentId())
+                        .orElseThrow(() -> new ResourceNotFoundException("父类别不存在，ID: " + categoryDto.getParentId()));
 
-            Category parent = categoryRepository.findById(categoryDto.getParentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("父类别不存在，ID: " + categoryDto.getParentId()));
-            category.setParent(parent);
-        } else if (categoryDto.getParentId() == null && category.getParent() != null) {
+                // 防止循环依赖：新父类别的路径以当前类别的路径为前缀，说明它是当前类别的后代
+                if (CategoryPaths.isSelfOrDescendant(pathOf(parent), pathOf(category))) {
+                    throw new IllegalArgumentException("不能将当前类别的子类别设置为其父类别");
+                }
+                move(category, parent);
+            }
+        } else if (category.getParent() != null) {
             // 移除父类别
-            category.setParent(null);
+            move(category, null);
         }
 
         // 保存更新
         Category updatedCategory = categoryRepository.save(category);
 
-        return categoryMapper.toDto(updatedCategory);
+        CategoryDto updatedDto = categoryMapper.toDto(updatedCategory);
+        eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.UPDATED, id, updatedDto));
+
+        return updatedDto;
     }
 
     /**
-     * 检查目标类别是否是源类别的子类别（防止循环依赖）
+     * 移动类别到新的父类别下，同时用一条语句更新所有后代的路径，并重新计算区间编号
+     * 调用方须已锁定类别树并对类别和新父类别加锁：并发的移动被类别树锁串行化，不会形成环
+     *
+     * @param category 类别
+     * @param parent 新父类别，移为顶级类别时为 null
      */
-    private boolean isChildCategory(Long sourceId, Long targetId) {
-        if (sourceId.equals(targetId)) {
-            return true;
-        }
+    private void move(Category category, Category parent) {
+        String oldPath = pathOf(category);
+        String newPath = CategoryPaths.childPath(parent != null ? pathOf(parent) : null, category.getId());
+        category.setParent(parent);
+        category.setPath(newPath);
+        int descendants = categoryRepository.rebasePaths(oldPath, newPath);
+        int renumbered = categoryIntervals.renumber();
+        log.info("移动类别，ID: {}, 路径: {} -> {}, 后代数: {}, 区间变化数: {}",
+                category.getId(), oldPath, newPath, descendants, renumbered);
+    }
 
-        List<Category> children = categoryRepository.findByParentId(sourceId);
-        for (Category child : children) {
-            if (isChildCategory(child.getId(), targetId)) {
-                return true;
-            }
+    /**
+     * 获取类别的物化路径，尚未回填时沿父类别计算并写回
+     */
+    private String pathOf(Category category) {
+        if (category.getPath() == null) {
+            String parentPath = category.getParent() != null ? pathOf(category.getParent()) : null;
+            category.setPath(CategoryPaths.childPath(parentPath, category.getId()));
         }
+        return category.getPath();
+    }
 
-        return false;
+    /**
+     * 启动后为尚未设置路径或区间编号的类别（启用这两项之前创建的）回填
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillPaths() {
+        long missing = categoryRepository.countByPathIsNull();
+        boolean missingIntervals = categoryRepository.countByLftIsNull() > 0;
+        if (missing == 0 && !missingIntervals) {
+            return;
+        }
+        categoryIntervals.lockTree();
+        if (missing > 0) {
+            categoryRepository.findAll().forEach(this::pathOf);
+            log.info("类别物化路径回填完成，类别数: {}", missing);
+        }
+        if (missingIntervals) {
+            log.info("类别区间编号回填完成，区间变化数: {}", categoryIntervals.renumber());
+        }
     }
 
     /**
@@ -212,42 +286,35 @@ public class CategoryServiceImpl implements CategoryService {
         }
 
         categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CategoryChangedEvent(CategoryChangedEvent.Type.DELETED, id, null));
     }
 
     /**
-     * 获取所有顶级类别（无父类别）
+     * 获取所有顶级类别（无父类别），从类别树快照读取
      *
      * @return 类别DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getRootCategories() {
         log.info("获取所有顶级类别");
 
-        List<Category> rootCategories = categoryRepository.findByParentIsNull();
-
-        return categoryMapper.toDtoList(rootCategories);
+        return withProductCounts(categoryMapper.nodesToDtoList(categoryTreeCache.get().getRoots()));
     }
 
     /**
-     * 获取子类别
+     * 获取子类别，从类别树快照读取
      *
      * @param parentId 父类别ID
      * @return 类别DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getSubcategories(Long parentId) {
         log.info("获取子类别，父ID: {}", parentId);
 
-        // 验证父类别是否存在
-        if (!categoryRepository.existsById(parentId)) {
-            throw new ResourceNotFoundException("父类别不存在，ID: " + parentId);
-        }
-
-        List<Category> children = categoryRepository.findByParentId(parentId);
+        CategoryNode parent = categoryTreeCache.get().find(parentId)
+                .orElseThrow(() -> new ResourceNotFoundException("父类别不存在，ID: " + parentId));
 
-        return categoryMapper.toDtoList(children);
+        return withProductCounts(categoryMapper.nodesToDtoList(parent.getChildren()));
     }
 
     /**
@@ -263,26 +330,38 @@ public class CategoryServiceImpl implements CategoryService {
 
         List<Category> categories = categoryRepository.findByNameContaining(keyword);
 
-        return categoryMapper.toDtoList(categories);
+        return withProductCounts(categoryMapper.toDtoList(categories));
     }
 
     /**
-     * 获取带有层级关系的类别树
+     * 获取带有层级关系的类别树，从类别树快照读取，不访问数据库
      *
      * @return 带有子类别的顶级类别DTO列表
      */
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryDto> getCategoryTree() {
         log.info("获取类别树");
 
-        // 获取所有顶级类别
-        List<Category> rootCategories = categoryRepository.findByParentIsNull();
+        return withProductCounts(categoryMapper.nodesToDtoList(categoryTreeCache.get().getRoots()));
+    }
+
+    /**
+     * 获取类别的面包屑，沿类别树快照的父节点向上收集，不访问数据库
+     *
+     * @param id 类别ID
+     * @return 从顶级类别到该类别的祖先链
+     */
+    @Override
+    public List<CategoryBreadcrumbDto> getBreadcrumb(Long id) {
+        CategoryNode node = categoryTreeCache.get().find(id)
+                .orElseThrow(() -> new ResourceNotFoundException("类别不存在，ID: " + id));
 
-        // 构建每个顶级类别的树
-        return rootCategories.stream()
-                .map(this::buildCategoryTree)
-                .collect(Collectors.toList());
+        List<CategoryBreadcrumbDto> breadcrumb = new ArrayList<>(node.getDepth() + 1);
+        for (CategoryNode current = node; current != null; current = current.getParent()) {
+            breadcrumb.add(new CategoryBreadcrumbDto(current.getId(), current.getName(), current.getSlug()));
+        }
+        Collections.reverse(breadcrumb);
+        return breadcrumb;
     }
 
     /**
@@ -292,32 +371,43 @@ public class CategoryServiceImpl implements CategoryService {
      * @return 带有子类别的类别DTO
      */
     @Override
-    @Transactional(readOnly = true)
     public CategoryDto getCategoryTreeById(Long id) {
         log.info("获取类别树，根ID: {}", id);
 
-        Category category = categoryRepository.findWithChildrenById(id)
+        CategoryNode node = categoryTreeCache.get().find(id)
                 .orElseThrow(() -> new ResourceNotFoundException("类别不存在，ID: " + id));
 
-        return buildCategoryTree(category);
+        return withProductCounts(categoryMapper.toDto(node));
     }
 
     /**
-     * 构建类别树
-     *
-     * @param category 类别
-     * @return 类别DTO（包含子类别）
+     * 填充类别（及其子类别DTO）的在售产品数，子树计数按类别树快照汇总
+     * 计数尚未构建时保持为空
      */
-    private CategoryDto buildCategoryTree(Category category) {
-        CategoryDto categoryDto = categoryMapper.toDto(category);
-
-        if (category.getChildren() != null && !category.getChildren().isEmpty()) {
-            List<CategoryDto> childrenDtos = category.getChildren().stream()
-                    .map(this::buildCategoryTree)
-                    .collect(Collectors.toList());
-            categoryDto.setChildren(new java.util.HashSet<>(childrenDtos));
+    private CategoryDto withProductCounts(CategoryDto category) {
+        if (productCounts.isReady()) {
+            fillProductCounts(category, categoryTreeCache.get());
         }
+        return category;
+    }
+
+    private List<CategoryDto> withProductCounts(List<CategoryDto> categories) {
+        return withProductCounts(categories, categoryTreeCache.get());
+    }
 
-        return categoryDto;
+    private List<CategoryDto> withProductCounts(List<CategoryDto> categories, CategoryTree tree) {
+        if (productCounts.isReady()) {
+            categories.forEach(category -> fillProductCounts(category, tree));
+        }
+        return categories;
+    }
+
+    private void fillProductCounts(CategoryDto category, CategoryTree tree) {
+        category.setProductCount(productCounts.countByCategory(category.getId()));
+        tree.find(category.getId())
+                .ifPresent(node -> category.setSubtreeProductCount(productCounts.countBySubtree(node)));
+        if (category.getChildren() != null) {
+            category.getChildren().forEach(child -> fillProductCounts(child, tree));
+        }
     }
 }
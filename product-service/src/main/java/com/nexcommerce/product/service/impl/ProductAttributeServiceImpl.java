@@ -2,14 +2,18 @@ package com.nexcommerce.product.service.impl;
 
 import com.nexcommerce.common.exception.ResourceNotFoundException;
 import com.nexcommerce.product.dto.ProductAttributeDto;
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
 import com.nexcommerce.product.mapper.ProductAttributeMapper;
 import com.nexcommerce.product.model.Product;
 import com.nexcommerce.product.model.ProductAttribute;
 import com.nexcommerce.product.repository.ProductAttributeRepository;
 import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.search.NumericAttributeIndex;
+import com.nexcommerce.product.service.AttributeDefinitionService;
 import com.nexcommerce.product.service.ProductAttributeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +32,9 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
     private final ProductAttributeRepository productAttributeRepository;
     private final ProductRepository productRepository;
     private final ProductAttributeMapper productAttributeMapper;
+    private final AttributeDefinitionService attributeDefinitionService;
+    private final NumericAttributeIndex numericAttributeIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建产品属性
@@ -49,12 +56,14 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
         if (productAttributeRepository.findByProductIdAndAttributeName(productId, attributeDto.getAttributeName()).isPresent()) {
             throw new IllegalArgumentException("产品属性名已存在: " + attributeDto.getAttributeName());
         }
+        attributeDefinitionService.validateValue(attributeDto.getAttributeName(), attributeDto.getAttributeValue());
         
         // 创建属性
         ProductAttribute attribute = productAttributeMapper.toEntity(attributeDto);
         attribute.setProduct(product);
         
         ProductAttribute savedAttribute = productAttributeRepository.save(attribute);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(productId));
         
         return productAttributeMapper.toDto(savedAttribute);
     }
@@ -89,6 +98,7 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
         if (newAttributes.size() < attributeDtos.size()) {
             log.warn("部分属性名已存在，将被跳过");
         }
+        newAttributes.forEach(dto -> attributeDefinitionService.validateValue(dto.getAttributeName(), dto.getAttributeValue()));
         
         // 批量创建
         List<ProductAttribute> attributes = newAttributes.stream()
@@ -100,6 +110,7 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
                 .collect(Collectors.toList());
         
         List<ProductAttribute> savedAttributes = productAttributeRepository.saveAll(attributes);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(productId));
         
         return productAttributeMapper.toDtoList(savedAttributes);
     }
@@ -192,8 +203,10 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
         
         // 更新属性
         productAttributeMapper.updateProductAttributeFromDto(attributeDto, attribute);
+        attributeDefinitionService.validateValue(attribute.getAttributeName(), attribute.getAttributeValue());
         
         ProductAttribute updatedAttribute = productAttributeRepository.save(attribute);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(attribute.getProduct().getId()));
         
         return productAttributeMapper.toDto(updatedAttribute);
     }
@@ -213,9 +226,11 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
         ProductAttribute attribute = productAttributeRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("产品属性不存在，ID: " + id));
         
+        attributeDefinitionService.validateValue(attribute.getAttributeName(), value);
         attribute.setAttributeValue(value);
         
         ProductAttribute updatedAttribute = productAttributeRepository.save(attribute);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(attribute.getProduct().getId()));
         
         return productAttributeMapper.toDto(updatedAttribute);
     }
@@ -230,11 +245,11 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
     public void deleteProductAttribute(Long id) {
         log.info("删除产品属性，ID: {}", id);
         
-        if (!productAttributeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("产品属性不存在，ID: " + id);
-        }
+        ProductAttribute attribute = productAttributeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品属性不存在，ID: " + id));
         
-        productAttributeRepository.deleteById(id);
+        productAttributeRepository.delete(attribute);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(attribute.getProduct().getId()));
     }
 
     /**
@@ -253,6 +268,7 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
         }
         
         productAttributeRepository.deleteByProductId(productId);
+        eventPublisher.publishEvent(new ProductAttributesChangedEvent(productId));
     }
 
     /**
@@ -275,6 +291,29 @@ public class ProductAttributeServiceImpl implements ProductAttributeService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * 根据数值型属性的范围搜索产品
+     *
+     * @param attributeName 属性名
+     * @param min 最小值（包含，可选）
+     * @param max 最大值（包含，可选）
+     * @param limit 最多返回数量
+     * @return 产品ID列表（按属性值升序）
+     */
+    @Override
+    public List<Long> findProductIdsByAttributeRange(String attributeName, Double min, Double max, int limit) {
+        log.info("根据属性范围搜索产品，属性名: {}, 范围: {} - {}", attributeName, min, max);
+        
+        if (!numericAttributeIndex.isReady()) {
+            throw new IllegalStateException("数值属性索引正在构建，请稍后重试");
+        }
+        if (!numericAttributeIndex.isIndexed(attributeName)) {
+            throw new IllegalArgumentException("属性未定义为数值型: " + attributeName);
+        }
+        
+        return numericAttributeIndex.findProductIdsInRange(attributeName, min, max, limit);
+    }
+
     /**
      * 获取指定属性名的所有可能值
      *
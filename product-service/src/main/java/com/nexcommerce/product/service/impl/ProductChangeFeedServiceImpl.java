@@ -0,0 +1,131 @@
+package com.nexcommerce.product.service.impl;
+
+import com.nexcommerce.product.changefeed.ProductChangeSequencer;
+import com.nexcommerce.product.dto.ProductChangeDto;
+import com.nexcommerce.product.dto.ProductChangeFeedDto;
+import com.nexcommerce.product.mapper.ProductChangeMapper;
+import com.nexcommerce.product.model.ProductChange;
+import com.nexcommerce.product.repository.ProductChangeRepository;
+import com.nexcommerce.product.service.ProductChangeFeedService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 产品变更流服务实现
+ * 变更由 {@link com.nexcommerce.product.changefeed.ProductChangeOutbox} 写入、
+ * {@link ProductChangeSequencer} 定序，此处只负责按序号拉取和过期清理
+ */
+@Service
+@Slf4j
+public class ProductChangeFeedServiceImpl implements ProductChangeFeedService {
+
+    private static final int MAX_LIMIT = 1000;
+    private static final int PURGE_CHUNK_SIZE = 10000;
+
+    private static final String PURGE_SQL =
+            "DELETE FROM product_changes WHERE seq IS NOT NULL AND created_at < ? ORDER BY id LIMIT " + PURGE_CHUNK_SIZE;
+
+    private final ProductChangeRepository changeRepository;
+    private final ProductChangeMapper changeMapper;
+    private final ProductChangeSequencer sequencer;
+    private final JdbcTemplate jdbcTemplate;
+    private final int retentionDays;
+
+    public ProductChangeFeedServiceImpl(ProductChangeRepository changeRepository,
+                                        ProductChangeMapper changeMapper,
+                                        ProductChangeSequencer sequencer,
+                                        JdbcTemplate jdbcTemplate,
+                                        @Value("${product.change-feed.retention-days:7}") int retentionDays) {
+        this.changeRepository = changeRepository;
+        this.changeMapper = changeMapper;
+        this.sequencer = sequencer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * 拉取序号大于 since 的变更
+     * 最大序号和变更在同一个只读事务中读取；序号连续，since 之后的第一条不是 since + 1 说明中间的变更已被清理
+     *
+     * @param since 已处理的最大序号
+     * @param limit 最多返回的变更数
+     * @return 变更及下次拉取的位置
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductChangeFeedDto getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since 不能为负数");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit 必须在1到" + MAX_LIMIT + "之间");
+        }
+        long latestSeq = sequencer.latestSeq();
+        if (since > latestSeq) {
+            // 消费者记录的位置超出了已分配的序号（如数据库已重建），需重新全量同步
+            return ProductChangeFeedDto.builder()
+                    .nextSince(latestSeq)
+                    .truncated(true)
+                    .latestSeq(latestSeq)
+                    .build();
+        }
+
+        List<ProductChange> changes = changeRepository.findBySeqGreaterThanOrderBySeqAsc(since, PageRequest.of(0, limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        boolean truncated = since < latestSeq && (changes.isEmpty() || changes.get(0).getSeq() != since + 1);
+        if (truncated) {
+            log.warn("产品变更已过保留期被清理，since: {}, 最早可用序号: {}", since,
+                    changes.isEmpty() ? null : changes.get(0).getSeq());
+        }
+
+        List<ProductChangeDto> dtos = changes.stream().map(changeMapper::toDto).collect(Collectors.toList());
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return ProductChangeFeedDto.builder()
+                .changes(dtos)
+                .nextSince(nextSince)
+                .hasMore(hasMore)
+                .truncated(truncated)
+                .latestSeq(Math.max(latestSeq, nextSince))
+                .build();
+    }
+
+    /**
+     * 定时清理过期变更
+     */
+    @Scheduled(cron = "${product.change-feed.purge-cron:0 15 * * * *}")
+    public void scheduledPurge() {
+        purgeExpired();
+    }
+
+    /**
+     * 分批删除超过保留期的已定序变更，每批一个语句，避免长时间持有大量行锁
+     *
+     * @return 清理的变更数量
+     */
+    @Override
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, cutoff);
+            total += deleted;
+        } while (deleted == PURGE_CHUNK_SIZE);
+        if (total > 0) {
+            log.info("清理过期产品变更，条数: {}, 截止时间: {}", total, cutoff);
+        }
+        return total;
+    }
+}
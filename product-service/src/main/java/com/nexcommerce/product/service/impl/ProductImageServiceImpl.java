@@ -2,6 +2,7 @@ package com.nexcommerce.product.service.impl;
 
 import com.nexcommerce.common.exception.ResourceNotFoundException;
 import com.nexcommerce.product.dto.ProductImageDto;
+import com.nexcommerce.product.event.ProductImagesChangedEvent;
 import com.nexcommerce.product.mapper.ProductImageMapper;
 import com.nexcommerce.product.model.Product;
 import com.nexcommerce.product.model.ProductImage;
@@ -10,6 +11,7 @@ import com.nexcommerce.product.repository.ProductRepository;
 import com.nexcommerce.product.service.ProductImageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +36,7 @@ public class ProductImageServiceImpl implements ProductImageService {
     private final ProductImageRepository productImageRepository;
     private final ProductRepository productRepository;
     private final ProductImageMapper productImageMapper;
+    private final ApplicationEventPublisher eventPublisher;
     
     // 配置上传目录，实际项目中应该通过配置文件设置
     private final String uploadDir = "uploads/products";
@@ -98,6 +101,7 @@ public class ProductImageServiceImpl implements ProductImageService {
             productImage.setCreatedAt(LocalDateTime.now());
             
             ProductImage savedImage = productImageRepository.save(productImage);
+            eventPublisher.publishEvent(new ProductImagesChangedEvent(productId));
             
             return productImageMapper.toDto(savedImage);
             
@@ -198,6 +202,7 @@ public class ProductImageServiceImpl implements ProductImageService {
         
         productImage.setUpdatedAt(LocalDateTime.now());
         ProductImage updatedImage = productImageRepository.save(productImage);
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(productImage.getProduct().getId()));
         
         return productImageMapper.toDto(updatedImage);
     }
@@ -226,6 +231,7 @@ public class ProductImageServiceImpl implements ProductImageService {
         productImage.setUpdatedAt(LocalDateTime.now());
         
         ProductImage updatedImage = productImageRepository.save(productImage);
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(productId));
         
         return productImageMapper.toDto(updatedImage);
     }
@@ -268,6 +274,7 @@ public class ProductImageServiceImpl implements ProductImageService {
                         productImageRepository.save(firstImage);
                     });
         }
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(productImage.getProduct().getId()));
     }
 
     /**
@@ -302,5 +309,6 @@ public class ProductImageServiceImpl implements ProductImageService {
         
         // 删除所有数据库记录
         productImageRepository.deleteByProductId(productId);
+        eventPublisher.publishEvent(new ProductImagesChangedEvent(productId));
     }
 }
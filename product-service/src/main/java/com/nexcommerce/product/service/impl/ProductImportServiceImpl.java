@@ -0,0 +1,497 @@
+package com.nexcommerce.product.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.dto.ProductAttributeDto;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.ProductImportErrorDto;
+import com.nexcommerce.product.dto.ProductImportJobDto;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.importer.ProductImportFormat;
+import com.nexcommerce.product.importer.ProductImportJob;
+import com.nexcommerce.product.importer.ProductImportReader;
+import com.nexcommerce.product.importer.ProductImportRow;
+import com.nexcommerce.product.importer.ProductImportWriter;
+import com.nexcommerce.product.inventory.StockLedger;
+import com.nexcommerce.product.model.AttributeDefinition;
+import com.nexcommerce.product.model.Brand;
+import com.nexcommerce.product.model.Category;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.ProductImportJobState;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.AttributeDefinitionRepository;
+import com.nexcommerce.product.repository.BrandRepository;
+import com.nexcommerce.product.repository.CategoryRepository;
+import com.nexcommerce.product.repository.ProductImportJobStateRepository;
+import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.service.ProductImportService;
+import com.nexcommerce.product.util.AttributeValues;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * 产品批量导入服务实现
+ * 导入流水线：流式解析 -> 逐行校验（类别、品牌和属性定义在任务开始时一次性加载到内存）
+ * -> 按批（默认1000行）在一个事务中批量检查SKU并用JDBC批量插入产品、属性和图片。
+ * 一批写入失败时（如并发创建了相同SKU）拆成单行重试，定位到具体出错的行。
+ * 任务状态保存在数据库中（product_import_jobs），执行任务的实例定期保存进度快照，
+ * 请求落到任一实例都能查询进度；本实例执行中的任务直接读取内存中的最新进度。
+ */
+@Service
+@Slf4j
+public class ProductImportServiceImpl implements ProductImportService {
+
+    /**
+     * 已结束任务的保留时长
+     */
+    private static final Duration JOB_RETENTION = Duration.ofHours(24);
+
+    /**
+     * 未结束的任务超过该时长没有保存快照时，视为执行它的实例已停止
+     */
+    private static final Duration JOB_STALE_AFTER = Duration.ofMinutes(1);
+
+    private static final TypeReference<List<ProductImportErrorDto>> ERROR_LIST = new TypeReference<>() {
+    };
+
+    private final ProductRepository productRepository;
+    private final ProductImportJobStateRepository jobStateRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final AttributeDefinitionRepository attributeDefinitionRepository;
+    private final ProductImportWriter importWriter;
+    private final StockLedger stockLedger;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int batchSize;
+    private final ExecutorService importExecutor;
+
+    /**
+     * 本实例上未结束（或结束后状态尚未保存）的任务
+     */
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProductImportServiceImpl(ProductRepository productRepository,
+                                    ProductImportJobStateRepository jobStateRepository,
+                                    CategoryRepository categoryRepository,
+                                    BrandRepository brandRepository,
+                                    AttributeDefinitionRepository attributeDefinitionRepository,
+                                    ProductImportWriter importWriter,
+                                    StockLedger stockLedger,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${product.import.batch-size:1000}") int batchSize,
+                                    @Value("${product.import.threads:2}") int threads) {
+        this.productRepository = productRepository;
+        this.jobStateRepository = jobStateRepository;
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.attributeDefinitionRepository = attributeDefinitionRepository;
+        this.importWriter = importWriter;
+        this.stockLedger = stockLedger;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.batchSize = batchSize;
+        this.importExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "product-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    /**
+     * 提交导入任务
+     *
+     * @param format 文件格式
+     * @param input 文件内容
+     * @return 已提交的任务
+     * @throws IOException 读取请求体失败
+     */
+    @Override
+    public ProductImportJobDto startImport(ProductImportFormat format, InputStream input) throws IOException {
+        purgeFinishedJobs();
+
+        // 请求结束后请求体不可再读，先落盘再由后台线程处理
+        Path file = Files.createTempFile("product-import-", "." + format.name().toLowerCase(Locale.ROOT));
+        try {
+            Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString(), format);
+        try {
+            saveState(job);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+        log.info("提交产品导入任务，ID: {}, 格式: {}, 文件大小: {}字节", job.getId(), format, Files.size(file));
+        importExecutor.execute(() -> run(job, file));
+        return job.toDto();
+    }
+
+    /**
+     * 获取导入任务进度
+     *
+     * @param jobId 任务ID
+     * @return 任务进度
+     */
+    @Override
+    public ProductImportJobDto getJob(String jobId) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.toDto();
+        }
+        ProductImportJobState state = jobStateRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("导入任务不存在，ID: " + jobId));
+        return toDto(state);
+    }
+
+    /**
+     * 定期保存本实例任务的进度快照，同时作为任务仍在执行的心跳；结束的任务保存后不再跟踪
+     */
+    @Scheduled(fixedDelayString = "${product.import.progress-interval-ms:2000}")
+    public void saveProgress() {
+        for (ProductImportJob job : jobs.values()) {
+            try {
+                persist(job);
+            } catch (RuntimeException e) {
+                log.warn("保存导入任务进度失败，ID: {}", job.getId(), e);
+            }
+        }
+    }
+
+    private void run(ProductImportJob job, Path file) {
+        job.start();
+        long start = System.currentTimeMillis();
+        try (ProductImportReader reader = ProductImportReader.open(job.getFormat(), Files.newInputStream(file), objectMapper)) {
+            ReferenceData references = readOnlyTransactionTemplate.execute(status -> loadReferenceData());
+            Set<String> seenSkus = new HashSet<>();
+            List<ProductImportRow> batch = new ArrayList<>(batchSize);
+            ProductImportRow row;
+            while ((row = reader.next()) != null) {
+                if (row.getError() != null) {
+                    job.failed(row.getRowNumber(), null, row.getError());
+                    continue;
+                }
+                String error = prepare(row.getProduct(), references);
+                if (error == null && !seenSkus.add(row.getProduct().getSku())) {
+                    error = "文件中SKU重复: " + row.getProduct().getSku();
+                }
+                if (error != null) {
+                    job.failed(row.getRowNumber(), row.getProduct().getSku(), error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    writeBatch(job, batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            writeBatch(job, batch);
+            job.complete();
+            ProductImportJobDto result = job.toDto();
+            log.info("产品导入任务完成，ID: {}, 成功: {}, 失败: {}, 耗时: {}ms", job.getId(),
+                    result.getImportedRows(), result.getFailedRows(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("产品导入任务失败，ID: {}", job.getId(), e);
+            job.abort(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("删除导入临时文件失败: {}", file, e);
+            }
+            try {
+                persist(job);
+            } catch (RuntimeException e) {
+                log.warn("保存导入任务结果失败，稍后重试，ID: {}", job.getId(), e);
+            }
+        }
+    }
+
+    /**
+     * 保存任务快照；任务已结束时保存后不再由本实例跟踪
+     */
+    private void persist(ProductImportJob job) {
+        saveState(job);
+        if (job.isFinished()) {
+            jobs.remove(job.getId(), job);
+        }
+    }
+
+    /**
+     * 快照与保存在任务锁内进行，定时保存与结束时的保存不会以较旧的快照覆盖较新的
+     */
+    private void saveState(ProductImportJob job) {
+        synchronized (job) {
+            ProductImportJobDto snapshot = job.toDto();
+            String errors;
+            try {
+                errors = objectMapper.writeValueAsString(snapshot.getErrors());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("序列化导入错误失败，任务ID: " + job.getId(), e);
+            }
+            jobStateRepository.save(ProductImportJobState.builder()
+                    .id(snapshot.getId())
+                    .format(snapshot.getFormat())
+                    .status(snapshot.getStatus())
+                    .importedRows(snapshot.getImportedRows())
+                    .failedRows(snapshot.getFailedRows())
+                    .rowsPerSecond(snapshot.getRowsPerSecond())
+                    .startedAt(snapshot.getStartedAt())
+                    .finishedAt(snapshot.getFinishedAt())
+                    .message(snapshot.getMessage())
+                    .errors(errors)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private ProductImportJobDto toDto(ProductImportJobState state) {
+        List<ProductImportErrorDto> errors;
+        try {
+            errors = state.getErrors() != null ? objectMapper.readValue(state.getErrors(), ERROR_LIST) : new ArrayList<>();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("解析导入错误失败，任务ID: " + state.getId(), e);
+        }
+        ProductImportJobDto dto = ProductImportJobDto.builder()
+                .id(state.getId())
+                .format(state.getFormat())
+                .status(state.getStatus())
+                .processedRows(state.getImportedRows() + state.getFailedRows())
+                .importedRows(state.getImportedRows())
+                .failedRows(state.getFailedRows())
+                .rowsPerSecond(state.getRowsPerSecond())
+                .startedAt(state.getStartedAt())
+                .finishedAt(state.getFinishedAt())
+                .message(state.getMessage())
+                .errors(errors)
+                .build();
+        boolean finished = state.getStatus() == ProductImportJob.Status.COMPLETED
+                || state.getStatus() == ProductImportJob.Status.FAILED;
+        if (!finished && state.getUpdatedAt().isBefore(LocalDateTime.now().minus(JOB_STALE_AFTER))) {
+            dto.setStatus(ProductImportJob.Status.FAILED);
+            dto.setMessage("执行导入任务的实例已停止，任务未完成");
+        }
+        return dto;
+    }
+
+    /**
+     * 校验一行并解析类别和品牌，补全默认值
+     *
+     * @return 错误原因，校验通过时返回 null
+     */
+    private String prepare(ProductDto product, ReferenceData references) {
+        if (product.getStatus() == null) {
+            product.setStatus(Product.ProductStatus.ACTIVE);
+        }
+        if (product.getAttributes() == null) {
+            product.setAttributes(new HashSet<>());
+        }
+        if (product.getImages() == null) {
+            product.setImages(new HashSet<>());
+        }
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining("; "));
+        }
+
+        if (product.getCategoryId() != null || product.getCategoryName() != null) {
+            Long categoryId = references.resolve(product.getCategoryId(), product.getCategoryName(),
+                    references.categoryNames, references.categoryIds);
+            if (categoryId == null) {
+                return "类别不存在或名称不唯一: " + (product.getCategoryId() != null ? product.getCategoryId() : product.getCategoryName());
+            }
+            product.setCategoryId(categoryId);
+            product.setCategoryName(references.categoryNames.get(categoryId));
+        }
+        if (product.getBrandId() != null || product.getBrandName() != null) {
+            Long brandId = references.resolve(product.getBrandId(), product.getBrandName(),
+                    references.brandNames, references.brandIds);
+            if (brandId == null) {
+                return "品牌不存在或名称不唯一: " + (product.getBrandId() != null ? product.getBrandId() : product.getBrandName());
+            }
+            product.setBrandId(brandId);
+            product.setBrandName(references.brandNames.get(brandId));
+        }
+
+        Set<String> attributeNames = new HashSet<>();
+        for (ProductAttributeDto attribute : product.getAttributes()) {
+            if (attribute.getAttributeName() == null || attribute.getAttributeName().isBlank()
+                    || attribute.getAttributeValue() == null) {
+                return "属性名和属性值不能为空";
+            }
+            if (!attributeNames.add(attribute.getAttributeName())) {
+                return "属性名重复: " + attribute.getAttributeName();
+            }
+            try {
+                AttributeValues.checkValue(references.attributeDefinitions.get(attribute.getAttributeName()),
+                        attribute.getAttributeName(), attribute.getAttributeValue());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        if (product.getImages().stream().anyMatch(image -> image.getImageUrl() == null || image.getImageUrl().isBlank())) {
+            return "图片URL不能为空";
+        }
+        return null;
+    }
+
+    /**
+     * 写入一批已校验的行；整批失败时逐行重试
+     */
+    private void writeBatch(ProductImportJob job, List<ProductImportRow> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            write(job, batch);
+        } catch (DataAccessException e) {
+            if (batch.size() == 1) {
+                ProductImportRow row = batch.get(0);
+                job.failed(row.getRowNumber(), row.getProduct().getSku(),
+                        "写入失败: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                return;
+            }
+            log.warn("导入批次写入失败，改为逐行写入，任务ID: {}, 批大小: {}", job.getId(), batch.size(), e);
+            for (ProductImportRow row : batch) {
+                writeBatch(job, List.of(row));
+            }
+        }
+    }
+
+    private void write(ProductImportJob job, List<ProductImportRow> batch) {
+        List<ProductImportRow> duplicates = transactionTemplate.execute(status -> {
+            Set<String> existing = new HashSet<>(productRepository.findExistingSkus(
+                    batch.stream().map(row -> row.getProduct().getSku()).collect(Collectors.toList())));
+            List<ProductImportRow> existingRows = new ArrayList<>();
+            List<ProductDto> products = new ArrayList<>(batch.size());
+            LocalDateTime now = LocalDateTime.now();
+            for (ProductImportRow row : batch) {
+                if (existing.contains(row.getProduct().getSku())) {
+                    existingRows.add(row);
+                } else {
+                    row.getProduct().setCreatedAt(now);
+                    row.getProduct().setUpdatedAt(now);
+                    products.add(row.getProduct());
+                }
+            }
+
+            importWriter.insert(products);
+            for (ProductDto product : products) {
+                stockLedger.record(product.getId(), product.getQuantity(), StockLedgerEntry.MovementReason.INITIAL,
+                        "import:" + job.getId());
+                eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, product.getId(), product));
+            }
+            return existingRows;
+        });
+        for (ProductImportRow row : duplicates) {
+            job.failed(row.getRowNumber(), row.getProduct().getSku(), "SKU已存在: " + row.getProduct().getSku());
+        }
+        job.imported(batch.size() - duplicates.size());
+    }
+
+    private ReferenceData loadReferenceData() {
+        ReferenceData references = new ReferenceData();
+        for (Category category : categoryRepository.findAll()) {
+            references.categoryNames.put(category.getId(), category.getName());
+            references.addName(references.categoryIds, category.getName(), category.getId());
+        }
+        for (Brand brand : brandRepository.findAll()) {
+            references.brandNames.put(brand.getId(), brand.getName());
+            references.addName(references.brandIds, brand.getName(), brand.getId());
+        }
+        for (AttributeDefinition definition : attributeDefinitionRepository.findAll()) {
+            references.attributeDefinitions.put(definition.getAttributeName(), definition);
+        }
+        return references;
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(JOB_RETENTION);
+        transactionTemplate.executeWithoutResult(status -> jobStateRepository.deleteFinishedBefore(cutoff));
+    }
+
+    /**
+     * 导入期间使用的参考数据快照
+     */
+    private static class ReferenceData {
+
+        private final Map<Long, String> categoryNames = new HashMap<>();
+        private final Map<Long, String> brandNames = new HashMap<>();
+
+        /**
+         * 小写名称 -> ID；名称重复时值为 null，按名称引用时视为无法解析
+         */
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final Map<String, Long> brandIds = new HashMap<>();
+
+        private final Map<String, AttributeDefinition> attributeDefinitions = new HashMap<>();
+
+        void addName(Map<String, Long> ids, String name, Long id) {
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            if (ids.containsKey(key)) {
+                ids.put(key, null);
+            } else {
+                ids.put(key, id);
+            }
+        }
+
+        Long resolve(Long id, String name, Map<Long, String> names, Map<String, Long> ids) {
+            if (id != null) {
+                return names.containsKey(id) ? id : null;
+            }
+            return ids.get(name.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -1,25 +1,81 @@
 package com.nexcommerce.product.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.cache.ProductCache;
+import com.nexcommerce.product.dto.BatchStockAdjustmentDto;
+import com.nexcommerce.product.dto.CategoryBreadcrumbDto;
+import com.nexcommerce.product.dto.CursorPageDto;
+import com.nexcommerce.product.dto.FacetedPageDto;
+import com.nexcommerce.product.dto.ProductBatchGetDto;
+import com.nexcommerce.product.dto.ProductBatchItemDto;
+import com.nexcommerce.product.dto.ProductExportDto;
 import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.ProductSummaryDto;
+import com.nexcommerce.product.dto.StockAdjustmentDto;
+import com.nexcommerce.product.dto.StockAdjustmentResultDto;
+import com.nexcommerce.product.dto.SuggestionDto;
+import com.nexcommerce.product.event.ProductAttributesChangedEvent;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.event.ProductImagesChangedEvent;
+import com.nexcommerce.product.inventory.HotStockManager;
+import com.nexcommerce.product.inventory.LowStockAlertStream;
+import com.nexcommerce.product.inventory.LowStockIndex;
+import com.nexcommerce.product.inventory.StockLedger;
+import com.nexcommerce.product.inventory.StockUpdateCoalescer;
 import com.nexcommerce.product.mapper.ProductMapper;
 import com.nexcommerce.product.model.Brand;
 import com.nexcommerce.product.model.Category;
 import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
 import com.nexcommerce.product.repository.BrandRepository;
 import com.nexcommerce.product.repository.CategoryRepository;
+import com.nexcommerce.product.repository.ProductExportQuery;
+import com.nexcommerce.product.repository.ProductKeysetQuery;
 import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.repository.ProductSortKey;
+import com.nexcommerce.product.search.FacetQuery;
+import com.nexcommerce.product.search.ProductFacetIndex;
+import com.nexcommerce.product.search.ProductSearchIndex;
+import com.nexcommerce.product.search.SuggestionIndex;
+import com.nexcommerce.product.service.CategoryService;
 import com.nexcommerce.product.service.ProductService;
+import com.nexcommerce.product.util.ProductCursor;
+import com.nexcommerce.product.util.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * 产品服务实现类
@@ -29,10 +85,32 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductServiceImpl implements ProductService {
 
+    /**
+     * 批量获取产品的单次请求上限
+     */
+    private static final int BATCH_GET_MAX_SIZE = 1000;
+
+    /**
+     * 批量获取时每条 IN 查询的参数个数上限
+     */
+    private static final int BATCH_GET_CHUNK_SIZE = 500;
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final BrandRepository brandRepository;
+    private final CategoryService categoryService;
     private final ProductMapper productMapper;
+    private final ProductCache productCache;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductFacetIndex productFacetIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final HotStockManager hotStockManager;
+    private final LowStockIndex lowStockIndex;
+    private final LowStockAlertStream lowStockAlertStream;
+    private final StockUpdateCoalescer stockUpdateCoalescer;
+    private final StockLedger stockLedger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
 
     /**
      * 创建新产品
@@ -69,8 +147,12 @@ public class ProductServiceImpl implements ProductService {
         
         // 保存产品
         Product savedProduct = productRepository.save(product);
+        stockLedger.record(savedProduct.getId(), savedProduct.getQuantity(), StockLedgerEntry.MovementReason.INITIAL, null);
+        
+        ProductDto savedDto = productMapper.toDto(savedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, savedDto.getId(), savedDto));
         
-        return productMapper.toDto(savedProduct);
+        return savedDto;
     }
 
     /**
@@ -80,14 +162,16 @@ public class ProductServiceImpl implements ProductService {
      * @return 产品DTO
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDto getProductById(Long id) {
         log.info("获取产品，ID: {}", id);
         
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
-        
-        return productMapper.toDto(product);
+        // SUPPORTS传播级别：缓存命中时不开启物理事务，也不占用数据库连接
+        return productCache.getById(id, key -> {
+            Product product = productRepository.findById(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + key));
+            return productMapper.toDto(product);
+        });
     }
 
     /**
@@ -97,14 +181,105 @@ public class ProductServiceImpl implements ProductService {
      * @return 产品DTO
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public ProductDto getProductBySku(String sku) {
         log.info("根据SKU获取产品: {}", sku);
         
-        Product product = productRepository.findBySku(sku)
-                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，SKU: " + sku));
+        return productCache.getBySku(sku, () -> {
+            Product product = productRepository.findBySku(sku)
+                    .orElseThrow(() -> new ResourceNotFoundException("产品不存在，SKU: " + sku));
+            return productMapper.toDto(product);
+        });
+    }
+
+    /**
+     * 获取产品所属类别的面包屑
+     * 产品从缓存读取，祖先链由类别树快照给出
+     *
+     * @param id 产品ID
+     * @return 从顶级类别到产品所属类别的祖先链，产品没有类别时为空
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<CategoryBreadcrumbDto> getProductBreadcrumb(Long id) {
+        ProductDto product = getProductById(id);
+        return product.getCategoryId() != null ? categoryService.getBreadcrumb(product.getCategoryId()) : List.of();
+    }
+
+    /**
+     * 批量获取产品
+     * 先批量查询缓存，未命中的部分按 IN 查询分段加载（JOIN获取类别和品牌，图片和属性按批加载）后写回缓存
+     *
+     * @param request 产品ID列表或SKU列表
+     * @return 获取结果（保持请求顺序）
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public List<ProductBatchItemDto> getProductsBatch(ProductBatchGetDto request) {
+        List<Long> ids = request.getIds() != null ? request.getIds() : List.of();
+        List<String> skus = request.getSkus() != null ? request.getSkus() : List.of();
+        if (ids.isEmpty() == skus.isEmpty()) {
+            throw new IllegalArgumentException("ids 和 skus 必须且只能指定其中一个");
+        }
+        int size = Math.max(ids.size(), skus.size());
+        if (size > BATCH_GET_MAX_SIZE) {
+            throw new IllegalArgumentException("单次最多获取" + BATCH_GET_MAX_SIZE + "个产品，请求: " + size);
+        }
+        log.info("批量获取产品，ID数量: {}, SKU数量: {}", ids.size(), skus.size());
         
-        return productMapper.toDto(product);
+        if (!ids.isEmpty()) {
+            Map<Long, ProductDto> found = findAllByIdCached(ids.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+            return ids.stream()
+                    .map(id -> {
+                        ProductDto product = id != null ? found.get(id) : null;
+                        return new ProductBatchItemDto(id, null, product != null, product);
+                    })
+                    .collect(Collectors.toList());
+        }
+        
+        Map<String, ProductDto> found = findAllBySkuCached(skus.stream().filter(Objects::nonNull).collect(Collectors.toSet()));
+        return skus.stream()
+                .map(sku -> {
+                    ProductDto product = sku != null ? found.get(sku) : null;
+                    return new ProductBatchItemDto(null, sku, product != null, product);
+                })
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, ProductDto> findAllByIdCached(Set<Long> ids) {
+        Map<Long, ProductDto> found = productCache.getAllPresentById(ids);
+        List<Long> missing = ids.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        List<ProductDto> loaded = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<Long> chunk = missing.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, missing.size()));
+            productRepository.findByIdIn(chunk).forEach(product -> loaded.add(productMapper.toDto(product)));
+        }
+        productCache.putAll(loaded);
+        loaded.forEach(product -> found.put(product.getId(), product));
+        return found;
+    }
+
+    private Map<String, ProductDto> findAllBySkuCached(Set<String> skus) {
+        Map<String, ProductDto> found = new HashMap<>();
+        Map<String, Long> cachedIds = productCache.getIdsPresentBySku(skus);
+        Map<Long, ProductDto> cached = productCache.getAllPresentById(cachedIds.values());
+        cachedIds.forEach((sku, id) -> {
+            ProductDto product = cached.get(id);
+            // SKU映射可能已过期（SKU被修改），以产品本身的SKU为准
+            if (product != null && sku.equals(product.getSku())) {
+                found.put(sku, product);
+            }
+        });
+        
+        List<String> missing = skus.stream().filter(sku -> !found.containsKey(sku)).collect(Collectors.toList());
+        List<ProductDto> loaded = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += BATCH_GET_CHUNK_SIZE) {
+            List<String> chunk = missing.subList(from, Math.min(from + BATCH_GET_CHUNK_SIZE, missing.size()));
+            productRepository.findWithCategoryAndBrandBySkuIn(chunk).forEach(product -> loaded.add(productMapper.toDto(product)));
+        }
+        productCache.putAll(loaded);
+        loaded.forEach(product -> found.put(product.getSku(), product));
+        return found;
     }
 
     /**
@@ -123,6 +298,54 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 游标分页获取所有产品（不执行COUNT查询）
+     *
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> scrollProducts(String cursor, int size, String sortBy, String direction) {
+        log.info("游标分页获取所有产品，每页大小: {}, 排序: {} {}", size, sortBy, direction);
+        
+        return scroll(ProductKeysetQuery.builder(), cursor, size, sortBy, direction);
+    }
+
+    /**
+     * 以NDJSON格式导出产品目录
+     *
+     * @param query 导出条件
+     * @param output 输出流
+     * @return 导出的产品数量
+     * @throws IOException 写出失败（如客户端断开）
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductExportQuery query, OutputStream output) throws IOException {
+        log.info("导出产品目录，条件: {}", query);
+        long start = System.currentTimeMillis();
+        
+        long count = 0;
+        ObjectWriter writer = objectMapper.writerFor(ProductExportDto.class);
+        try (Stream<ProductExportDto> products = productRepository.streamForExport(query)) {
+            Iterator<ProductExportDto> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                // 逐行序列化为字节，不持有已写出的行；输出流缓冲满时自动刷出到客户端
+                output.write(writer.writeValueAsBytes(iterator.next()));
+                output.write('\n');
+                count++;
+            }
+        }
+        output.flush();
+        
+        log.info("产品目录导出完成，数量: {}, 耗时: {}ms", count, System.currentTimeMillis() - start);
+        return count;
+    }
+
     /**
      * 更新产品
      *
@@ -135,9 +358,10 @@ public class ProductServiceImpl implements ProductService {
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         log.info("更新产品，ID: {}", id);
         
-        // 获取现有产品
-        Product product = productRepository.findById(id)
+        // 获取现有产品（加行锁，直接修改库存时与并发的库存调整串行，保证流水与库存一致）
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        int previousQuantity = product.getQuantity();
         
         // 如果修改了SKU，检查是否已存在
         if (productDto.getSku() != null && !productDto.getSku().equals(product.getSku()) &&
@@ -145,6 +369,15 @@ public class ProductServiceImpl implements ProductService {
             throw new IllegalArgumentException("SKU已存在: " + productDto.getSku());
         }
         
+        // 热点库存模式下库存由计数存储维护，不能直接覆盖
+        if (productDto.getQuantity() != null && !productDto.getQuantity().equals(product.getQuantity())
+                && HotStockManager.isHot(product)) {
+            throw new IllegalArgumentException("产品处于热点库存模式，不能直接修改库存，ID: " + id);
+        }
+        
+        // 淘汰缓存（更新前后的SKU都需要淘汰）
+        productCache.evict(id, product.getSku(), productDto.getSku());
+        
         // 更新基本属性
         productMapper.updateProductFromDto(productDto, product);
         
@@ -166,8 +399,12 @@ public class ProductServiceImpl implements ProductService {
         
         // 保存更新
         Product updatedProduct = productRepository.save(product);
+        stockLedger.record(id, updatedProduct.getQuantity() - previousQuantity, StockLedgerEntry.MovementReason.MANUAL_UPDATE, null);
+        
+        ProductDto updatedDto = productMapper.toDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id, updatedDto));
         
-        return productMapper.toDto(updatedProduct);
+        return updatedDto;
     }
 
     /**
@@ -181,11 +418,15 @@ public class ProductServiceImpl implements ProductService {
         log.info("删除产品，ID: {}", id);
         
         // 检查产品是否存在
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("产品不存在，ID: " + id);
-        }
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        
+        productCache.evict(id, product.getSku());
         
-        productRepository.deleteById(id);
+        ProductDto deletedDto = productMapper.toDto(product);
+        productRepository.delete(product);
+        TransactionUtils.afterCommit(() -> hotStockManager.disable(id));
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id, deletedDto));
     }
 
     /**
@@ -200,9 +441,48 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductDto> searchProductsByName(String name, Pageable pageable) {
         log.info("按名称搜索产品: {}", name);
         
-        Page<Product> productPage = productRepository.findByNameContaining(name, pageable);
+        // 索引未就绪（启动重建中）时回退到数据库模糊查询
+        if (!productSearchIndex.isReady()) {
+            Page<Product> productPage = productRepository.findByNameContaining(name, pageable);
+            return productPage.map(productMapper::toDto);
+        }
         
-        return productPage.map(productMapper::toDto);
+        ProductSearchIndex.SearchHits hits = productSearchIndex.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+        
+        // 按相关度顺序返回
+        return new PageImpl<>(findAllInOrder(hits.getProductIds()), pageable, hits.getTotal());
+    }
+
+    /**
+     * 搜索补全
+     *
+     * @param prefix 用户输入的前缀
+     * @param limit 返回数量
+     * @return 补全建议列表
+     */
+    @Override
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        // 补全是输入过程中的辅助功能，索引未就绪时返回空结果而不是回退到数据库
+        if (!suggestionIndex.isReady()) {
+            return List.of();
+        }
+        return suggestionIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * 按ID列表的顺序加载产品（索引中存在但已被删除的产品被忽略）
+     */
+    private List<ProductDto> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Product> productsById = productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::toDto)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -227,6 +507,26 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 获取类别及其所有后代类别下的产品（分页）
+     * 按先序区间一次范围查询，不需要逐个子类别查询
+     *
+     * @param categoryId 类别ID
+     * @param pageable 分页参数
+     * @return 产品分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductDto> getProductsByCategorySubtree(Long categoryId, Pageable pageable) {
+        log.info("获取类别子树下的产品，类别ID: {}", categoryId);
+
+        if (!categoryRepository.existsById(categoryId)) {
+            throw new ResourceNotFoundException("类别不存在，ID: " + categoryId);
+        }
+
+        return productRepository.findByCategorySubtree(categoryId, pageable).map(productMapper::toDto);
+    }
+
     /**
      * 根据品牌ID获取产品（分页）
      *
@@ -265,6 +565,20 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 获取特价产品摘要（分页）
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDto> getProductSummariesOnSale(Pageable pageable) {
+        log.info("获取特价产品摘要");
+        
+        return productRepository.findSummariesBySalePriceIsNotNull(pageable);
+    }
+
     /**
      * 获取价格在指定范围内的产品（分页）
      *
@@ -283,6 +597,22 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 获取价格在指定范围内的产品摘要（分页）
+     *
+     * @param minPrice 最低价格
+     * @param maxPrice 最高价格
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDto> getProductSummariesByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, Pageable pageable) {
+        log.info("按价格范围获取产品摘要: {} - {}", minPrice, maxPrice);
+        
+        return productRepository.findSummariesByPriceBetween(minPrice, maxPrice, pageable);
+    }
+
     /**
      * 获取推荐产品（分页）
      *
@@ -299,6 +629,20 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 获取推荐产品摘要（分页）
+     *
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDto> getFeaturedProductSummaries(Pageable pageable) {
+        log.info("获取推荐产品摘要");
+        
+        return productRepository.findSummariesByIsFeatured(true, pageable);
+    }
+
     /**
      * 根据状态获取产品（分页）
      *
@@ -316,6 +660,21 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 根据状态获取产品摘要（分页）
+     *
+     * @param status 产品状态
+     * @param pageable 分页参数
+     * @return 产品摘要分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductSummaryDto> getProductSummariesByStatus(Product.ProductStatus status, Pageable pageable) {
+        log.info("按状态获取产品摘要: {}", status);
+        
+        return productRepository.findSummariesByStatus(status, pageable);
+    }
+
     /**
      * 根据多个条件筛选产品（分页）
      *
@@ -336,6 +695,116 @@ public class ProductServiceImpl implements ProductService {
         return productPage.map(productMapper::toDto);
     }
 
+    /**
+     * 根据多个条件游标分页筛选产品（不执行COUNT查询）
+     *
+     * @param categoryId 类别ID（可选）
+     * @param brandId 品牌ID（可选）
+     * @param minPrice 最低价格（可选）
+     * @param maxPrice 最高价格（可选）
+     * @param cursor 续页令牌（第一页为空）
+     * @param size 每页大小
+     * @param sortBy 排序字段
+     * @param direction 排序方向
+     * @return 产品游标分页结果
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPageDto<ProductDto> scrollProductsByFilters(Long categoryId, Long brandId, BigDecimal minPrice, BigDecimal maxPrice,
+                                                             String cursor, int size, String sortBy, String direction) {
+        log.info("游标分页筛选产品: 类别ID={}, 品牌ID={}, 价格范围={}-{}", categoryId, brandId, minPrice, maxPrice);
+        
+        ProductKeysetQuery.ProductKeysetQueryBuilder query = ProductKeysetQuery.builder()
+                .categoryId(categoryId)
+                .brandId(brandId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .status(Product.ProductStatus.ACTIVE);
+        
+        return scroll(query, cursor, size, sortBy, direction);
+    }
+
+    /**
+     * 分面筛选产品（分页）
+     *
+     * @param query 筛选条件
+     * @param pageable 分页参数
+     * @return 产品分页列表及分面计数
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedPageDto<ProductDto> filterProductsByFacets(FacetQuery query, Pageable pageable) {
+        log.info("分面筛选产品: {}", query);
+        
+        if (!productFacetIndex.isReady()) {
+            throw new IllegalStateException("分面筛选索引正在构建，请稍后重试");
+        }
+        
+        ProductFacetIndex.FacetResult result = productFacetIndex.filter(query, (int) pageable.getOffset(), pageable.getPageSize());
+        
+        return FacetedPageDto.<ProductDto>builder()
+                .content(new PageImpl<>(findAllInOrder(result.getProductIds()), pageable, result.getTotal()))
+                .categoryCounts(result.getCategoryCounts())
+                .brandCounts(result.getBrandCounts())
+                .statusCounts(result.getStatusCounts())
+                .attributeCounts(result.getAttributeCounts())
+                .build();
+    }
+
+    /**
+     * 执行游标分页查询
+     * 多取一行用于判断是否还有下一页，续页令牌由最后一行的 (排序值, ID) 生成
+     */
+    private CursorPageDto<ProductDto> scroll(ProductKeysetQuery.ProductKeysetQueryBuilder queryBuilder,
+                                             String cursor, int size, String sortBy, String direction) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("每页大小必须为正数");
+        }
+        ProductSortKey sortKey = ProductSortKey.fromProperty(sortBy);
+        Sort.Direction sortDirection = Sort.Direction.fromString(direction);
+        
+        queryBuilder.sortKey(sortKey).direction(sortDirection).limit(size + 1);
+        if (cursor != null && !cursor.isEmpty()) {
+            ProductCursor after = ProductCursor.decode(cursor, sortKey, sortDirection);
+            queryBuilder.afterId(after.getId()).afterValue(after.getValue());
+        }
+        
+        List<Product> products = productRepository.findByKeyset(queryBuilder.build());
+        boolean hasNext = products.size() > size;
+        if (hasNext) {
+            products = products.subList(0, size);
+        }
+        
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = products.get(products.size() - 1);
+            nextCursor = new ProductCursor(sortKey, sortDirection, last.getId(), sortValueOf(last, sortKey)).encode();
+        }
+        
+        return CursorPageDto.<ProductDto>builder()
+                .content(productMapper.toDtoList(products))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 获取产品在指定排序字段上的值（字符串形式）
+     */
+    private String sortValueOf(Product product, ProductSortKey sortKey) {
+        switch (sortKey) {
+            case NAME:
+                return product.getName();
+            case PRICE:
+                return product.getPrice().toPlainString();
+            case CREATED_AT:
+                return product.getCreatedAt().toString();
+            default:
+                return product.getId().toString();
+        }
+    }
+
     /**
      * 更新产品库存
      *
@@ -346,49 +815,349 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ProductDto updateProductStock(Long id, Integer quantityChange) {
-        log.info("更新产品库存，ID: {}, 变化量: {}", id, quantityChange);
+        return updateProductStock(id, quantityChange, StockLedgerEntry.MovementReason.ADJUSTMENT, null);
+    }
+
+    /**
+     * 更新产品库存并记录流水
+     *
+     * @param id 产品ID
+     * @param quantityChange 库存变化（正数增加，负数减少）
+     * @param reason 变动原因
+     * @param correlationId 关联ID（可为空）
+     * @return 更新后的产品DTO
+     */
+    @Override
+    @Transactional
+    public ProductDto updateProductStock(Long id, Integer quantityChange, StockLedgerEntry.MovementReason reason,
+                                         String correlationId) {
+        log.info("更新产品库存，ID: {}, 变化量: {}, 原因: {}", id, quantityChange, reason);
         
-        Product product = productRepository.findById(id)
+        // 已知处于热点模式时不加行锁，计数存储的调整在模式关闭后返回 NOT_HOT，此时改走加锁路径
+        if (hotStockManager.isKnownHot(id)) {
+            long available = adjustHotCounter(id, quantityChange);
+            if (!HotStockManager.isNotHot(available)) {
+                return hotStockResult(id, quantityChange, available);
+            }
+        }
+        
+        // 开启和关闭热点模式都持有行锁，加锁后的检查结果在本事务结束前不会改变；
+        // 不能用回滚当前事务的方式改道，本方法可能运行在调用方的事务中（如库存预留）
+        Product locked = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        if (HotStockManager.isHot(locked)) {
+            return adjustHotStock(id, quantityChange);
+        }
         
-        // 计算新库存
-        int newQuantity = product.getQuantity() + quantityChange;
+        // 校验和更新在同一条条件UPDATE中完成
+        int updated = productRepository.adjustQuantity(id, quantityChange,
+                Product.ProductStatus.OUT_OF_STOCK, Product.ProductStatus.ACTIVE, LocalDateTime.now());
+        if (updated == 0) {
+            throw new IllegalArgumentException("库存不足，当前库存: " + locked.getQuantity() + ", 请求减少: " + Math.abs(quantityChange));
+        }
+        stockLedger.record(id, quantityChange, reason, correlationId);
+        
+        Product updatedProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        productCache.evict(id, updatedProduct.getSku());
         
-        // 验证新库存不能为负数
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException("库存不足，当前库存: " + product.getQuantity() + ", 请求减少: " + Math.abs(quantityChange));
+        ProductDto updatedDto = productMapper.toDto(updatedProduct);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, id, updatedDto));
+        
+        return updatedDto;
+    }
+
+    /**
+     * 更新产品库存（合并提交）
+     *
+     * @param id 产品ID
+     * @param quantityChange 库存变化（正数增加，负数减少）
+     * @param correlationId 关联ID（可为空）
+     * @return 携带本次调整后库存的产品DTO
+     */
+    @Override
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public CompletableFuture<ProductDto> updateProductStockCoalesced(Long id, Integer quantityChange, String correlationId) {
+        // 计数存储的调整返回 NOT_HOT 时产品已不在热点模式，交给合并提交（其在行锁下再次判断）
+        if (hotStockManager.isKnownHot(id)) {
+            try {
+                long available = adjustHotCounter(id, quantityChange);
+                if (!HotStockManager.isNotHot(available)) {
+                    return CompletableFuture.completedFuture(hotStockResult(id, quantityChange, available));
+                }
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return stockUpdateCoalescer.submit(id, quantityChange, StockLedgerEntry.MovementReason.ADJUSTMENT, correlationId);
+    }
+
+    /**
+     * 在热点库存计数存储中调整库存，返回的产品DTO携带调整后的可售库存
+     * 计数存储不受数据库事务控制，调整成功后登记回滚补偿：外层事务（如库存预留）回滚时撤销本次调整
+     */
+    private ProductDto adjustHotStock(Long id, Integer quantityChange) {
+        return hotStockResult(id, quantityChange, adjustHotCounter(id, quantityChange));
+    }
+
+    /**
+     * 将计数存储的调整结果转换为产品DTO，库存不足或产品已不在热点模式时抛出异常
+     */
+    private ProductDto hotStockResult(Long id, Integer quantityChange, long available) {
+        if (HotStockManager.isInsufficient(available)) {
+            throw new IllegalArgumentException("库存不足，请求减少: " + Math.abs(quantityChange));
         }
+        if (HotStockManager.isNotHot(available)) {
+            throw new IllegalStateException("产品库存模式切换中，请重试，ID: " + id);
+        }
+        return getProductById(id).toBuilder()
+                .quantity(Math.toIntExact(available))
+                .build();
+    }
+
+    /**
+     * 调整热点库存计数，成功时登记事务回滚后的补偿
+     *
+     * @return 调整后的可售库存，或 NOT_HOT / INSUFFICIENT
+     */
+    private long adjustHotCounter(Long id, int quantityChange) {
+        long available = hotStockManager.adjust(id, quantityChange);
+        if (available >= 0) {
+            TransactionUtils.afterRollback(() -> hotStockManager.revert(id, quantityChange));
+        }
+        return available;
+    }
+
+    /**
+     * 开启热点库存模式
+     * 对产品行加锁读取库存作为计数初值；事务回滚时撤销开启
+     *
+     * @param id 产品ID
+     * @return 产品DTO
+     */
+    @Override
+    @Transactional
+    public ProductDto enableHotStock(Long id) {
+        log.info("开启热点库存模式，ID: {}", id);
         
-        // 更新库存
-        product.setQuantity(newQuantity);
+        Product product = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        if (HotStockManager.isHot(product)) {
+            throw new IllegalArgumentException("产品已处于热点库存模式，ID: " + id);
+        }
+        if (!hotStockManager.enable(id, product.getQuantity())) {
+            // 计数存储中残留未标记产品的计数（开启事务回滚后尚未清理），由回写任务关闭后再开启
+            throw new IllegalStateException("产品库存模式切换中，请重试，ID: " + id);
+        }
+        TransactionUtils.afterRollback(() -> hotStockManager.disable(id));
+        product.setHotStock(true);
+        
+        return productMapper.toDto(product);
+    }
+
+    /**
+     * 关闭热点库存模式
+     * 对产品行加锁后取出未回写的变化量并写入数据库
+     *
+     * @param id 产品ID
+     * @return 回写后的产品DTO
+     */
+    @Override
+    @Transactional
+    public ProductDto disableHotStock(Long id) {
+        log.info("关闭热点库存模式，ID: {}", id);
         
-        // 如果库存为0，更新产品状态
-        if (newQuantity == 0) {
-            product.setStatus(Product.ProductStatus.OUT_OF_STOCK);
-        } else if (product.getStatus() == Product.ProductStatus.OUT_OF_STOCK) {
-            product.setStatus(Product.ProductStatus.ACTIVE);
+        Product locked = productRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        if (!HotStockManager.isHot(locked)) {
+            throw new IllegalArgumentException("产品未处于热点库存模式，ID: " + id);
+        }
+        long delta = hotStockManager.disable(id).orElseGet(() -> {
+            log.error("计数存储中没有热点库存计数，未回写的变化量已丢失，产品ID: {}", id);
+            return 0L;
+        });
+        productRepository.updateHotStock(id, false);
+        if (delta != 0 && productRepository.adjustQuantity(id, Math.toIntExact(delta),
+                Product.ProductStatus.OUT_OF_STOCK, Product.ProductStatus.ACTIVE, LocalDateTime.now()) == 0) {
+            log.error("关闭热点库存模式时回写后库存为负，已放弃变化量，产品ID: {}, 变化量: {}", id, delta);
+        } else {
+            stockLedger.record(id, delta, StockLedgerEntry.MovementReason.HOT_STOCK_FLUSH, null);
         }
         
-        Product updatedProduct = productRepository.save(product);
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("产品不存在，ID: " + id));
+        productCache.evict(id, product.getSku());
+        
+        ProductDto productDto = productMapper.toDto(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, id, productDto));
+        
+        return productDto;
+    }
+
+    /**
+     * 批量调整库存
+     * 所有明细在同一事务中按产品ID升序处理：先对产品行加锁，再在锁内判断是否处于热点模式，
+     * 开启热点模式同样持有行锁，因此判断结果在本事务结束前不会改变，不会出现数据库和计数存储同时被扣减。
+     * 并发的批量请求以相同顺序获取行锁，不会互相死锁。计数存储中的调整在事务回滚时（包括整批回滚）撤销。
+     * 同一SKU出现多次时依次调整，结果中的库存和状态为整批执行后的值。
+     *
+     * @param request 批量库存调整请求
+     * @return 每行的调整结果，顺序与请求明细一致
+     */
+    @Override
+    @Transactional
+    public List<StockAdjustmentResultDto> adjustStockBatch(BatchStockAdjustmentDto request) {
+        List<StockAdjustmentDto> items = request.getItems();
+        log.info("批量调整库存，明细数: {}", items.size());
+        
+        Set<String> skus = items.stream().map(StockAdjustmentDto::getSku).collect(Collectors.toSet());
+        Map<String, Long> idsBySku = productRepository.findBySkuIn(skus).stream()
+                .collect(Collectors.toMap(Product::getSku, Product::getId));
+        
+        List<Integer> lockOrder = IntStream.range(0, items.size()).boxed()
+                .sorted(Comparator.comparing(index -> idsBySku.getOrDefault(items.get(index).getSku(), Long.MAX_VALUE)))
+                .collect(Collectors.toList());
+        
+        StockAdjustmentResultDto[] results = new StockAdjustmentResultDto[items.size()];
+        Map<Long, Boolean> hotByLockedId = new HashMap<>();
+        Set<Long> adjustedIds = new HashSet<>();
+        boolean anyFailed = false;
+        LocalDateTime now = LocalDateTime.now();
+        for (int index : lockOrder) {
+            StockAdjustmentDto item = items.get(index);
+            Long productId = idsBySku.get(item.getSku());
+            StockAdjustmentResultDto result = StockAdjustmentResultDto.builder()
+                    .sku(item.getSku())
+                    .productId(productId)
+                    .quantityChange(item.getQuantityChange())
+                    .build();
+            if (productId != null && !hotByLockedId.containsKey(productId)) {
+                Product locked = productRepository.findByIdForUpdate(productId).orElse(null);
+                if (locked == null) {
+                    // 查询SKU之后被删除
+                    productId = null;
+                } else {
+                    hotByLockedId.put(productId, HotStockManager.isHot(locked));
+                }
+            }
+            if (productId == null) {
+                result.setMessage("产品不存在，SKU: " + item.getSku());
+                anyFailed = true;
+            } else if (hotByLockedId.get(productId)) {
+                long available = adjustHotCounter(productId, item.getQuantityChange());
+                if (available >= 0) {
+                    result.setSuccess(true);
+                    result.setQuantity(Math.toIntExact(available));
+                } else {
+                    result.setMessage(HotStockManager.isInsufficient(available)
+                            ? "库存不足，请求减少: " + Math.abs(item.getQuantityChange())
+                            : "产品库存模式切换中，请重试");
+                    anyFailed = true;
+                }
+            } else if (productRepository.adjustQuantity(productId, item.getQuantityChange(),
+                    Product.ProductStatus.OUT_OF_STOCK, Product.ProductStatus.ACTIVE, now) == 0) {
+                result.setMessage("库存不足，请求减少: " + Math.abs(item.getQuantityChange()));
+                anyFailed = true;
+            } else {
+                result.setSuccess(true);
+                adjustedIds.add(productId);
+                stockLedger.record(productId, item.getQuantityChange(), StockLedgerEntry.MovementReason.ADJUSTMENT,
+                        request.getCorrelationId());
+            }
+            results[index] = result;
+        }
+        
+        if (anyFailed && Boolean.TRUE.equals(request.getAllOrNothing())) {
+            // 计数存储中的调整由回滚补偿撤销
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (StockAdjustmentResultDto result : results) {
+                if (result.isSuccess()) {
+                    result.setSuccess(false);
+                    result.setMessage("其他明细调整失败，整批已回滚");
+                }
+            }
+            log.info("批量调整库存失败，整批回滚");
+            return Arrays.asList(results);
+        }
         
-        return productMapper.toDto(updatedProduct);
+        // 加载调整后的库存和状态，淘汰缓存并发布变更事件
+        Map<Long, Product> adjusted = adjustedIds.isEmpty() ? Map.of() : productRepository.findByIdIn(adjustedIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (StockAdjustmentResultDto result : results) {
+            Product product = result.isSuccess() ? adjusted.get(result.getProductId()) : null;
+            if (product != null) {
+                result.setQuantity(product.getQuantity());
+                result.setStatus(product.getStatus());
+            }
+        }
+        for (Product product : adjusted.values()) {
+            productCache.evict(product.getId(), product.getSku());
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED,
+                    product.getId(), productMapper.toDto(product)));
+        }
+        
+        return Arrays.asList(results);
     }
 
     /**
      * 获取低库存产品
+     * 从低库存索引中范围读取产品ID后按ID加载；索引未就绪时回退到数据库查询
      *
      * @param threshold 库存阈值
-     * @return 低库存产品列表
+     * @return 低库存产品列表（按库存升序）
      */
     @Override
     @Transactional(readOnly = true)
     public List<ProductDto> getLowStockProducts(Integer threshold) {
         log.info("获取低库存产品，阈值: {}", threshold);
         
+        if (lowStockIndex.isReady()) {
+            return findAllInOrder(lowStockIndex.findProductIdsBelow(threshold));
+        }
+        
         List<Product> products = productRepository.findByQuantityLessThanAndStatusNot(threshold, Product.ProductStatus.DISCONTINUED);
         
         return products.stream()
+                .sorted(Comparator.comparing(Product::getQuantity).thenComparing(Product::getId))
                 .map(productMapper::toDto)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * 订阅低库存告警
+     *
+     * @return 告警事件流
+     */
+    @Override
+    public SseEmitter subscribeLowStockAlerts() {
+        return lowStockAlertStream.subscribe();
+    }
+
+    /**
+     * 产品属性变更时在同一事务中刷新产品的更新时间并淘汰其缓存
+     *
+     * @param event 产品属性变更事件
+     */
+    @EventListener
+    @Transactional
+    public void onProductAttributesChanged(ProductAttributesChangedEvent event) {
+        touchProduct(event.getProductId());
+    }
+
+    /**
+     * 产品图片变更时在同一事务中刷新产品的更新时间并淘汰其缓存
+     *
+     * @param event 产品图片变更事件
+     */
+    @EventListener
+    @Transactional
+    public void onProductImagesChanged(ProductImagesChangedEvent event) {
+        touchProduct(event.getProductId());
+    }
+
+    private void touchProduct(Long id) {
+        if (productRepository.touch(id, LocalDateTime.now()) > 0) {
+            productCache.evict(id);
+        }
+    }
 }
@@ -0,0 +1,276 @@
+package com.nexcommerce.product.service.impl;
+
+import com.nexcommerce.product.dto.StockLedgerEntryDto;
+import com.nexcommerce.product.dto.StockMismatchDto;
+import com.nexcommerce.product.dto.StockReconciliationDto;
+import com.nexcommerce.product.inventory.ProductQuantity;
+import com.nexcommerce.product.inventory.StockDeltaSum;
+import com.nexcommerce.product.inventory.StockLedger;
+import com.nexcommerce.product.mapper.StockLedgerEntryMapper;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.model.StockSnapshot;
+import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.repository.StockLedgerEntryRepository;
+import com.nexcommerce.product.repository.StockSnapshotRepository;
+import com.nexcommerce.product.service.StockLedgerService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * 库存流水服务实现
+ * 快照和对账都按产品ID分段处理，每段一个事务；对账的各段在线程池中并行执行，
+ * 每段在同一个只读事务中读取库存、快照和流水，三者来自同一个一致性读视图。
+ */
+@Service
+@Slf4j
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private static final long CHUNK_SIZE = 1000;
+
+    /**
+     * 只压缩写入超过该时长的流水：流水在事务提交前才插入，
+     * ID较小的流水晚于ID较大的流水提交的窗口极短，滞后压缩可避免其被快照跳过
+     */
+    private static final Duration COMPACTION_LAG = Duration.ofMinutes(5);
+
+    private final StockLedgerEntryRepository ledgerRepository;
+    private final StockSnapshotRepository snapshotRepository;
+    private final ProductRepository productRepository;
+    private final StockLedgerEntryMapper ledgerEntryMapper;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final ExecutorService reconcileExecutor;
+
+    public StockLedgerServiceImpl(StockLedgerEntryRepository ledgerRepository,
+                                  StockSnapshotRepository snapshotRepository,
+                                  ProductRepository productRepository,
+                                  StockLedgerEntryMapper ledgerEntryMapper,
+                                  StockLedger stockLedger,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${product.inventory.ledger.reconcile-threads:4}") int reconcileThreads) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.productRepository = productRepository;
+        this.ledgerEntryMapper = ledgerEntryMapper;
+        this.stockLedger = stockLedger;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.reconcileExecutor = Executors.newFixedThreadPool(reconcileThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-reconcile");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconcileExecutor.shutdown();
+    }
+
+    /**
+     * 获取产品的库存流水
+     *
+     * @param productId 产品ID
+     * @param pageable 分页参数
+     * @return 流水分页列表
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<StockLedgerEntryDto> getEntries(Long productId, Pageable pageable) {
+        log.info("获取库存流水，产品ID: {}", productId);
+        return ledgerRepository.findByProductIdOrderByIdDesc(productId, pageable).map(ledgerEntryMapper::toDto);
+    }
+
+    /**
+     * 计算产品在指定时刻的库存：该时刻之前最近的快照加上其后到该时刻为止的流水
+     *
+     * @param productId 产品ID
+     * @param time 时刻
+     * @return 库存
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long getStockAt(Long productId, LocalDateTime time) {
+        log.info("计算历史库存，产品ID: {}, 时刻: {}", productId, time);
+        
+        StockSnapshot snapshot = snapshotRepository
+                .findFirstByProductIdAndSnapshotAtLessThanEqualOrderByLastEntryIdDesc(productId, time)
+                .orElse(null);
+        long base = snapshot != null ? snapshot.getQuantity() : 0;
+        long afterEntryId = snapshot != null ? snapshot.getLastEntryId() : 0;
+        return base + ledgerRepository.sumDeltaAfter(productId, afterEntryId, time);
+    }
+
+    /**
+     * 定时压缩流水
+     */
+    @Scheduled(cron = "${product.inventory.ledger.compaction-cron:0 0 * * * *}")
+    public void scheduledCompaction() {
+        compact();
+    }
+
+    /**
+     * 将新流水压缩为各产品的快照
+     *
+     * @return 生成的快照数量
+     */
+    @Override
+    public int compact() {
+        long start = System.currentTimeMillis();
+        Long maxProductId = productRepository.findMaxId();
+        Long maxEntryId = ledgerRepository.findMaxIdCreatedBefore(LocalDateTime.now().minus(COMPACTION_LAG));
+        if (maxProductId == null || maxEntryId == null) {
+            return 0;
+        }
+        int created = 0;
+        for (long from = 1; from <= maxProductId; from += CHUNK_SIZE) {
+            long chunkFrom = from;
+            long chunkTo = from + CHUNK_SIZE - 1;
+            Integer chunkCreated = transactionTemplate.execute(status -> compactChunk(chunkFrom, chunkTo, maxEntryId));
+            created += chunkCreated != null ? chunkCreated : 0;
+        }
+        log.info("库存流水压缩完成，截止流水ID: {}, 新快照数: {}, 耗时: {}ms", maxEntryId, created, System.currentTimeMillis() - start);
+        return created;
+    }
+
+    private int compactChunk(long fromProductId, long toProductId, long maxEntryId) {
+        List<StockDeltaSum> sums = ledgerRepository.sumSinceLatestSnapshotUpTo(fromProductId, toProductId, maxEntryId);
+        if (sums.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> latest = latestSnapshotQuantities(fromProductId, toProductId);
+        LocalDateTime now = LocalDateTime.now();
+        List<StockSnapshot> snapshots = sums.stream()
+                .map(sum -> StockSnapshot.builder()
+                        .productId(sum.getProductId())
+                        .quantity(Math.toIntExact(latest.getOrDefault(sum.getProductId(), 0) + sum.getDelta()))
+                        .lastEntryId(sum.getLastEntryId())
+                        .snapshotAt(now)
+                        .build())
+                .collect(Collectors.toList());
+        snapshotRepository.saveAll(snapshots);
+        return snapshots.size();
+    }
+
+    /**
+     * 并行核对 products.quantity 与流水推算的库存
+     *
+     * @return 对账结果
+     */
+    @Override
+    public StockReconciliationDto reconcile() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+        log.info("开始库存对账");
+        
+        Long maxProductId = productRepository.findMaxId();
+        List<CompletableFuture<ChunkResult>> chunks = new ArrayList<>();
+        for (long from = 1; maxProductId != null && from <= maxProductId; from += CHUNK_SIZE) {
+            long chunkFrom = from;
+            long chunkTo = from + CHUNK_SIZE - 1;
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> readOnlyTransactionTemplate.execute(status -> reconcileChunk(chunkFrom, chunkTo)),
+                    reconcileExecutor));
+        }
+        
+        long checked = 0;
+        List<StockMismatchDto> mismatches = new ArrayList<>();
+        for (CompletableFuture<ChunkResult> chunk : chunks) {
+            ChunkResult result = chunk.join();
+            checked += result.checked;
+            mismatches.addAll(result.mismatches);
+        }
+        
+        long duration = System.currentTimeMillis() - start;
+        if (mismatches.isEmpty()) {
+            log.info("库存对账完成，产品数: {}, 无差异, 耗时: {}ms", checked, duration);
+        } else {
+            log.warn("库存对账完成，产品数: {}, 差异数: {}, 耗时: {}ms", checked, mismatches.size(), duration);
+        }
+        return StockReconciliationDto.builder()
+                .startedAt(startedAt)
+                .durationMillis(duration)
+                .checkedProducts(checked)
+                .mismatches(mismatches)
+                .build();
+    }
+
+    private ChunkResult reconcileChunk(long fromProductId, long toProductId) {
+        List<ProductQuantity> products = productRepository.findQuantitiesByIdBetween(fromProductId, toProductId);
+        if (products.isEmpty()) {
+            return new ChunkResult(0, List.of());
+        }
+        Map<Long, Integer> latest = latestSnapshotQuantities(fromProductId, toProductId);
+        Map<Long, Long> deltas = ledgerRepository.sumSinceLatestSnapshot(fromProductId, toProductId).stream()
+                .collect(Collectors.toMap(StockDeltaSum::getProductId, StockDeltaSum::getDelta));
+        
+        List<StockMismatchDto> mismatches = new ArrayList<>();
+        for (ProductQuantity product : products) {
+            long ledgerQuantity = latest.getOrDefault(product.getProductId(), 0) + deltas.getOrDefault(product.getProductId(), 0L);
+            if (ledgerQuantity != product.getQuantity()) {
+                mismatches.add(new StockMismatchDto(product.getProductId(), product.getQuantity(), ledgerQuantity));
+            }
+        }
+        return new ChunkResult(products.size(), mismatches);
+    }
+
+    private Map<Long, Integer> latestSnapshotQuantities(long fromProductId, long toProductId) {
+        // 同一流水位置可能有重复快照（并发压缩），数量相同，任取其一
+        return snapshotRepository.findLatestByProductIdBetween(fromProductId, toProductId).stream()
+                .collect(Collectors.toMap(StockSnapshot::getProductId, StockSnapshot::getQuantity, (first, second) -> first));
+    }
+
+    /**
+     * 为启用流水前已存在的产品写入期初余额
+     * 逐个对产品行加锁后检查并写入，与并发的库存更新串行，期初余额与之后的流水不会重叠
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recordOpeningBalances() {
+        List<Long> productIds = ledgerRepository.findProductIdsWithoutEntries();
+        if (productIds.isEmpty()) {
+            return;
+        }
+        log.info("写入库存期初余额，产品数: {}", productIds.size());
+        for (Long productId : productIds) {
+            transactionTemplate.executeWithoutResult(status ->
+                    productRepository.findByIdForUpdate(productId).ifPresent(product -> {
+                        if (!ledgerRepository.existsByProductId(productId)) {
+                            stockLedger.record(productId, product.getQuantity(),
+                                    StockLedgerEntry.MovementReason.OPENING_BALANCE, null);
+                        }
+                    }));
+        }
+    }
+
+    private static class ChunkResult {
+        private final long checked;
+        private final List<StockMismatchDto> mismatches;
+
+        ChunkResult(long checked, List<StockMismatchDto> mismatches) {
+            this.checked = checked;
+            this.mismatches = mismatches;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.nexcommerce.product.service.impl;
+
+import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.dto.StockAvailabilityDto;
+import com.nexcommerce.product.dto.StockReservationDto;
+import com.nexcommerce.product.inventory.HotStockManager;
+import com.nexcommerce.product.inventory.ReservationExpiryTracker;
+import com.nexcommerce.product.mapper.StockReservationMapper;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.model.StockReservation;
+import com.nexcommerce.product.repository.ProductRepository;
+import com.nexcommerce.product.repository.StockReservationRepository;
+import com.nexcommerce.product.service.ProductService;
+import com.nexcommerce.product.service.StockReservationService;
+import com.nexcommerce.product.util.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 库存预留服务实现
+ * 预留在创建时即扣减产品库存，因此产品库存就是可售库存，读取为 O(1)；
+ * 过期由 {@link ReservationExpiryTracker} 的时间轮驱动；时间轮只在登记预留的实例内存中，
+ * 另有低频的兜底扫描，由存活的实例处理已停机实例上登记的过期预留。
+ */
+@Service
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final long DEFAULT_TTL_SECONDS = 15 * 60;
+    private static final long MAX_TTL_SECONDS = 24 * 60 * 60;
+    private static final long EXPIRE_RETRY_SECONDS = 5;
+    private static final long SWEEP_GRACE_SECONDS = 30;
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    private final StockReservationRepository reservationRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final StockReservationMapper reservationMapper;
+    private final HotStockManager hotStockManager;
+    private final ReservationExpiryTracker expiryTracker;
+    private final TransactionTemplate transactionTemplate;
+
+    public StockReservationServiceImpl(StockReservationRepository reservationRepository,
+                                       ProductRepository productRepository,
+                                       ProductService productService,
+                                       StockReservationMapper reservationMapper,
+                                       HotStockManager hotStockManager,
+                                       ReservationExpiryTracker expiryTracker,
+                                       PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.productRepository = productRepository;
+        this.productService = productService;
+        this.reservationMapper = reservationMapper;
+        this.hotStockManager = hotStockManager;
+        this.expiryTracker = expiryTracker;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 预留库存
+     *
+     * @param reservationDto 预留请求
+     * @return 创建的预留
+     */
+    @Override
+    @Transactional
+    public StockReservationDto reserve(StockReservationDto reservationDto) {
+        Long productId = reservationDto.getProductId();
+        Integer quantity = reservationDto.getQuantity();
+        long ttlSeconds = reservationDto.getTtlSeconds() != null ? reservationDto.getTtlSeconds() : DEFAULT_TTL_SECONDS;
+        log.info("预留库存，产品ID: {}, 数量: {}, 持有时长: {}秒", productId, quantity, ttlSeconds);
+        
+        if (ttlSeconds > MAX_TTL_SECONDS) {
+            throw new IllegalArgumentException("持有时长不能超过" + MAX_TTL_SECONDS + "秒");
+        }
+        
+        // 先保存预留以获得ID，作为库存流水的关联ID
+        StockReservation reservation = StockReservation.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockReservation.ReservationStatus.HELD)
+                .expiresAt(LocalDateTime.now().plusSeconds(ttlSeconds))
+                .build();
+        StockReservation savedReservation = reservationRepository.save(reservation);
+        
+        // 扣减库存（库存不足或产品不存在时抛出异常）；热点模式下的扣减由 updateProductStock 登记回滚补偿
+        productService.updateProductStock(productId, -quantity, StockLedgerEntry.MovementReason.RESERVATION,
+                correlationId(savedReservation.getId()));
+        TransactionUtils.afterCommit(() -> expiryTracker.track(savedReservation.getId(), savedReservation.getExpiresAt()));
+        
+        return reservationMapper.toDto(savedReservation);
+    }
+
+    /**
+     * 确认预留
+     *
+     * @param id 预留ID
+     * @return 确认后的预留
+     */
+    @Override
+    @Transactional
+    public StockReservationDto confirm(Long id) {
+        log.info("确认库存预留，ID: {}", id);
+        
+        int updated = reservationRepository.transitionIfNotExpired(id, StockReservation.ReservationStatus.HELD,
+                StockReservation.ReservationStatus.CONFIRMED, LocalDateTime.now());
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("库存预留不存在，ID: " + id));
+        if (updated == 0) {
+            throw new IllegalArgumentException(reservation.getStatus() == StockReservation.ReservationStatus.HELD
+                    ? "库存预留已过期，ID: " + id
+                    : "库存预留已处理，当前状态: " + reservation.getStatus());
+        }
+        TransactionUtils.afterCommit(() -> expiryTracker.untrack(id));
+        
+        return reservationMapper.toDto(reservation);
+    }
+
+    /**
+     * 释放预留
+     *
+     * @param id 预留ID
+     * @return 释放后的预留
+     */
+    @Override
+    @Transactional
+    public StockReservationDto release(Long id) {
+        log.info("释放库存预留，ID: {}", id);
+        
+        int updated = reservationRepository.transition(id, StockReservation.ReservationStatus.HELD,
+                StockReservation.ReservationStatus.RELEASED, LocalDateTime.now());
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("库存预留不存在，ID: " + id));
+        if (updated == 0) {
+            throw new IllegalArgumentException("库存预留已处理，当前状态: " + reservation.getStatus());
+        }
+        restock(reservation, StockLedgerEntry.MovementReason.RESERVATION_RELEASE);
+        TransactionUtils.afterCommit(() -> expiryTracker.untrack(id));
+        
+        return reservationMapper.toDto(reservation);
+    }
+
+    /**
+     * 根据ID获取预留
+     *
+     * @param id 预留ID
+     * @return 预留
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public StockReservationDto getReservation(Long id) {
+        log.info("获取库存预留，ID: {}", id);
+        
+        StockReservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("库存预留不存在，ID: " + id));
+        return reservationMapper.toDto(reservation);
+    }
+
+    /**
+     * 获取产品的可售库存
+     * 热点模式下读取计数存储，否则读取产品缓存中的库存
+     *
+     * @param productId 产品ID
+     * @return 可售库存
+     */
+    @Override
+    public StockAvailabilityDto getAvailability(Long productId) {
+        return hotStockManager.available(productId)
+                .map(available -> new StockAvailabilityDto(productId, available, true))
+                .orElseGet(() -> new StockAvailabilityDto(productId,
+                        productService.getProductById(productId).getQuantity().longValue(), false));
+    }
+
+    /**
+     * 处理到期的预留
+     */
+    @Scheduled(fixedDelayString = "${product.inventory.reservation.tick-ms:1000}")
+    public void expireDueReservations() {
+        List<Long> expired = expiryTracker.pollExpired();
+        for (Long id : expired) {
+            expire(id);
+        }
+    }
+
+    /**
+     * 启动后重新登记所有持有中的预留，停机期间已到期的立即过期
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverHeldReservations() {
+        List<StockReservation> held = reservationRepository.findByStatus(StockReservation.ReservationStatus.HELD);
+        for (StockReservation reservation : held) {
+            if (!expiryTracker.track(reservation.getId(), reservation.getExpiresAt())) {
+                expiryTracker.untrack(reservation.getId());
+                expire(reservation.getId());
+            }
+        }
+        log.info("已恢复持有中的库存预留，数量: {}", held.size());
+    }
+
+    /**
+     * 兜底扫描已过期仍为持有中的预留
+     * 登记预留的实例停机后，其时间轮随之丢失，预留会一直扣着库存直到该实例重启；
+     * 这里由任一存活实例处理过期超过宽限期的预留（正常情况下它们已由所在实例的时间轮处理）。
+     * 过期为条件更新，多个实例同时扫描到同一预留时只有一个会归还库存。
+     */
+    @Scheduled(fixedDelayString = "${product.inventory.reservation.sweep-interval-ms:60000}",
+            initialDelayString = "${product.inventory.reservation.sweep-interval-ms:60000}")
+    public void expireOverdueReservations() {
+        LocalDateTime overdueBefore = LocalDateTime.now().minusSeconds(SWEEP_GRACE_SECONDS);
+        int expired = 0;
+        List<Long> ids;
+        boolean allExpired = true;
+        do {
+            ids = reservationRepository.findIdsByStatusAndExpiresAtBefore(StockReservation.ReservationStatus.HELD,
+                    overdueBefore, PageRequest.of(0, SWEEP_BATCH_SIZE));
+            for (Long id : ids) {
+                expiryTracker.untrack(id);
+                allExpired &= expire(id);
+            }
+            expired += ids.size();
+            // 有处理失败的预留时停止本轮，避免反复读到同一批；失败的预留已重新登记，稍后重试
+        } while (ids.size() == SWEEP_BATCH_SIZE && allExpired);
+        if (expired > 0) {
+            log.warn("兜底扫描处理了未被时间轮过期的库存预留，数量: {}", expired);
+        }
+    }
+
+    /**
+     * 过期预留并归还库存
+     *
+     * @return 处理失败（已重新登记稍后重试）时返回 false
+     */
+    private boolean expire(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                int updated = reservationRepository.transition(id, StockReservation.ReservationStatus.HELD,
+                        StockReservation.ReservationStatus.EXPIRED, LocalDateTime.now());
+                if (updated == 0) {
+                    return;
+                }
+                reservationRepository.findById(id)
+                        .ifPresent(reservation -> restock(reservation, StockLedgerEntry.MovementReason.RESERVATION_EXPIRE));
+                log.info("库存预留已过期，ID: {}", id);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("处理过期库存预留失败，{}秒后重试，ID: {}", EXPIRE_RETRY_SECONDS, id, e);
+            expiryTracker.track(id, LocalDateTime.now().plusSeconds(EXPIRE_RETRY_SECONDS));
+            return false;
+        }
+    }
+
+    /**
+     * 归还预留的库存（产品已删除时跳过）
+     */
+    private void restock(StockReservation reservation, StockLedgerEntry.MovementReason reason) {
+        if (productRepository.existsById(reservation.getProductId())) {
+            productService.updateProductStock(reservation.getProductId(), reservation.getQuantity(), reason,
+                    correlationId(reservation.getId()));
+        }
+    }
+
+    private static String correlationId(Long reservationId) {
+        return "reservation:" + reservationId;
+    }
+}
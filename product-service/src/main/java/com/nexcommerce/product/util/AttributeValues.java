@@ -0,0 +1,96 @@
+package com.nexcommerce.product.util;
+
+import com.nexcommerce.product.model.AttributeDefinition;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 属性值解析工具类
+ * 数值型属性值允许带单位后缀和千位分隔符（如 "5000mAh"、"1,200mAh"、"6.1 英寸"）
+ */
+public final class AttributeValues {
+
+    /**
+     * 数值（整数部分可按三位用逗号分组，至多一个小数点）后接可选的单位；
+     * 单位不能以数字、小数点或逗号开头，"6.1.2"、"1,20" 这类值整体无法解析，而不是只取前一段
+     */
+    private static final Pattern NUMERIC_PATTERN = Pattern.compile(
+            "^\\s*([-+]?(?:\\d{1,3}(?:,\\d{3})+|\\d+)(?:\\.\\d+)?)\\s*([^\\d.,\\s].*)?$");
+
+    private AttributeValues() {
+    }
+
+    /**
+     * 解析数值型属性值
+     *
+     * @param value 属性值
+     * @return 数值，无法解析时返回 null
+     */
+    public static Double parseNumeric(String value) {
+        if (value == null) {
+            return null;
+        }
+        Matcher matcher = NUMERIC_PATTERN.matcher(value);
+        return matcher.matches() ? Double.valueOf(matcher.group(1).replace(",", "")) : null;
+    }
+
+    /**
+     * 解析布尔型属性值（true/false、yes/no、是/否）
+     *
+     * @param value 属性值
+     * @return 布尔值，无法解析时返回 null
+     */
+    public static Boolean parseBoolean(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "true":
+            case "yes":
+            case "是":
+                return Boolean.TRUE;
+            case "false":
+            case "no":
+            case "否":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 按属性定义校验属性值，没有定义的属性不校验
+     *
+     * @param definition 属性定义（可为空）
+     * @param attributeName 属性名
+     * @param attributeValue 属性值
+     * @throws IllegalArgumentException 属性值与定义的类型不符
+     */
+    public static void checkValue(AttributeDefinition definition, String attributeName, String attributeValue) {
+        if (definition == null) {
+            return;
+        }
+        switch (definition.getType()) {
+            case NUMERIC:
+                if (parseNumeric(attributeValue) == null) {
+                    throw new IllegalArgumentException("属性 " + attributeName + " 的值必须为数值: " + attributeValue);
+                }
+                break;
+            case BOOLEAN:
+                if (parseBoolean(attributeValue) == null) {
+                    throw new IllegalArgumentException("属性 " + attributeName + " 的值必须为布尔值: " + attributeValue);
+                }
+                break;
+            case ENUM:
+                if (!definition.getAllowedValues().contains(attributeValue)) {
+                    throw new IllegalArgumentException("属性 " + attributeName + " 的值必须为 " +
+                            definition.getAllowedValues() + " 之一: " + attributeValue);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.nexcommerce.product.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 类别物化路径工具类
+ * 路径为从顶级类别到自身的ID序列，形如 /1/5/12/；以 / 结尾，
+ * 因此"A是B的祖先或B自身"等价于B的路径以A的路径为前缀，不会把 /1/ 误判为 /12/ 的前缀
+ */
+public final class CategoryPaths {
+
+    private static final String SEPARATOR = "/";
+
+    private CategoryPaths() {
+    }
+
+    /**
+     * 生成类别的路径
+     *
+     * @param parentPath 父类别路径，顶级类别为 null
+     * @param categoryId 类别ID
+     * @return 类别路径
+     */
+    public static String childPath(String parentPath, Long categoryId) {
+        return (parentPath != null ? parentPath : SEPARATOR) + categoryId + SEPARATOR;
+    }
+
+    /**
+     * 判断路径对应的类别是否是祖先路径对应的类别自身或其后代
+     *
+     * @param path 类别路径
+     * @param ancestorPath 祖先类别路径
+     * @return 是否为自身或后代
+     */
+    public static boolean isSelfOrDescendant(String path, String ancestorPath) {
+        return path.startsWith(ancestorPath);
+    }
+
+    /**
+     * 解析路径中的类别ID
+     *
+     * @param path 类别路径
+     * @return 从顶级类别到自身的ID列表
+     */
+    public static List<Long> ids(String path) {
+        List<Long> ids = new ArrayList<>();
+        for (String part : path.split(SEPARATOR)) {
+            if (!part.isEmpty()) {
+                ids.add(Long.valueOf(part));
+            }
+        }
+        return ids;
+    }
+}
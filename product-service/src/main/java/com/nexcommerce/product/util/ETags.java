@@ -0,0 +1,29 @@
+package com.nexcommerce.product.util;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+/**
+ * ETag生成工具类
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * 由版本组成部分生成强ETag（各部分拼接后取MD5），组成部分相同则ETag相同
+     *
+     * @param parts 版本组成部分（null 按 "null" 处理）
+     * @return 带双引号的强ETag
+     */
+    public static String strong(Object... parts) {
+        StringJoiner joiner = new StringJoiner("|");
+        for (Object part : parts) {
+            joiner.add(String.valueOf(part));
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(joiner.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,60 @@
+package com.nexcommerce.product.util;
+
+import com.nexcommerce.product.repository.ProductSortKey;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 产品游标
+ * 由最后一行的 (排序值, ID) 以及排序方式组成，对外编码为不透明的Base64令牌
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final ProductSortKey sortKey;
+    private final Sort.Direction direction;
+    private final Long id;
+    private final String value;
+
+    /**
+     * 编码为令牌
+     *
+     * @return 续页令牌
+     */
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + (value != null ? value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码令牌，并校验其排序方式与本次请求一致
+     *
+     * @param token 续页令牌
+     * @param sortKey 本次请求的排序字段
+     * @param direction 本次请求的排序方向
+     * @return 游标
+     */
+    public static ProductCursor decode(String token, ProductSortKey sortKey, Sort.Direction direction) {
+        ProductCursor cursor;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 4);
+            cursor = new ProductCursor(ProductSortKey.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]),
+                    Long.valueOf(parts[2]), parts[3]);
+            cursor.sortKey.parse(cursor.value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的分页游标: " + token);
+        }
+        if (cursor.sortKey != sortKey || cursor.direction != direction) {
+            throw new IllegalArgumentException("分页游标与排序参数不匹配");
+        }
+        return cursor;
+    }
+}
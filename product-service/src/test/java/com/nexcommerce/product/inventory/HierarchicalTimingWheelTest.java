@@ -0,0 +1,90 @@
+package com.nexcommerce.product.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 分层时间轮
+ * 任务恰好在到期tick被取出，跨层降级和超出最高层范围的任务也不会提前或延后
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final int WHEEL_SIZE = 4;
+    private static final int LEVELS = 3;
+
+    @Test
+    void dueItemIsReturnedFromAdd() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(WHEEL_SIZE, LEVELS, 100);
+        List<String> expired = new ArrayList<>();
+
+        wheel.add("past", 99, expired);
+        wheel.add("now", 100, expired);
+        wheel.add("next", 101, expired);
+
+        assertThat(expired).containsExactly("past", "now");
+        assertThat(wheel.advanceTo(100)).isEmpty();
+        assertThat(wheel.advanceTo(101)).containsExactly("next");
+    }
+
+    @Test
+    void itemsExpireExactlyAtDeadlineAcrossLevels() {
+        // 起始tick不与高层的槽边界对齐
+        long start = 1_000_003;
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(WHEEL_SIZE, LEVELS, start);
+        Random random = new Random(7);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        List<Integer> expired = new ArrayList<>();
+        // 最高层覆盖 4^3 = 64 个tick，部分任务超出范围
+        for (int item = 0; item < 500; item++) {
+            long deadline = start + 1 + random.nextInt(200);
+            deadlines.put(item, deadline);
+            wheel.add(item, deadline, expired);
+        }
+        assertThat(expired).isEmpty();
+
+        for (long tick = start + 1; tick <= start + 201; tick++) {
+            long now = tick;
+            List<Integer> due = wheel.advanceTo(now);
+            assertThat(due).allSatisfy(item -> assertThat(deadlines.get(item)).isEqualTo(now));
+            assertThat(due).hasSize((int) deadlines.values().stream().filter(deadline -> deadline == now).count());
+        }
+    }
+
+    @Test
+    void itemsAddedWhileAdvancingUseCurrentTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(WHEEL_SIZE, LEVELS, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.advanceTo(37);
+
+        wheel.add("a", 38, expired);
+        wheel.add("b", 60, expired);
+        wheel.add("c", 37 + 64 + 10, expired);
+
+        assertThat(wheel.advanceTo(38)).containsExactly("a");
+        assertThat(wheel.advanceTo(59)).isEmpty();
+        assertThat(wheel.advanceTo(60)).containsExactly("b");
+        assertThat(wheel.advanceTo(110)).isEmpty();
+        assertThat(wheel.advanceTo(111)).containsExactly("c");
+    }
+
+    @Test
+    void advancingSeveralTicksReturnsEverythingDue() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(WHEEL_SIZE, LEVELS, 0);
+        List<String> expired = new ArrayList<>();
+        wheel.add("a", 3, expired);
+        wheel.add("b", 17, expired);
+        wheel.add("c", 70, expired);
+        wheel.add("d", 300, expired);
+
+        assertThat(wheel.advanceTo(20)).containsExactlyInAnyOrder("a", "b");
+        assertThat(wheel.advanceTo(299)).containsExactly("c");
+        assertThat(wheel.advanceTo(1000)).containsExactly("d");
+    }
+}
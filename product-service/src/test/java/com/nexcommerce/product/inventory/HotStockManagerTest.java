@@ -0,0 +1,140 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.product.cache.ProductCache;
+import com.nexcommerce.product.mapper.ProductMapper;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 热点库存回写
+ * 回写事务未提交时取出的变化量不能丢失
+ */
+class HotStockManagerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private final StripedHotStockStore store = new StripedHotStockStore(4);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final StockLedger stockLedger = mock(StockLedger.class);
+
+    private HotStockManager manager;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        manager = newManager(store);
+        product = Product.builder().id(PRODUCT_ID).sku("SKU-1").quantity(10).hotStock(true).build();
+        when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenReturn(Optional.of(product));
+        when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+        store.enable(PRODUCT_ID, 10);
+        store.adjust(PRODUCT_ID, -3);
+    }
+
+    @Test
+    void flushWritesDrainedDelta() {
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenReturn(1);
+
+        manager.flush();
+
+        verify(productRepository).adjustQuantity(eq(PRODUCT_ID), eq(-3), any(), any(), any());
+        verify(stockLedger).record(PRODUCT_ID, -3, StockLedgerEntry.MovementReason.HOT_STOCK_FLUSH, null);
+        assertThat(store.drainPending(PRODUCT_ID)).isZero();
+    }
+
+    @Test
+    void deltaRestoredWhenUpdateRejected() {
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenReturn(0);
+
+        manager.flush();
+
+        verify(stockLedger, never()).record(anyLong(), anyLong(), any(), any());
+        assertThat(store.drainPending(PRODUCT_ID)).isEqualTo(-3);
+        assertThat(store.available(PRODUCT_ID)).isEqualTo(7);
+    }
+
+    @Test
+    void deltaRestoredWhenTransactionRollsBack() {
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenReturn(1);
+        doThrow(new IllegalStateException("ledger unavailable"))
+                .when(stockLedger).record(anyLong(), anyLong(), any(), any());
+
+        manager.flush();
+
+        assertThat(store.drainPending(PRODUCT_ID)).isEqualTo(-3);
+    }
+
+    @Test
+    void deltaWrittenDirectlyWhenDisabledBeforeRestore() {
+        // 回写失败后、放回前产品已被关闭热点模式：放回失败，变化量在新事务中直接写入数据库
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    store.disable(PRODUCT_ID);
+                    throw new IllegalStateException("connection reset");
+                })
+                .thenReturn(1);
+
+        manager.flush();
+
+        verify(stockLedger).record(PRODUCT_ID, -3, StockLedgerEntry.MovementReason.HOT_STOCK_FLUSH, null);
+    }
+
+    @Test
+    void residualCounterOfUnflaggedProductIsClosedAndWrittenBack() {
+        product.setHotStock(false);
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenReturn(1);
+
+        manager.flush();
+
+        verify(productRepository).adjustQuantity(eq(PRODUCT_ID), eq(-3), any(), any(), any());
+        assertThat(store.hotProductIds()).isEmpty();
+        assertThat(manager.isKnownHot(PRODUCT_ID)).isFalse();
+    }
+
+    @Test
+    void flushRefreshesKnownHotProducts() {
+        assertThat(manager.isKnownHot(PRODUCT_ID)).isFalse();
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenReturn(1);
+
+        manager.flush();
+
+        assertThat(manager.isKnownHot(PRODUCT_ID)).isTrue();
+        manager.disable(PRODUCT_ID);
+        assertThat(manager.isKnownHot(PRODUCT_ID)).isFalse();
+    }
+
+    @Test
+    void flushSkipsWhenStoreUnavailable() {
+        HotStockStore unavailable = mock(HotStockStore.class);
+        when(unavailable.hotProductIds()).thenThrow(new IllegalStateException("Redis unavailable"));
+        HotStockManager unavailableManager = newManager(unavailable);
+
+        unavailableManager.flush();
+
+        assertThat(unavailableManager.isKnownHot(PRODUCT_ID)).isFalse();
+        verify(unavailable, never()).drainPending(anyLong());
+    }
+
+    private HotStockManager newManager(HotStockStore hotStockStore) {
+        return new HotStockManager(hotStockStore, true, productRepository, mock(ProductMapper.class),
+                mock(ProductCache.class), mock(ApplicationEventPublisher.class), stockLedger,
+                new NoOpTransactionManager());
+    }
+}
@@ -0,0 +1,103 @@
+package com.nexcommerce.product.inventory;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Redis计数存储的Lua脚本
+ * 需要可访问的Redis（环境变量 REDIS_HOST / REDIS_PORT，默认 localhost:6379），不可访问时跳过
+ */
+class RedisHotStockStoreTest {
+
+    private static LettuceConnectionFactory connectionFactory;
+
+    private static RedisHotStockStore store;
+
+    private final long productId = ThreadLocalRandom.current().nextLong(1_000_000_000L, Long.MAX_VALUE);
+
+    @BeforeAll
+    static void connect() {
+        String host = System.getenv().getOrDefault("REDIS_HOST", "localhost");
+        int port = Integer.parseInt(System.getenv().getOrDefault("REDIS_PORT", "6379"));
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        boolean available;
+        try {
+            connectionFactory.getConnection().close();
+            available = true;
+        } catch (RuntimeException e) {
+            available = false;
+        }
+        assumeTrue(available, "Redis不可访问: " + host + ":" + port);
+        StringRedisTemplate redisTemplate = new StringRedisTemplate(connectionFactory);
+        store = new RedisHotStockStore(redisTemplate);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        store.disable(productId);
+    }
+
+    @Test
+    void adjustChecksAndTakes() {
+        assertThat(store.enable(productId, 10)).isTrue();
+        assertThat(store.enable(productId, 99)).isFalse();
+
+        assertThat(store.adjust(productId, -8)).isEqualTo(2);
+        assertThat(store.adjust(productId, -3)).isEqualTo(HotStockStore.INSUFFICIENT);
+        assertThat(store.adjust(productId, 5)).isEqualTo(7);
+        assertThat(store.available(productId)).isEqualTo(7);
+        assertThat(store.adjust(productId + 1, -1)).isEqualTo(HotStockStore.NOT_HOT);
+        assertThat(store.available(productId + 1)).isEqualTo(HotStockStore.NOT_HOT);
+    }
+
+    @Test
+    void drainReturnsAcceptedChangesOnly() {
+        store.enable(productId, 10);
+        store.adjust(productId, -4);
+        store.adjust(productId, -20);
+        store.adjust(productId, 1);
+
+        assertThat(store.drainPending(productId)).isEqualTo(-3);
+        assertThat(store.drainPending(productId)).isZero();
+        assertThat(store.available(productId)).isEqualTo(7);
+    }
+
+    @Test
+    void restorePendingOnlyWhileHot() {
+        store.enable(productId, 10);
+        store.adjust(productId, -4);
+        long drained = store.drainPending(productId);
+
+        assertThat(store.restorePending(productId, drained)).isTrue();
+        assertThat(store.disable(productId)).isEqualTo(-4);
+        assertThat(store.restorePending(productId, -4)).isFalse();
+        assertThat(store.disable(productId)).isNull();
+    }
+
+    @Test
+    void disableStopsAdjustmentsAndReturnsPending() {
+        store.enable(productId, 10);
+        store.adjust(productId, -6);
+
+        assertThat(store.hotProductIds()).contains(productId);
+        assertThat(store.disable(productId)).isEqualTo(-6);
+        assertThat(store.adjust(productId, -1)).isEqualTo(HotStockStore.NOT_HOT);
+        assertThat(store.hotProductIds()).doesNotContain(productId);
+    }
+}
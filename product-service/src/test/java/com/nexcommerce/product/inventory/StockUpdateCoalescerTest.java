@@ -0,0 +1,217 @@
+package com.nexcommerce.product.inventory;
+
+import com.nexcommerce.common.exception.ResourceNotFoundException;
+import com.nexcommerce.product.cache.ProductCache;
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.mapper.ProductMapper;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.StockLedgerEntry;
+import com.nexcommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 库存更新合并提交
+ * 产品库存由内存中的计数模拟，条件UPDATE在库存会变为负数时不更新
+ */
+class StockUpdateCoalescerTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductMapper productMapper = mock(ProductMapper.class);
+    private final StockLedger stockLedger = mock(StockLedger.class);
+    private final AtomicInteger quantity = new AtomicInteger();
+    private final List<Integer> updates = new ArrayList<>();
+    private final ExecutorService callers = Executors.newSingleThreadExecutor();
+
+    /**
+     * 设置后，下一次UPDATE在其上等待，用于在提交进行中提交后续调整
+     */
+    private volatile CountDownLatch blockUpdate;
+    private final CountDownLatch updateBlocked = new CountDownLatch(1);
+    private CountDownLatch releaseUpdate;
+
+    private StockUpdateCoalescer coalescer;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new StockUpdateCoalescer(2, productRepository, productMapper, mock(ProductCache.class),
+                mock(HotStockManager.class), stockLedger, mock(ApplicationEventPublisher.class),
+                new NoOpTransactionManager());
+        when(productRepository.adjustQuantity(eq(PRODUCT_ID), anyInt(), any(), any(), any())).thenAnswer(invocation -> {
+            CountDownLatch latch = blockUpdate;
+            if (latch != null) {
+                blockUpdate = null;
+                updateBlocked.countDown();
+                latch.await(10, TimeUnit.SECONDS);
+            }
+            int delta = invocation.getArgument(1);
+            synchronized (updates) {
+                updates.add(delta);
+            }
+            if (quantity.get() + delta < 0) {
+                return 0;
+            }
+            quantity.addAndGet(delta);
+            return 1;
+        });
+        when(productRepository.findById(PRODUCT_ID)).thenAnswer(invocation -> Optional.of(product()));
+        when(productRepository.findByIdForUpdate(PRODUCT_ID)).thenAnswer(invocation -> Optional.of(product()));
+        when(productMapper.toDto(any(Product.class))).thenAnswer(invocation -> {
+            Product product = invocation.getArgument(0);
+            return ProductDto.builder().id(product.getId()).quantity(product.getQuantity()).build();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.shutdown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void adjustmentWithoutCommitInProgressRunsOnCallerThread() {
+        quantity.set(10);
+
+        CompletableFuture<ProductDto> result = adjust(-3);
+
+        assertThat(result).isCompletedWithValueMatching(product -> product.getQuantity() == 7);
+        assertThat(updates).containsExactly(-3);
+    }
+
+    @Test
+    void adjustmentsArrivingDuringCommitAreCommittedAsOneBatch() throws Exception {
+        quantity.set(10);
+        CompletableFuture<ProductDto> first = submitWhileBlocked(-1);
+
+        CompletableFuture<ProductDto> second = adjust(-2);
+        CompletableFuture<ProductDto> third = adjust(-3);
+        assertThat(second).isNotDone();
+        release();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(9);
+        assertThat(second.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(7);
+        assertThat(third.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(4);
+        // 后两个调整以一条UPDATE写入净变化量
+        assertThat(updates).containsExactly(-1, -5);
+    }
+
+    @Test
+    void acceptedDeltaIsCorrectedWhenAnAdjustmentInTheBatchFails() throws Exception {
+        quantity.set(6);
+        CompletableFuture<ProductDto> first = submitWhileBlocked(-1);
+
+        // 净变化 -5 不会使库存为负，但按到达顺序 -4 时库存不足
+        CompletableFuture<ProductDto> second = adjust(-3);
+        CompletableFuture<ProductDto> third = adjust(-4);
+        CompletableFuture<ProductDto> fourth = adjust(2);
+        release();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(5);
+        assertThat(second.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(2);
+        assertThat(fourth.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(4);
+        assertThat(third).failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class).withCauseInstanceOf(IllegalArgumentException.class);
+        // 整批写入 -5 后，以修正UPDATE撤销未接受的 -4
+        assertThat(updates).containsExactly(-1, -5, 4);
+        assertThat(quantity.get()).isEqualTo(4);
+    }
+
+    @Test
+    void batchIsReplayedUnderRowLockWhenNetDeltaIsRejected() throws Exception {
+        quantity.set(6);
+        CompletableFuture<ProductDto> first = submitWhileBlocked(-1);
+
+        // 净变化 -7 被条件UPDATE拒绝，加锁后按到达顺序逐个判断
+        CompletableFuture<ProductDto> second = adjust(-4);
+        CompletableFuture<ProductDto> third = adjust(-4);
+        CompletableFuture<ProductDto> fourth = adjust(1);
+        release();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(5);
+        assertThat(second.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(1);
+        assertThat(fourth.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(2);
+        assertThat(third).failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class).withCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(updates).containsExactly(-1, -7, -3);
+        assertThat(quantity.get()).isEqualTo(2);
+    }
+
+    @Test
+    void missingProductFailsTheAdjustment() {
+        CompletableFuture<ProductDto> result = coalescer.submit(2L, -1, StockLedgerEntry.MovementReason.ADJUSTMENT, null);
+
+        assertThat(result).isCompletedExceptionally();
+        assertThat(result).failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class).withCauseInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void submitAfterShutdownReturnsFailedFuture() {
+        coalescer.shutdown();
+
+        CompletableFuture<ProductDto> result = adjust(-1);
+
+        assertThat(result).failsWithin(0, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class).withCauseInstanceOf(IllegalStateException.class);
+        assertThat(updates).isEmpty();
+    }
+
+    @Test
+    void batchCollectedBeforeShutdownFailsInsteadOfHanging() throws Exception {
+        quantity.set(10);
+        CompletableFuture<ProductDto> first = submitWhileBlocked(-1);
+        CompletableFuture<ProductDto> second = adjust(-2);
+
+        coalescer.shutdown();
+        release();
+
+        assertThat(first.get(10, TimeUnit.SECONDS).getQuantity()).isEqualTo(9);
+        assertThat(second).failsWithin(10, TimeUnit.SECONDS)
+                .withThrowableOfType(Exception.class).withCauseInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * 在另一个线程上提交调整，返回时其UPDATE正在进行中
+     */
+    private CompletableFuture<ProductDto> submitWhileBlocked(int delta) throws InterruptedException {
+        releaseUpdate = new CountDownLatch(1);
+        blockUpdate = releaseUpdate;
+        CompletableFuture<ProductDto> result = CompletableFuture.supplyAsync(() -> adjust(delta), callers)
+                .thenCompose(future -> future);
+        assertThat(updateBlocked.await(10, TimeUnit.SECONDS)).isTrue();
+        return result;
+    }
+
+    private void release() {
+        releaseUpdate.countDown();
+    }
+
+    private CompletableFuture<ProductDto> adjust(int delta) {
+        return coalescer.submit(PRODUCT_ID, delta, StockLedgerEntry.MovementReason.ADJUSTMENT, null);
+    }
+
+    private Product product() {
+        return Product.builder().id(PRODUCT_ID).sku("SKU-1").quantity(quantity.get()).hotStock(false).build();
+    }
+}
@@ -0,0 +1,98 @@
+package com.nexcommerce.product.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 进程内分段计数存储
+ */
+class StripedHotStockStoreTest {
+
+    private final StripedHotStockStore store = new StripedHotStockStore(4);
+
+    @Test
+    void adjustChecksAndTakesAcrossStripes() {
+        assertThat(store.enable(1L, 10)).isTrue();
+        assertThat(store.enable(1L, 99)).isFalse();
+
+        // 单个分段只有2或3件，扣减8件需要合并分段
+        assertThat(store.adjust(1L, -8)).isEqualTo(2);
+        assertThat(store.adjust(1L, -3)).isEqualTo(HotStockStore.INSUFFICIENT);
+        assertThat(store.adjust(1L, 5)).isEqualTo(7);
+        assertThat(store.available(1L)).isEqualTo(7);
+        assertThat(store.adjust(2L, -1)).isEqualTo(HotStockStore.NOT_HOT);
+        assertThat(store.available(2L)).isEqualTo(HotStockStore.NOT_HOT);
+    }
+
+    @Test
+    void drainReturnsAcceptedChangesOnly() {
+        store.enable(1L, 10);
+        store.adjust(1L, -4);
+        store.adjust(1L, -20);
+        store.adjust(1L, 1);
+
+        assertThat(store.drainPending(1L)).isEqualTo(-3);
+        assertThat(store.drainPending(1L)).isZero();
+        assertThat(store.available(1L)).isEqualTo(7);
+    }
+
+    @Test
+    void restorePendingOnlyWhileHot() {
+        store.enable(1L, 10);
+        store.adjust(1L, -4);
+        long drained = store.drainPending(1L);
+
+        assertThat(store.restorePending(1L, drained)).isTrue();
+        assertThat(store.disable(1L)).isEqualTo(-4);
+        assertThat(store.restorePending(1L, -4)).isFalse();
+        assertThat(store.disable(1L)).isNull();
+    }
+
+    @Test
+    void disableStopsAdjustmentsAndReturnsPending() {
+        store.enable(1L, 10);
+        store.adjust(1L, -6);
+
+        assertThat(store.hotProductIds()).containsExactly(1L);
+        assertThat(store.disable(1L)).isEqualTo(-6);
+        assertThat(store.adjust(1L, -1)).isEqualTo(HotStockStore.NOT_HOT);
+        assertThat(store.hotProductIds()).isEmpty();
+    }
+
+    @Test
+    void concurrentTakesNeverOversell() throws Exception {
+        int quantity = 1000;
+        store.enable(1L, quantity);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    int taken = 0;
+                    while (store.adjust(1L, -1) != HotStockStore.INSUFFICIENT) {
+                        taken++;
+                    }
+                    return taken;
+                }));
+            }
+            int taken = 0;
+            for (Future<Integer> future : futures) {
+                taken += future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(taken).isEqualTo(quantity);
+            assertThat(store.available(1L)).isZero();
+            assertThat(store.drainPending(1L)).isEqualTo(-quantity);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
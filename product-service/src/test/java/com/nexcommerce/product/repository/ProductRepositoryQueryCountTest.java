@@ -0,0 +1,127 @@
+package com.nexcommerce.product.repository;
+
+import com.nexcommerce.product.model.Brand;
+import com.nexcommerce.product.model.Category;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.model.ProductAttribute;
+import com.nexcommerce.product.model.ProductImage;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 产品列表和详情读取的SQL语句数
+ * 类别和品牌随主查询JOIN获取，图片和属性按批加载，语句数不随每页产品数增长
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProductRepositoryQueryCountTest {
+
+    private static final int PRODUCT_COUNT = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Statistics statistics;
+
+    private Long categoryId;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("手机");
+        category.setSlug("phones");
+        category.setIsActive(true);
+        categoryId = entityManager.persist(category).getId();
+
+        Brand brand = new Brand();
+        brand.setName("Nex");
+        brand.setSlug("nex");
+        brand.setIsActive(true);
+        entityManager.persist(brand);
+
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            Product product = new Product();
+            product.setName("产品" + i);
+            product.setSku("SKU-" + i);
+            product.setPrice(new BigDecimal("99.00"));
+            product.setQuantity(10);
+            product.setStatus(Product.ProductStatus.ACTIVE);
+            product.setCategory(category);
+            product.setBrand(brand);
+            for (int j = 0; j < 2; j++) {
+                ProductImage image = new ProductImage();
+                image.setImageUrl("/images/" + i + "-" + j + ".jpg");
+                image.setIsPrimary(j == 0);
+                image.setSortOrder(j);
+                product.addImage(image);
+
+                ProductAttribute attribute = new ProductAttribute();
+                attribute.setAttributeName("属性" + j);
+                attribute.setAttributeValue("值" + j);
+                product.addAttribute(attribute);
+            }
+            productId = entityManager.persist(product).getId();
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void pageReadUsesFourStatementsRegardlessOfPageSize(int pageSize) {
+        Page<Product> page = productRepository.findByCategoryId(categoryId, PageRequest.of(0, pageSize));
+
+        assertThat(page.getContent()).hasSize(pageSize);
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCT_COUNT);
+        page.getContent().forEach(this::touchMappedAssociations);
+
+        // 分页查询（JOIN类别和品牌）、计数查询、图片批量查询、属性批量查询
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void detailReadUsesThreeStatements() {
+        Product product = productRepository.findById(productId).orElseThrow();
+
+        touchMappedAssociations(product);
+
+        // 主查询（JOIN类别和品牌）、图片查询、属性查询
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    /**
+     * 访问 ProductMapper 映射时读取的关联
+     */
+    private void touchMappedAssociations(Product product) {
+        assertThat(product.getCategory().getName()).isEqualTo("手机");
+        assertThat(product.getBrand().getName()).isEqualTo("Nex");
+        assertThat(product.getImages()).hasSize(2);
+        assertThat(product.getAttributes()).hasSize(2);
+    }
+}
@@ -0,0 +1,148 @@
+package com.nexcommerce.product.search;
+
+import com.nexcommerce.product.dto.ProductDto;
+import com.nexcommerce.product.dto.SuggestionDto;
+import com.nexcommerce.product.event.ProductChangedEvent;
+import com.nexcommerce.product.model.Product;
+import com.nexcommerce.product.repository.BrandRepository;
+import com.nexcommerce.product.repository.CategoryRepository;
+import com.nexcommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 搜索补全前缀树
+ * 增量插入、删除（含边的拆分与合并）后每个前缀的 top-K 与全量扫描的结果一致
+ */
+class SuggestionIndexTest {
+
+    private final SuggestionIndex index = new SuggestionIndex(mock(ProductRepository.class),
+            mock(CategoryRepository.class), mock(BrandRepository.class), new ProductTokenizer());
+
+    @Test
+    void ranksFeaturedAndShorterNamesFirst() {
+        put(1L, "phone case", false);
+        put(2L, "phone", false);
+        put(3L, "phone charger", true);
+        put(4L, "photo frame", false);
+
+        assertThat(texts(index.suggest("pho", 10))).containsExactly("phone charger", "phone", "phone case", "photo frame");
+        assertThat(texts(index.suggest("phone", 10))).containsExactly("phone charger", "phone", "phone case");
+        assertThat(texts(index.suggest("ca", 10))).containsExactly("phone case");
+        assertThat(texts(index.suggest("Phone  C", 10))).containsExactly("phone charger", "phone case");
+        assertThat(index.suggest("phonex", 10)).isEmpty();
+    }
+
+    @Test
+    void removedAndInactiveProductsAreNotSuggested() {
+        put(1L, "tablet", false);
+        put(2L, "table lamp", false);
+
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, 1L,
+                product(1L, "tablet", false, Product.ProductStatus.INACTIVE)));
+        assertThat(texts(index.suggest("tab", 10))).containsExactly("table lamp");
+
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, 2L,
+                product(2L, "table lamp", false, Product.ProductStatus.ACTIVE)));
+        assertThat(index.suggest("tab", 10)).isEmpty();
+        assertThat(index.suggest("lamp", 10)).isEmpty();
+    }
+
+    @Test
+    void matchesFullScanAfterRandomUpdates() {
+        Random random = new Random(42);
+        Map<Long, ProductDto> live = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            long id = 1 + random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                ProductDto removed = live.remove(id);
+                if (removed != null) {
+                    index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.DELETED, id, removed));
+                }
+            } else {
+                ProductDto product = product(id, randomName(random), random.nextInt(5) == 0, Product.ProductStatus.ACTIVE);
+                live.put(id, product);
+                index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, id, product));
+            }
+            if (step % 250 == 0) {
+                assertMatchesFullScan(live);
+            }
+        }
+        assertMatchesFullScan(live);
+    }
+
+    private void assertMatchesFullScan(Map<Long, ProductDto> live) {
+        for (String prefix : List.of("a", "b", "c", "ab", "ba", "ca", "abc", "bca", "cab", "a b", "ab c", "cc")) {
+            List<ProductDto> expected = live.values().stream()
+                    .filter(product -> keysOf(product.getName()).stream().anyMatch(key -> key.startsWith(prefix)))
+                    .sorted(rankOrder())
+                    .limit(SuggestionIndex.MAX_SUGGESTIONS)
+                    .collect(Collectors.toList());
+            List<SuggestionDto> actual = index.suggest(prefix, SuggestionIndex.MAX_SUGGESTIONS);
+
+            // 权重和长度都相同的条目之间的顺序取决于槽位，只比较排名依据
+            assertThat(actual).extracting(suggestion -> rankKey(live.get(suggestion.getId())))
+                    .as("prefix %s", prefix)
+                    .containsExactlyElementsOf(expected.stream().map(this::rankKey).collect(Collectors.toList()));
+            assertThat(actual).allSatisfy(suggestion ->
+                    assertThat(live.get(suggestion.getId()).getName()).isEqualTo(suggestion.getText()));
+            assertThat(actual).extracting(SuggestionDto::getId).doesNotHaveDuplicates();
+        }
+    }
+
+    private void put(Long id, String name, boolean featured) {
+        index.onProductChanged(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, id,
+                product(id, name, featured, Product.ProductStatus.ACTIVE)));
+    }
+
+    private static ProductDto product(Long id, String name, boolean featured, Product.ProductStatus status) {
+        return ProductDto.builder().id(id).name(name).isFeatured(featured).status(status).build();
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                name.append(' ');
+            }
+            int length = 1 + random.nextInt(5);
+            for (int j = 0; j < length; j++) {
+                name.append((char) ('a' + random.nextInt(3)));
+            }
+        }
+        return name.toString();
+    }
+
+    private static List<String> keysOf(String name) {
+        List<String> keys = new ArrayList<>();
+        keys.add(name);
+        for (int i = name.indexOf(' '); i >= 0; i = name.indexOf(' ', i + 1)) {
+            keys.add(name.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static Comparator<ProductDto> rankOrder() {
+        return Comparator.comparing((ProductDto product) -> !product.getIsFeatured())
+                .thenComparingInt(product -> product.getName().length());
+    }
+
+    private String rankKey(ProductDto product) {
+        return product.getIsFeatured() + "/" + product.getName().length();
+    }
+
+    private static List<String> texts(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::getText).collect(Collectors.toList());
+    }
+}